@@ -0,0 +1,100 @@
+package com.kinnovatio.f1.api;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.kinnovatio.f1.model.TelemetryTier;
+import com.kinnovatio.f1.model.TelemetryWindow;
+import com.kinnovatio.f1.service.CarTelemetryService;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+
+/// Serves the recent car telemetry (speed, rpm, gear, throttle, brake and DRS) from the telemetry buffers.
+@ApplicationScoped
+@Path("live/car-data")
+@Produces(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
+public class CarTelemetryResource {
+    private static final Logger LOG = Logger.getLogger(CarTelemetryResource.class);
+    private static final int defaultWindowSeconds = 60;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    CarTelemetryService carTelemetryService;
+
+    /// Returns the cars with telemetry.
+    @GET
+    public String getCars() {
+        try {
+            ObjectNode root = objectMapper.createObjectNode();
+            carTelemetryService.getCars().forEach(root.putArray("cars")::add);
+            return objectMapper.writeValueAsString(root);
+        } catch (JsonProcessingException e) {
+            LOG.warnf("Error getting the telemetry cars: %s", e.getMessage());
+            throw new jakarta.ws.rs.ProcessingException("Error getting the telemetry cars");
+        }
+    }
+
+    /// Returns a car's recent telemetry as columnar Json: one array per channel.
+    ///
+    /// @param car The racing number of the car.
+    /// @param tier The resolution: `raw`, `1s` or `10s`. Defaults to `raw`.
+    /// @param seconds The length of the window, ending at the newest sample. Defaults to 60 seconds.
+    @GET
+    @Path("{car}")
+    public String getCarTelemetry(@PathParam("car") String car,
+                                  @QueryParam("tier") String tier,
+                                  @QueryParam("seconds") Integer seconds) {
+        return carTelemetryService.toColumnarJson(getWindow(car, tier, seconds));
+    }
+
+    /// Returns a car's recent telemetry as the raw sample bytes of the telemetry buffers.
+    ///
+    /// Each sample is 16 bytes, big-endian:
+    /// `long timestampMillis | short speed | short rpm | byte gear | byte throttle | byte brake | byte drs`.
+    ///
+    /// @param car The racing number of the car.
+    /// @param tier The resolution: `raw`, `1s` or `10s`. Defaults to `raw`.
+    /// @param seconds The length of the window, ending at the newest sample. Defaults to 60 seconds.
+    @GET
+    @Path("{car}/samples")
+    @Produces(MediaType.APPLICATION_OCTET_STREAM)
+    public Response getCarTelemetrySamples(@PathParam("car") String car,
+                                           @QueryParam("tier") String tier,
+                                           @QueryParam("seconds") Integer seconds) {
+        TelemetryWindow window = getWindow(car, tier, seconds);
+        return Response.ok(window.samples())
+                .header("X-Telemetry-Tier", window.tier().getTierName())
+                .header("X-Telemetry-Samples", window.sampleCount())
+                .header("X-Telemetry-Record-Bytes", TelemetryWindow.RECORD_BYTES)
+                .build();
+    }
+
+    private TelemetryWindow getWindow(String car, String tier, Integer seconds) {
+        TelemetryTier telemetryTier = tier == null || tier.isBlank()
+                ? TelemetryTier.RAW
+                : TelemetryTier.fromTierName(tier)
+                        .orElseThrow(() -> new BadRequestException("Unknown telemetry tier: " + tier));
+        int windowSeconds = seconds == null ? defaultWindowSeconds : seconds;
+        if (windowSeconds < 1) {
+            throw new BadRequestException("The window must be a positive number of seconds: " + seconds);
+        }
+        return carTelemetryService.getWindow(car, telemetryTier, Duration.ofSeconds(windowSeconds))
+                .orElseThrow(() -> new NotFoundException("No telemetry for car " + car));
+    }
+}
@@ -0,0 +1,54 @@
+package com.kinnovatio.f1.api;
+
+import com.kinnovatio.f1.model.DashboardField;
+import com.kinnovatio.f1.model.DashboardSnapshot;
+import com.kinnovatio.f1.service.DashboardService;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.jboss.logging.Logger;
+
+import java.util.Set;
+
+/// Aggregated live session state: session info, session status, track status, race control messages,
+/// weather, driver list, timing data, timing app data and timing stats in one response.
+///
+/// Clients can limit the payload with the `fields` query parameter, e.g. `?fields=timingData,driverList`.
+@ApplicationScoped
+@Path("live/dashboard")
+@Produces(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
+public class DashboardResource {
+    private static final Logger LOG = Logger.getLogger(DashboardResource.class);
+
+    @Inject
+    DashboardService dashboardService;
+
+    @GET
+    public StreamingOutput getDashboard(@QueryParam("fields") String fields) {
+        Set<DashboardField> selection;
+        try {
+            selection = DashboardField.parseSelection(fields);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+
+        // Read from storage before streaming starts, so database errors still map to a proper error response
+        DashboardSnapshot snapshot = dashboardService.getDashboardSnapshot(selection);
+        return outputStream -> {
+            try {
+                dashboardService.writeDashboard(snapshot, outputStream);
+            } catch (Exception e) {
+                LOG.warnf("Error writing the dashboard response: %s", e.getMessage());
+                throw new jakarta.ws.rs.ProcessingException("Error getting dashboard");
+            }
+        };
+    }
+}
@@ -28,15 +28,17 @@ public class DriverListResource {
 
     @GET
     public String getDriverList() {
-        return driverListService.getDriverList()
-                .map(root -> {
-                    try {
-                        return objectMapper.writeValueAsString(root);
-                    } catch (JsonProcessingException e) {
-                        LOG.warnf("Error getting driver list: %s", e.getMessage());
-                        throw new jakarta.ws.rs.ProcessingException("Error getting driver list");
-                    }
-                })
+        // Prefer the pre-merged document, and fall back to merging baseline and live state per request
+        return driverListService.getDriverListMerged()
+                .or(() -> driverListService.getDriverList()
+                        .map(root -> {
+                            try {
+                                return objectMapper.writeValueAsString(root);
+                            } catch (JsonProcessingException e) {
+                                LOG.warnf("Error getting driver list: %s", e.getMessage());
+                                throw new jakarta.ws.rs.ProcessingException("Error getting driver list");
+                            }
+                        }))
                 .orElse("{}");
     }
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.kinnovatio.f1.api;
+
+import com.kinnovatio.f1.service.GapTableService;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+
+@ApplicationScoped
+@Path("live/gaps")
+@Produces(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
+public class GapTableResource {
+
+    @Inject
+    GapTableService gapTableService;
+
+    /// Returns the most recent gap table: one array per driver in running order,
+    /// `[driver, completedLaps, gapToLeaderMillis, intervalMillis, point, retired]`.
+    @GET
+    public String getGapTable() {
+        return gapTableService.getGapTable().orElse("{}");
+    }
+}
@@ -0,0 +1,73 @@
+package com.kinnovatio.f1.api;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kinnovatio.f1.model.HistoryQuery;
+import com.kinnovatio.f1.service.LapsService;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import org.jboss.logging.Logger;
+
+@ApplicationScoped
+@Path("live/laps")
+@Produces(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
+public class LapsResource {
+    private static final Logger LOG = Logger.getLogger(LapsResource.class);
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    LapsService lapsService;
+
+    /// Returns the completed laps of a session in id order.
+    ///
+    /// @param since Only return laps after this cursor: a lap id (typically the previous `lastId`)
+    ///              or an ISO-8601 timestamp.
+    /// @param limit The maximum number of laps to return.
+    /// @param sessionId The session to read. Defaults to the most recent session.
+    /// @param driver Only return the laps of this driver (racing number).
+    @GET
+    public String getLaps(@QueryParam("since") String since,
+                          @QueryParam("limit") Integer limit,
+                          @QueryParam("sessionId") Integer sessionId,
+                          @QueryParam("driver") String driver) {
+        try {
+            return objectMapper.writeValueAsString(
+                    lapsService.getLaps(toHistoryQuery(since, limit, sessionId), driver));
+        } catch (JsonProcessingException e) {
+            LOG.warnf("Error getting laps: %s", e.getMessage());
+            throw new jakarta.ws.rs.ProcessingException("Error getting laps");
+        }
+    }
+
+    /// Returns the latest lap and lap statistics of each driver.
+    ///
+    /// @param sessionId The session to read. Defaults to the most recent session.
+    @GET
+    @Path("summary")
+    public String getLapSummary(@QueryParam("sessionId") Integer sessionId) {
+        try {
+            return objectMapper.writeValueAsString(lapsService.getLapSummary(sessionId));
+        } catch (JsonProcessingException e) {
+            LOG.warnf("Error getting the lap summary: %s", e.getMessage());
+            throw new jakarta.ws.rs.ProcessingException("Error getting the lap summary");
+        }
+    }
+
+    private HistoryQuery toHistoryQuery(String since, Integer limit, Integer sessionId) {
+        try {
+            return HistoryQuery.of(since, limit, sessionId);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+    }
+}
@@ -1,38 +1,28 @@
 package com.kinnovatio.f1.api;
 
+import com.kinnovatio.f1.service.SseBroadcastHub;
 import io.quarkus.runtime.StartupEvent;
-import io.smallrye.common.annotation.RunOnVirtualThread;
-import io.smallrye.mutiny.Multi;
-import jakarta.ws.rs.GET;
-import jakarta.ws.rs.Path;
-import jakarta.ws.rs.Produces;
-import jakarta.ws.rs.core.MediaType;
-import jakarta.ws.rs.sse.OutboundSseEvent;
-import jakarta.ws.rs.sse.Sse;
+import io.vertx.ext.web.Router;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
-import org.eclipse.microprofile.reactive.messaging.*;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.event.Observes;
 import jakarta.inject.Inject;
 
 import org.jboss.logging.Logger;
-import org.jboss.resteasy.reactive.ResponseHeader;
-import org.jboss.resteasy.reactive.NoCache;
-
-import java.time.Duration;
 
+/// Server-Sent Events (SSE) endpoint for the live timing stream.
+///
+/// The endpoint is registered as a plain Vert.x route so that every subscriber is served the same
+/// pre-encoded frames from the shared [SseBroadcastHub], instead of each request building its own
+/// stream pipeline and encoding its own copy of every event.
 @ApplicationScoped
-@Path("/live/livetiming")
 public class LiveTiming {
     private static final Logger LOG = Logger.getLogger(LiveTiming.class);
+    private static final String liveTimingPath = "/live/livetiming";
 
     @Inject
-    @Channel("f1-live-processed")
-    Multi<String> LiveTimingMessage;
-
-    @Inject
-    Sse sse;
+    SseBroadcastHub broadcastHub;
 
     @ConfigProperty(name = "app.log.source")
     String logSource;
@@ -49,32 +39,15 @@ public class LiveTiming {
         LOG.infof("The api is ready. Waiting for live timing messages...");
     }
 
-    /// Streams status updates to clients using Server-Sent Events (SSE).
-    /// This method merges the `statusMessages` stream with a periodic ping stream.
-    /// Each message is wrapped in an `OutboundSseEvent` with the name "status".
+    /// Registers the live timing SSE route.
     ///
-    /// @return A `Multi` stream of `OutboundSseEvent` objects.
-    @GET
-    @Produces(MediaType.SERVER_SENT_EVENTS)
-    @NoCache
-    @ResponseHeader(name = "X-Accel-Buffering", value = "no")
-    @RunOnVirtualThread
-    public Multi<OutboundSseEvent> getLiveTimingStream() {
-        return Multi.createBy().merging()
-                .streams(LiveTimingMessage, emitAPeriodicPing())
-                .map(message -> sse.newEventBuilder()
-                        .data(message)
-                        .build());
-    }
-
-    /// Creates a stream that emits a periodic ping message.
-    /// The ping message is an empty JSON object `{}` emitted every 10 seconds.
-    /// This helps to keep the SSE connection alive and detect disconnected clients.
+    /// Each `GET` request is handed over to the broadcast hub, which keeps the connection open and
+    /// writes the shared live timing frames and heartbeat pings to it.
     ///
-    /// @return A `Multi` stream emitting a ping string every 10 seconds.
-    Multi<String> emitAPeriodicPing() {
-        return Multi.createFrom().ticks().every(Duration.ofSeconds(10))
-                .onItem().transform(x -> "{}");
+    /// @param router The Vert.x router of the HTTP server.
+    public void registerRoutes(@Observes Router router) {
+        router.get(liveTimingPath)
+                .handler(routingContext -> broadcastHub.subscribe(routingContext.response()));
+        LOG.infof("Registered the live timing SSE stream at %s", liveTimingPath);
     }
-
 }
@@ -0,0 +1,87 @@
+package com.kinnovatio.f1.api;
+
+import com.kinnovatio.f1.service.MessageExportService;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/// Export of historical raw live timing messages for a time range, as newline-delimited Json.
+///
+/// Example: `GET /history/messages?from=2026-06-28T11:50:00Z&to=2026-06-28T15:10:00Z&categories=TrackStatus`.
+/// Add `compress=true` to receive a gzip-compressed stream.
+@ApplicationScoped
+@Path("history/messages")
+@RunOnVirtualThread
+public class MessageExportResource {
+    private static final Logger LOG = Logger.getLogger(MessageExportResource.class);
+    private static final String ndjsonMediaType = "application/x-ndjson";
+
+    @Inject
+    MessageExportService messageExportService;
+
+    @ConfigProperty(name = "app.export.max-range", defaultValue = "24h")
+    Duration maxRange;
+
+    @GET
+    public Response exportMessages(@QueryParam("from") String from,
+                                   @QueryParam("to") String to,
+                                   @QueryParam("categories") String categories,
+                                   @QueryParam("compress") boolean compress) {
+        Instant fromInstant = parseInstant("from", from);
+        Instant toInstant = parseInstant("to", to);
+        if (!toInstant.isAfter(fromInstant)) {
+            throw new BadRequestException("The to parameter must be after the from parameter.");
+        }
+        if (Duration.between(fromInstant, toInstant).compareTo(maxRange) > 0) {
+            throw new BadRequestException("The time range cannot exceed " + maxRange);
+        }
+        Set<String> categorySet = categories == null ? Set.of() : Arrays.stream(categories.split(","))
+                .map(String::strip)
+                .filter(category -> !category.isEmpty())
+                .collect(Collectors.toSet());
+
+        return messageExportService.tryStartExport(fromInstant, toInstant, categorySet, compress)
+                .map(export -> {
+                    StreamingOutput output = export::writeTo;
+                    Response.ResponseBuilder builder = Response.ok(output);
+                    if (compress) {
+                        builder.type("application/gzip")
+                                .header("Content-Disposition", "attachment; filename=\"messages.ndjson.gz\"");
+                    } else {
+                        builder.type(ndjsonMediaType);
+                    }
+                    return builder.build();
+                })
+                .orElseGet(() -> Response.status(Response.Status.TOO_MANY_REQUESTS)
+                        .header("Retry-After", 60)
+                        .entity("Too many concurrent exports. Please retry later.")
+                        .build());
+    }
+
+    private Instant parseInstant(String name, String value) {
+        if (value == null || value.isBlank()) {
+            throw new BadRequestException("The " + name + " parameter is required.");
+        }
+        try {
+            return Instant.parse(value.strip());
+        } catch (DateTimeParseException e) {
+            LOG.debugf("Invalid %s parameter: %s", name, value);
+            throw new BadRequestException("The " + name + " parameter must be an ISO-8601 timestamp.");
+        }
+    }
+}
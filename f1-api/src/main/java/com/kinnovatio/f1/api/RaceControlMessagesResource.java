@@ -2,13 +2,16 @@ package com.kinnovatio.f1.api;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kinnovatio.f1.model.HistoryQuery;
 import com.kinnovatio.f1.service.RaceControlMessageService;
 import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.MediaType;
 import org.jboss.logging.Logger;
 
@@ -25,13 +28,30 @@ public class RaceControlMessagesResource {
     @Inject
     RaceControlMessageService raceControlMessageService;
 
+    /// Returns race control messages of a session in id order.
+    ///
+    /// @param since Only return messages after this cursor: a message id (typically the previous `lastId`)
+    ///              or an ISO-8601 timestamp.
+    /// @param limit The maximum number of messages to return.
+    /// @param sessionId The session to read. Defaults to the most recent session.
     @GET
-    public String getRaceControlMessages() {
+    public String getRaceControlMessages(@QueryParam("since") String since,
+                                         @QueryParam("limit") Integer limit,
+                                         @QueryParam("sessionId") Integer sessionId) {
         try {
-            return objectMapper.writeValueAsString(raceControlMessageService.getRaceControlMessages());
+            return objectMapper.writeValueAsString(
+                    raceControlMessageService.getRaceControlMessages(toHistoryQuery(since, limit, sessionId)));
         } catch (JsonProcessingException e) {
             LOG.warnf("Error getting race control messages: %s", e.getMessage());
             throw new jakarta.ws.rs.ProcessingException("Error getting race control messages");
         }
     }
+
+    private HistoryQuery toHistoryQuery(String since, Integer limit, Integer sessionId) {
+        try {
+            return HistoryQuery.of(since, limit, sessionId);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+    }
 }
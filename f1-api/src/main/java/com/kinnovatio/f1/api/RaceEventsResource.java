@@ -0,0 +1,76 @@
+package com.kinnovatio.f1.api;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kinnovatio.f1.model.HistoryQuery;
+import com.kinnovatio.f1.service.RaceEventsService;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import org.jboss.logging.Logger;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+@ApplicationScoped
+@Path("live/events")
+@Produces(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
+public class RaceEventsResource {
+    private static final Logger LOG = Logger.getLogger(RaceEventsResource.class);
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    RaceEventsService raceEventsService;
+
+    /// Returns the race events of a session in id order: what changed since the client's last poll.
+    ///
+    /// @param since Only return events after this cursor: an event id (typically the previous `lastId`)
+    ///              or an ISO-8601 timestamp.
+    /// @param limit The maximum number of events to return.
+    /// @param sessionId The session to read. Defaults to the most recent session.
+    /// @param type Only return these event types, comma separated (e.g. `PIT_ENTRY,PIT_EXIT`).
+    /// @param driver Only return the events of this driver (racing number).
+    @GET
+    public String getEvents(@QueryParam("since") String since,
+                            @QueryParam("limit") Integer limit,
+                            @QueryParam("sessionId") Integer sessionId,
+                            @QueryParam("type") String type,
+                            @QueryParam("driver") String driver) {
+        try {
+            return objectMapper.writeValueAsString(
+                    raceEventsService.getEvents(toHistoryQuery(since, limit, sessionId), toTypes(type), driver));
+        } catch (JsonProcessingException e) {
+            LOG.warnf("Error getting race events: %s", e.getMessage());
+            throw new jakarta.ws.rs.ProcessingException("Error getting race events");
+        }
+    }
+
+    private HistoryQuery toHistoryQuery(String since, Integer limit, Integer sessionId) {
+        try {
+            return HistoryQuery.of(since, limit, sessionId);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+    }
+
+    private static List<String> toTypes(String type) {
+        if (type == null || type.isBlank()) {
+            return null;
+        }
+        return Arrays.stream(type.split(","))
+                .map(String::strip)
+                .filter(value -> !value.isEmpty())
+                .map(value -> value.toUpperCase(Locale.ROOT))
+                .toList();
+    }
+}
@@ -0,0 +1,69 @@
+package com.kinnovatio.f1.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kinnovatio.f1.service.SessionArchiveService;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/// The final state and history of finished sessions, from the session archive.
+///
+/// Example: `GET /history/sessions/9523?categories=TimingData,Laps`.
+@ApplicationScoped
+@Path("history/sessions")
+@Produces(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
+public class SessionArchiveResource {
+    private static final Logger LOG = Logger.getLogger(SessionArchiveResource.class);
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    SessionArchiveService sessionArchiveService;
+
+    /// Returns the ids of the archived sessions, latest archive first.
+    @GET
+    public String getSessions() {
+        try {
+            return objectMapper.writeValueAsString(sessionArchiveService.getSessionIds());
+        } catch (IOException e) {
+            LOG.warnf("Error getting the archived sessions: %s", e.getMessage());
+            throw new jakarta.ws.rs.ProcessingException("Error getting the archived sessions");
+        }
+    }
+
+    /// Returns the archived final state of a session.
+    ///
+    /// @param sessionId The session id.
+    /// @param categories The categories to include, comma separated. Defaults to all categories.
+    @GET
+    @Path("{sessionId}")
+    public String getSession(@PathParam("sessionId") int sessionId,
+                             @QueryParam("categories") String categories) {
+        Set<String> categorySet = categories == null ? Set.of() : Arrays.stream(categories.split(","))
+                .map(String::strip)
+                .filter(category -> !category.isEmpty())
+                .collect(Collectors.toSet());
+        try {
+            return objectMapper.writeValueAsString(sessionArchiveService.getSession(sessionId, categorySet)
+                    .orElseThrow(() -> new NotFoundException("No archive for session " + sessionId)));
+        } catch (IOException e) {
+            LOG.warnf("Error reading archived session %d: %s", sessionId, e.getMessage());
+            throw new jakarta.ws.rs.ProcessingException("Error reading the archived session");
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.kinnovatio.f1.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kinnovatio.f1.service.SessionStateService;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/// Rewind of a recorded session: the merged live timing state at any point in time.
+///
+/// Example: `GET /history/state?at=2026-06-28T12:43:10Z&categories=TimingData,TrackStatus`.
+/// Add `sessionId` to pick the session when several sessions were recorded over the same time.
+@ApplicationScoped
+@Path("history/state")
+@Produces(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
+public class SessionStateResource {
+    private static final Logger LOG = Logger.getLogger(SessionStateResource.class);
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    SessionStateService sessionStateService;
+
+    /// Returns the merged state at a point in time.
+    ///
+    /// @param at The point in time, as an ISO-8601 timestamp.
+    /// @param categories The categories to include, comma separated. Defaults to all categories.
+    /// @param sessionId The session. Defaults to the session of the latest checkpoint at or before `at`.
+    @GET
+    public String getStateAt(@QueryParam("at") String at,
+                             @QueryParam("categories") String categories,
+                             @QueryParam("sessionId") Integer sessionId) {
+        Instant atInstant = parseInstant(at);
+        Set<String> categorySet = categories == null ? Set.of() : Arrays.stream(categories.split(","))
+                .map(String::strip)
+                .filter(category -> !category.isEmpty())
+                .collect(Collectors.toSet());
+        try {
+            return objectMapper.writeValueAsString(sessionStateService.getStateAt(sessionId, atInstant, categorySet));
+        } catch (SQLException | IOException e) {
+            LOG.warnf("Error rebuilding the state at %s: %s", at, e.getMessage());
+            throw new jakarta.ws.rs.ProcessingException("Error rebuilding the state");
+        }
+    }
+
+    private Instant parseInstant(String value) {
+        if (value == null || value.isBlank()) {
+            throw new BadRequestException("The at parameter is required.");
+        }
+        try {
+            return Instant.parse(value.strip());
+        } catch (DateTimeParseException e) {
+            LOG.debugf("Invalid at parameter: %s", value);
+            throw new BadRequestException("The at parameter must be an ISO-8601 timestamp.");
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.kinnovatio.f1.api;
+
+import com.kinnovatio.f1.service.StintsService;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+
+@ApplicationScoped
+@Path("live/stints")
+@Produces(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
+public class StintsResource {
+
+    @Inject
+    StintsService stintsService;
+
+    /// Returns the tyre stints per driver: compound, new or used, tyre age, the lap times driven on the stint
+    /// and the degradation estimate (`degradationMillisPerLap`, the least-squares slope of lap time over
+    /// tyre age).
+    @GET
+    public String getStints() {
+        return stintsService.getStints().orElse("{}");
+    }
+}
@@ -27,15 +27,17 @@ public class TimingAppDataResource {
 
     @GET
     public String getTimingAppData() {
-        return timingAppDataService.getTimingAppData()
-                .map(root -> {
-                    try {
-                        return objectMapper.writeValueAsString(root);
-                    } catch (JsonProcessingException e) {
-                        LOG.warnf("Error getting timing app data: %s", e.getMessage());
-                        throw new jakarta.ws.rs.ProcessingException("Error getting timing app data");
-                    }
-                })
+        // Prefer the pre-merged document, and fall back to merging baseline and live state per request
+        return timingAppDataService.getTimingAppDataMerged()
+                .or(() -> timingAppDataService.getTimingAppData()
+                        .map(root -> {
+                            try {
+                                return objectMapper.writeValueAsString(root);
+                            } catch (JsonProcessingException e) {
+                                LOG.warnf("Error getting timing app data: %s", e.getMessage());
+                                throw new jakarta.ws.rs.ProcessingException("Error getting timing app data");
+                            }
+                        }))
                 .orElse("{}");
     }
 
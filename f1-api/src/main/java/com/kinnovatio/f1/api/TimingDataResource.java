@@ -28,16 +28,25 @@ public class TimingDataResource {
 
     @GET
     public String getTimingData() {
-        return timingDataService.getTimingData()
-                .map(root -> {
-                    try {
-                        return objectMapper.writeValueAsString(root);
-                    } catch (JsonProcessingException e) {
-                        LOG.warnf("Error getting timing data: %s", e.getMessage());
-                        throw new jakarta.ws.rs.ProcessingException("Error getting timing data");
-                    }
-                })
+        // Prefer the pre-merged document, and fall back to merging baseline and live state per request
+        return timingDataService.getTimingDataMerged()
+                .or(() -> timingDataService.getTimingData()
+                        .map(root -> {
+                            try {
+                                return objectMapper.writeValueAsString(root);
+                            } catch (JsonProcessingException e) {
+                                LOG.warnf("Error getting timing data: %s", e.getMessage());
+                                throw new jakarta.ws.rs.ProcessingException("Error getting timing data");
+                            }
+                        }))
                 .orElse("{}");
     }
 
+    /// Returns the mini-sector (segment) status of all drivers, in the compact encoding of the `segments` event.
+    @GET
+    @Path("segments")
+    public String getSegments() {
+        return timingDataService.getTimingDataSegments()
+                .orElseThrow(() -> new NotFoundException("No segment status available"));
+    }
 }
@@ -27,15 +27,17 @@ public class TimingStatsResource {
 
     @GET
     public String getTimingStats() {
-        return timingStatsService.getTimingStats()
-                .map(root -> {
-                    try {
-                        return objectMapper.writeValueAsString(root);
-                    } catch (JsonProcessingException e) {
-                        LOG.warnf("Error getting timing stats: %s", e.getMessage());
-                        throw new jakarta.ws.rs.ProcessingException("Error getting timing stats");
-                    }
-                })
+        // Prefer the pre-merged document, and fall back to merging baseline and live state per request
+        return timingStatsService.getTimingStatsMerged()
+                .or(() -> timingStatsService.getTimingStats()
+                        .map(root -> {
+                            try {
+                                return objectMapper.writeValueAsString(root);
+                            } catch (JsonProcessingException e) {
+                                LOG.warnf("Error getting timing stats: %s", e.getMessage());
+                                throw new jakarta.ws.rs.ProcessingException("Error getting timing stats");
+                            }
+                        }))
                 .orElse("{}");
     }
 
@@ -0,0 +1,73 @@
+package com.kinnovatio.f1.api;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kinnovatio.f1.service.TrackMapService;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import org.jboss.logging.Logger;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+
+/// Serves the live track map: the positions of all cars as a compact binary frame, and single-car positions.
+///
+/// The same frames are broadcast on the live timing SSE stream as base64-encoded `trackMap` events.
+@ApplicationScoped
+@Path("live/track-map")
+@RunOnVirtualThread
+public class TrackMapResource {
+    private static final Logger LOG = Logger.getLogger(TrackMapResource.class);
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    TrackMapService trackMapService;
+
+    /// Returns the current track-map frame.
+    ///
+    /// Layout (big-endian): `long timestampMillis | short carCount |
+    /// (byte car | byte status | int x | int y | int z) * carCount`. The status is `0` unknown,
+    /// `1` on track and `2` off track.
+    @GET
+    @Produces(MediaType.APPLICATION_OCTET_STREAM)
+    public byte[] getTrackMapFrame() {
+        return trackMapService.getCurrentFrame();
+    }
+
+    /// Returns the position of a car.
+    ///
+    /// @param car The racing number of the car.
+    /// @param at An ISO-8601 timestamp. The position is interpolated from the car's recent positions.
+    ///           Defaults to the latest position.
+    @GET
+    @Path("cars/{car}")
+    @Produces(MediaType.APPLICATION_JSON)
+    public String getCarPosition(@PathParam("car") String car, @QueryParam("at") String at) {
+        Instant atInstant = null;
+        if (at != null && !at.isBlank()) {
+            try {
+                atInstant = Instant.parse(at.strip());
+            } catch (DateTimeParseException e) {
+                throw new BadRequestException("The at parameter must be an ISO-8601 timestamp: " + at);
+            }
+        }
+        try {
+            return objectMapper.writeValueAsString(trackMapService.getPosition(car, atInstant)
+                    .orElseThrow(() -> new NotFoundException("No position for car " + car)));
+        } catch (JsonProcessingException e) {
+            LOG.warnf("Error getting the car position: %s", e.getMessage());
+            throw new jakarta.ws.rs.ProcessingException("Error getting the car position");
+        }
+    }
+}
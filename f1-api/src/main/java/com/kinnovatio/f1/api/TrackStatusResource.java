@@ -2,14 +2,16 @@ package com.kinnovatio.f1.api;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.kinnovatio.f1.service.RaceControlMessageService;
+import com.kinnovatio.f1.model.HistoryQuery;
 import com.kinnovatio.f1.service.TrackStatusService;
 import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.MediaType;
 import org.jboss.logging.Logger;
 
@@ -36,11 +38,25 @@ public class TrackStatusResource {
         }
     }
 
+    /// Returns the track status history of a session in id order.
+    ///
+    /// @param since Only return changes after this cursor: a row id or an ISO-8601 timestamp.
+    /// @param limit The maximum number of rows to return.
+    /// @param sessionId The session to read. Defaults to the most recent session.
     @GET
     @Path("history")
-    public String getTrackStatusHistory() {
+    public String getTrackStatusHistory(@QueryParam("since") String since,
+                                        @QueryParam("limit") Integer limit,
+                                        @QueryParam("sessionId") Integer sessionId) {
+        HistoryQuery query;
         try {
-            return objectMapper.writeValueAsString(trackStatusService.getTrackStatusHistory());
+            query = HistoryQuery.of(since, limit, sessionId);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+
+        try {
+            return objectMapper.writeValueAsString(trackStatusService.getTrackStatusHistory(query));
         } catch (JsonProcessingException e) {
             LOG.warnf("Error getting track status messages: %s", e.getMessage());
             throw new jakarta.ws.rs.ProcessingException("Error getting track status messages.");
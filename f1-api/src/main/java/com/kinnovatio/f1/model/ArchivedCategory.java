@@ -0,0 +1,14 @@
+package com.kinnovatio.f1.model;
+
+import java.time.Instant;
+
+/// The archived final state or history of one category of a finished session, written by the live processor.
+///
+/// @param category The archive category, e.g. `TimingData` or `Laps`.
+/// @param rowCount The number of live table rows archived.
+/// @param messageTimestamp The timestamp of the last archived message.
+/// @param archivedTimestamp The time of the (last) archive run.
+/// @param document The archived rows: a gzip-compressed Json document.
+public record ArchivedCategory(String category, int rowCount, Instant messageTimestamp, Instant archivedTimestamp,
+                               byte[] document) {
+}
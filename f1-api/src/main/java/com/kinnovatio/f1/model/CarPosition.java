@@ -0,0 +1,16 @@
+package com.kinnovatio.f1.model;
+
+import java.time.Instant;
+
+/// The position of a car on the track map, in the coordinate system of the live timing feed.
+///
+/// @param car The racing number of the car.
+/// @param timestamp The time of the position.
+/// @param x The x coordinate.
+/// @param y The y coordinate.
+/// @param z The z coordinate (elevation).
+/// @param status The track status of the car: `OnTrack`, `OffTrack` or `Unknown`.
+/// @param interpolated `true` if the position is interpolated between two recorded positions.
+public record CarPosition(String car, Instant timestamp, int x, int y, int z, String status,
+                          boolean interpolated) {
+}
@@ -0,0 +1,89 @@
+package com.kinnovatio.f1.model;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+
+/// The live session state categories that can be selected in the aggregated dashboard response.
+///
+/// Each category maps to a top-level property in the dashboard payload. Keyed categories also carry the
+/// row keys they are stored under in their live table.
+public enum DashboardField {
+    SESSION_INFO("sessionInfo", "sessionInfo", null, null),
+    SESSION_STATUS("sessionStatus", "sessionState", null, null),
+    TRACK_STATUS("trackStatus", null, null, null),
+    RACE_CONTROL_MESSAGES("raceControlMessages", null, null, null),
+    WEATHER_DATA("weatherData", "weatherData", null, null),
+    DRIVER_LIST("driverList", "driverListLive", "driverListBaseline", "driverListMerged"),
+    TIMING_DATA("timingData", "timingDataLive", "timingDataBaseline", "timingDataMerged"),
+    TIMING_APP_DATA("timingAppData", "timingAppDataLive", "timingAppDataBaseline",
+            "timingAppDataMerged"),
+    TIMING_STATS("timingStats", "timingStatsLive", "timingStatsBaseline", "timingStatsMerged");
+
+    private final String fieldName;
+    private final String liveKey;
+    private final String baselineKey;
+    private final String mergedKey;
+
+    DashboardField(String fieldName, String liveKey, String baselineKey, String mergedKey) {
+        this.fieldName = fieldName;
+        this.liveKey = liveKey;
+        this.baselineKey = baselineKey;
+        this.mergedKey = mergedKey;
+    }
+
+    /// The property name used for this category in the dashboard payload and the `fields` query parameter.
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    /// The key of the live row in a keyed table, or `null` for multi-message tables.
+    public String getLiveKey() {
+        return liveKey;
+    }
+
+    /// The key of the baseline row in a keyed table, or `null` if the category has no baseline.
+    public String getBaselineKey() {
+        return baselineKey;
+    }
+
+    /// The key of the pre-merged (baseline + live) row written by the processor, or `null` if the category
+    /// has no merged document.
+    public String getMergedKey() {
+        return mergedKey;
+    }
+
+    /// Looks up a category by its payload property name (case-insensitive).
+    ///
+    /// @param fieldName The property name, e.g. `timingData`.
+    /// @return The matching category, or empty if the name is unknown.
+    public static Optional<DashboardField> fromFieldName(String fieldName) {
+        return Arrays.stream(values())
+                .filter(field -> field.fieldName.equalsIgnoreCase(fieldName.strip()))
+                .findFirst();
+    }
+
+    /// Parses a comma-separated field selection.
+    ///
+    /// A `null` or blank selection selects all categories.
+    ///
+    /// @param fields The comma-separated list of property names.
+    /// @return The selected categories, in payload order.
+    /// @throws IllegalArgumentException if the selection contains an unknown field name.
+    public static Set<DashboardField> parseSelection(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return EnumSet.allOf(DashboardField.class);
+        }
+
+        Set<DashboardField> selection = EnumSet.noneOf(DashboardField.class);
+        for (String fieldName : fields.split(",")) {
+            if (fieldName.isBlank()) {
+                continue;
+            }
+            selection.add(fromFieldName(fieldName)
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown dashboard field: " + fieldName.strip())));
+        }
+        return selection;
+    }
+}
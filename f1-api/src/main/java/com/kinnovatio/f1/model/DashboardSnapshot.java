@@ -0,0 +1,30 @@
+package com.kinnovatio.f1.model;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/// The raw rows backing an aggregated dashboard response, read from storage in a single round-trip.
+///
+/// Multi-message categories hold their rows in id order. Keyed categories hold their live and baseline rows.
+///
+/// @param fields The selected dashboard categories.
+/// @param rows The stored rows per category.
+public record DashboardSnapshot(Set<DashboardField> fields, Map<DashboardField, List<SessionKeyedMessage>> rows) {
+
+    /// Returns all rows of a category.
+    public List<SessionKeyedMessage> getRows(DashboardField field) {
+        return rows.getOrDefault(field, List.of());
+    }
+
+    /// Returns the row of a category that is stored under the given key.
+    public Optional<SessionKeyedMessage> getRow(DashboardField field, String key) {
+        if (key == null) {
+            return Optional.empty();
+        }
+        return getRows(field).stream()
+                .filter(row -> key.equals(row.key()))
+                .findFirst();
+    }
+}
@@ -0,0 +1,51 @@
+package com.kinnovatio.f1.model;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+
+/// Keyset pagination parameters for reading a history (multi-message) table.
+///
+/// Rows are returned in id order, starting after the `since` cursor. The cursor is either the id of the
+/// last row the client has seen, or a timestamp. Clients poll incrementally by passing the `lastId` of the
+/// previous response as the next `since`.
+///
+/// @param sessionId The session to read, or `null` for the most recent session in the table.
+/// @param sinceId Only return rows with an id greater than this value.
+/// @param sinceTimestamp Only return rows with a message timestamp after this instant, or `null` for no time filter.
+/// @param limit The maximum number of rows to return.
+public record HistoryQuery(Integer sessionId, long sinceId, Instant sinceTimestamp, int limit) {
+    public static final int DEFAULT_LIMIT = 1000;
+    public static final int MAX_LIMIT = 1000;
+
+    /// Builds a query from request parameters.
+    ///
+    /// @param since The cursor: a row id or an ISO-8601 timestamp. `null` or blank starts from the beginning.
+    /// @param limit The requested page size. `null` uses the default. Capped at [#MAX_LIMIT].
+    /// @param sessionId The session id, or `null` for the most recent session.
+    /// @return The history query.
+    /// @throws IllegalArgumentException if `since` is neither a number nor a timestamp, or `limit` is not positive.
+    public static HistoryQuery of(String since, Integer limit, Integer sessionId) {
+        int pageSize = limit == null ? DEFAULT_LIMIT : limit;
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("The limit must be a positive number: " + limit);
+        }
+        pageSize = Math.min(pageSize, MAX_LIMIT);
+
+        if (since == null || since.isBlank()) {
+            return new HistoryQuery(sessionId, 0, null, pageSize);
+        }
+        if (since.strip().chars().allMatch(Character::isDigit)) {
+            return new HistoryQuery(sessionId, Long.parseLong(since.strip()), null, pageSize);
+        }
+        try {
+            return new HistoryQuery(sessionId, 0, Instant.parse(since.strip()), pageSize);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("The since parameter must be a row id or an ISO-8601 timestamp: " + since);
+        }
+    }
+
+    /// A query returning the first page of the most recent session.
+    public static HistoryQuery firstPage() {
+        return new HistoryQuery(null, 0, null, DEFAULT_LIMIT);
+    }
+}
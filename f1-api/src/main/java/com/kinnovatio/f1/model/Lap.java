@@ -0,0 +1,43 @@
+package com.kinnovatio.f1.model;
+
+import java.time.Instant;
+
+/// A completed lap of a driver, as detected by the live processor.
+///
+/// Times are in milliseconds. Unknown values are `-1`.
+///
+/// @param id The row id, used as the pagination cursor.
+/// @param sessionId The session of the lap.
+/// @param driver The racing number of the driver.
+/// @param lapNumber The number of the completed lap.
+/// @param lapTimeMillis The lap time.
+/// @param sector1Millis The first sector time.
+/// @param sector2Millis The second sector time.
+/// @param sector3Millis The third sector time.
+/// @param position The position of the driver at the end of the lap.
+/// @param pitIn `true` if the driver entered the pit lane during the lap.
+/// @param pitOut `true` if the lap started from the pit lane.
+/// @param personalBest `true` if the lap was the driver's fastest at the time.
+/// @param bestLapTimeMillis The driver's fastest lap at the end of this lap.
+/// @param meanLapTimeMillis The driver's mean lap time at the end of this lap.
+/// @param rollingLapTimeMillis The driver's mean lap time over the last few timed laps.
+/// @param timedLapCount The number of timed laps of the driver at the end of this lap.
+/// @param messageTimestamp The timestamp of the timing message completing the lap.
+public record Lap(int id,
+                  int sessionId,
+                  String driver,
+                  int lapNumber,
+                  int lapTimeMillis,
+                  int sector1Millis,
+                  int sector2Millis,
+                  int sector3Millis,
+                  int position,
+                  boolean pitIn,
+                  boolean pitOut,
+                  boolean personalBest,
+                  int bestLapTimeMillis,
+                  int meanLapTimeMillis,
+                  int rollingLapTimeMillis,
+                  int timedLapCount,
+                  Instant messageTimestamp) {
+}
@@ -0,0 +1,28 @@
+package com.kinnovatio.f1.model;
+
+import java.time.Instant;
+
+/// A race event derived by the live processor, such as a position change, a pit stop or a fastest lap.
+///
+/// Event types: `POSITION_CHANGE`, `PIT_ENTRY`, `PIT_EXIT`, `TYRE_CHANGE`, `PERSONAL_BEST_LAP`,
+/// `OVERALL_BEST_LAP`, `PERSONAL_BEST_SECTOR`, `OVERALL_BEST_SECTOR`, `TRACK_STATUS` and `RETIREMENT`.
+///
+/// @param id The row id, used as the pagination cursor.
+/// @param sessionId The session of the event.
+/// @param type The event type.
+/// @param driver The racing number of the driver, or `null` for session wide events (track status).
+/// @param lap The number of laps the driver had completed when the event occurred, or `null` if unknown.
+/// @param sector The sector of a sector event (`1` to `3`), else `null`.
+/// @param value The new value: the new position, the lap or sector time, the compound or the track status.
+/// @param previousValue The value before the event, if known.
+/// @param messageTimestamp The timestamp of the message the event was derived from.
+public record RaceEvent(long id,
+                        int sessionId,
+                        String type,
+                        String driver,
+                        Integer lap,
+                        Integer sector,
+                        String value,
+                        String previousValue,
+                        Instant messageTimestamp) {
+}
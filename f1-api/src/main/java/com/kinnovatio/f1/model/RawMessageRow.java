@@ -0,0 +1,13 @@
+package com.kinnovatio.f1.model;
+
+import java.time.Instant;
+
+/// A raw live timing message as stored in the live timing message log table.
+///
+/// @param id The row id.
+/// @param category The live timing category, e.g. `TimingData`.
+/// @param isStreaming `true` if the message originates from the streaming feed.
+/// @param message The Json payload.
+/// @param messageTimestamp The server-provided timestamp of the message.
+public record RawMessageRow(long id, String category, boolean isStreaming, String message, Instant messageTimestamp) {
+}
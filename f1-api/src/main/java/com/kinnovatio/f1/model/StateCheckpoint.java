@@ -0,0 +1,12 @@
+package com.kinnovatio.f1.model;
+
+import java.time.Instant;
+
+/// A checkpoint of the merged live timing state, written by the live processor.
+///
+/// @param sessionId The session key of the state, `-1` if unknown.
+/// @param messageId The id of the last raw message included in the state.
+/// @param messageTimestamp The timestamp of that message.
+/// @param state The state of all categories: a gzip-compressed Json object keyed by category.
+public record StateCheckpoint(int sessionId, long messageId, Instant messageTimestamp, byte[] state) {
+}
@@ -0,0 +1,42 @@
+package com.kinnovatio.f1.model;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/// The resolutions at which the car telemetry is kept.
+///
+/// The raw tier holds the samples as received. The downsampled tiers hold one aggregated sample per bucket:
+/// the mean speed, rpm and throttle, the last gear, and the maximum brake and DRS values of the bucket.
+public enum TelemetryTier {
+    RAW("raw", 0),
+    ONE_SECOND("1s", 1_000),
+    TEN_SECONDS("10s", 10_000);
+
+    private final String tierName;
+    private final long bucketMillis;
+
+    TelemetryTier(String tierName, long bucketMillis) {
+        this.tierName = tierName;
+        this.bucketMillis = bucketMillis;
+    }
+
+    /// The name used for this tier in the `tier` query parameter and in responses.
+    public String getTierName() {
+        return tierName;
+    }
+
+    /// The width of an aggregation bucket, or `0` for the raw tier.
+    public long getBucketMillis() {
+        return bucketMillis;
+    }
+
+    /// Looks up a tier by name (case-insensitive).
+    ///
+    /// @param tierName The tier name, e.g. `1s`.
+    /// @return The matching tier, or empty if the name is unknown.
+    public static Optional<TelemetryTier> fromTierName(String tierName) {
+        return Arrays.stream(values())
+                .filter(tier -> tier.tierName.equalsIgnoreCase(tierName.strip()))
+                .findFirst();
+    }
+}
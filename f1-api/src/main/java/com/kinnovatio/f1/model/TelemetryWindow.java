@@ -0,0 +1,13 @@
+package com.kinnovatio.f1.model;
+
+/// A window of telemetry samples for one car, copied out of the telemetry buffers.
+///
+/// @param car The racing number of the car.
+/// @param tier The resolution of the samples.
+/// @param sampleCount The number of samples.
+/// @param samples The samples in the fixed binary layout of the telemetry buffers, oldest first:
+///                `long timestampMillis | short speed | short rpm | byte gear | byte throttle | byte brake | byte drs`
+///                (16 bytes per sample, big-endian).
+public record TelemetryWindow(String car, TelemetryTier tier, int sampleCount, byte[] samples) {
+    public static final int RECORD_BYTES = 16;
+}
@@ -0,0 +1,98 @@
+package com.kinnovatio.f1.repository;
+
+import com.kinnovatio.f1.model.StateCheckpoint;
+import io.agroal.api.AgroalDataSource;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/// Reads the state checkpoints written by the live processor.
+///
+/// A checkpoint is found by session and timestamp, and the next checkpoint of the same session by message id,
+/// which is the order the deltas between two checkpoints are read in. Recorded sessions replayed into the
+/// message log carry historical timestamps, so the timestamp order across sessions does not follow the id order.
+@ApplicationScoped
+public class CheckpointRepository {
+    private static final Logger LOG = Logger.getLogger(CheckpointRepository.class);
+
+    @Inject
+    AgroalDataSource storageDataSource;
+
+    @ConfigProperty(name = "app.checkpoint.table")
+    String checkpointTable;
+
+    /// Returns the latest checkpoint taken at or before a point in time.
+    ///
+    /// @param sessionId The session, or `null` for the session of the latest checkpoint at or before `at`.
+    /// @param at The point in time.
+    /// @return The checkpoint, or an empty Optional if there is no checkpoint before `at`.
+    public Optional<StateCheckpoint> findCheckpointAt(Integer sessionId, Instant at) {
+        String sql = """
+                SELECT session_id, message_id, message_timestamp, state
+                FROM %s
+                WHERE (?::int IS NULL OR session_id = ?::int) AND message_timestamp <= ?
+                ORDER BY message_timestamp DESC, message_id DESC
+                LIMIT 1;
+                """.formatted(checkpointTable);
+
+        try (Connection connection = storageDataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setObject(1, sessionId, Types.INTEGER);
+            statement.setObject(2, sessionId, Types.INTEGER);
+            statement.setObject(3, OffsetDateTime.ofInstant(at, ZoneOffset.UTC));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    return Optional.of(new StateCheckpoint(resultSet.getInt("session_id"),
+                            resultSet.getLong("message_id"),
+                            resultSet.getObject("message_timestamp", OffsetDateTime.class).toInstant(),
+                            resultSet.getBytes("state")));
+                }
+            }
+            return Optional.empty();
+        } catch (Exception e) {
+            LOG.warnf("Error when trying to read the checkpoint at %s. Error: %s", at, e.getMessage());
+            throw new RuntimeException("Database error fetching the checkpoint", e);
+        }
+    }
+
+    /// Returns the message id of the next checkpoint of a session after a message. The messages between the
+    /// two checkpoints are all up to this id, which bounds the replay from the previous checkpoint.
+    ///
+    /// @param sessionId The session, or `null` for any session.
+    /// @param afterMessageId The message id of the previous checkpoint, `0` for the start of the log.
+    /// @return The message id, or an empty OptionalLong if there is no later checkpoint (yet).
+    public OptionalLong findNextCheckpointMessageId(Integer sessionId, long afterMessageId) {
+        String sql = """
+                SELECT message_id
+                FROM %s
+                WHERE (?::int IS NULL OR session_id = ?::int) AND message_id > ?
+                ORDER BY message_id
+                LIMIT 1;
+                """.formatted(checkpointTable);
+
+        try (Connection connection = storageDataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setObject(1, sessionId, Types.INTEGER);
+            statement.setObject(2, sessionId, Types.INTEGER);
+            statement.setLong(3, afterMessageId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? OptionalLong.of(resultSet.getLong("message_id")) : OptionalLong.empty();
+            }
+        } catch (Exception e) {
+            LOG.warnf("Error when trying to read the checkpoint after message %d. Error: %s",
+                    afterMessageId, e.getMessage());
+            throw new RuntimeException("Database error fetching the checkpoint", e);
+        }
+    }
+}
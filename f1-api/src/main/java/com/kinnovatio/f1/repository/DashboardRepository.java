@@ -0,0 +1,151 @@
+package com.kinnovatio.f1.repository;
+
+import com.kinnovatio.f1.model.DashboardField;
+import com.kinnovatio.f1.model.DashboardSnapshot;
+import com.kinnovatio.f1.model.SessionKeyedMessage;
+import io.agroal.api.AgroalDataSource;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/// Reads all the live session state tables backing the dashboard in a single database round-trip.
+///
+/// The per-category reads are combined into one `UNION ALL` statement, so a dashboard request uses one
+/// connection and one query regardless of how many categories are selected.
+@ApplicationScoped
+public class DashboardRepository {
+    private static final Logger LOG = Logger.getLogger(DashboardRepository.class);
+    private static final int raceControlMessagesLimit = 1000;
+
+    @Inject
+    AgroalDataSource storageDataSource;
+
+    @ConfigProperty(name = "app.session-info.table")
+    String sessionInfoTable;
+
+    @ConfigProperty(name = "app.track-status.table")
+    String trackStatusTable;
+
+    @ConfigProperty(name = "app.race-control-message.table")
+    String raceControlMessageTable;
+
+    @ConfigProperty(name = "app.weather-data.table")
+    String weatherDataTable;
+
+    @ConfigProperty(name = "app.driver-list.table")
+    String driverListTable;
+
+    @ConfigProperty(name = "app.timing-data.table")
+    String timingDataTable;
+
+    @ConfigProperty(name = "app.timing-app-data.table")
+    String timingAppDataTable;
+
+    @ConfigProperty(name = "app.timing-stats.table")
+    String timingStatsTable;
+
+    public DashboardSnapshot getDashboardSnapshot(Set<DashboardField> fields) {
+        Map<DashboardField, List<SessionKeyedMessage>> rows = new EnumMap<>(DashboardField.class);
+        if (fields.isEmpty()) {
+            return new DashboardSnapshot(fields, rows);
+        }
+
+        StringJoiner unionSql = new StringJoiner("\nUNION ALL\n");
+        List<String> parameters = new ArrayList<>();
+        for (DashboardField field : fields) {
+            unionSql.add(buildSelect(field, parameters));
+        }
+        String sql = """
+                SELECT category, key, session_id, message, message_timestamp, updated_timestamp
+                FROM (
+                %s
+                ) AS dashboard
+                ORDER BY category, row_order;
+                """.formatted(unionSql.toString());
+
+        try (Connection connection = storageDataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setString(i + 1, parameters.get(i));
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    DashboardField field = DashboardField.valueOf(resultSet.getString("category"));
+                    String key = resultSet.getString("key");
+                    int sessionId = resultSet.getInt("session_id");
+                    String message = resultSet.getString("message");
+                    OffsetDateTime messageTimestamp = resultSet.getObject("message_timestamp", OffsetDateTime.class);
+                    OffsetDateTime updatedTimestamp = resultSet.getObject("updated_timestamp", OffsetDateTime.class);
+                    rows.computeIfAbsent(field, f -> new ArrayList<>())
+                            .add(new SessionKeyedMessage(key, sessionId, message,
+                                    messageTimestamp == null ? null : messageTimestamp.toInstant(),
+                                    updatedTimestamp == null ? Instant.EPOCH : updatedTimestamp.toInstant()));
+                }
+            }
+        } catch (Exception e) {
+            LOG.warnf("Error when trying to read the dashboard state. Error: %s", e.getMessage());
+            throw new RuntimeException("Database error fetching dashboard state", e);
+        }
+
+        List<SessionKeyedMessage> raceControlMessages = rows.get(DashboardField.RACE_CONTROL_MESSAGES);
+        if (raceControlMessages != null && raceControlMessages.size() == raceControlMessagesLimit) {
+            LOG.warnf("Number of results from table %s is at the limit of %d items. Please check the database",
+                    raceControlMessageTable, raceControlMessagesLimit);
+        }
+
+        return new DashboardSnapshot(fields, rows);
+    }
+
+    /// Builds the sub-select for a single dashboard category. Row keys are added to the parameter list.
+    private String buildSelect(DashboardField field, List<String> parameters) {
+        return switch (field) {
+            case SESSION_INFO, SESSION_STATUS -> {
+                // The session info table does not carry a session id column
+                parameters.add(field.getLiveKey());
+                yield """
+                        SELECT '%s' AS category, key, -1 AS session_id, message::text AS message,
+                            message_timestamp, updated_timestamp, 0::bigint AS row_order
+                        FROM %s WHERE key = ?""".formatted(field.name(), sessionInfoTable);
+            }
+            case TRACK_STATUS -> """
+                    (SELECT '%s' AS category, id::text AS key, session_id, message::text AS message,
+                        message_timestamp, updated_timestamp, 0::bigint AS row_order
+                    FROM %s ORDER BY updated_timestamp DESC LIMIT 1)""".formatted(field.name(), trackStatusTable);
+            case RACE_CONTROL_MESSAGES -> """
+                    (SELECT '%s' AS category, id::text AS key, session_id, message::text AS message,
+                        message_timestamp, updated_timestamp, id::bigint AS row_order
+                    FROM %s ORDER BY id LIMIT %d)""".formatted(field.name(), raceControlMessageTable,
+                    raceControlMessagesLimit);
+            case WEATHER_DATA -> keyedSelect(field, weatherDataTable, parameters);
+            case DRIVER_LIST -> keyedSelect(field, driverListTable, parameters);
+            case TIMING_DATA -> keyedSelect(field, timingDataTable, parameters);
+            case TIMING_APP_DATA -> keyedSelect(field, timingAppDataTable, parameters);
+            case TIMING_STATS -> keyedSelect(field, timingStatsTable, parameters);
+        };
+    }
+
+    /// Builds the sub-select for a keyed table, reading the live row and (if any) the baseline and merged rows.
+    private String keyedSelect(DashboardField field, String tableName, List<String> parameters) {
+        parameters.add(field.getLiveKey());
+        parameters.add(field.getBaselineKey() == null ? field.getLiveKey() : field.getBaselineKey());
+        parameters.add(field.getMergedKey() == null ? field.getLiveKey() : field.getMergedKey());
+        return """
+                SELECT '%s' AS category, key, session_id, message::text AS message,
+                    message_timestamp, updated_timestamp, 0::bigint AS row_order
+                FROM %s WHERE key IN (?, ?, ?)""".formatted(field.name(), tableName);
+    }
+}
@@ -13,6 +13,7 @@ import java.util.Optional;
 public class DriverListRepository {
     private static final String driverListLiveKey = "driverListLive";
     private static final String driverListBaselineKey = "driverListBaseline";
+    private static final String driverListMergedKey = "driverListMerged";
 
     @Inject
     AgroalDataSource storageDataSource;
@@ -38,4 +39,13 @@ public class DriverListRepository {
             throw new RuntimeException(e);
         }
     }
+
+    /// Reads the pre-merged (baseline + live) document written by the processor.
+    public Optional<SessionKeyedMessage> getDriverListMerged() {
+        try {
+            return repositoryUtilities.getRowFromKeyedTable(driverListTable, driverListMergedKey);
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
 }
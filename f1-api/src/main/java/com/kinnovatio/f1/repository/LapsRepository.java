@@ -0,0 +1,119 @@
+package com.kinnovatio.f1.repository;
+
+import com.kinnovatio.f1.model.HistoryQuery;
+import com.kinnovatio.f1.model.Lap;
+import io.agroal.api.AgroalDataSource;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/// Reads the laps table written by the live processor. One row per completed lap.
+@ApplicationScoped
+public class LapsRepository {
+    private static final Logger LOG = Logger.getLogger(LapsRepository.class);
+    private static final String lapColumns = """
+            id, session_id, driver, lap_number, lap_time_ms, sector1_ms, sector2_ms, sector3_ms, position,
+            pit_in, pit_out, personal_best, best_lap_time_ms, mean_lap_time_ms, rolling_lap_time_ms,
+            timed_lap_count, message_timestamp""";
+
+    @Inject
+    AgroalDataSource storageDataSource;
+
+    @ConfigProperty(name = "app.laps.table")
+    String lapsTable;
+
+    /// Returns a page of laps in id order, optionally for a single driver.
+    ///
+    /// @param query The session, cursor and page size.
+    /// @param driver The racing number of the driver, or `null` for all drivers.
+    /// @return The laps after the query's cursor.
+    public List<Lap> getLaps(HistoryQuery query, String driver) {
+        String sql = """
+                SELECT %s
+                FROM %s
+                WHERE session_id = COALESCE(?, (SELECT session_id FROM %s ORDER BY id DESC LIMIT 1))
+                    AND id > ?
+                    AND (?::timestamptz IS NULL OR message_timestamp > ?::timestamptz)
+                    AND (?::varchar IS NULL OR driver = ?::varchar)
+                ORDER BY id
+                LIMIT ?;
+                """.formatted(lapColumns, lapsTable, lapsTable);
+
+        OffsetDateTime sinceTimestamp = query.sinceTimestamp() == null ? null
+                : OffsetDateTime.ofInstant(query.sinceTimestamp(), ZoneOffset.UTC);
+
+        try (Connection connection = storageDataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setObject(1, query.sessionId(), Types.INTEGER);
+            statement.setLong(2, query.sinceId());
+            statement.setObject(3, sinceTimestamp, Types.TIMESTAMP_WITH_TIMEZONE);
+            statement.setObject(4, sinceTimestamp, Types.TIMESTAMP_WITH_TIMEZONE);
+            statement.setString(5, driver);
+            statement.setString(6, driver);
+            statement.setInt(7, query.limit());
+            return readLaps(statement);
+        } catch (Exception e) {
+            LOG.warnf("Error when trying to read laps. Error: %s", e.getMessage());
+            throw new RuntimeException("Database error fetching laps", e);
+        }
+    }
+
+    /// Returns the latest completed lap of each driver, with the driver's running lap statistics.
+    ///
+    /// @param sessionId The session to read, or `null` for the most recent session.
+    /// @return One lap per driver, in driver order.
+    public List<Lap> getLatestLaps(Integer sessionId) {
+        String sql = """
+                SELECT DISTINCT ON (driver) %s
+                FROM %s
+                WHERE session_id = COALESCE(?, (SELECT session_id FROM %s ORDER BY id DESC LIMIT 1))
+                ORDER BY driver, lap_number DESC;
+                """.formatted(lapColumns, lapsTable, lapsTable);
+
+        try (Connection connection = storageDataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setObject(1, sessionId, Types.INTEGER);
+            return readLaps(statement);
+        } catch (Exception e) {
+            LOG.warnf("Error when trying to read the latest laps. Error: %s", e.getMessage());
+            throw new RuntimeException("Database error fetching the latest laps", e);
+        }
+    }
+
+    private static List<Lap> readLaps(PreparedStatement statement) throws SQLException {
+        List<Lap> laps = new ArrayList<>();
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                laps.add(new Lap(resultSet.getInt("id"),
+                        resultSet.getInt("session_id"),
+                        resultSet.getString("driver"),
+                        resultSet.getInt("lap_number"),
+                        resultSet.getInt("lap_time_ms"),
+                        resultSet.getInt("sector1_ms"),
+                        resultSet.getInt("sector2_ms"),
+                        resultSet.getInt("sector3_ms"),
+                        resultSet.getInt("position"),
+                        resultSet.getBoolean("pit_in"),
+                        resultSet.getBoolean("pit_out"),
+                        resultSet.getBoolean("personal_best"),
+                        resultSet.getInt("best_lap_time_ms"),
+                        resultSet.getInt("mean_lap_time_ms"),
+                        resultSet.getInt("rolling_lap_time_ms"),
+                        resultSet.getInt("timed_lap_count"),
+                        resultSet.getObject("message_timestamp", OffsetDateTime.class).toInstant()));
+            }
+        }
+        return laps;
+    }
+}
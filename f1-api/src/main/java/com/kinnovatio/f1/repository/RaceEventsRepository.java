@@ -0,0 +1,88 @@
+package com.kinnovatio.f1.repository;
+
+import com.kinnovatio.f1.model.HistoryQuery;
+import com.kinnovatio.f1.model.RaceEvent;
+import io.agroal.api.AgroalDataSource;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/// Reads the race events table written by the live processor. One row per derived event.
+@ApplicationScoped
+public class RaceEventsRepository {
+    private static final Logger LOG = Logger.getLogger(RaceEventsRepository.class);
+
+    @Inject
+    AgroalDataSource storageDataSource;
+
+    @ConfigProperty(name = "app.race-events.table")
+    String raceEventsTable;
+
+    /// Returns a page of race events in id order, optionally filtered on event types and driver.
+    ///
+    /// @param query The session, cursor and page size.
+    /// @param types The event types to return, or `null` for all types.
+    /// @param driver The racing number of the driver, or `null` for all drivers.
+    /// @return The race events after the query's cursor.
+    public List<RaceEvent> getEvents(HistoryQuery query, List<String> types, String driver) {
+        String sql = """
+                SELECT id, session_id, event_type, driver, lap, sector, value, previous_value, message_timestamp
+                FROM %s
+                WHERE session_id = COALESCE(?, (SELECT session_id FROM %s ORDER BY id DESC LIMIT 1))
+                    AND id > ?
+                    AND (?::timestamptz IS NULL OR message_timestamp > ?::timestamptz)
+                    AND (?::varchar[] IS NULL OR event_type = ANY(?::varchar[]))
+                    AND (?::varchar IS NULL OR driver = ?::varchar)
+                ORDER BY id
+                LIMIT ?;
+                """.formatted(raceEventsTable, raceEventsTable);
+
+        OffsetDateTime sinceTimestamp = query.sinceTimestamp() == null ? null
+                : OffsetDateTime.ofInstant(query.sinceTimestamp(), ZoneOffset.UTC);
+
+        try (Connection connection = storageDataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            Array typesArray = types == null ? null
+                    : connection.createArrayOf("varchar", types.toArray());
+            statement.setObject(1, query.sessionId(), Types.INTEGER);
+            statement.setLong(2, query.sinceId());
+            statement.setObject(3, sinceTimestamp, Types.TIMESTAMP_WITH_TIMEZONE);
+            statement.setObject(4, sinceTimestamp, Types.TIMESTAMP_WITH_TIMEZONE);
+            statement.setObject(5, typesArray, Types.ARRAY);
+            statement.setObject(6, typesArray, Types.ARRAY);
+            statement.setString(7, driver);
+            statement.setString(8, driver);
+            statement.setInt(9, query.limit());
+
+            List<RaceEvent> events = new ArrayList<>();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    events.add(new RaceEvent(resultSet.getLong("id"),
+                            resultSet.getInt("session_id"),
+                            resultSet.getString("event_type"),
+                            resultSet.getString("driver"),
+                            resultSet.getObject("lap", Integer.class),
+                            resultSet.getObject("sector", Integer.class),
+                            resultSet.getString("value"),
+                            resultSet.getString("previous_value"),
+                            resultSet.getObject("message_timestamp", OffsetDateTime.class).toInstant()));
+                }
+            }
+            return events;
+        } catch (Exception e) {
+            LOG.warnf("Error when trying to read race events. Error: %s", e.getMessage());
+            throw new RuntimeException("Database error fetching race events", e);
+        }
+    }
+}
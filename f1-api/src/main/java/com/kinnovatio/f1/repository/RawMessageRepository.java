@@ -0,0 +1,162 @@
+package com.kinnovatio.f1.repository;
+
+import com.kinnovatio.f1.model.RawMessageRow;
+import io.agroal.api.AgroalDataSource;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Set;
+
+/// Reads from the raw live timing message log (`live_timing_messages`).
+@ApplicationScoped
+public class RawMessageRepository {
+    private static final Logger LOG = Logger.getLogger(RawMessageRepository.class);
+
+    @Inject
+    AgroalDataSource storageDataSource;
+
+    @ConfigProperty(name = "app.livetiming.table")
+    String livetimingTable;
+
+    @ConfigProperty(name = "app.export.fetch-size", defaultValue = "1000")
+    int fetchSize;
+
+    /// Callback receiving the rows of a streaming read, one at a time.
+    @FunctionalInterface
+    public interface RowHandler {
+        void accept(RawMessageRow row) throws IOException;
+    }
+
+    /// Streams all messages in a time range through a server-side cursor.
+    ///
+    /// The query runs in a read-only transaction with a fetch size, so the driver pulls rows from the server
+    /// in chunks of `fetchSize` instead of materializing the whole result. Each row is handed to the handler
+    /// as soon as it arrives, so memory use is constant regardless of the size of the time range.
+    ///
+    /// @param from The inclusive start of the time range.
+    /// @param to The exclusive end of the time range.
+    /// @param categories The categories to include. An empty set includes all categories.
+    /// @param handler The callback receiving each row.
+    /// @return The number of rows streamed.
+    /// @throws SQLException if a database access error occurs.
+    /// @throws IOException if the handler fails writing a row.
+    public long streamMessages(Instant from, Instant to, Set<String> categories, RowHandler handler)
+            throws SQLException, IOException {
+        String sql = """
+                SELECT id, category, is_streaming, message::text AS message, message_timestamp
+                FROM %s
+                WHERE message_timestamp >= ? AND message_timestamp < ?
+                    AND (cardinality(?::text[]) = 0 OR category = ANY(?::text[]))
+                ORDER BY message_timestamp, id;
+                """.formatted(livetimingTable);
+
+        long rowCount = 0;
+        try (Connection connection = storageDataSource.getConnection()) {
+            // The Postgres driver only uses a server-side cursor when auto-commit is off
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            connection.setReadOnly(true);
+
+            try (PreparedStatement statement = connection.prepareStatement(sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                Array categoryArray = connection.createArrayOf("text", categories.toArray());
+                statement.setObject(1, OffsetDateTime.ofInstant(from, ZoneOffset.UTC));
+                statement.setObject(2, OffsetDateTime.ofInstant(to, ZoneOffset.UTC));
+                statement.setArray(3, categoryArray);
+                statement.setArray(4, categoryArray);
+                statement.setFetchSize(fetchSize);
+
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        OffsetDateTime messageTimestamp = resultSet.getObject("message_timestamp", OffsetDateTime.class);
+                        handler.accept(new RawMessageRow(
+                                resultSet.getLong("id"),
+                                resultSet.getString("category"),
+                                resultSet.getBoolean("is_streaming"),
+                                resultSet.getString("message"),
+                                messageTimestamp == null ? null : messageTimestamp.toInstant()));
+                        rowCount++;
+                    }
+                }
+            } finally {
+                connection.rollback();
+                connection.setReadOnly(false);
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            LOG.warnf("Error when streaming messages from the %s table. Error: %s", livetimingTable, e.getMessage());
+            throw e;
+        }
+
+        return rowCount;
+    }
+
+    /// Streams the messages after a raw message id, up to a point in time, in id order.
+    ///
+    /// This reads the deltas to apply on top of a state checkpoint. The telemetry categories (`.z`) are not
+    /// part of the checkpoints and are skipped. The read uses the primary key range `(afterId, untilId]`.
+    ///
+    /// @param afterId Only include messages with an id greater than this value.
+    /// @param untilId Only include messages with an id up to and including this value, or `null` for no limit.
+    /// @param at Only include messages with a timestamp at or before this point in time.
+    /// @param categories The categories to include. An empty set includes all categories.
+    /// @param handler The callback receiving each row.
+    /// @return The number of rows streamed.
+    /// @throws SQLException if a database access error occurs.
+    /// @throws IOException if the handler fails processing a row.
+    public long streamMessagesAfter(long afterId, Long untilId, Instant at, Set<String> categories, RowHandler handler)
+            throws SQLException, IOException {
+        String sql = """
+                SELECT id, category, is_streaming, message::text AS message, message_timestamp
+                FROM %s
+                WHERE id > ? AND (?::bigint IS NULL OR id <= ?::bigint)
+                    AND message_timestamp <= ?
+                    AND category NOT LIKE '%%.z'
+                    AND (cardinality(?::text[]) = 0 OR category = ANY(?::text[]))
+                ORDER BY id;
+                """.formatted(livetimingTable);
+
+        long rowCount = 0;
+        try (Connection connection = storageDataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            Array categoryArray = connection.createArrayOf("text", categories.toArray());
+            statement.setLong(1, afterId);
+            statement.setObject(2, untilId, Types.BIGINT);
+            statement.setObject(3, untilId, Types.BIGINT);
+            statement.setObject(4, OffsetDateTime.ofInstant(at, ZoneOffset.UTC));
+            statement.setArray(5, categoryArray);
+            statement.setArray(6, categoryArray);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    OffsetDateTime messageTimestamp = resultSet.getObject("message_timestamp", OffsetDateTime.class);
+                    handler.accept(new RawMessageRow(
+                            resultSet.getLong("id"),
+                            resultSet.getString("category"),
+                            resultSet.getBoolean("is_streaming"),
+                            resultSet.getString("message"),
+                            messageTimestamp == null ? null : messageTimestamp.toInstant()));
+                    rowCount++;
+                }
+            }
+        } catch (SQLException e) {
+            LOG.warnf("Error when reading messages after id %d from the %s table. Error: %s",
+                    afterId, livetimingTable, e.getMessage());
+            throw e;
+        }
+
+        return rowCount;
+    }
+}
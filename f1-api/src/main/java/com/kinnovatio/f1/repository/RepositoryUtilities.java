@@ -1,6 +1,8 @@
 package com.kinnovatio.f1.repository;
 
+import com.kinnovatio.f1.model.HistoryQuery;
 import com.kinnovatio.f1.model.SessionKeyedMessage;
+import com.kinnovatio.f1.model.SessionMessage;
 import io.agroal.api.AgroalDataSource;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
@@ -10,8 +12,12 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Types;
 import java.time.Instant;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 @ApplicationScoped
@@ -59,6 +65,103 @@ public class RepositoryUtilities {
         return Optional.empty();
     }
 
+    /// Reads a page of rows from a multi-message (history) table using keyset pagination.
+    ///
+    /// Rows are scoped to a single session and returned in id order after the query's cursor. The
+    /// `(session_id, id)` index created by the processor backs both the session filter and the cursor.
+    ///
+    /// @param tableName The history table to read from.
+    /// @param query The session, cursor and page size.
+    /// @return The rows of the page, in id order.
+    /// @throws SQLException if a database access error occurs.
+    public List<SessionMessage> getRowsFromMultiMessageTable(String tableName, HistoryQuery query) throws SQLException {
+        // IMPORTANT: Validate the table name against a predefined list
+        // or a strict pattern to prevent SQL injection.
+        if (!isValidTableName(tableName)) {
+            throw new IllegalArgumentException("Invalid table name: " + tableName);
+        }
+
+        List<SessionMessage> returnList = new ArrayList<>();
+        String sql = """
+                Select id, session_id, message, message_timestamp, updated_timestamp
+                FROM %s
+                WHERE session_id = COALESCE(?, (SELECT session_id FROM %s ORDER BY id DESC LIMIT 1))
+                    AND id > ?
+                    AND (?::timestamptz IS NULL OR message_timestamp > ?::timestamptz)
+                ORDER BY id
+                LIMIT ?;
+                """.formatted(tableName, tableName);
+
+        OffsetDateTime sinceTimestamp = query.sinceTimestamp() == null ? null
+                : OffsetDateTime.ofInstant(query.sinceTimestamp(), ZoneOffset.UTC);
+
+        try (Connection connection = storageDataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+
+            statement.setObject(1, query.sessionId(), Types.INTEGER);
+            statement.setLong(2, query.sinceId());
+            statement.setObject(3, sinceTimestamp, Types.TIMESTAMP_WITH_TIMEZONE);
+            statement.setObject(4, sinceTimestamp, Types.TIMESTAMP_WITH_TIMEZONE);
+            statement.setInt(5, query.limit());
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    int id = resultSet.getInt("id");
+                    int sessionId = resultSet.getInt("session_id");
+                    String message = resultSet.getString("message");
+                    Instant messageTimestamp =
+                            resultSet.getObject("message_timestamp", OffsetDateTime.class).toInstant();
+                    Instant updatedTimestamp =
+                            resultSet.getObject("updated_timestamp", OffsetDateTime.class).toInstant();
+                    returnList.add(new SessionMessage(id, sessionId, message, messageTimestamp, updatedTimestamp));
+                }
+            }
+        } catch (Exception e) {
+            LOG.warnf("Error when trying to read from %s table. Error: %s", tableName, e.getMessage());
+            throw e;
+        }
+
+        return returnList;
+    }
+
+    /// Resolves a timestamp cursor to a row id: the id of the last row of the session with a message timestamp
+    /// at or before the query's timestamp, or `0` if there is none.
+    ///
+    /// Keeps the cursor stable when a page read by timestamp is empty, so the next poll by id continues
+    /// from that point instead of from the start of the table.
+    ///
+    /// @param tableName The history table to read from.
+    /// @param query The session and timestamp cursor.
+    /// @return The resolved cursor id, or the query's id cursor if it has no timestamp.
+    /// @throws SQLException if a database access error occurs.
+    public long getCursorIdFromMultiMessageTable(String tableName, HistoryQuery query) throws SQLException {
+        if (!isValidTableName(tableName)) {
+            throw new IllegalArgumentException("Invalid table name: " + tableName);
+        }
+        if (query.sinceTimestamp() == null) {
+            return query.sinceId();
+        }
+
+        String sql = """
+                Select COALESCE(MAX(id), 0) AS id
+                FROM %s
+                WHERE session_id = COALESCE(?, (SELECT session_id FROM %s ORDER BY id DESC LIMIT 1))
+                    AND message_timestamp <= ?;
+                """.formatted(tableName, tableName);
+
+        try (Connection connection = storageDataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+
+            statement.setObject(1, query.sessionId(), Types.INTEGER);
+            statement.setObject(2, OffsetDateTime.ofInstant(query.sinceTimestamp(), ZoneOffset.UTC),
+                    Types.TIMESTAMP_WITH_TIMEZONE);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getLong("id") : 0;
+            }
+        } catch (Exception e) {
+            LOG.warnf("Error when trying to read from %s table. Error: %s", tableName, e.getMessage());
+            throw e;
+        }
+    }
 
     // A simple validation method
     private boolean isValidTableName(String name) {
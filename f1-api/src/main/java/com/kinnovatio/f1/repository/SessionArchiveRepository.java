@@ -0,0 +1,97 @@
+package com.kinnovatio.f1.repository;
+
+import com.kinnovatio.f1.model.ArchivedCategory;
+import io.agroal.api.AgroalDataSource;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/// Reads the session archive written by the live processor. A session is read with a single lookup on the
+/// `(session_id, category)` index.
+@ApplicationScoped
+public class SessionArchiveRepository {
+    private static final Logger LOG = Logger.getLogger(SessionArchiveRepository.class);
+
+    @Inject
+    AgroalDataSource storageDataSource;
+
+    @ConfigProperty(name = "app.session-archive.table")
+    String sessionArchiveTable;
+
+    /// Returns the archived categories of a session, in category order.
+    ///
+    /// @param sessionId The session id.
+    /// @param categories The categories to include. An empty set includes all categories.
+    /// @return The archived categories. Empty if the session is not archived.
+    public List<ArchivedCategory> findSession(int sessionId, Set<String> categories) {
+        String sql = """
+                SELECT category, row_count, message_timestamp, archived_timestamp, document
+                FROM %s
+                WHERE session_id = ?
+                    AND (?::varchar[] IS NULL OR category = ANY(?::varchar[]))
+                ORDER BY category;
+                """.formatted(sessionArchiveTable);
+
+        List<ArchivedCategory> archived = new ArrayList<>();
+        try (Connection connection = storageDataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            Array categoryArray = categories.isEmpty() ? null
+                    : connection.createArrayOf("varchar", categories.toArray());
+            statement.setInt(1, sessionId);
+            statement.setObject(2, categoryArray, Types.ARRAY);
+            statement.setObject(3, categoryArray, Types.ARRAY);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    archived.add(new ArchivedCategory(resultSet.getString("category"),
+                            resultSet.getInt("row_count"),
+                            toInstant(resultSet.getObject("message_timestamp", OffsetDateTime.class)),
+                            toInstant(resultSet.getObject("archived_timestamp", OffsetDateTime.class)),
+                            resultSet.getBytes("document")));
+                }
+            }
+            return archived;
+        } catch (Exception e) {
+            LOG.warnf("Error when trying to read archived session %d. Error: %s", sessionId, e.getMessage());
+            throw new RuntimeException("Database error fetching the archived session", e);
+        }
+    }
+
+    /// Returns the ids of the archived sessions, latest archive first.
+    public List<Integer> findSessionIds() {
+        String sql = """
+                SELECT session_id
+                FROM %s
+                GROUP BY session_id
+                ORDER BY MAX(archived_timestamp) DESC;
+                """.formatted(sessionArchiveTable);
+
+        List<Integer> sessionIds = new ArrayList<>();
+        try (Connection connection = storageDataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                sessionIds.add(resultSet.getInt("session_id"));
+            }
+            return sessionIds;
+        } catch (Exception e) {
+            LOG.warnf("Error when trying to read the archived sessions. Error: %s", e.getMessage());
+            throw new RuntimeException("Database error fetching the archived sessions", e);
+        }
+    }
+
+    private static Instant toInstant(OffsetDateTime timestamp) {
+        return timestamp == null ? null : timestamp.toInstant();
+    }
+}
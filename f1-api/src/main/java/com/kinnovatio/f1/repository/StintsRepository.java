@@ -0,0 +1,29 @@
+package com.kinnovatio.f1.repository;
+
+import com.kinnovatio.f1.model.SessionKeyedMessage;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.sql.SQLException;
+import java.util.Optional;
+
+@ApplicationScoped
+public class StintsRepository {
+    private static final String stintsKey = "stints";
+
+    @Inject
+    RepositoryUtilities repositoryUtilities;
+
+    @ConfigProperty(name = "app.stints.table")
+    String stintsTable;
+
+    /// Reads the stints document written by the processor.
+    public Optional<SessionKeyedMessage> getStints() {
+        try {
+            return repositoryUtilities.getRowFromKeyedTable(stintsTable, stintsKey);
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
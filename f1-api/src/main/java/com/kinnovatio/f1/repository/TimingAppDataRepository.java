@@ -12,6 +12,7 @@ import java.util.Optional;
 public class TimingAppDataRepository {
     private static final String timingAppDataLiveKey = "timingAppDataLive";
     private static final String timingAppDataBaselineKey = "timingAppDataBaseline";
+    private static final String timingAppDataMergedKey = "timingAppDataMerged";
 
     @Inject
     RepositoryUtilities repositoryUtilities;
@@ -34,4 +35,13 @@ public class TimingAppDataRepository {
             throw new RuntimeException(e);
         }
     }
+
+    /// Reads the pre-merged (baseline + live) document written by the processor.
+    public Optional<SessionKeyedMessage> getTimingAppDataMerged() {
+        try {
+            return repositoryUtilities.getRowFromKeyedTable(timingAppDataTable, timingAppDataMergedKey);
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
 }
@@ -13,6 +13,8 @@ import java.util.Optional;
 public class TimingDataRepository {
     private static final String timingDataLiveKey = "timingDataLive";
     private static final String timingDataBaselineKey = "timingDataBaseline";
+    private static final String timingDataMergedKey = "timingDataMerged";
+    private static final String timingDataSegmentsKey = "timingDataSegments";
 
     @Inject
     RepositoryUtilities repositoryUtilities;
@@ -35,4 +37,22 @@ public class TimingDataRepository {
             throw new RuntimeException(e);
         }
     }
+
+    /// Reads the pre-merged (baseline + live) document written by the processor.
+    public Optional<SessionKeyedMessage> getTimingDataMerged() {
+        try {
+            return repositoryUtilities.getRowFromKeyedTable(timingDataTable, timingDataMergedKey);
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /// Reads the compact segment status of all drivers written by the processor.
+    public Optional<SessionKeyedMessage> getTimingDataSegments() {
+        try {
+            return repositoryUtilities.getRowFromKeyedTable(timingDataTable, timingDataSegmentsKey);
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
 }
@@ -12,6 +12,7 @@ import java.util.Optional;
 public class TimingStatsRepository {
     private static final String timingStatsLiveKey = "timingStatsLive";
     private static final String timingStatsBaselineKey = "timingStatsBaseline";
+    private static final String timingStatsMergedKey = "timingStatsMerged";
 
     @Inject
     RepositoryUtilities repositoryUtilities;
@@ -34,4 +35,13 @@ public class TimingStatsRepository {
             throw new RuntimeException(e);
         }
     }
+
+    /// Reads the pre-merged (baseline + live) document written by the processor.
+    public Optional<SessionKeyedMessage> getTimingStatsMerged() {
+        try {
+            return repositoryUtilities.getRowFromKeyedTable(timingStatsTable, timingStatsMergedKey);
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
 }
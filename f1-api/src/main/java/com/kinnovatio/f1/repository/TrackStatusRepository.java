@@ -1,5 +1,6 @@
 package com.kinnovatio.f1.repository;
 
+import com.kinnovatio.f1.model.HistoryQuery;
 import com.kinnovatio.f1.model.SessionMessage;
 import io.agroal.api.AgroalDataSource;
 import jakarta.enterprise.context.ApplicationScoped;
@@ -12,7 +13,6 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.time.Instant;
 import java.time.OffsetDateTime;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,44 +23,29 @@ public class TrackStatusRepository {
     @Inject
     AgroalDataSource storageDataSource;
 
+    @Inject
+    RepositoryUtilities repositoryUtilities;
+
     @ConfigProperty(name = "app.track-status.table")
     String trackStatusTable;
 
-    public List<SessionMessage> getTrackStatusHistory() {
-        int limit = 1000;
-        List<SessionMessage> returnList = new ArrayList<>();
-
-        String sql = """
-                Select id, session_id, message, message_timestamp, updated_timestamp
-                FROM %s
-                limit %d;
-                """.formatted(trackStatusTable, limit);
-
-        try (Connection connection = storageDataSource.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
-
-            try (ResultSet resultSet = statement.executeQuery()) {
-                while (resultSet.next()) {
-                    int id = resultSet.getInt("id");
-                    int sessionId = resultSet.getInt("session_id");
-                    String message = resultSet.getString("message");
-                    Instant messageTimestamp = resultSet.getObject("message_timestamp", OffsetDateTime.class).toInstant();
-                    Instant updatedTimestamp = resultSet.getObject("updated_timestamp", OffsetDateTime.class).toInstant();
-                    returnList.add(new SessionMessage(id, sessionId, message, messageTimestamp, updatedTimestamp));
-
-                    // Check if we are close to the limit on number of results
-                    if (returnList.size() == limit) {
-                        LOG.warnf("Number of results from table %s is at the limit of %d items. Please check the database",
-                                trackStatusTable, limit);
-                    }
-                }
-            }
+    public List<SessionMessage> getTrackStatusHistory(HistoryQuery query) {
+        try {
+            return repositoryUtilities.getRowsFromMultiMessageTable(trackStatusTable, query);
         } catch (Exception e) {
             LOG.warnf("Error when trying to read track status. Error: %s", e.getMessage());
             throw new RuntimeException("Database error fetching track status", e);
         }
+    }
 
-        return returnList;
+    /// Resolves the query's cursor to a row id, see [RepositoryUtilities#getCursorIdFromMultiMessageTable].
+    public long getCursorId(HistoryQuery query) {
+        try {
+            return repositoryUtilities.getCursorIdFromMultiMessageTable(trackStatusTable, query);
+        } catch (Exception e) {
+            LOG.warnf("Error when trying to resolve the track status cursor. Error: %s", e.getMessage());
+            throw new RuntimeException("Database error resolving the track status cursor", e);
+        }
     }
 
     public Optional<SessionMessage> getTrackStatus() {
@@ -0,0 +1,377 @@
+package com.kinnovatio.f1.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kinnovatio.f1.model.TelemetryTier;
+import com.kinnovatio.f1.model.TelemetryWindow;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/// Keeps a rolling window of car telemetry (`CarData.z`) per car in off-heap memory.
+///
+/// The service consumes the processed live timing stream next to the SSE hub and decodes the telemetry
+/// channels (speed, rpm, gear, throttle, brake and DRS) with a streaming parser, straight into per-car
+/// [TelemetryRing]s. Next to the raw samples, it keeps 1 s and 10 s tiers that are downsampled incrementally
+/// as the samples arrive. A read copies a time window out of a ring as bytes, so serving telemetry never
+/// builds a Json tree per sample.
+///
+/// The telemetry is not persisted. It covers the configured windows of the running session. When the stream
+/// jumps back in time by more than a window (a new session or a replay), the buffers of the car are cleared.
+@ApplicationScoped
+public class CarTelemetryService {
+    private static final Logger LOG = Logger.getLogger(CarTelemetryService.class);
+    private static final String carDataCategory = "CarData.z";
+    private static final int maxCarNumber = 99;
+
+    // The CarData channel ids
+    private static final String rpmChannel = "0";
+    private static final String speedChannel = "2";
+    private static final String gearChannel = "3";
+    private static final String throttleChannel = "4";
+    private static final String brakeChannel = "5";
+    private static final String drsChannel = "45";
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "app.telemetry.raw-window", defaultValue = "PT5M")
+    Duration rawWindow;
+
+    @ConfigProperty(name = "app.telemetry.max-sample-rate", defaultValue = "5")
+    int maxSampleRate;
+
+    @ConfigProperty(name = "app.telemetry.one-second-window", defaultValue = "PT1H")
+    Duration oneSecondWindow;
+
+    @ConfigProperty(name = "app.telemetry.ten-second-window", defaultValue = "PT6H")
+    Duration tenSecondWindow;
+
+    /// The telemetry buffers, indexed by car number. Created on the first sample of a car.
+    private final AtomicReferenceArray<CarTelemetry> cars = new AtomicReferenceArray<>(maxCarNumber + 1);
+
+    private Counter samplesDecoded;
+    private Counter samplesDropped;
+
+    @PostConstruct
+    void init() {
+        samplesDecoded = Counter.builder("livetiming_api_telemetry_samples_total")
+                .description("Total number of car telemetry samples written to the telemetry buffers.")
+                .register(registry);
+        samplesDropped = Counter.builder("livetiming_api_telemetry_samples_dropped_total")
+                .description("Total number of car telemetry samples dropped as out of order or invalid.")
+                .register(registry);
+        Gauge.builder("livetiming_api_telemetry_buffer_bytes", cars, CarTelemetryService::offHeapBytes)
+                .description("Off-heap memory allocated to the car telemetry buffers.")
+                .register(registry);
+        LOG.infof("Keeping car telemetry for %s (raw), %s (1s) and %s (10s).",
+                rawWindow, oneSecondWindow, tenSecondWindow);
+    }
+
+    /// Consumes the processed live timing stream and decodes the car telemetry messages.
+    ///
+    /// The record key is the message category, so all other categories are skipped without parsing.
+    ///
+    /// @param record The processed live timing record.
+    @Incoming("f1-live-processed")
+    public void onLiveTimingMessage(ConsumerRecord<String, String> record) {
+        if (!carDataCategory.equals(record.key()) || record.value() == null) {
+            return;
+        }
+        try {
+            // The envelope is small. The telemetry payload is a Json string inside it.
+            String payload = objectMapper.readTree(record.value()).path("message").asText("");
+            decodeCarData(payload, record.timestamp());
+        } catch (IOException e) {
+            LOG.warnf("Error when decoding a car telemetry message. Error: %s", e.getMessage());
+        }
+    }
+
+    /// Copies a window of a car's telemetry out of the buffers.
+    ///
+    /// @param car The racing number of the car.
+    /// @param tier The resolution to read.
+    /// @param window The length of the window, ending at the car's newest sample.
+    /// @return The window, or empty if there is no telemetry for the car.
+    public Optional<TelemetryWindow> getWindow(String car, TelemetryTier tier, Duration window) {
+        int carIndex = parseCarNumber(car);
+        if (carIndex < 0 || cars.get(carIndex) == null) {
+            return Optional.empty();
+        }
+        TelemetryRing ring = cars.get(carIndex).ring(tier);
+        long last = ring.lastTimestamp();
+        byte[] samples = last < 0 ? new byte[0] : ring.copySince(last - window.toMillis());
+        return Optional.of(new TelemetryWindow(String.valueOf(carIndex), tier,
+                samples.length / TelemetryRing.RECORD_BYTES, samples));
+    }
+
+    /// Returns the cars with telemetry.
+    public List<String> getCars() {
+        List<String> carNumbers = new ArrayList<>();
+        for (int i = 0; i <= maxCarNumber; i++) {
+            if (cars.get(i) != null) {
+                carNumbers.add(String.valueOf(i));
+            }
+        }
+        return carNumbers;
+    }
+
+    /// Writes a telemetry window as columnar Json, directly from the sample bytes.
+    ///
+    /// @param window The telemetry window.
+    /// @return A Json object with the car, tier, sample count and one array per channel.
+    public String toColumnarJson(TelemetryWindow window) {
+        int count = window.sampleCount();
+        ByteBuffer samples = ByteBuffer.wrap(window.samples());
+        StringBuilder json = new StringBuilder(64 + count * 48);
+        json.append("{\"car\":\"").append(window.car())
+                .append("\",\"tier\":\"").append(window.tier().getTierName())
+                .append("\",\"samples\":").append(count);
+        appendColumn(json, "timestamp", samples, count, 0, 8);
+        appendColumn(json, "speed", samples, count, 8, 2);
+        appendColumn(json, "rpm", samples, count, 10, 2);
+        appendColumn(json, "gear", samples, count, 12, 1);
+        appendColumn(json, "throttle", samples, count, 13, 1);
+        appendColumn(json, "brake", samples, count, 14, 1);
+        appendColumn(json, "drs", samples, count, 15, 1);
+        return json.append('}').toString();
+    }
+
+    private static void appendColumn(StringBuilder json, String name, ByteBuffer samples, int count,
+                                     int offset, int width) {
+        json.append(",\"").append(name).append("\":[");
+        for (int i = 0; i < count; i++) {
+            int index = i * TelemetryRing.RECORD_BYTES + offset;
+            if (i > 0) {
+                json.append(',');
+            }
+            switch (width) {
+                case 8 -> json.append(samples.getLong(index));
+                case 2 -> json.append(samples.getShort(index));
+                default -> json.append(samples.get(index));
+            }
+        }
+        json.append(']');
+    }
+
+    /// Decodes a `CarData.z` payload: `{"entries":[{"utc":"...","cars":{"44":{"channels":{"0":...}}}}]}`.
+    private void decodeCarData(String payload, long fallbackMillis) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(payload)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken token = parser.nextToken();
+                if ("entries".equals(field) && token == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        decodeEntry(parser, fallbackMillis);
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    private void decodeEntry(JsonParser parser, long fallbackMillis) throws IOException {
+        long timestampMillis = fallbackMillis;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if ("utc".equals(field) && token == JsonToken.VALUE_STRING) {
+                try {
+                    timestampMillis = Instant.parse(parser.getText()).toEpochMilli();
+                } catch (DateTimeParseException e) {
+                    LOG.debugf("Invalid car telemetry timestamp: %s", parser.getText());
+                }
+            } else if ("cars".equals(field) && token == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String car = parser.currentName();
+                    parser.nextToken();
+                    decodeCar(parser, car, timestampMillis);
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private void decodeCar(JsonParser parser, String car, long timestampMillis) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+        int speed = 0, rpm = 0, gear = 0, throttle = 0, brake = 0, drs = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if (!"channels".equals(field) || token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String channel = parser.currentName();
+                parser.nextToken();
+                int value = parser.currentToken().isNumeric() ? parser.getValueAsInt() : 0;
+                switch (channel) {
+                    case rpmChannel -> rpm = value;
+                    case speedChannel -> speed = value;
+                    case gearChannel -> gear = value;
+                    case throttleChannel -> throttle = value;
+                    case brakeChannel -> brake = value;
+                    case drsChannel -> drs = value;
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+
+        int carIndex = parseCarNumber(car);
+        if (carIndex < 0) {
+            samplesDropped.increment();
+            return;
+        }
+        CarTelemetry telemetry = cars.get(carIndex);
+        if (telemetry == null) {
+            cars.compareAndSet(carIndex, null, new CarTelemetry());
+            telemetry = cars.get(carIndex);
+        }
+        if (telemetry.add(timestampMillis, speed, rpm, gear, throttle, brake, drs)) {
+            samplesDecoded.increment();
+        } else {
+            samplesDropped.increment();
+        }
+    }
+
+    private static int parseCarNumber(String car) {
+        try {
+            int carNumber = Integer.parseInt(car.strip());
+            return carNumber >= 0 && carNumber <= maxCarNumber ? carNumber : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static double offHeapBytes(AtomicReferenceArray<CarTelemetry> cars) {
+        long bytes = 0;
+        for (int i = 0; i < cars.length(); i++) {
+            CarTelemetry telemetry = cars.get(i);
+            if (telemetry != null) {
+                bytes += telemetry.raw.capacityBytes() + telemetry.oneSecond.ring.capacityBytes()
+                        + telemetry.tenSeconds.ring.capacityBytes();
+            }
+        }
+        return bytes;
+    }
+
+    /// The telemetry buffers of one car. Written by the consumer thread only.
+    private final class CarTelemetry {
+        final TelemetryRing raw = new TelemetryRing((int) (rawWindow.toSeconds() * maxSampleRate));
+        final DownsampledRing oneSecond = new DownsampledRing(TelemetryTier.ONE_SECOND, oneSecondWindow);
+        final DownsampledRing tenSeconds = new DownsampledRing(TelemetryTier.TEN_SECONDS, tenSecondWindow);
+
+        /// Adds a sample to all tiers. Returns `false` if the sample is dropped as out of order.
+        boolean add(long timestampMillis, int speed, int rpm, int gear, int throttle, int brake, int drs) {
+            long last = raw.lastTimestamp();
+            if (last >= 0 && timestampMillis < last) {
+                if (last - timestampMillis < rawWindow.toMillis()) {
+                    return false;
+                }
+                // The stream jumped back in time: a new session or replay
+                raw.clear();
+                oneSecond.clear();
+                tenSeconds.clear();
+            }
+            raw.append(timestampMillis, speed, rpm, gear, throttle, brake, drs);
+            oneSecond.add(timestampMillis, speed, rpm, gear, throttle, brake, drs);
+            tenSeconds.add(timestampMillis, speed, rpm, gear, throttle, brake, drs);
+            return true;
+        }
+
+        TelemetryRing ring(TelemetryTier tier) {
+            return switch (tier) {
+                case RAW -> raw;
+                case ONE_SECOND -> oneSecond.ring;
+                case TEN_SECONDS -> tenSeconds.ring;
+            };
+        }
+    }
+
+    /// A downsampled tier. Aggregates the samples of the current bucket in O(1) per sample and appends one
+    /// sample to its ring when the bucket is complete. The bucket in progress is not visible to readers.
+    private static final class DownsampledRing {
+        final TelemetryRing ring;
+        private final long bucketMillis;
+
+        private long bucket = -1;
+        private int count = 0;
+        private long speedSum, rpmSum, throttleSum;
+        private int lastGear, maxBrake, maxDrs;
+
+        DownsampledRing(TelemetryTier tier, Duration window) {
+            this.bucketMillis = tier.getBucketMillis();
+            this.ring = new TelemetryRing((int) Math.max(1, window.toMillis() / bucketMillis));
+        }
+
+        void add(long timestampMillis, int speed, int rpm, int gear, int throttle, int brake, int drs) {
+            long sampleBucket = timestampMillis / bucketMillis;
+            if (sampleBucket != bucket) {
+                flush();
+                bucket = sampleBucket;
+            }
+            count++;
+            speedSum += speed;
+            rpmSum += rpm;
+            throttleSum += throttle;
+            lastGear = gear;
+            maxBrake = Math.max(maxBrake, brake);
+            maxDrs = Math.max(maxDrs, drs);
+        }
+
+        void clear() {
+            ring.clear();
+            bucket = -1;
+            count = 0;
+        }
+
+        private void flush() {
+            if (count > 0) {
+                ring.append(bucket * bucketMillis,
+                        (int) (speedSum / count),
+                        (int) (rpmSum / count),
+                        lastGear,
+                        (int) (throttleSum / count),
+                        maxBrake,
+                        maxDrs);
+            }
+            count = 0;
+            speedSum = 0;
+            rpmSum = 0;
+            throttleSum = 0;
+            lastGear = 0;
+            maxBrake = 0;
+            maxDrs = 0;
+        }
+    }
+}
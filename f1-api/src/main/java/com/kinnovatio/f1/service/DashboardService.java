@@ -0,0 +1,150 @@
+package com.kinnovatio.f1.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kinnovatio.f1.model.DashboardField;
+import com.kinnovatio.f1.model.DashboardSnapshot;
+import com.kinnovatio.f1.model.SessionInfoRaw;
+import com.kinnovatio.f1.model.SessionKeyedMessage;
+import com.kinnovatio.f1.model.SessionStatus;
+import com.kinnovatio.f1.repository.DashboardRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Optional;
+import java.util.Set;
+
+/// Builds the aggregated live dashboard: all live session state categories in a single response.
+///
+/// The stored Json documents are written straight into the response through a single streaming generator.
+/// Nothing is parsed into trees unless a pre-merged document is missing and a baseline merge is needed.
+@ApplicationScoped
+public class DashboardService {
+    private static final Logger LOG = Logger.getLogger(DashboardService.class);
+
+    @Inject
+    DashboardRepository dashboardRepository;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    JsonEnvelopeWriter envelopeWriter;
+
+    @Inject
+    TrackStatusService trackStatusService;
+
+    public DashboardSnapshot getDashboardSnapshot(Set<DashboardField> fields) {
+        return dashboardRepository.getDashboardSnapshot(fields);
+    }
+
+    /// Serializes a dashboard snapshot as Json to the output stream.
+    ///
+    /// Each selected category is written as a top-level property. Categories without any stored state
+    /// are written as `null`, except the track status, which falls back to the "Unknown" status of the
+    /// track status endpoint.
+    ///
+    /// @param snapshot The dashboard rows read from storage.
+    /// @param outputStream The stream to write the Json payload to.
+    /// @throws IOException If writing to the stream fails.
+    public void writeDashboard(DashboardSnapshot snapshot, OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            // The response stream is owned by the container
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartObject();
+            for (DashboardField field : snapshot.fields()) {
+                generator.writeFieldName(field.getFieldName());
+                switch (field) {
+                    case SESSION_INFO -> writeTypedValue(generator,
+                            snapshot.getRow(field, field.getLiveKey()), SessionInfoRaw.class);
+                    case SESSION_STATUS -> writeTypedValue(generator,
+                            snapshot.getRow(field, field.getLiveKey()), SessionStatus.class);
+                    case TRACK_STATUS -> {
+                        // Same fallback document as the track status endpoint
+                        Optional<SessionKeyedMessage> row = snapshot.getRows(field).stream().findFirst();
+                        if (row.isPresent()) {
+                            envelopeWriter.writeEnvelope(generator, row.get());
+                        } else {
+                            generator.writeTree(trackStatusService.getFallbackTrackStatus());
+                        }
+                    }
+                    case WEATHER_DATA -> writeEnvelope(generator,
+                            snapshot.getRows(field).stream().findFirst());
+                    case RACE_CONTROL_MESSAGES -> {
+                        generator.writeStartObject();
+                        generator.writeArrayFieldStart("messages");
+                        for (SessionKeyedMessage row : snapshot.getRows(field)) {
+                            generator.writeRawValue(row.message());
+                        }
+                        generator.writeEndArray();
+                        generator.writeEndObject();
+                    }
+                    case DRIVER_LIST, TIMING_DATA, TIMING_APP_DATA, TIMING_STATS -> writeMergedEnvelope(generator,
+                            snapshot.getRow(field, field.getMergedKey()),
+                            snapshot.getRow(field, field.getBaselineKey()),
+                            snapshot.getRow(field, field.getLiveKey()));
+                }
+            }
+            generator.writeEndObject();
+        }
+    }
+
+    /// Writes a row in the standard envelope, copying the stored Json document as-is.
+    private void writeEnvelope(JsonGenerator generator, Optional<SessionKeyedMessage> row) throws IOException {
+        if (row.isEmpty()) {
+            generator.writeNull();
+            return;
+        }
+        envelopeWriter.writeEnvelope(generator, row.get());
+    }
+
+    /// Writes the merged (baseline + live) state in the standard envelope.
+    ///
+    /// The pre-merged document written by the processor is copied as-is. Only if it is missing are the
+    /// baseline and live rows merged here.
+    private void writeMergedEnvelope(JsonGenerator generator,
+                                     Optional<SessionKeyedMessage> merged,
+                                     Optional<SessionKeyedMessage> baseline,
+                                     Optional<SessionKeyedMessage> live) throws IOException {
+        if (merged.isPresent()) {
+            envelopeWriter.writeEnvelope(generator, merged.get());
+            return;
+        }
+        if (live.isEmpty()) {
+            generator.writeNull();
+            return;
+        }
+        JsonNode baselineNode = objectMapper.readTree(baseline.map(SessionKeyedMessage::message).orElse("{}"));
+        JsonNode update = objectMapper.readTree(live.get().message());
+        // readerForUpdating modifies 'current' in-place and returns updated version
+        JsonNode mergedNode = objectMapper.readerForUpdating(baselineNode).readValue(update);
+
+        generator.writeStartObject();
+        generator.writeStringField("updatedTimestamp", live.get().updatedTimestamp().toString());
+        generator.writeNumberField("sessionId", live.get().sessionId());
+        generator.writeFieldName("message");
+        generator.writeTree(mergedNode);
+        generator.writeEndObject();
+    }
+
+    /// Writes a row mapped through its typed model, so the payload matches the dedicated endpoint.
+    private void writeTypedValue(JsonGenerator generator,
+                                 Optional<SessionKeyedMessage> row,
+                                 Class<?> valueType) throws IOException {
+        if (row.isEmpty()) {
+            generator.writeNull();
+            return;
+        }
+        try {
+            generator.writeObject(objectMapper.readValue(row.get().message(), valueType));
+        } catch (IOException e) {
+            LOG.warnf("Error parsing the %s row into %s. Error: %s",
+                    row.get().key(), valueType.getSimpleName(), e.getMessage());
+            generator.writeNull();
+        }
+    }
+}
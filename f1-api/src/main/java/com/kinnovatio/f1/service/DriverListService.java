@@ -21,6 +21,18 @@ public class DriverListService {
     @Inject
     ObjectMapper objectMapper;
 
+    @Inject
+    JsonEnvelopeWriter envelopeWriter;
+
+    /// Returns the driver list response from the pre-merged document written by the processor.
+    ///
+    /// The stored document is copied into the response envelope without any Json parsing or merging.
+    ///
+    /// @return The serialized response, or empty if the processor has not written a merged document yet.
+    public Optional<String> getDriverListMerged() {
+        return driverListRepository.getDriverListMerged().map(envelopeWriter::toEnvelopeJson);
+    }
+
     public Optional<ObjectNode> getDriverList() {
         String baselineDriverListJson = driverListRepository.getDriverListBaseline()
                 .map(SessionKeyedMessage::message)
@@ -0,0 +1,39 @@
+package com.kinnovatio.f1.service;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/// Relays the live gap table computed by the processor.
+///
+/// Each gap table update is kept as the current table and broadcast once on the live timing SSE stream as the
+/// `gapTable` event. The payload is passed through as received:
+/// ```
+/// {"timestamp": <epochMillis>, "lines": [[driver, completedLaps, gapToLeaderMillis, intervalMillis, point, retired], ...]}
+/// ```
+@ApplicationScoped
+public class GapTableService {
+    private static final String gapTableEvent = "gapTable";
+
+    @Inject
+    SseBroadcastHub broadcastHub;
+
+    private final AtomicReference<String> currentGapTable = new AtomicReference<>();
+
+    /// Consumes the gap table stream.
+    ///
+    /// @param gapTable The gap table (a Json string).
+    @Incoming("f1-live-gaps")
+    public void onGapTable(String gapTable) {
+        currentGapTable.set(gapTable);
+        broadcastHub.publish(gapTableEvent, gapTable);
+    }
+
+    /// Returns the most recent gap table, if any.
+    public Optional<String> getGapTable() {
+        return Optional.ofNullable(currentGapTable.get());
+    }
+}
@@ -0,0 +1,49 @@
+package com.kinnovatio.f1.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kinnovatio.f1.model.SessionKeyedMessage;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+
+/// Writes stored rows in the standard `updatedTimestamp`, `sessionId`, `message` response envelope.
+///
+/// The stored Json document is copied into the envelope as-is, without parsing it into a tree.
+@ApplicationScoped
+public class JsonEnvelopeWriter {
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    /// Serializes a row as an envelope Json string.
+    ///
+    /// @param row The stored row.
+    /// @return The envelope as a Json string.
+    public String toEnvelopeJson(SessionKeyedMessage row) {
+        StringWriter writer = new StringWriter(row.message().length() + 96);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(writer)) {
+            writeEnvelope(generator, row);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return writer.toString();
+    }
+
+    /// Writes a row as an envelope object to a generator.
+    ///
+    /// @param generator The generator to write to.
+    /// @param row The stored row.
+    /// @throws IOException If writing fails.
+    public void writeEnvelope(JsonGenerator generator, SessionKeyedMessage row) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("updatedTimestamp", row.updatedTimestamp().toString());
+        generator.writeNumberField("sessionId", row.sessionId());
+        generator.writeFieldName("message");
+        generator.writeRawValue(row.message());
+        generator.writeEndObject();
+    }
+}
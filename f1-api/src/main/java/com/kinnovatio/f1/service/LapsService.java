@@ -0,0 +1,56 @@
+package com.kinnovatio.f1.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.kinnovatio.f1.model.HistoryQuery;
+import com.kinnovatio.f1.model.Lap;
+import com.kinnovatio.f1.repository.LapsRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.List;
+
+@ApplicationScoped
+public class LapsService {
+
+    @Inject
+    LapsRepository lapsRepository;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    /// Returns a page of completed laps after the query's cursor.
+    ///
+    /// The response carries `lastId`, the id of the last returned row (or the incoming cursor when the page
+    /// is empty), which clients pass as `since` on their next poll to receive only new laps.
+    ///
+    /// @param query The session, cursor and page size.
+    /// @param driver The racing number of the driver, or `null` for all drivers.
+    /// @return A Json object with the `laps` array and the `lastId` cursor.
+    public ObjectNode getLaps(HistoryQuery query, String driver) {
+        List<Lap> laps = lapsRepository.getLaps(query, driver);
+        ObjectNode root = objectMapper.createObjectNode();
+        ArrayNode lapsArray = root.putArray("laps");
+
+        long lastId = query.sinceId();
+        for (Lap lap : laps) {
+            lapsArray.add(objectMapper.valueToTree(lap));
+            lastId = lap.id();
+        }
+
+        root.put("lastId", lastId);
+        return root;
+    }
+
+    /// Returns the latest completed lap of each driver, with the driver's best, mean and rolling lap times.
+    ///
+    /// @param sessionId The session to read, or `null` for the most recent session.
+    /// @return A Json object with the `drivers` array.
+    public ObjectNode getLapSummary(Integer sessionId) {
+        ObjectNode root = objectMapper.createObjectNode();
+        ArrayNode drivers = root.putArray("drivers");
+        lapsRepository.getLatestLaps(sessionId).forEach(lap -> drivers.add(objectMapper.valueToTree(lap)));
+        return root;
+    }
+}
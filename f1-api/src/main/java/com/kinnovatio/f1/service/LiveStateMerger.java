@@ -0,0 +1,93 @@
+package com.kinnovatio.f1.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/// Merges raw live timing messages into the state of their category, with the feed's delta semantics.
+///
+/// - A baseline (non-streaming) message replaces the state of its category.
+/// - A streaming message is merged into the state. Objects are merged recursively and values are replaced.
+/// - An object keyed by indexes (`{"3": {...}}`) updates the elements of an array (e.g. the sectors of a
+///   baseline timing data line), and appends when the index is the array's size.
+/// - A `_deleted` list removes the listed keys or indexes.
+///
+/// This is the merge the processor applies when it writes the checkpoints. Keep the two in line, so a state
+/// rebuilt from a checkpoint equals a state replayed from the first message.
+final class LiveStateMerger {
+    private static final String deletedKey = "_deleted";
+
+    private LiveStateMerger() {}
+
+    /// Applies a raw message to the state map.
+    ///
+    /// @param state The state per category. Updated in place.
+    /// @param category The category of the message.
+    /// @param isStreaming `false` for a baseline message.
+    /// @param message The message payload. Owned by the state after the call.
+    static void apply(Map<String, JsonNode> state, String category, boolean isStreaming, JsonNode message) {
+        JsonNode current = state.get(category);
+        state.put(category, !isStreaming || current == null ? message : merge(current, message));
+    }
+
+    /// Merges an update into a target node.
+    ///
+    /// @return The merged node: the target updated in place, or the update when it replaces the target.
+    static JsonNode merge(JsonNode target, JsonNode update) {
+        if (!update.isObject()) {
+            return update;
+        }
+        if (target instanceof ObjectNode targetObject) {
+            for (Map.Entry<String, JsonNode> field : update.properties()) {
+                if (deletedKey.equals(field.getKey())) {
+                    field.getValue().forEach(key -> targetObject.remove(key.asText()));
+                    continue;
+                }
+                JsonNode child = targetObject.get(field.getKey());
+                targetObject.set(field.getKey(), child == null ? field.getValue() : merge(child, field.getValue()));
+            }
+            return targetObject;
+        }
+        if (target instanceof ArrayNode targetArray) {
+            List<Integer> deleted = new ArrayList<>();
+            for (Map.Entry<String, JsonNode> field : update.properties()) {
+                if (deletedKey.equals(field.getKey())) {
+                    field.getValue().forEach(index -> deleted.add(index.asInt(-1)));
+                    continue;
+                }
+                int index = parseIndex(field.getKey());
+                if (index < 0) {
+                    // Not an indexed update. The update replaces the array.
+                    return update;
+                }
+                while (targetArray.size() < index) {
+                    targetArray.add(NullNode.getInstance());
+                }
+                if (index == targetArray.size()) {
+                    targetArray.add(field.getValue());
+                } else {
+                    targetArray.set(index, merge(targetArray.get(index), field.getValue()));
+                }
+            }
+            deleted.stream()
+                    .filter(index -> index >= 0 && index < targetArray.size())
+                    .sorted((a, b) -> b - a)
+                    .forEach(index -> targetArray.remove((int) index));
+            return targetArray;
+        }
+        return update;
+    }
+
+    private static int parseIndex(String key) {
+        try {
+            return Integer.parseInt(key);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
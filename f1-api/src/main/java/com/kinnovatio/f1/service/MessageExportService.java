@@ -0,0 +1,140 @@
+package com.kinnovatio.f1.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kinnovatio.f1.repository.RawMessageRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.zip.GZIPOutputStream;
+
+/// Streams historical raw live timing messages as newline-delimited Json (NDJSON).
+///
+/// Each line has the same shape as a serialized `LiveTimingMessage` (`category`, `message`, `timestamp`,
+/// `isStreaming`) plus the row `id`, so an export can be fed straight back into the replay tooling.
+/// The number of concurrent exports is capped, since every export holds a database connection for its
+/// whole duration.
+@ApplicationScoped
+public class MessageExportService {
+    private static final Logger LOG = Logger.getLogger(MessageExportService.class);
+
+    @Inject
+    RawMessageRepository rawMessageRepository;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "app.export.max-concurrent", defaultValue = "2")
+    int maxConcurrentExports;
+
+    private Semaphore exportSlots;
+    private Counter exportedRows;
+
+    @PostConstruct
+    void init() {
+        exportSlots = new Semaphore(maxConcurrentExports);
+        exportedRows = Counter.builder("livetiming_api_export_rows_total")
+                .description("Total number of raw messages streamed by the export endpoint.")
+                .register(registry);
+        Gauge.builder("livetiming_api_export_active", exportSlots,
+                        slots -> maxConcurrentExports - slots.availablePermits())
+                .description("Number of raw message exports currently streaming.")
+                .register(registry);
+    }
+
+    /// Prepares an export if an export slot is free.
+    ///
+    /// The slot itself is only taken when the export starts writing, see [Export#writeTo], so an export that is
+    /// never written (e.g. the client disconnects before the response is sent) does not hold a slot.
+    ///
+    /// @return An export, or empty if the maximum number of concurrent exports is already running.
+    public Optional<Export> tryStartExport(Instant from, Instant to, Set<String> categories, boolean compress) {
+        if (exportSlots.availablePermits() < 1) {
+            LOG.infof("Rejected export request. %d exports are already running.", maxConcurrentExports);
+            return Optional.empty();
+        }
+        return Optional.of(new Export(from, to, categories, compress));
+    }
+
+    /// A single export prepared by [#tryStartExport].
+    public final class Export {
+        private final Instant from;
+        private final Instant to;
+        private final Set<String> categories;
+        private final boolean compress;
+
+        private Export(Instant from, Instant to, Set<String> categories, boolean compress) {
+            this.from = from;
+            this.to = to;
+            this.categories = categories;
+            this.compress = compress;
+        }
+
+        /// Takes an export slot, streams the export to the output and releases the slot.
+        ///
+        /// @param outputStream The stream to write the NDJSON lines (optionally gzip compressed) to.
+        /// @throws IOException If writing to the stream or reading from the database fails.
+        /// @throws WebApplicationException With status 429 if the export slots were taken since the export was
+        ///         prepared.
+        public void writeTo(OutputStream outputStream) throws IOException {
+            if (!exportSlots.tryAcquire()) {
+                LOG.infof("Rejected export request. %d exports are already running.", maxConcurrentExports);
+                throw new WebApplicationException(Response.status(Response.Status.TOO_MANY_REQUESTS)
+                        .header("Retry-After", 60)
+                        .entity("Too many concurrent exports. Please retry later.")
+                        .build());
+            }
+            Instant startTime = Instant.now();
+            try {
+                OutputStream target = compress ? new GZIPOutputStream(outputStream, 64 * 1024) : outputStream;
+                long rowCount;
+                try (JsonGenerator generator = objectMapper.getFactory().createGenerator(target)) {
+                    // The response stream is owned by the container. Gzip is finished explicitly below.
+                    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                    rowCount = rawMessageRepository.streamMessages(from, to, categories, row -> {
+                        generator.writeStartObject();
+                        generator.writeNumberField("id", row.id());
+                        generator.writeStringField("category", row.category());
+                        generator.writeStringField("message", row.message());
+                        generator.writeStringField("timestamp",
+                                row.messageTimestamp() == null ? null : row.messageTimestamp().toString());
+                        generator.writeBooleanField("isStreaming", row.isStreaming());
+                        generator.writeEndObject();
+                        generator.writeRaw('\n');
+                        exportedRows.increment();
+                    });
+                }
+                if (target instanceof GZIPOutputStream gzip) {
+                    gzip.finish();
+                }
+
+                Duration elapsed = Duration.between(startTime, Instant.now());
+                LOG.infof("Exported %d messages from %s to %s in %s (%.0f rows/s).",
+                        rowCount, from, to, elapsed, rowCount / Math.max(elapsed.toMillis() / 1000d, 0.001));
+            } catch (Exception e) {
+                LOG.warnf("Error when exporting messages from %s to %s. Error: %s", from, to, e.getMessage());
+                throw new IOException("Error exporting messages", e);
+            } finally {
+                exportSlots.release();
+            }
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.kinnovatio.f1.model.HistoryQuery;
 import com.kinnovatio.f1.model.SessionMessage;
 import com.kinnovatio.f1.repository.RaceControlMessagesRepository;
 import jakarta.enterprise.context.ApplicationScoped;
@@ -24,17 +25,27 @@ public class RaceControlMessageService {
     @Inject
     ObjectMapper objectMapper;
 
-    public ObjectNode getRaceControlMessages() {
-        List<SessionMessage> raceControlMessages = raceControlMessagesRepository.getRaceControlMessages();
+    /// Returns a page of messages after the query's cursor.
+    ///
+    /// The response carries `lastId`, the id of the last returned row (or the incoming cursor when the page
+    /// is empty, a timestamp cursor resolved to a row id), which clients pass as `since` on their next poll to
+    /// receive only new rows.
+    ///
+    /// @param query The session, cursor and page size.
+    /// @return A Json object with the `messages` array and the `lastId` cursor.
+    public ObjectNode getRaceControlMessages(HistoryQuery query) {
+        List<SessionMessage> raceControlMessages = raceControlMessagesRepository.getRaceControlMessages(query);
         ObjectNode root = objectMapper.createObjectNode();
         ArrayNode messages = root.putArray("messages");
 
         Set<Integer> sessionIds = new HashSet<>();
+        long lastId = query.sinceId();
 
         for (SessionMessage message : raceControlMessages) {
             try {
                 messages.add(objectMapper.readTree(message.message()));
                 sessionIds.add(message.sessionId());
+                lastId = message.id();
             } catch (JsonProcessingException e) {
                 LOG.warnf("Error parsing the raw race control message into a Json tree structure. Error: %s",
                         e.getMessage());
@@ -48,6 +59,12 @@ public class RaceControlMessageService {
                     sessionIds.toString());
         }
 
+        // A timestamp cursor resolves to the last row at or before it, so an empty page keeps the client's place
+        if (raceControlMessages.isEmpty() && query.sinceTimestamp() != null) {
+            lastId = raceControlMessagesRepository.getCursorId(query);
+        }
+
+        root.put("lastId", lastId);
         return root;
     }
 
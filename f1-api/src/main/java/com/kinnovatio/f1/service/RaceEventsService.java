@@ -0,0 +1,62 @@
+package com.kinnovatio.f1.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.kinnovatio.f1.model.HistoryQuery;
+import com.kinnovatio.f1.model.RaceEvent;
+import com.kinnovatio.f1.repository.RaceEventsRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+
+import java.util.List;
+
+/// Serves the race events derived by the processor: from the race events table for polling clients, and
+/// relayed from the race events stream to the live timing SSE stream as `raceEvent` events.
+@ApplicationScoped
+public class RaceEventsService {
+    private static final String raceEventEvent = "raceEvent";
+
+    @Inject
+    RaceEventsRepository raceEventsRepository;
+
+    @Inject
+    SseBroadcastHub broadcastHub;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    /// Consumes the race events stream. Each event carries its row `id`, which SSE clients can pass as `since`
+    /// to catch up from the api after a reconnect.
+    ///
+    /// @param raceEvent The race event (a Json string).
+    @Incoming("f1-live-race-events")
+    public void onRaceEvent(String raceEvent) {
+        broadcastHub.publish(raceEventEvent, raceEvent);
+    }
+
+    /// Returns a page of race events after the query's cursor.
+    ///
+    /// The response carries `lastId`, the id of the last returned row (or the incoming cursor when the page
+    /// is empty), which clients pass as `since` on their next poll to receive only new events.
+    ///
+    /// @param query The session, cursor and page size.
+    /// @param types The event types to return, or `null` for all types.
+    /// @param driver The racing number of the driver, or `null` for all drivers.
+    /// @return A Json object with the `events` array and the `lastId` cursor.
+    public ObjectNode getEvents(HistoryQuery query, List<String> types, String driver) {
+        List<RaceEvent> events = raceEventsRepository.getEvents(query, types, driver);
+        ObjectNode root = objectMapper.createObjectNode();
+        ArrayNode eventsArray = root.putArray("events");
+
+        long lastId = query.sinceId();
+        for (RaceEvent event : events) {
+            eventsArray.add(objectMapper.valueToTree(event));
+            lastId = event.id();
+        }
+
+        root.put("lastId", lastId);
+        return root;
+    }
+}
@@ -0,0 +1,35 @@
+package com.kinnovatio.f1.service;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+
+/// Relays the mini-sector (segment) status frames computed by the processor.
+///
+/// Each frame is broadcast once on the live timing SSE stream as the `segments` event. The payload is passed
+/// through as received:
+/// ```
+/// {"timestamp": <epochMillis>,
+///  "lines": {"<racing number>": ["PGGY|YY..|......", <bestSector1Millis>, <bestSector2Millis>, <bestSector3Millis>,
+///                                [[<status>, ...], [<status>, ...], [<status>, ...]]]},
+///  "overallBestSectors": [[<millis>, "<racing number>"], ...]}
+/// ```
+/// One character per segment, `|` between sectors: `.` not completed, `Y` completed, `G` personal best,
+/// `P` overall best, `L` pit lane, `S` stopped or off track. The last element holds the full status bit field of
+/// each segment per sector, as published by the feed. A line replaces the driver's previous line. The full
+/// status of all drivers is served by `live/timing-data/segments`.
+@ApplicationScoped
+public class SegmentStatusService {
+    private static final String segmentsEvent = "segments";
+
+    @Inject
+    SseBroadcastHub broadcastHub;
+
+    /// Consumes the segment status stream.
+    ///
+    /// @param segments The segment status frame (a Json string).
+    @Incoming("f1-live-segments")
+    public void onSegments(String segments) {
+        broadcastHub.publish(segmentsEvent, segments);
+    }
+}
@@ -0,0 +1,75 @@
+package com.kinnovatio.f1.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.kinnovatio.f1.model.ArchivedCategory;
+import com.kinnovatio.f1.repository.SessionArchiveRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+/// Serves the final state and history of finished sessions from the session archive.
+///
+/// When a session ends, the live processor moves the session's rows from the live tables into the archive: one
+/// gzip-compressed document per category. Keyed categories (e.g. `TimingData`) are objects keyed by row key
+/// (`timingDataMerged`, ...). History categories (e.g. `RaceControlMessages`, `Laps`) are arrays of rows in id
+/// order, with the column names as property names.
+@ApplicationScoped
+public class SessionArchiveService {
+
+    @Inject
+    SessionArchiveRepository sessionArchiveRepository;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    /// Returns the archived state of a finished session.
+    ///
+    /// The response carries the `sessionId`, the time of the last archive run (`archivedTimestamp`), and per
+    /// category the number of archived rows (`rowCounts`) and the archived document (`state`).
+    ///
+    /// @param sessionId The session id.
+    /// @param categories The categories to include. An empty set includes all categories.
+    /// @return A Json object with the archived state, or empty if the session is not archived.
+    /// @throws IOException if an archived document cannot be parsed.
+    public Optional<ObjectNode> getSession(int sessionId, Set<String> categories) throws IOException {
+        List<ArchivedCategory> archived = sessionArchiveRepository.findSession(sessionId, categories);
+        if (archived.isEmpty()) {
+            return Optional.empty();
+        }
+
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("sessionId", sessionId);
+        root.put("archivedTimestamp", archived.stream()
+                .map(ArchivedCategory::archivedTimestamp)
+                .max(Instant::compareTo)
+                .map(Instant::toString)
+                .orElse(null));
+        ObjectNode rowCounts = root.putObject("rowCounts");
+        ObjectNode state = root.putObject("state");
+        for (ArchivedCategory category : archived) {
+            rowCounts.put(category.category(), category.rowCount());
+            try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(category.document()))) {
+                state.set(category.category(), objectMapper.readTree(in));
+            }
+        }
+        return Optional.of(root);
+    }
+
+    /// Returns the ids of the archived sessions, latest archive first.
+    public ObjectNode getSessionIds() {
+        ObjectNode root = objectMapper.createObjectNode();
+        ArrayNode sessions = root.putArray("sessions");
+        sessionArchiveRepository.findSessionIds().forEach(sessions::add);
+        return root;
+    }
+}
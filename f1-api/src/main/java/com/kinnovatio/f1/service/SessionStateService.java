@@ -0,0 +1,102 @@
+package com.kinnovatio.f1.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.kinnovatio.f1.model.StateCheckpoint;
+import com.kinnovatio.f1.repository.CheckpointRepository;
+import com.kinnovatio.f1.repository.RawMessageRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+/// Rebuilds the merged live timing state at any point in time of a recorded session.
+///
+/// The state is loaded from the nearest checkpoint of the session at or before the requested time, and only the
+/// raw messages between that checkpoint and the requested time are merged on top. The messages are bounded by the
+/// next checkpoint of the same session, so messages of other sessions are never merged. With a checkpoint every
+/// `app.checkpoint.interval` of message time, a rebuild reads one checkpoint and at most one interval of
+/// messages, wherever the point in time is in the session.
+@ApplicationScoped
+public class SessionStateService {
+    private static final Logger LOG = Logger.getLogger(SessionStateService.class);
+
+    @Inject
+    CheckpointRepository checkpointRepository;
+
+    @Inject
+    RawMessageRepository rawMessageRepository;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    /// Returns the merged state of the live timing categories at a point in time.
+    ///
+    /// The response carries the `state` keyed by category (with the feed's property names), the `sessionId`,
+    /// the `checkpointMessageId` the rebuild started from, the `lastMessageId` included, and the number of
+    /// messages merged on top of the checkpoint (`deltaCount`).
+    ///
+    /// @param sessionId The session, or `null` for the session of the latest checkpoint at or before `at`.
+    /// @param at The point in time.
+    /// @param categories The categories to include. An empty set includes all categories.
+    /// @return A Json object with the state at `at`.
+    /// @throws SQLException if a database access error occurs.
+    /// @throws IOException if a checkpoint or message cannot be parsed.
+    public ObjectNode getStateAt(Integer sessionId, Instant at, Set<String> categories)
+            throws SQLException, IOException {
+        Map<String, JsonNode> state = new TreeMap<>();
+        Optional<StateCheckpoint> checkpoint = checkpointRepository.findCheckpointAt(sessionId, at);
+        long checkpointMessageId = 0;
+        Integer checkpointSessionId = sessionId;
+        if (checkpoint.isPresent()) {
+            checkpointMessageId = checkpoint.get().messageId();
+            checkpointSessionId = checkpoint.get().sessionId();
+            try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(checkpoint.get().state()))) {
+                objectMapper.readTree(in).properties().forEach(entry -> {
+                    if (categories.isEmpty() || categories.contains(entry.getKey())) {
+                        state.put(entry.getKey(), entry.getValue());
+                    }
+                });
+            }
+        }
+
+        OptionalLong nextCheckpointMessageId =
+                checkpointRepository.findNextCheckpointMessageId(checkpointSessionId, checkpointMessageId);
+        AtomicLong lastMessageId = new AtomicLong(checkpointMessageId);
+        long deltaCount = rawMessageRepository.streamMessagesAfter(checkpointMessageId,
+                nextCheckpointMessageId.isPresent() ? nextCheckpointMessageId.getAsLong() : null,
+                at,
+                categories,
+                row -> {
+                    LiveStateMerger.apply(state, row.category(), row.isStreaming(), objectMapper.readTree(row.message()));
+                    lastMessageId.set(row.id());
+                });
+        LOG.debugf("Rebuilt the state at %s from checkpoint %d and %d messages.", at, checkpointMessageId, deltaCount);
+
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("at", at.toString());
+        if (checkpointSessionId != null) {
+            root.put("sessionId", checkpointSessionId);
+        } else {
+            root.putNull("sessionId");
+        }
+        root.put("checkpointMessageId", checkpointMessageId);
+        root.put("lastMessageId", lastMessageId.get());
+        root.put("deltaCount", deltaCount);
+        root.putObject("state").setAll(state);
+        return root;
+    }
+}
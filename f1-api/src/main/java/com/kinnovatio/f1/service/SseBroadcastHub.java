@@ -0,0 +1,162 @@
+package com.kinnovatio.f1.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.jboss.logging.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/// Shared fan-out hub for the live timing Server-Sent Events (SSE) stream.
+///
+/// The hub consumes the `f1-live-processed` channel once for the whole application. Each message is
+/// encoded into a complete SSE frame exactly once and the same immutable buffer is written to every
+/// connected subscriber. A single heartbeat timer serves all subscribers, so the cost of a message is
+/// one encode plus one buffer write per client, independent of any per-client stream pipeline.
+///
+/// Subscribers whose write queue is full (slow or stalled clients) skip frames instead of buffering
+/// them without bounds.
+@ApplicationScoped
+public class SseBroadcastHub {
+    private static final Logger LOG = Logger.getLogger(SseBroadcastHub.class);
+
+    /// The ping frame is constant, so it is encoded once for the lifetime of the application.
+    private static final Buffer PING_FRAME = encodeFrame(null, "{}");
+
+    private final Set<HttpServerResponse> subscribers = ConcurrentHashMap.newKeySet();
+
+    @Inject
+    Vertx vertx;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "app.sse.heartbeat-interval", defaultValue = "10s")
+    Duration heartbeatInterval;
+
+    private Counter framesBroadcast;
+    private Counter framesDropped;
+    private long heartbeatTimerId = -1;
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("livetiming_api_sse_subscribers", subscribers, Set::size)
+                .description("Number of clients currently subscribed to the live timing SSE stream.")
+                .register(registry);
+        framesBroadcast = Counter.builder("livetiming_api_sse_frames_broadcast_total")
+                .description("Total number of SSE frames encoded and broadcast by the hub.")
+                .register(registry);
+        framesDropped = Counter.builder("livetiming_api_sse_frames_dropped_total")
+                .description("Total number of SSE frames skipped for subscribers with a full write queue.")
+                .register(registry);
+
+        heartbeatTimerId = vertx.setPeriodic(heartbeatInterval.toMillis(), id -> broadcast(PING_FRAME));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (heartbeatTimerId != -1) {
+            vertx.cancelTimer(heartbeatTimerId);
+        }
+        subscribers.forEach(response -> {
+            if (!response.closed()) {
+                response.end();
+            }
+        });
+        subscribers.clear();
+    }
+
+    /// Consumes the processed live timing stream once and fans it out to all subscribers.
+    ///
+    /// @param message The processed live timing message (a Json string).
+    @Incoming("f1-live-processed")
+    public void onLiveTimingMessage(String message) {
+        publish(null, message);
+    }
+
+    /// Encodes a message as an SSE frame and broadcasts it to all subscribers.
+    ///
+    /// @param eventName The SSE event name. Use `null` for the default (unnamed) `message` event.
+    /// @param data The event payload.
+    public void publish(String eventName, String data) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        broadcast(encodeFrame(eventName, data));
+    }
+
+    /// Registers a client response as a subscriber to the SSE stream.
+    ///
+    /// The response headers are written immediately and the subscriber is removed again when the
+    /// connection closes.
+    ///
+    /// @param response The HTTP response of the subscribing client.
+    public void subscribe(HttpServerResponse response) {
+        response.setChunked(true)
+                .putHeader("Content-Type", "text/event-stream")
+                .putHeader("Cache-Control", "no-cache")
+                .putHeader("X-Accel-Buffering", "no");
+        response.closeHandler(v -> {
+            subscribers.remove(response);
+            LOG.debugf("SSE subscriber disconnected. Active subscribers: %d", subscribers.size());
+        });
+        response.exceptionHandler(e -> subscribers.remove(response));
+
+        // Flush the headers and an initial ping so the client knows the stream is open
+        response.write(PING_FRAME);
+        subscribers.add(response);
+        LOG.debugf("SSE subscriber connected. Active subscribers: %d", subscribers.size());
+    }
+
+    /// Returns the number of currently connected subscribers.
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /// Writes a pre-encoded frame to all subscribers.
+    private void broadcast(Buffer frame) {
+        framesBroadcast.increment();
+        for (HttpServerResponse response : subscribers) {
+            if (response.closed()) {
+                subscribers.remove(response);
+            } else if (response.writeQueueFull()) {
+                framesDropped.increment();
+            } else {
+                response.write(frame);
+            }
+        }
+    }
+
+    /// Encodes an SSE frame. Multi-line payloads are split into multiple `data:` fields per the SSE spec.
+    ///
+    /// @param eventName The SSE event name, or `null` for an unnamed event.
+    /// @param data The event payload.
+    /// @return The encoded frame.
+    static Buffer encodeFrame(String eventName, String data) {
+        StringBuilder frame = new StringBuilder(data.length() + 32);
+        if (eventName != null) {
+            frame.append("event: ").append(eventName).append('\n');
+        }
+        int start = 0;
+        int newline;
+        while ((newline = data.indexOf('\n', start)) != -1) {
+            frame.append("data: ").append(data, start, newline).append('\n');
+            start = newline + 1;
+        }
+        frame.append("data: ").append(data, start, data.length()).append("\n\n");
+
+        return Buffer.buffer(frame.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,27 @@
+package com.kinnovatio.f1.service;
+
+import com.kinnovatio.f1.repository.StintsRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.Optional;
+
+@ApplicationScoped
+public class StintsService {
+
+    @Inject
+    StintsRepository stintsRepository;
+
+    @Inject
+    JsonEnvelopeWriter envelopeWriter;
+
+    /// Returns the stints of all drivers, with their lap times and tyre degradation estimates.
+    ///
+    /// The processor maintains the stint model and stores it as a ready-to-serve document. The document is
+    /// copied into the response envelope without any Json parsing or recomputation.
+    ///
+    /// @return The serialized response, or empty if the processor has not written the stints yet.
+    public Optional<String> getStints() {
+        return stintsRepository.getStints().map(envelopeWriter::toEnvelopeJson);
+    }
+}
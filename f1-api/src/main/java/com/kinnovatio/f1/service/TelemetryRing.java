@@ -0,0 +1,100 @@
+package com.kinnovatio.f1.service;
+
+import com.kinnovatio.f1.model.TelemetryWindow;
+
+import java.nio.ByteBuffer;
+
+/// A fixed-capacity ring of telemetry samples in off-heap memory.
+///
+/// Each sample is a fixed-layout record of [#RECORD_BYTES] bytes (big-endian):
+/// ```
+/// long timestampMillis | short speed | short rpm | byte gear | byte throttle | byte brake | byte drs
+/// ```
+/// Samples are appended in timestamp order, so a time window is a contiguous range of the ring and is found
+/// with a binary search. Reads copy the range out as bytes, in the same layout.
+///
+/// A single thread appends. Readers are serialized with the writer on the ring's monitor, and only hold it
+/// for the duration of the copy.
+final class TelemetryRing {
+    static final int RECORD_BYTES = TelemetryWindow.RECORD_BYTES;
+
+    private final ByteBuffer buffer;
+    private final int capacity;
+
+    /// The total number of samples appended. The newest sample is at slot `(written - 1) % capacity`.
+    private long written = 0;
+
+    TelemetryRing(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The telemetry ring capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.buffer = ByteBuffer.allocateDirect(capacity * RECORD_BYTES);
+    }
+
+    synchronized void append(long timestampMillis, int speed, int rpm, int gear, int throttle, int brake, int drs) {
+        int offset = (int) (written % capacity) * RECORD_BYTES;
+        buffer.putLong(offset, timestampMillis)
+                .putShort(offset + 8, (short) speed)
+                .putShort(offset + 10, (short) rpm)
+                .put(offset + 12, (byte) gear)
+                .put(offset + 13, (byte) throttle)
+                .put(offset + 14, (byte) brake)
+                .put(offset + 15, (byte) drs);
+        written++;
+    }
+
+    /// Returns the timestamp of the newest sample, or `-1` if the ring is empty.
+    synchronized long lastTimestamp() {
+        return written == 0 ? -1 : timestampAt(written - 1);
+    }
+
+    /// Returns the number of samples currently held.
+    synchronized int size() {
+        return (int) Math.min(written, capacity);
+    }
+
+    /// Copies the samples with a timestamp at or after `fromMillis`, oldest first.
+    ///
+    /// @param fromMillis The start of the window, in milliseconds since the epoch.
+    /// @return The samples, [#RECORD_BYTES] bytes each.
+    synchronized byte[] copySince(long fromMillis) {
+        long oldest = Math.max(0, written - capacity);
+        // Binary search for the first sample in the window
+        long low = oldest;
+        long high = written;
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            if (timestampAt(mid) < fromMillis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        int count = (int) (written - low);
+        byte[] samples = new byte[count * RECORD_BYTES];
+        if (count == 0) {
+            return samples;
+        }
+        int startSlot = (int) (low % capacity);
+        int firstPart = Math.min(count, capacity - startSlot);
+        buffer.get(startSlot * RECORD_BYTES, samples, 0, firstPart * RECORD_BYTES);
+        if (firstPart < count) {
+            buffer.get(0, samples, firstPart * RECORD_BYTES, (count - firstPart) * RECORD_BYTES);
+        }
+        return samples;
+    }
+
+    synchronized void clear() {
+        written = 0;
+    }
+
+    /// Returns the off-heap size of the ring in bytes.
+    long capacityBytes() {
+        return (long) capacity * RECORD_BYTES;
+    }
+
+    private long timestampAt(long sequence) {
+        return buffer.getLong((int) (sequence % capacity) * RECORD_BYTES);
+    }
+}
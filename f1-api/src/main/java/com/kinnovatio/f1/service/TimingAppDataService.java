@@ -21,6 +21,18 @@ public class TimingAppDataService {
     @Inject
     ObjectMapper objectMapper;
 
+    @Inject
+    JsonEnvelopeWriter envelopeWriter;
+
+    /// Returns the timing app data response from the pre-merged document written by the processor.
+    ///
+    /// The stored document is copied into the response envelope without any Json parsing or merging.
+    ///
+    /// @return The serialized response, or empty if the processor has not written a merged document yet.
+    public Optional<String> getTimingAppDataMerged() {
+        return timingAppDataRepository.getTimingAppDataMerged().map(envelopeWriter::toEnvelopeJson);
+    }
+
     public Optional<ObjectNode> getTimingAppData() {
         String baselineTimingDataJson = timingAppDataRepository.getTimingAppDataBaseline()
                 .map(SessionKeyedMessage::message)
@@ -21,6 +21,25 @@ public class TimingDataService {
     @Inject
     ObjectMapper objectMapper;
 
+    @Inject
+    JsonEnvelopeWriter envelopeWriter;
+
+    /// Returns the timing data response from the pre-merged document written by the processor.
+    ///
+    /// The stored document is copied into the response envelope without any Json parsing or merging.
+    ///
+    /// @return The serialized response, or empty if the processor has not written a merged document yet.
+    public Optional<String> getTimingDataMerged() {
+        return timingDataRepository.getTimingDataMerged().map(envelopeWriter::toEnvelopeJson);
+    }
+
+    /// Returns the segment status of all drivers in the compact encoding written by the processor.
+    ///
+    /// @return The serialized response, or empty if the processor has not written the segment status yet.
+    public Optional<String> getTimingDataSegments() {
+        return timingDataRepository.getTimingDataSegments().map(envelopeWriter::toEnvelopeJson);
+    }
+
     public Optional<ObjectNode> getTimingData() {
         String baselineTimingDataJson = timingDataRepository.getTimingDataBaseline()
                 .map(SessionKeyedMessage::message)
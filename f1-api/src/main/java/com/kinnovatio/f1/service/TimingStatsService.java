@@ -21,6 +21,18 @@ public class TimingStatsService {
     @Inject
     ObjectMapper objectMapper;
 
+    @Inject
+    JsonEnvelopeWriter envelopeWriter;
+
+    /// Returns the timing stats response from the pre-merged document written by the processor.
+    ///
+    /// The stored document is copied into the response envelope without any Json parsing or merging.
+    ///
+    /// @return The serialized response, or empty if the processor has not written a merged document yet.
+    public Optional<String> getTimingStatsMerged() {
+        return timingStatsRepository.getTimingStatsMerged().map(envelopeWriter::toEnvelopeJson);
+    }
+
     public Optional<ObjectNode> getTimingStats() {
         String baselineTimingStatsJson = timingStatsRepository.getTimingStatsBaseline()
                 .map(SessionKeyedMessage::message)
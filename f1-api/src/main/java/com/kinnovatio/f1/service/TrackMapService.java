@@ -0,0 +1,332 @@
+package com.kinnovatio.f1.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kinnovatio.f1.model.CarPosition;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.vertx.core.Vertx;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/// Keeps the live car positions (`Position.z`) and produces compact track-map frames.
+///
+/// The latest position of each car is held in primitive arrays indexed by car number, next to a short
+/// per-car history used to interpolate the position at a given time. On a fixed interval the service takes a
+/// snapshot of all cars as a fixed-layout frame, keeps it as the current frame and broadcasts it on the SSE
+/// stream as the `trackMap` event. Serving the track map is then a copy of the current frame.
+///
+/// Frame layout (big-endian):
+/// ```
+/// long timestampMillis | short carCount | (byte car | byte status | int x | int y | int z) * carCount
+/// ```
+/// The status is `0` unknown, `1` on track and `2` off track.
+@ApplicationScoped
+public class TrackMapService {
+    private static final Logger LOG = Logger.getLogger(TrackMapService.class);
+    private static final String positionCategory = "Position.z";
+    private static final String trackMapEvent = "trackMap";
+    private static final int maxCarNumber = 99;
+    private static final int frameHeaderBytes = 10;
+    private static final int frameCarBytes = 14;
+
+    public static final byte STATUS_UNKNOWN = 0;
+    public static final byte STATUS_ON_TRACK = 1;
+    public static final byte STATUS_OFF_TRACK = 2;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    SseBroadcastHub broadcastHub;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    Vertx vertx;
+
+    @ConfigProperty(name = "app.track-map.frame-interval", defaultValue = "250ms")
+    Duration frameInterval;
+
+    @ConfigProperty(name = "app.track-map.history-size", defaultValue = "32")
+    int historySize;
+
+    // The latest position per car, indexed by car number. Guarded by this.
+    private final long[] timestamps = new long[maxCarNumber + 1];
+    private final int[] x = new int[maxCarNumber + 1];
+    private final int[] y = new int[maxCarNumber + 1];
+    private final int[] z = new int[maxCarNumber + 1];
+    private final byte[] status = new byte[maxCarNumber + 1];
+    private long lastUpdateMillis = -1;
+
+    // The position history per car: historySize slots per car. Guarded by this.
+    private long[] historyTimestamps;
+    private int[] historyX;
+    private int[] historyY;
+    private int[] historyZ;
+    private final int[] historyCount = new int[maxCarNumber + 1];
+
+    private final AtomicReference<byte[]> currentFrame = new AtomicReference<>(emptyFrame());
+    private long frameSourceMillis = -1;
+    private long frameTimerId = -1;
+    private Counter framesBuilt;
+
+    @PostConstruct
+    void init() {
+        Arrays.fill(timestamps, -1);
+        historyTimestamps = new long[(maxCarNumber + 1) * historySize];
+        historyX = new int[(maxCarNumber + 1) * historySize];
+        historyY = new int[(maxCarNumber + 1) * historySize];
+        historyZ = new int[(maxCarNumber + 1) * historySize];
+        framesBuilt = Counter.builder("livetiming_api_track_map_frames_total")
+                .description("Total number of track-map frames built from the car positions.")
+                .register(registry);
+        frameTimerId = vertx.setPeriodic(frameInterval.toMillis(), id -> takeSnapshot());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (frameTimerId != -1) {
+            vertx.cancelTimer(frameTimerId);
+        }
+    }
+
+    /// Consumes the processed live timing stream and decodes the car position messages.
+    ///
+    /// @param record The processed live timing record. The record key is the message category.
+    @Incoming("f1-live-processed")
+    public void onLiveTimingMessage(ConsumerRecord<String, String> record) {
+        if (!positionCategory.equals(record.key()) || record.value() == null) {
+            return;
+        }
+        try {
+            String payload = objectMapper.readTree(record.value()).path("message").asText("");
+            decodePositions(payload, record.timestamp());
+        } catch (IOException e) {
+            LOG.warnf("Error when decoding a car position message. Error: %s", e.getMessage());
+        }
+    }
+
+    /// Returns the current track-map frame.
+    public byte[] getCurrentFrame() {
+        return currentFrame.get();
+    }
+
+    /// Returns the position of a car at a point in time, interpolated from its position history.
+    ///
+    /// Times before the oldest history entry return the oldest entry. Times after the newest entry return the
+    /// newest entry.
+    ///
+    /// @param car The racing number of the car.
+    /// @param at The point in time, or `null` for the latest position.
+    /// @return The position, or empty if there is no position for the car.
+    public synchronized Optional<CarPosition> getPosition(String car, Instant at) {
+        int carIndex = parseCarNumber(car);
+        if (carIndex < 0 || historyCount[carIndex] == 0) {
+            return Optional.empty();
+        }
+        if (at == null) {
+            return Optional.of(new CarPosition(String.valueOf(carIndex), Instant.ofEpochMilli(timestamps[carIndex]),
+                    x[carIndex], y[carIndex], z[carIndex], statusName(status[carIndex]), false));
+        }
+
+        long atMillis = at.toEpochMilli();
+        int count = Math.min(historyCount[carIndex], historySize);
+        int base = carIndex * historySize;
+        int newest = (historyCount[carIndex] - 1) % historySize;
+        int oldest = historyCount[carIndex] > historySize ? historyCount[carIndex] % historySize : 0;
+
+        // Walk back from the newest entry to the first entry at or before the requested time
+        int later = newest;
+        for (int i = 0; i < count; i++) {
+            int slot = Math.floorMod(newest - i, historySize);
+            long slotMillis = historyTimestamps[base + slot];
+            if (slotMillis <= atMillis) {
+                if (slot == newest) {
+                    return Optional.of(historyPosition(carIndex, slot, false));
+                }
+                long laterMillis = historyTimestamps[base + later];
+                double fraction = (double) (atMillis - slotMillis) / Math.max(1, laterMillis - slotMillis);
+                return Optional.of(new CarPosition(String.valueOf(carIndex), at,
+                        interpolate(historyX[base + slot], historyX[base + later], fraction),
+                        interpolate(historyY[base + slot], historyY[base + later], fraction),
+                        interpolate(historyZ[base + slot], historyZ[base + later], fraction),
+                        statusName(status[carIndex]),
+                        true));
+            }
+            later = slot;
+        }
+        return Optional.of(historyPosition(carIndex, oldest, false));
+    }
+
+    /// Builds a frame from the latest positions, if they changed since the previous frame, and broadcasts it.
+    void takeSnapshot() {
+        byte[] frame;
+        synchronized (this) {
+            if (lastUpdateMillis == frameSourceMillis) {
+                return;
+            }
+            frameSourceMillis = lastUpdateMillis;
+            int carCount = 0;
+            for (long timestamp : timestamps) {
+                if (timestamp >= 0) {
+                    carCount++;
+                }
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(frameHeaderBytes + carCount * frameCarBytes);
+            buffer.putLong(lastUpdateMillis).putShort((short) carCount);
+            for (int car = 0; car <= maxCarNumber; car++) {
+                if (timestamps[car] >= 0) {
+                    buffer.put((byte) car).put(status[car]).putInt(x[car]).putInt(y[car]).putInt(z[car]);
+                }
+            }
+            frame = buffer.array();
+        }
+        currentFrame.set(frame);
+        framesBuilt.increment();
+        if (broadcastHub.getSubscriberCount() > 0) {
+            broadcastHub.publish(trackMapEvent, Base64.getEncoder().encodeToString(frame));
+        }
+    }
+
+    /// Decodes a `Position.z` payload:
+    /// `{"position":[{"timestamp":"...","entries":{"44":{"status":"OnTrack","X":..,"Y":..,"Z":..}}}]}`.
+    private void decodePositions(String payload, long fallbackMillis) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(payload)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken token = parser.nextToken();
+                if ("position".equals(field) && token == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        decodeSnapshot(parser, fallbackMillis);
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    private void decodeSnapshot(JsonParser parser, long fallbackMillis) throws IOException {
+        long timestampMillis = fallbackMillis;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if ("timestamp".equals(field) && token == JsonToken.VALUE_STRING) {
+                try {
+                    timestampMillis = Instant.parse(parser.getText()).toEpochMilli();
+                } catch (DateTimeParseException e) {
+                    LOG.debugf("Invalid car position timestamp: %s", parser.getText());
+                }
+            } else if ("entries".equals(field) && token == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String car = parser.currentName();
+                    parser.nextToken();
+                    decodeEntry(parser, car, timestampMillis);
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private void decodeEntry(JsonParser parser, String car, long timestampMillis) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+        int entryX = 0, entryY = 0, entryZ = 0;
+        byte entryStatus = STATUS_UNKNOWN;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            switch (field) {
+                case "X" -> entryX = token.isNumeric() ? parser.getValueAsInt() : 0;
+                case "Y" -> entryY = token.isNumeric() ? parser.getValueAsInt() : 0;
+                case "Z" -> entryZ = token.isNumeric() ? parser.getValueAsInt() : 0;
+                case "status" -> entryStatus = switch (parser.getValueAsString("")) {
+                    case "OnTrack" -> STATUS_ON_TRACK;
+                    case "OffTrack" -> STATUS_OFF_TRACK;
+                    default -> STATUS_UNKNOWN;
+                };
+                default -> parser.skipChildren();
+            }
+        }
+        int carIndex = parseCarNumber(car);
+        if (carIndex >= 0) {
+            update(carIndex, timestampMillis, entryX, entryY, entryZ, entryStatus);
+        }
+    }
+
+    private synchronized void update(int car, long timestampMillis, int carX, int carY, int carZ, byte carStatus) {
+        if (timestampMillis < timestamps[car]) {
+            // Out of order, or a new session or replay. Restart the history of the car.
+            historyCount[car] = 0;
+        }
+        timestamps[car] = timestampMillis;
+        x[car] = carX;
+        y[car] = carY;
+        z[car] = carZ;
+        status[car] = carStatus;
+        lastUpdateMillis = Math.max(lastUpdateMillis, timestampMillis);
+
+        int slot = car * historySize + historyCount[car] % historySize;
+        historyTimestamps[slot] = timestampMillis;
+        historyX[slot] = carX;
+        historyY[slot] = carY;
+        historyZ[slot] = carZ;
+        historyCount[car]++;
+    }
+
+    private CarPosition historyPosition(int car, int slot, boolean interpolated) {
+        int index = car * historySize + slot;
+        return new CarPosition(String.valueOf(car), Instant.ofEpochMilli(historyTimestamps[index]),
+                historyX[index], historyY[index], historyZ[index], statusName(status[car]), interpolated);
+    }
+
+    private static int interpolate(int from, int to, double fraction) {
+        return (int) Math.round(from + (to - from) * fraction);
+    }
+
+    private static String statusName(byte carStatus) {
+        return switch (carStatus) {
+            case STATUS_ON_TRACK -> "OnTrack";
+            case STATUS_OFF_TRACK -> "OffTrack";
+            default -> "Unknown";
+        };
+    }
+
+    private static int parseCarNumber(String car) {
+        try {
+            int carNumber = Integer.parseInt(car.strip());
+            return carNumber >= 0 && carNumber <= maxCarNumber ? carNumber : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static byte[] emptyFrame() {
+        return ByteBuffer.allocate(frameHeaderBytes).putLong(-1).putShort((short) 0).array();
+    }
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.kinnovatio.f1.model.HistoryQuery;
 import com.kinnovatio.f1.model.SessionMessage;
 import com.kinnovatio.f1.repository.TrackStatusRepository;
 import jakarta.enterprise.context.ApplicationScoped;
@@ -26,13 +27,6 @@ public class TrackStatusService {
     ObjectMapper objectMapper;
 
     public ObjectNode getTrackStatus() {
-        ObjectNode fallback = objectMapper.createObjectNode()
-                .put("updatedTimestamp", Instant.now().toString())
-                .put("sessionId", -1)
-                .set("message", objectMapper.createObjectNode()
-                        .put("status", -1)
-                        .put("message", "Unknown"));
-
         return trackStatusRepository.getTrackStatus().<ObjectNode>map(sessionMessage -> {
             try {
                 return objectMapper.createObjectNode()
@@ -44,20 +38,38 @@ public class TrackStatusService {
                         e.getMessage());
                 throw new RuntimeException(e);
             }
-        }).orElse(fallback);
+        }).orElseGet(this::getFallbackTrackStatus);
     }
 
-    public ObjectNode getTrackStatusHistory() {
-        List<SessionMessage> trackStatusMessages = trackStatusRepository.getTrackStatusHistory();
+    /// Returns the track status document served when no track status is stored: status `-1`, "Unknown".
+    public ObjectNode getFallbackTrackStatus() {
+        return objectMapper.createObjectNode()
+                .put("updatedTimestamp", Instant.now().toString())
+                .put("sessionId", -1)
+                .set("message", objectMapper.createObjectNode()
+                        .put("status", -1)
+                        .put("message", "Unknown"));
+    }
+
+    /// Returns the track status changes of a session, one page at a time.
+    ///
+    /// When the page is empty, `lastId` is the incoming cursor, with a timestamp cursor resolved to a row id.
+    ///
+    /// @param query The session, cursor and page size.
+    /// @return A Json object with the `messages` array and the `lastId` cursor for the next poll.
+    public ObjectNode getTrackStatusHistory(HistoryQuery query) {
+        List<SessionMessage> trackStatusMessages = trackStatusRepository.getTrackStatusHistory(query);
         ObjectNode root = objectMapper.createObjectNode();
         ArrayNode messages = root.putArray("messages");
 
         Set<Integer> sessionIds = new HashSet<>();
+        long lastId = query.sinceId();
 
         for (SessionMessage message : trackStatusMessages) {
             try {
                 messages.add(objectMapper.readTree(message.message()));
                 sessionIds.add(message.sessionId());
+                lastId = message.id();
             } catch (JsonProcessingException e) {
                 LOG.warnf("Error parsing the raw track status message into a Json tree structure. Error: %s",
                         e.getMessage());
@@ -71,6 +83,12 @@ public class TrackStatusService {
                     sessionIds.toString());
         }
 
+        // A timestamp cursor resolves to the last row at or before it, so an empty page keeps the client's place
+        if (trackStatusMessages.isEmpty() && query.sinceTimestamp() != null) {
+            lastId = trackStatusRepository.getCursorId(query);
+        }
+
+        root.put("lastId", lastId);
         return root;
     }
 
@@ -54,6 +54,27 @@ public class AppLifeCycleObserver {
     @ConfigProperty(name = "app.timing-stats.table")
     String timingStatsTable;
 
+    @ConfigProperty(name = "app.laps.table")
+    String lapsTable;
+
+    @ConfigProperty(name = "app.race-events.table")
+    String raceEventsTable;
+
+    @ConfigProperty(name = "app.stints.table")
+    String stintsTable;
+
+    @ConfigProperty(name = "app.checkpoint.table")
+    String checkpointTable;
+
+    @ConfigProperty(name = "app.session-archive.table")
+    String sessionArchiveTable;
+
+    @ConfigProperty(name = "app.car-data.table")
+    String carDataTable;
+
+    @ConfigProperty(name = "app.car-position.table")
+    String carPositionTable;
+
     void onStart(@Observes StartupEvent ev) {
         // This runs when the application is starting.
         LOG.infof("Starting the live timing processor...");
@@ -61,6 +82,22 @@ public class AppLifeCycleObserver {
 
         createLiveTimingDbTableIfNotExists(livetimingTable);
         createSessionInfoDbTableIfNotExists(sessionInfoTable); // cannot use repositoryUtils because of session key field
+        createLapsDbTableIfNotExists(lapsTable);
+        createRaceEventsDbTableIfNotExists(raceEventsTable);
+        createCheckpointDbTableIfNotExists(checkpointTable);
+        createSessionArchiveDbTableIfNotExists(sessionArchiveTable);
+        createTelemetryDbTableIfNotExists(carDataTable, """
+                speed SMALLINT,
+                rpm SMALLINT,
+                gear SMALLINT,
+                throttle SMALLINT,
+                brake SMALLINT,
+                drs SMALLINT""");
+        createTelemetryDbTableIfNotExists(carPositionTable, """
+                status SMALLINT,
+                x INT,
+                y INT,
+                z INT""");
 
         try {
             repositoryUtilities.createMultiMessageDbTableIfNotExists(trackStatusTable);
@@ -70,6 +107,7 @@ public class AppLifeCycleObserver {
             repositoryUtilities.createKeyedMessageDbTableIfNotExists(timingDataTable);
             repositoryUtilities.createKeyedMessageDbTableIfNotExists(timingAppDataTable);
             repositoryUtilities.createKeyedMessageDbTableIfNotExists(timingStatsTable);
+            repositoryUtilities.createKeyedMessageDbTableIfNotExists(stintsTable);
         } catch (SQLException e) {
             LOG.errorf("Error when bootstrapping the DB tables. Error: %s", e.getMessage());
         }
@@ -98,9 +136,10 @@ public class AppLifeCycleObserver {
                 """.formatted(tableName);
 
         String createIndexStatement = """
-                CREATE INDEX IF NOT EXISTS idx_category_timestamp ON %s (category, message_timestamp);
-                CREATE INDEX IF NOT EXISTS idx_hash ON %s (message_hash);
-                """.formatted(tableName, tableName);
+                CREATE INDEX IF NOT EXISTS idx_category_timestamp ON %1$s (category, message_timestamp);
+                CREATE INDEX IF NOT EXISTS idx_timestamp_id ON %1$s (message_timestamp, id);
+                CREATE INDEX IF NOT EXISTS idx_hash ON %1$s (message_hash);
+                """.formatted(tableName);
 
         try (Connection connection = storageDataSource.getConnection(); Statement statement = connection.createStatement()) {
             statement.execute(createTableSql);
@@ -129,4 +168,156 @@ public class AppLifeCycleObserver {
         }
     }
 
+    /// Creates the laps table. One row per completed lap, keyed on session, driver and lap number.
+    /// Times are stored in milliseconds, with `-1` for unknown values.
+    private void createLapsDbTableIfNotExists(String tableName) {
+        String createTableSql = """
+                CREATE TABLE IF NOT EXISTS %s (
+                    id SERIAL PRIMARY KEY,
+                    session_id INT DEFAULT -1,
+                    driver VARCHAR(10),
+                    lap_number INT,
+                    lap_time_ms INT,
+                    sector1_ms INT,
+                    sector2_ms INT,
+                    sector3_ms INT,
+                    position INT,
+                    pit_in BOOLEAN DEFAULT FALSE,
+                    pit_out BOOLEAN DEFAULT FALSE,
+                    personal_best BOOLEAN DEFAULT FALSE,
+                    best_lap_time_ms INT,
+                    mean_lap_time_ms INT,
+                    rolling_lap_time_ms INT,
+                    timed_lap_count INT,
+                    message_timestamp TIMESTAMPTZ,
+                    updated_timestamp TIMESTAMPTZ DEFAULT NOW(),
+                    UNIQUE (session_id, driver, lap_number)
+                );
+                """.formatted(tableName);
+
+        String createIndexStatement = """
+                CREATE INDEX IF NOT EXISTS idx_%s_session_id ON %s (session_id, id);
+                """.formatted(tableName, tableName);
+
+        try (Connection connection = storageDataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute(createTableSql);
+            statement.execute(createIndexStatement);
+            LOG.infof("Successfully created (if not already exists) the laps DB table...");
+        } catch (Exception e) {
+            LOG.errorf("An error happened when creating the DB table: %s", e.getMessage());
+        }
+    }
+
+    /// Creates the race events table. One row per derived event. The indexes serve the api's keyset reads, for
+    /// all events and for selected event types.
+    private void createRaceEventsDbTableIfNotExists(String tableName) {
+        String createTableSql = """
+                CREATE TABLE IF NOT EXISTS %s (
+                    id BIGSERIAL PRIMARY KEY,
+                    session_id INT DEFAULT -1,
+                    event_type VARCHAR(40),
+                    driver VARCHAR(10),
+                    lap INT,
+                    sector INT,
+                    value TEXT,
+                    previous_value TEXT,
+                    message_timestamp TIMESTAMPTZ,
+                    created_timestamp TIMESTAMPTZ DEFAULT NOW()
+                );
+                """.formatted(tableName);
+
+        String createIndexStatement = """
+                CREATE INDEX IF NOT EXISTS idx_%s_session_id ON %s (session_id, id);
+                CREATE INDEX IF NOT EXISTS idx_%s_session_type ON %s (session_id, event_type, id);
+                """.formatted(tableName, tableName, tableName, tableName);
+
+        try (Connection connection = storageDataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute(createTableSql);
+            statement.execute(createIndexStatement);
+            LOG.infof("Successfully created (if not already exists) the race events DB table...");
+        } catch (Exception e) {
+            LOG.errorf("An error happened when creating the DB table: %s", e.getMessage());
+        }
+    }
+
+    /// Creates the checkpoint table. One row per checkpoint of the merged state, linked to the id of the last
+    /// raw message it includes. The state is a gzip-compressed Json document.
+    private void createCheckpointDbTableIfNotExists(String tableName) {
+        String createTableSql = """
+                CREATE TABLE IF NOT EXISTS %s (
+                    id SERIAL PRIMARY KEY,
+                    session_id INT NOT NULL DEFAULT -1,
+                    message_id BIGINT NOT NULL UNIQUE,
+                    message_timestamp TIMESTAMPTZ NOT NULL,
+                    state BYTEA,
+                    created_timestamp TIMESTAMPTZ DEFAULT NOW()
+                );
+                """.formatted(tableName);
+
+        // Tables created before checkpoints carried the session get the column, with -1 for the existing rows
+        String createIndexStatement = """
+                ALTER TABLE %1$s ADD COLUMN IF NOT EXISTS session_id INT NOT NULL DEFAULT -1;
+                CREATE INDEX IF NOT EXISTS idx_%1$s_message_timestamp ON %1$s (message_timestamp);
+                CREATE INDEX IF NOT EXISTS idx_%1$s_session_timestamp ON %1$s (session_id, message_timestamp);
+                CREATE INDEX IF NOT EXISTS idx_%1$s_session_message_id ON %1$s (session_id, message_id);
+                """.formatted(tableName);
+
+        try (Connection connection = storageDataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute(createTableSql);
+            statement.execute(createIndexStatement);
+            LOG.infof("Successfully created (if not already exists) the checkpoint DB table...");
+        } catch (Exception e) {
+            LOG.errorf("An error happened when creating the DB table: %s", e.getMessage());
+        }
+    }
+
+    /// Creates the session archive table. One row per session and category, with the final state or history of
+    /// the category as a gzip-compressed Json document. The unique constraint backs the per-session lookup.
+    private void createSessionArchiveDbTableIfNotExists(String tableName) {
+        String createTableSql = """
+                CREATE TABLE IF NOT EXISTS %s (
+                    id SERIAL PRIMARY KEY,
+                    session_id INT NOT NULL,
+                    category VARCHAR(100) NOT NULL,
+                    row_count INT,
+                    document BYTEA,
+                    message_timestamp TIMESTAMPTZ,
+                    archived_timestamp TIMESTAMPTZ DEFAULT NOW(),
+                    UNIQUE (session_id, category)
+                );
+                """.formatted(tableName);
+
+        try (Connection connection = storageDataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute(createTableSql);
+            LOG.infof("Successfully created (if not already exists) the session archive DB table...");
+        } catch (Exception e) {
+            LOG.errorf("An error happened when creating the DB table: %s", e.getMessage());
+        }
+    }
+
+    /// Creates a narrow telemetry table, range partitioned by day on the sample timestamp. The daily
+    /// partitions are created on demand by the telemetry storage processor. The BRIN index is defined on the
+    /// parent table and inherited by every partition.
+    private void createTelemetryDbTableIfNotExists(String tableName, String valueColumns) {
+        String createTableSql = """
+                CREATE TABLE IF NOT EXISTS %s (
+                    session_id INT DEFAULT -1,
+                    car SMALLINT,
+                    sample_timestamp TIMESTAMPTZ NOT NULL,
+                %s
+                ) PARTITION BY RANGE (sample_timestamp);
+                """.formatted(tableName, valueColumns.indent(4).stripTrailing());
+
+        String createIndexStatement = """
+                CREATE INDEX IF NOT EXISTS idx_%s_session_timestamp ON %s USING BRIN (session_id, sample_timestamp);
+                """.formatted(tableName, tableName);
+
+        try (Connection connection = storageDataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute(createTableSql);
+            statement.execute(createIndexStatement);
+            LOG.infof("Successfully created (if not already exists) the telemetry DB table: %s", tableName);
+        } catch (Exception e) {
+            LOG.errorf("An error happened when creating the DB table: %s", e.getMessage());
+        }
+    }
 }
@@ -0,0 +1,39 @@
+package com.kinnovatio.livetiming.model;
+
+import java.time.Instant;
+
+/// A lap completed by a driver, with the driver's running lap statistics at the end of the lap.
+///
+/// Times are in milliseconds. Unknown times (e.g. a sector that was never published) are `-1`.
+///
+/// @param driver The racing number of the driver.
+/// @param lapNumber The number of the completed lap.
+/// @param lapTimeMillis The lap time.
+/// @param sector1Millis The first sector time.
+/// @param sector2Millis The second sector time.
+/// @param sector3Millis The third sector time.
+/// @param position The position of the driver at the end of the lap, or `-1` if unknown.
+/// @param pitIn `true` if the driver entered the pit lane during the lap.
+/// @param pitOut `true` if the lap started from the pit lane.
+/// @param personalBest `true` if the lap is the driver's fastest so far.
+/// @param bestLapTimeMillis The driver's fastest lap so far.
+/// @param meanLapTimeMillis The driver's mean lap time over all timed laps so far.
+/// @param rollingLapTimeMillis The driver's mean lap time over the last timed laps (see the lap tracker window).
+/// @param timedLapCount The number of timed laps so far.
+/// @param timestamp The timestamp of the timing message completing the lap.
+public record CompletedLap(String driver,
+                           int lapNumber,
+                           int lapTimeMillis,
+                           int sector1Millis,
+                           int sector2Millis,
+                           int sector3Millis,
+                           int position,
+                           boolean pitIn,
+                           boolean pitOut,
+                           boolean personalBest,
+                           int bestLapTimeMillis,
+                           int meanLapTimeMillis,
+                           int rollingLapTimeMillis,
+                           int timedLapCount,
+                           Instant timestamp) {
+}
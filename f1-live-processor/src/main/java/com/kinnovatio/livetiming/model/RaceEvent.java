@@ -0,0 +1,37 @@
+package com.kinnovatio.livetiming.model;
+
+import java.time.Instant;
+
+/// A race event derived from the live timing state, such as a position change, a pit stop or a fastest lap.
+///
+/// Lap and sector times are the feed's text values (e.g. `1:32.456`). Fields that do not apply to an event
+/// type are `null` (text) or `-1` (numbers).
+///
+/// @param type The event type.
+/// @param driver The racing number of the driver, or `null` for session wide events (track status).
+/// @param lap The number of laps the driver had completed when the event occurred.
+/// @param sector The sector of a sector event (`1` to `3`).
+/// @param value The new value: the new position, the lap or sector time, the compound or the track status.
+/// @param previousValue The value before the event, if known.
+/// @param timestamp The timestamp of the message the event was derived from.
+public record RaceEvent(Type type,
+                        String driver,
+                        int lap,
+                        int sector,
+                        String value,
+                        String previousValue,
+                        Instant timestamp) {
+
+    public enum Type {
+        POSITION_CHANGE,
+        PIT_ENTRY,
+        PIT_EXIT,
+        TYRE_CHANGE,
+        PERSONAL_BEST_LAP,
+        OVERALL_BEST_LAP,
+        PERSONAL_BEST_SECTOR,
+        OVERALL_BEST_SECTOR,
+        TRACK_STATUS,
+        RETIREMENT
+    }
+}
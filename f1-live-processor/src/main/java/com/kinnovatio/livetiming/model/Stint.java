@@ -0,0 +1,34 @@
+package com.kinnovatio.livetiming.model;
+
+/// A tyre stint of a driver, with the lap times driven on the stint and a tyre degradation estimate.
+///
+/// Times are in milliseconds. Unknown values are `-1`.
+///
+/// @param stint The index of the stint, starting at `0`.
+/// @param compound The tyre compound, e.g. `SOFT`, or `UNKNOWN`.
+/// @param isNew `true` if the stint started on a new set of tyres.
+/// @param startTyreAge The age of the tyres (laps) at the start of the stint.
+/// @param tyreAge The current age of the tyres (laps), as published by the feed.
+/// @param startLap The first lap the driver completed on the stint.
+/// @param lapCount The number of laps completed on the stint.
+/// @param lapTimesMillis The lap times of the laps completed on the stint. `-1` for laps without a time.
+/// @param bestLapTimeMillis The fastest lap of the stint.
+/// @param sampleCount The number of laps in the degradation estimate: timed laps, excluding pit in and out
+///                    laps and laps more than 7% slower than the stint's fastest lap so far (e.g. behind a
+///                    safety car).
+/// @param meanLapTimeMillis The mean lap time of the laps in the degradation estimate.
+/// @param degradationMillisPerLap The least-squares slope of lap time over tyre age, or `null` with fewer
+///                                than three laps in the estimate.
+public record Stint(int stint,
+                    String compound,
+                    boolean isNew,
+                    int startTyreAge,
+                    int tyreAge,
+                    int startLap,
+                    int lapCount,
+                    int[] lapTimesMillis,
+                    int bestLapTimeMillis,
+                    int sampleCount,
+                    int meanLapTimeMillis,
+                    Double degradationMillisPerLap) {
+}
@@ -0,0 +1,244 @@
+package com.kinnovatio.livetiming.processor;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/// Writes periodic checkpoints of the merged live timing state, for fast rewind to any point of a session.
+///
+/// The processor follows the raw message log (`live_timing_messages`) in id order, merges every message into
+/// the state of its category with the [LiveStateMerger], and every `app.checkpoint.interval` of message time
+/// writes the full state of all categories as a gzip-compressed Json document. Each checkpoint is linked to
+/// the id of the last raw message it includes, so the api can rebuild the state at any time `T` from the
+/// nearest checkpoint before `T` plus the few messages after it.
+///
+/// The high-frequency telemetry categories (`CarData.z`, `Position.z`) are not part of the checkpoints.
+///
+/// Each checkpoint carries the session key. When the log moves to a new session (a `SessionInfo` message with
+/// another key), the state of the previous session is dropped, so the new session's indexed deltas do not
+/// merge into the previous session's arrays, and a checkpoint is written right away. Only the baselines of the
+/// run the `SessionInfo` message arrived in are kept, since the subscribe response carries `SessionInfo` in the
+/// middle of the other categories. Every session therefore starts with a checkpoint, and a rebuild never needs
+/// messages of another session.
+///
+/// The checkpoints follow the raw log rather than the processed stream, so they are written for recorded
+/// sessions as well as live ones. After a restart, the state is loaded from the latest checkpoint and the log
+/// is followed from there. This relies on the raw log ids being assigned in commit order, which holds with the
+/// single storage consumer.
+@ApplicationScoped
+public class CheckpointProcessor {
+    private static final Logger LOG = Logger.getLogger(CheckpointProcessor.class);
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    AgroalDataSource storageDataSource;
+
+    @ConfigProperty(name = "app.livetiming.table")
+    String livetimingTable;
+
+    @ConfigProperty(name = "app.checkpoint.table")
+    String checkpointTable;
+
+    /// The message time between two checkpoints.
+    @ConfigProperty(name = "app.checkpoint.interval")
+    Duration checkpointInterval;
+
+    /// The number of raw messages read per query when following the log.
+    @ConfigProperty(name = "app.checkpoint.batch-size", defaultValue = "5000")
+    int batchSize;
+
+    /// The merged state per category, in category order.
+    private final Map<String, JsonNode> state = new TreeMap<>();
+
+    /// The session key of the state. `-1` until a `SessionInfo` message is seen.
+    private int sessionId = -1;
+
+    /// The categories of the current run of baseline messages. Cleared by the next streaming message.
+    private final Set<String> baselineCategories = new HashSet<>();
+
+    /// The id of the last raw message merged into the state. `-1` until the state is loaded.
+    private long lastMessageId = -1;
+    private Instant lastMessageTimestamp = null;
+    private Instant lastCheckpointTimestamp = null;
+
+    /// Follows the raw message log and writes the checkpoints that are due.
+    @RunOnVirtualThread
+    @Scheduled(every = "5s", delayed = "10s")
+    public synchronized void followMessageLog() {
+        try {
+            if (lastMessageId < 0) {
+                loadLatestCheckpoint();
+            }
+            int checkpoints = 0;
+            int rows;
+            do {
+                rows = 0;
+                try (Connection connection = storageDataSource.getConnection();
+                     PreparedStatement statement = connection.prepareStatement(selectMessagesSql())) {
+                    statement.setLong(1, lastMessageId);
+                    statement.setInt(2, batchSize);
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        while (resultSet.next()) {
+                            rows++;
+                            OffsetDateTime timestamp = resultSet.getObject("message_timestamp", OffsetDateTime.class);
+                            String category = resultSet.getString("category");
+                            JsonNode message = objectMapper.readTree(resultSet.getString("message"));
+                            boolean isStreaming = resultSet.getBoolean("is_streaming");
+                            if (isStreaming) {
+                                baselineCategories.clear();
+                            } else {
+                                baselineCategories.add(category);
+                            }
+                            boolean newSession = isNewSession(category, message);
+                            if (newSession) {
+                                LOG.infof("The message log moved from session %d to session %d at message id %d. "
+                                        + "Will reset the checkpoint state.",
+                                        sessionId, sessionKeyOf(message), resultSet.getLong("id"));
+                                state.keySet().retainAll(baselineCategories);
+                            }
+                            if ("SessionInfo".equals(category) && sessionKeyOf(message) != -1) {
+                                sessionId = sessionKeyOf(message);
+                            }
+                            LiveStateMerger.apply(state, category, isStreaming, message);
+                            lastMessageId = resultSet.getLong("id");
+                            if (timestamp != null) {
+                                lastMessageTimestamp = timestamp.toInstant();
+                            }
+                            if ((newSession && lastMessageTimestamp != null) || isCheckpointDue()) {
+                                writeCheckpoint(connection);
+                                checkpoints++;
+                            }
+                        }
+                    }
+                }
+            } while (rows == batchSize);
+
+            if (checkpoints > 0) {
+                LOG.debugf("Wrote %d checkpoints. Last message id: %d", checkpoints, lastMessageId);
+            }
+        } catch (Exception e) {
+            // The state is in memory only until the next checkpoint. Load it again from storage on the next run.
+            LOG.warnf("Error when following the message log for checkpoints. Will retry shortly. Error: %s",
+                    e.getMessage());
+            lastMessageId = -1;
+        }
+    }
+
+    /// Returns `true` if the message is a `SessionInfo` message of another session than the state's. The first
+    /// session seen is adopted without a reset.
+    private boolean isNewSession(String category, JsonNode message) {
+        if (!"SessionInfo".equals(category) || sessionId == -1) {
+            return false;
+        }
+        int key = sessionKeyOf(message);
+        return key != -1 && key != sessionId;
+    }
+
+    /// Returns the session key of a raw `SessionInfo` message, or `-1` if it has none.
+    static int sessionKeyOf(JsonNode message) {
+        return message.path("Key").asInt(message.path("key").asInt(-1));
+    }
+
+    private boolean isCheckpointDue() {
+        if (lastMessageTimestamp == null) {
+            return false;
+        }
+        if (lastCheckpointTimestamp == null) {
+            // Count the first interval from the first message
+            lastCheckpointTimestamp = lastMessageTimestamp;
+            return false;
+        }
+        return Duration.between(lastCheckpointTimestamp, lastMessageTimestamp).compareTo(checkpointInterval) >= 0;
+    }
+
+    private String selectMessagesSql() {
+        return """
+                SELECT id, category, is_streaming, message::text AS message, message_timestamp
+                FROM %s
+                WHERE id > ? AND category NOT LIKE '%%.z'
+                ORDER BY id
+                LIMIT ?;
+                """.formatted(livetimingTable);
+    }
+
+    private void writeCheckpoint(Connection connection) throws SQLException, IOException {
+        String sql = """
+                INSERT INTO %s (session_id, message_id, message_timestamp, state)
+                VALUES (?, ?, ?, ?)
+                ON CONFLICT (message_id) DO NOTHING;
+                """.formatted(checkpointTable);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(out, state);
+        }
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, sessionId);
+            statement.setLong(2, lastMessageId);
+            statement.setObject(3, OffsetDateTime.ofInstant(lastMessageTimestamp, ZoneOffset.UTC));
+            statement.setBytes(4, bytes.toByteArray());
+            statement.executeUpdate();
+        }
+        lastCheckpointTimestamp = lastMessageTimestamp;
+    }
+
+    /// Loads the state from the latest checkpoint, or starts from an empty state when there is none.
+    private void loadLatestCheckpoint() throws SQLException, IOException {
+        String sql = """
+                SELECT session_id, message_id, message_timestamp, state
+                FROM %s
+                ORDER BY message_id DESC
+                LIMIT 1;
+                """.formatted(checkpointTable);
+
+        state.clear();
+        baselineCategories.clear();
+        sessionId = -1;
+        lastMessageId = 0;
+        lastMessageTimestamp = null;
+        lastCheckpointTimestamp = null;
+        try (Connection connection = storageDataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet resultSet = statement.executeQuery()) {
+            if (resultSet.next()) {
+                try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(resultSet.getBytes("state")))) {
+                    objectMapper.readTree(in).properties().forEach(entry -> state.put(entry.getKey(), entry.getValue()));
+                }
+                sessionId = resultSet.getInt("session_id");
+                lastMessageId = resultSet.getLong("message_id");
+                lastMessageTimestamp = resultSet.getObject("message_timestamp", OffsetDateTime.class).toInstant();
+                lastCheckpointTimestamp = lastMessageTimestamp;
+            }
+        }
+        LOG.infof("Following the message log for checkpoints of session %d from message id %d.",
+                sessionId, lastMessageId);
+    }
+}
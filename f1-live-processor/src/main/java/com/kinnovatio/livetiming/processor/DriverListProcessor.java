@@ -29,13 +29,14 @@ import java.util.concurrent.atomic.AtomicReference;
 /// Processor for F1 driver list messages.
 ///
 /// This component aggregates partial JSON updates into a complete driver list state
-/// and periodically persists that state to the database. It also handles cleanup
+/// and periodically persists that state to the database. It also resets the state
 /// when the session status changes.
 @ApplicationScoped
 public class DriverListProcessor {
     private static final Logger LOG = Logger.getLogger(DriverListProcessor.class);
     private static final String driverListLiveKey = "driverListLive";
     private static final String driverListBaselineKey = "driverListBaseline";
+    private static final String driverListMergedKey = "driverListMerged";
 
     @Inject
     ObjectMapper objectMapper;
@@ -54,6 +55,9 @@ public class DriverListProcessor {
     /// Updated in-place by incoming message updates.
     private final AtomicReference<JsonNode> driverListRoot = new AtomicReference<>();
 
+    /// Produces the pre-merged (baseline + live) driver list document that is persisted for the api.
+    private MergedStateTracker mergedState;
+
     /// The timestamp from the most recent driver list message received.
     private final AtomicReference<Instant> driverListMessageTimestamp = new AtomicReference<>(Instant.now());
 
@@ -68,6 +72,7 @@ public class DriverListProcessor {
     @PostConstruct
     void init() {
         initializeDriverList();
+        mergedState = new MergedStateTracker(objectMapper, repositoryUtilities, driverListTable, driverListBaselineKey);
     }
 
     /// Processes incoming driver list updates from the message broker.
@@ -131,6 +136,12 @@ public class DriverListProcessor {
                         stateManager.getSessionKey(),
                         objectMapper.writeValueAsString(driverListRoot.get()),
                         driverListMessageTimestamp.get());
+                repositoryUtilities.storeIntoKeyedMessageTable(
+                        driverListTable,
+                        driverListMergedKey,
+                        stateManager.getSessionKey(),
+                        mergedState.mergeWithBaseline(driverListRoot.get()),
+                        driverListMessageTimestamp.get());
             } catch (Exception e) {
                 LOG.warnf("Error when trying to store driver list. Error: %s", e.getMessage());
             }
@@ -155,6 +166,7 @@ public class DriverListProcessor {
                     stateManager.getSessionKey(),
                     message.message(),
                     message.timestamp());
+            mergedState.setBaseline(message.message());
         } catch (Exception e) {
             LOG.warnf("Error when trying to store driver list. Error: %s", e.getMessage());
         }
@@ -165,31 +177,26 @@ public class DriverListProcessor {
         driverListRoot.set(objectMapper.createObjectNode());
     }
 
-    /// Responds to session state transitions by managing the driver list table.
+    /// Responds to session state transitions by resetting the in-memory driver list.
     ///
     /// When a session ends (`NO_SESSION`), becomes `INACTIVE`, or a new `LIVE_SESSION` starts
-    /// (excluding transitions from an inactive warmup), this method clears the existing
-    /// driver list to ensure the dashboard or downstream consumers only see data
-    /// relevant to the current active session.
+    /// (excluding transitions from an inactive warmup), this method resets the in-memory driver list. The stored
+    /// rows are moved to the session archive by the [SessionArchiveProcessor].
     ///
     /// @param sessionStateUpdate The transition details between the old and new session states.
-    /// @throws Exception If the database cleanup operation fails.
     @Incoming("session-status-update")
-    @Retry(delay = 500, maxRetries = 5)
     @RunOnVirtualThread
-    public void processSessionStatusChange(SessionStateUpdate sessionStateUpdate) throws Exception {
+    public void processSessionStatusChange(SessionStateUpdate sessionStateUpdate) {
         if (sessionStateUpdate.newState() == GlobalStateManager.SessionState.NO_SESSION
                 || sessionStateUpdate.newState() == GlobalStateManager.SessionState.INACTIVE
                 || (sessionStateUpdate.newState() == GlobalStateManager.SessionState.LIVE_SESSION
                         && sessionStateUpdate.oldState() != GlobalStateManager.SessionState.INACTIVE)) {
-            LOG.infof("Session state changed from %s to %s. Will clear the live driver list from the %s table.",
-                    sessionStateUpdate.oldState().getStatus(), sessionStateUpdate.newState().getStatus(), driverListTable);
+            LOG.infof("Session state changed from %s to %s. Will reset the live driver list.",
+                    sessionStateUpdate.oldState().getStatus(), sessionStateUpdate.newState().getStatus());
             initializeDriverList();
-            int rowsAffected = repositoryUtilities.clearRowFromKeyedTable(driverListTable, driverListLiveKey);
-            LOG.infof("%d rows deleted from the %s table.", rowsAffected, driverListTable);
         } else {
-            LOG.infof("Session state changed from %s to %s. Will not clear the %s table.",
-                    sessionStateUpdate.oldState().getStatus(), sessionStateUpdate.newState().getStatus(), driverListTable);
+            LOG.infof("Session state changed from %s to %s. Will not reset the live driver list.",
+                    sessionStateUpdate.oldState().getStatus(), sessionStateUpdate.newState().getStatus());
         }
     }
 }
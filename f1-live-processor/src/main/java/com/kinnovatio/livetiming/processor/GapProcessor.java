@@ -0,0 +1,106 @@
+package com.kinnovatio.livetiming.processor;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kinnovatio.livetiming.GlobalStateManager;
+import com.kinnovatio.livetiming.model.SessionStateUpdate;
+import com.kinnovatio.signalr.messages.LiveTimingMessage;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import io.smallrye.reactive.messaging.kafka.Record;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.faulttolerance.Retry;
+import org.eclipse.microprofile.reactive.messaging.Channel;
+import org.eclipse.microprofile.reactive.messaging.Emitter;
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.OnOverflow;
+import org.jboss.logging.Logger;
+
+import java.util.List;
+
+/// Processor for the live gap table.
+///
+/// This component feeds the timing data stream into a [GapTracker] and publishes a compact gap table to the
+/// `gaps-out` channel whenever a driver crosses a timing point. The gap table is a Json document with one
+/// array per driver, in running order:
+/// ```
+/// {"timestamp": <epochMillis>, "lines": [[driver, completedLaps, gapToLeaderMillis, intervalMillis, point, retired], ...]}
+/// ```
+/// `retired` is `1` for a retired or stopped driver, else `0`.
+@ApplicationScoped
+public class GapProcessor {
+    private static final Logger LOG = Logger.getLogger(GapProcessor.class);
+    private static final String gapTableKey = "GapTable";
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    @OnOverflow(value = OnOverflow.Strategy.DROP)
+    @Channel("gaps-out")
+    Emitter<Record<String, String>> gapsEmitter;
+
+    private final GapTracker gapTracker = new GapTracker();
+
+    /// Processes a timing data message and publishes the gap table if a timing point was crossed.
+    ///
+    /// @param recordValue The raw JSON string received from the "timing-data" channel.
+    /// @throws Exception If JSON parsing fails.
+    @Incoming("timing-data")
+    @Retry(delay = 500, maxRetries = 5)
+    @RunOnVirtualThread
+    public void processTimingData(String recordValue) throws Exception {
+        LiveTimingMessage message = objectMapper.readValue(recordValue, LiveTimingMessage.class);
+        JsonNode root = objectMapper.readTree(message.message());
+
+        String gapTable;
+        synchronized (gapTracker) {
+            if (!message.isStreaming()) {
+                gapTracker.applyBaseline(root);
+                return;
+            }
+            if (!gapTracker.apply(root, message.timestamp().toEpochMilli())) {
+                return;
+            }
+            gapTable = toJson(gapTracker.getGapTable(), message.timestamp().toEpochMilli());
+        }
+        gapsEmitter.send(Record.of(gapTableKey, gapTable));
+    }
+
+    /// Resets the gap tracker on the same session transitions that archive the live timing tables.
+    ///
+    /// @param sessionStateUpdate The transition details between the old and new session states.
+    @Incoming("session-status-update")
+    @RunOnVirtualThread
+    public void processSessionStatusChange(SessionStateUpdate sessionStateUpdate) {
+        if (sessionStateUpdate.newState() == GlobalStateManager.SessionState.NO_SESSION
+                || sessionStateUpdate.newState() == GlobalStateManager.SessionState.INACTIVE
+                || (sessionStateUpdate.newState() == GlobalStateManager.SessionState.LIVE_SESSION
+                && sessionStateUpdate.oldState() != GlobalStateManager.SessionState.INACTIVE)) {
+            LOG.infof("Session state changed from %s to %s. Will reset the gap table.",
+                    sessionStateUpdate.oldState().getStatus(), sessionStateUpdate.newState().getStatus());
+            synchronized (gapTracker) {
+                gapTracker.reset();
+            }
+        }
+    }
+
+    /// Writes the gap table in its compact array layout.
+    static String toJson(List<GapTracker.GapEntry> table, long timestampMillis) {
+        StringBuilder json = new StringBuilder(32 + table.size() * 40);
+        json.append("{\"timestamp\":").append(timestampMillis).append(",\"lines\":[");
+        for (int i = 0; i < table.size(); i++) {
+            GapTracker.GapEntry entry = table.get(i);
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("[\"").append(entry.driver()).append("\",")
+                    .append(entry.completedLaps()).append(',')
+                    .append(entry.gapToLeaderMillis()).append(',')
+                    .append(entry.intervalMillis()).append(',')
+                    .append(entry.point()).append(',')
+                    .append(entry.retired() ? 1 : 0).append(']');
+        }
+        return json.append("]}").toString();
+    }
+}
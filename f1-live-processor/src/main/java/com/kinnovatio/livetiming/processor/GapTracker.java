@@ -0,0 +1,185 @@
+package com.kinnovatio.livetiming.processor;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/// Computes the gaps and intervals between drivers from their mini-sector (segment) crossings.
+///
+/// Every segment of every lap is a timing point, numbered by lap, sector and segment. When a driver crosses a
+/// point, the gap to the leader is the time since the first driver crossed the same point, and the interval
+/// is the time since the previous driver crossed it. Both are looked up in primitive arrays indexed by the
+/// point, so a crossing is processed in constant time.
+///
+/// A crossing is a segment status update with a non-zero status. Crossings are timed by the timestamp of the
+/// timing data message carrying them. Gaps therefore update at every segment, several times per sector, rather
+/// than at the feed's own gap updates.
+///
+/// The tracker is not thread-safe. It is owned by a single consumer.
+class GapTracker {
+    /// The timing point slots per sector. Tracks have fewer than this many segments per sector.
+    static final int segmentsPerSector = 32;
+    static final int pointsPerLap = 3 * segmentsPerSector;
+
+    // First and latest crossing time per timing point, indexed by point. -1 when not crossed yet.
+    private long[] firstCrossing = new long[pointsPerLap * 64];
+    private long[] latestCrossing = new long[pointsPerLap * 64];
+
+    private final Map<String, DriverGap> drivers = new HashMap<>();
+
+    GapTracker() {
+        Arrays.fill(firstCrossing, -1);
+        Arrays.fill(latestCrossing, -1);
+    }
+
+    /// Seeds the lap counters from a baseline (non-streaming) timing data document.
+    void applyBaseline(JsonNode baselineRoot) {
+        for (Map.Entry<String, JsonNode> line : baselineRoot.path("lines").properties()) {
+            JsonNode numberOfLaps = line.getValue().path("numberOfLaps");
+            if (numberOfLaps.isNumber()) {
+                drivers.computeIfAbsent(line.getKey(), DriverGap::new).completedLaps = numberOfLaps.asInt();
+            }
+        }
+    }
+
+    /// Applies a timing data update.
+    ///
+    /// @param updateRoot The update document, with property names in camel case.
+    /// @param timestampMillis The timestamp of the update, used as the crossing time.
+    /// @return `true` if any driver crossed a timing point.
+    boolean apply(JsonNode updateRoot, long timestampMillis) {
+        boolean crossed = false;
+        for (Map.Entry<String, JsonNode> line : updateRoot.path("lines").properties()) {
+            JsonNode lineNode = line.getValue();
+            if (!lineNode.isObject()) {
+                continue;
+            }
+            DriverGap driver = drivers.computeIfAbsent(line.getKey(), DriverGap::new);
+            int lapsBefore = driver.completedLaps;
+            JsonNode numberOfLaps = lineNode.path("numberOfLaps");
+            if (numberOfLaps.isNumber()) {
+                driver.completedLaps = numberOfLaps.asInt();
+            }
+            if (lineNode.path("retired").asBoolean(false) || lineNode.path("stopped").asBoolean(false)) {
+                driver.retired = true;
+            }
+
+            // The furthest segment crossed in this update
+            int furthest = -1;
+            for (Map.Entry<String, JsonNode> sector : lineNode.path("sectors").properties()) {
+                int sectorIndex = parseIndex(sector.getKey());
+                if (sectorIndex < 0 || sectorIndex > 2) {
+                    continue;
+                }
+                for (Map.Entry<String, JsonNode> segment : sector.getValue().path("segments").properties()) {
+                    int segmentIndex = parseIndex(segment.getKey());
+                    if (segmentIndex < 0 || segmentIndex >= segmentsPerSector
+                            || segment.getValue().path("status").asInt(0) == 0) {
+                        continue;
+                    }
+                    furthest = Math.max(furthest, sectorIndex * segmentsPerSector + segmentIndex);
+                }
+            }
+            // The last segments of a lap may arrive with the lap counter of the next lap
+            int lap = furthest >= 2 * segmentsPerSector && lapsBefore >= 0 && driver.completedLaps > lapsBefore
+                    ? lapsBefore
+                    : driver.completedLaps;
+            if (furthest >= 0 && lap >= 0) {
+                crossed |= cross(driver, lap * pointsPerLap + furthest, timestampMillis);
+            }
+        }
+        return crossed;
+    }
+
+    /// Returns the gap table in running order: furthest timing point first, then earliest crossing.
+    List<GapEntry> getGapTable() {
+        List<GapEntry> table = new ArrayList<>(drivers.size());
+        for (DriverGap driver : drivers.values()) {
+            if (driver.point >= 0) {
+                table.add(new GapEntry(driver.number, driver.completedLaps, driver.point, driver.crossingMillis,
+                        driver.gapToLeaderMillis, driver.intervalMillis, driver.retired));
+            }
+        }
+        table.sort(Comparator.comparing(GapEntry::retired)
+                .thenComparing(Comparator.comparingInt(GapEntry::point).reversed())
+                .thenComparingLong(GapEntry::crossingMillis));
+        return table;
+    }
+
+    /// Forgets all drivers and crossings, for a new session.
+    void reset() {
+        drivers.clear();
+        Arrays.fill(firstCrossing, -1);
+        Arrays.fill(latestCrossing, -1);
+    }
+
+    private boolean cross(DriverGap driver, int point, long timestampMillis) {
+        if (point <= driver.point) {
+            // Already crossed, e.g. a status change of a segment behind the driver
+            return false;
+        }
+        ensureCapacity(point);
+        long first = firstCrossing[point];
+        long latest = latestCrossing[point];
+        driver.point = point;
+        driver.crossingMillis = timestampMillis;
+        driver.gapToLeaderMillis = first < 0 ? 0 : timestampMillis - first;
+        driver.intervalMillis = latest < 0 ? 0 : timestampMillis - latest;
+        if (first < 0) {
+            firstCrossing[point] = timestampMillis;
+        }
+        latestCrossing[point] = Math.max(latest, timestampMillis);
+        return true;
+    }
+
+    private void ensureCapacity(int point) {
+        if (point < firstCrossing.length) {
+            return;
+        }
+        int capacity = Math.max(firstCrossing.length * 2, point + 1);
+        int oldLength = firstCrossing.length;
+        firstCrossing = Arrays.copyOf(firstCrossing, capacity);
+        latestCrossing = Arrays.copyOf(latestCrossing, capacity);
+        Arrays.fill(firstCrossing, oldLength, capacity, -1);
+        Arrays.fill(latestCrossing, oldLength, capacity, -1);
+    }
+
+    private static int parseIndex(String key) {
+        try {
+            return Integer.parseInt(key);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /// A row of the gap table. Times are in milliseconds.
+    ///
+    /// @param driver The racing number of the driver.
+    /// @param completedLaps The number of laps completed by the driver.
+    /// @param point The last timing point crossed.
+    /// @param crossingMillis The time the driver crossed the point.
+    /// @param gapToLeaderMillis The time since the first driver crossed the point.
+    /// @param intervalMillis The time since the previous driver crossed the point.
+    /// @param retired `true` if the driver has retired or stopped.
+    record GapEntry(String driver, int completedLaps, int point, long crossingMillis, long gapToLeaderMillis,
+                    long intervalMillis, boolean retired) {}
+
+    private static final class DriverGap {
+        final String number;
+        int completedLaps = -1;
+        int point = -1;
+        long crossingMillis = -1;
+        long gapToLeaderMillis = 0;
+        long intervalMillis = 0;
+        boolean retired = false;
+
+        DriverGap(String number) {
+            this.number = number;
+        }
+    }
+}
@@ -13,10 +13,17 @@ import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import io.smallrye.reactive.messaging.kafka.Record;
+import io.smallrye.reactive.messaging.annotations.Broadcast;
+import io.smallrye.reactive.messaging.kafka.api.OutgoingKafkaRecordMetadata;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
 import org.eclipse.microprofile.faulttolerance.Retry;
 import org.eclipse.microprofile.reactive.messaging.Channel;
 import org.eclipse.microprofile.reactive.messaging.Emitter;
 import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Message;
 import org.eclipse.microprofile.reactive.messaging.OnOverflow;
 import org.jboss.logging.Logger;
 
@@ -36,6 +43,10 @@ public class KafkaLivetimingProcessor {
     // Regex matching underscores or hyphens followed by a lowercase letter/digit
     private static final Pattern DELIMITER_PATTERN = Pattern.compile("[-_]([a-z0-9])");
 
+    /// Headers copied from the raw record to the processed record. The generator's latency harness uses the
+    /// send time to measure the end-to-end latency through the router.
+    private static final Set<String> propagatedHeaders = Set.of("generator-send-time");
+
 
     @Inject
     ObjectMapper objectMapper;
@@ -50,7 +61,9 @@ public class KafkaLivetimingProcessor {
     @Channel("livetiming-out")
     Emitter<Record<String, String>> livetimingOutEmitter;
 
+    // Consumed by the track status processor and the race event processor
     @Inject
+    @Broadcast
     @Channel("track-status")
     Emitter<String> trackStatusEmitter;
 
@@ -70,11 +83,15 @@ public class KafkaLivetimingProcessor {
     @Channel("driver-list")
     Emitter<String> driverListEmitter;
 
+    // Consumed by the timing data, lap, gap, race event and segment status processors
     @Inject
+    @Broadcast
     @Channel("timing-data")
     Emitter<String> timingDataEmitter;
 
+    // Consumed by the timing app data, race event and stint processors
     @Inject
+    @Broadcast
     @Channel("timing-app-data")
     Emitter<String> timingAppDataEmitter;
 
@@ -82,6 +99,14 @@ public class KafkaLivetimingProcessor {
     @Channel("timing-stats")
     Emitter<String> timingStatsEmitter;
 
+    @Inject
+    @Channel("car-data")
+    Emitter<String> carDataEmitter;
+
+    @Inject
+    @Channel("position-data")
+    Emitter<String> positionEmitter;
+
     /// Processes a batch of Kafka records.
     ///
     /// @param record The Kafka consumer record.
@@ -89,7 +114,7 @@ public class KafkaLivetimingProcessor {
     @Incoming("f1-live-raw-in")
     @Retry(delay = 100, maxRetries = 5)
     @RunOnVirtualThread
-    public void process(Record<String, String> record) throws Exception {
+    public void process(ConsumerRecord<String, String> record) throws Exception {
         LOG.debugf("Livetiming message received on f1-live-raw-in channel. Message key: %s", record.key());
         stateManager.registerMessageReceived();
 
@@ -109,15 +134,28 @@ public class KafkaLivetimingProcessor {
             }
 
             // Convert message properties to camel case
-            String processedMessage = cleanProperties(message.message());
-            message = new LiveTimingMessage(message.category(), processedMessage, message.timestamp(), message.isStreaming());
+            JsonNode processedRoot = toCamelCaseTree(objectMapper.readTree(message.message()));
+            message = new LiveTimingMessage(message.category(), objectMapper.writeValueAsString(processedRoot),
+                    message.timestamp(), message.isStreaming());
             Record<String, String> processedRecord = Record.of(record.key(), objectMapper.writeValueAsString(message));
 
 
             if (message.isStreaming()) {
                 // The message should be forwarded to the live-streaming channel.
-                livetimingOutEmitter.send(processedRecord);
-                LOG.tracef("Livetiming message published to the livetiming-out channel. Message category: %s", message.category());
+                Record<String, String> streamingRecord = processedRecord;
+                if ("TimingData".equals(message.category())) {
+                    // The segments are published in a compact encoding by the segment status processor. The
+                    // internal timing-data channel keeps the full message.
+                    streamingRecord = SegmentStatusTracker.removeSegments(processedRoot)
+                            ? Record.of(record.key(), objectMapper.writeValueAsString(new LiveTimingMessage(
+                                    message.category(), objectMapper.writeValueAsString(processedRoot),
+                                    message.timestamp(), message.isStreaming())))
+                            : null;
+                }
+                if (streamingRecord != null) {
+                    livetimingOutEmitter.send(withPropagatedHeaders(streamingRecord, record.headers()));
+                    LOG.tracef("Livetiming message published to the livetiming-out channel. Message category: %s", message.category());
+                }
             }
 
             if (message.isStreaming() || routingIncludeCategories.contains(message.category())) {
@@ -132,6 +170,8 @@ public class KafkaLivetimingProcessor {
                     //case "SessionData" -> sessionDataEmitter.send(processedRecord.value());
                     case "TimingAppData" -> timingAppDataEmitter.send(processedRecord.value());
                     case "TimingStats" -> timingStatsEmitter.send(processedRecord.value());
+                    case "CarData.z" -> carDataEmitter.send(processedRecord.value());
+                    case "Position.z" -> positionEmitter.send(processedRecord.value());
                     default -> {
                         LOG.debugf("Message router: unknown message category received: %s", message.category());
                     }
@@ -143,6 +183,24 @@ public class KafkaLivetimingProcessor {
         }
     }
 
+    /// Wraps a processed record in a message carrying the propagated headers of the incoming record.
+    private Message<Record<String, String>> withPropagatedHeaders(Record<String, String> processedRecord,
+                                                                  Headers incomingHeaders) {
+        Message<Record<String, String>> message = Message.of(processedRecord);
+        RecordHeaders headers = new RecordHeaders();
+        for (Header header : incomingHeaders) {
+            if (propagatedHeaders.contains(header.key())) {
+                headers.add(header);
+            }
+        }
+        if (!headers.iterator().hasNext()) {
+            return message;
+        }
+        return message.addMetadata(OutgoingKafkaRecordMetadata.<String>builder()
+                .withHeaders(headers)
+                .build());
+    }
+
     /// Parses a JSON string and returns it with all property keys converted to camelCase.
     ///
     /// @param json The raw JSON string to process.
@@ -0,0 +1,174 @@
+package com.kinnovatio.livetiming.processor;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kinnovatio.livetiming.GlobalStateManager;
+import com.kinnovatio.livetiming.model.CompletedLap;
+import com.kinnovatio.livetiming.model.SessionStateUpdate;
+import com.kinnovatio.signalr.messages.LiveTimingMessage;
+import io.agroal.api.AgroalDataSource;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.faulttolerance.Retry;
+import org.eclipse.microprofile.reactive.messaging.Channel;
+import org.eclipse.microprofile.reactive.messaging.Emitter;
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.jboss.logging.Logger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+
+/// Processor for lap detection.
+///
+/// This component consumes the timing data stream, detects completed laps per driver with a [LapTracker], and
+/// stores each lap, with the driver's running lap statistics, as a row in the laps table. Only the completed
+/// laps are written, so the table grows by one row per driver per lap instead of per timing update. The stored
+/// laps are also sent to the in-memory `completed-laps` channel for the stint model.
+///
+/// The lap state is kept in memory. After a restart, the lap counters are seeded again from the next baseline
+/// message, or from the first lap counter seen per driver.
+@ApplicationScoped
+public class LapProcessor {
+    private static final Logger LOG = Logger.getLogger(LapProcessor.class);
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    AgroalDataSource storageDataSource;
+
+    @ConfigProperty(name = "app.laps.table")
+    String lapsTable;
+
+    @Inject
+    GlobalStateManager stateManager;
+
+    @Inject
+    @Channel("completed-laps")
+    Emitter<CompletedLap> completedLapsEmitter;
+
+    private final LapTracker lapTracker = new LapTracker();
+
+    /// Laps completed but not yet stored. Kept across a failed store, so a retried message does not lose them.
+    private final List<CompletedLap> pendingLaps = new ArrayList<>();
+
+    /// Processes a timing data message and stores the laps it completes.
+    ///
+    /// @param recordValue The raw JSON string received from the "timing-data" channel.
+    /// @throws Exception If database connectivity fails or JSON parsing errors occur.
+    @Incoming("timing-data")
+    @Retry(delay = 500, maxRetries = 5)
+    @RunOnVirtualThread
+    public void processTimingData(String recordValue) throws Exception {
+        LiveTimingMessage message = objectMapper.readValue(recordValue, LiveTimingMessage.class);
+        JsonNode root = objectMapper.readTree(message.message());
+
+        synchronized (lapTracker) {
+            if (!message.isStreaming()) {
+                lapTracker.applyBaseline(root);
+            } else {
+                pendingLaps.addAll(lapTracker.apply(root, message.timestamp()));
+            }
+            storePendingLaps();
+        }
+    }
+
+    /// Stores the pending laps and publishes them on the `completed-laps` channel. Must hold the tracker lock.
+    ///
+    /// The tracker has already moved past the laps, so a retried message does not complete them again. They
+    /// stay pending until they are stored. A lap is keyed on session, driver and lap number, so storing a lap
+    /// again after a partly failed store overwrites its own row.
+    private void storePendingLaps() throws Exception {
+        if (pendingLaps.isEmpty()) {
+            return;
+        }
+        storeLaps(pendingLaps);
+        pendingLaps.forEach(completedLapsEmitter::send);
+        pendingLaps.clear();
+    }
+
+    /// Upserts completed laps into the laps table.
+    private void storeLaps(List<CompletedLap> laps) throws Exception {
+        String sql = """
+                INSERT INTO %s (session_id, driver, lap_number, lap_time_ms, sector1_ms, sector2_ms, sector3_ms,
+                    position, pit_in, pit_out, personal_best, best_lap_time_ms, mean_lap_time_ms,
+                    rolling_lap_time_ms, timed_lap_count, message_timestamp)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?::timestamptz)
+                ON CONFLICT (session_id, driver, lap_number)
+                DO UPDATE SET
+                    lap_time_ms = EXCLUDED.lap_time_ms,
+                    sector1_ms = EXCLUDED.sector1_ms,
+                    sector2_ms = EXCLUDED.sector2_ms,
+                    sector3_ms = EXCLUDED.sector3_ms,
+                    position = EXCLUDED.position,
+                    pit_in = EXCLUDED.pit_in,
+                    pit_out = EXCLUDED.pit_out,
+                    personal_best = EXCLUDED.personal_best,
+                    best_lap_time_ms = EXCLUDED.best_lap_time_ms,
+                    mean_lap_time_ms = EXCLUDED.mean_lap_time_ms,
+                    rolling_lap_time_ms = EXCLUDED.rolling_lap_time_ms,
+                    timed_lap_count = EXCLUDED.timed_lap_count,
+                    message_timestamp = EXCLUDED.message_timestamp,
+                    updated_timestamp = NOW()
+                ;
+                """.formatted(lapsTable);
+
+        try (Connection connection = storageDataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (CompletedLap lap : laps) {
+                statement.setInt(1, stateManager.getSessionKey());
+                statement.setString(2, lap.driver());
+                statement.setInt(3, lap.lapNumber());
+                statement.setInt(4, lap.lapTimeMillis());
+                statement.setInt(5, lap.sector1Millis());
+                statement.setInt(6, lap.sector2Millis());
+                statement.setInt(7, lap.sector3Millis());
+                statement.setInt(8, lap.position());
+                statement.setBoolean(9, lap.pitIn());
+                statement.setBoolean(10, lap.pitOut());
+                statement.setBoolean(11, lap.personalBest());
+                statement.setInt(12, lap.bestLapTimeMillis());
+                statement.setInt(13, lap.meanLapTimeMillis());
+                statement.setInt(14, lap.rollingLapTimeMillis());
+                statement.setInt(15, lap.timedLapCount());
+                statement.setString(16, lap.timestamp().toString());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+            LOG.debugf("Stored %d completed laps.", laps.size());
+        } catch (Exception e) {
+            LOG.warnf("Error when trying to store completed laps. Will retry shortly. Error: %s", e.getMessage());
+            throw e;
+        }
+    }
+
+    /// Responds to session state transitions by resetting the lap state.
+    ///
+    /// When a session ends (`NO_SESSION`), becomes `INACTIVE`, or a new `LIVE_SESSION` starts
+    /// (excluding transitions from an inactive warmup), this method resets the lap state. The stored
+    /// rows are moved to the session archive by the [SessionArchiveProcessor].
+    ///
+    /// @param sessionStateUpdate The transition details between the old and new session states.
+    @Incoming("session-status-update")
+    @RunOnVirtualThread
+    public void processSessionStatusChange(SessionStateUpdate sessionStateUpdate) {
+        if (sessionStateUpdate.newState() == GlobalStateManager.SessionState.NO_SESSION
+                || sessionStateUpdate.newState() == GlobalStateManager.SessionState.INACTIVE
+                || (sessionStateUpdate.newState() == GlobalStateManager.SessionState.LIVE_SESSION
+                && sessionStateUpdate.oldState() != GlobalStateManager.SessionState.INACTIVE)) {
+            LOG.infof("Session state changed from %s to %s. Will reset the lap state.",
+                    sessionStateUpdate.oldState().getStatus(), sessionStateUpdate.newState().getStatus());
+            synchronized (lapTracker) {
+                lapTracker.reset();
+                pendingLaps.clear();
+            }
+        } else {
+            LOG.infof("Session state changed from %s to %s. Will not reset the lap state.",
+                    sessionStateUpdate.oldState().getStatus(), sessionStateUpdate.newState().getStatus());
+        }
+    }
+}
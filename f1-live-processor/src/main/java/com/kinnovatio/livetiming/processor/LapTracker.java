@@ -0,0 +1,343 @@
+package com.kinnovatio.livetiming.processor;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.kinnovatio.livetiming.model.CompletedLap;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/// Derives completed laps from the timing data stream, one update at a time.
+///
+/// Every update is applied per driver line in O(1): the tracker keeps the lap counter, the sector times and
+/// pit flags of the lap in progress, and emits a [CompletedLap] when the `numberOfLaps` counter advances.
+/// The lap time is taken from `lastLapTime`. It is published in the same update as the counter, or shortly
+/// after it. A completed lap is therefore held back until its lap time arrives, or until the driver completes
+/// the first sector of the next lap.
+///
+/// The running statistics (best, mean and rolling mean lap time) are updated incrementally. The lap history of
+/// each driver is kept in an append-only, struct-of-arrays [LapHistory].
+///
+/// The tracker is not thread-safe. It is owned by a single consumer.
+class LapTracker {
+    /// The number of timed laps in the rolling mean.
+    static final int rollingWindow = 5;
+
+    private final Map<String, DriverLaps> drivers = new HashMap<>();
+    private int sessionBestLapMillis = -1;
+    private String sessionBestDriver = null;
+
+    /// Seeds the lap counters from a baseline (non-streaming) timing data document.
+    ///
+    /// @param baselineRoot The baseline document, with property names in camel case.
+    void applyBaseline(JsonNode baselineRoot) {
+        for (Map.Entry<String, JsonNode> line : baselineRoot.path("lines").properties()) {
+            JsonNode numberOfLaps = line.getValue().path("numberOfLaps");
+            if (numberOfLaps.isNumber()) {
+                DriverLaps driver = drivers.computeIfAbsent(line.getKey(), DriverLaps::new);
+                driver.lapCount = numberOfLaps.asInt();
+            }
+        }
+    }
+
+    /// Applies a timing data update and returns the laps it completes.
+    ///
+    /// @param updateRoot The update document, with property names in camel case.
+    /// @param timestamp The timestamp of the update.
+    /// @return The laps completed by the update, in driver order of the update.
+    List<CompletedLap> apply(JsonNode updateRoot, Instant timestamp) {
+        List<CompletedLap> completed = new ArrayList<>(2);
+        for (Map.Entry<String, JsonNode> line : updateRoot.path("lines").properties()) {
+            if (!line.getValue().isObject()) {
+                continue;
+            }
+            DriverLaps driver = drivers.computeIfAbsent(line.getKey(), DriverLaps::new);
+            applyLine(driver, line.getValue(), timestamp, completed);
+        }
+        return completed;
+    }
+
+    /// Returns the lap history of a driver.
+    Optional<LapHistory> getHistory(String driver) {
+        return Optional.ofNullable(drivers.get(driver)).map(d -> d.history);
+    }
+
+    /// Returns the fastest lap of the session so far, or `-1`.
+    int getSessionBestLapMillis() {
+        return sessionBestLapMillis;
+    }
+
+    /// Returns the driver with the fastest lap of the session, or `null`.
+    String getSessionBestDriver() {
+        return sessionBestDriver;
+    }
+
+    /// Forgets all drivers, for a new session.
+    void reset() {
+        drivers.clear();
+        sessionBestLapMillis = -1;
+        sessionBestDriver = null;
+    }
+
+    private void applyLine(DriverLaps driver, JsonNode line, Instant timestamp, List<CompletedLap> completed) {
+        String lastLapTime = line.path("lastLapTime").path("value").asText("");
+        String firstSector = line.path("sectors").path("0").path("value").asText("");
+        String lastSector = line.path("sectors").path("2").path("value").asText("");
+
+        // Complete the lap held back for its lap time
+        if (driver.pending != null) {
+            if (!lastSector.isBlank() && driver.pending.sectors[2] < 0) {
+                driver.pending.sectors[2] = parseMillis(lastSector);
+            }
+            if (!lastLapTime.isBlank()) {
+                driver.pending.lapTimeMillis = parseMillis(lastLapTime);
+                completed.add(finish(driver, driver.pending));
+                lastLapTime = "";
+            } else if (!firstSector.isBlank()) {
+                // The driver is well into the next lap. The lap time is not coming.
+                completed.add(finish(driver, driver.pending));
+            }
+        }
+
+        // Update the lap in progress
+        if (line.path("position").isTextual() || line.path("position").isNumber()) {
+            driver.position = parseInt(line.path("position").asText(""));
+        }
+        if (line.path("inPit").asBoolean(false)) {
+            driver.pitIn = true;
+        }
+        if (line.path("pitOut").asBoolean(false)) {
+            driver.pitOut = true;
+        }
+        JsonNode sectors = line.path("sectors");
+        if (sectors.isObject()) {
+            for (int i = 0; i < 3; i++) {
+                String value = sectors.path(String.valueOf(i)).path("value").asText("");
+                if (!value.isBlank()) {
+                    driver.sectors[i] = parseMillis(value);
+                }
+            }
+        }
+        if (!lastLapTime.isBlank()) {
+            driver.lastLapMillis = parseMillis(lastLapTime);
+        }
+
+        // Detect the completion of a lap
+        JsonNode numberOfLaps = line.path("numberOfLaps");
+        if (!numberOfLaps.isNumber()) {
+            return;
+        }
+        int lapCount = numberOfLaps.asInt();
+        if (driver.lapCount < 0) {
+            // First sighting of the driver: use the counter as the reference
+            driver.lapCount = lapCount;
+            return;
+        }
+        if (lapCount <= driver.lapCount) {
+            return;
+        }
+        if (driver.pending != null) {
+            completed.add(finish(driver, driver.pending));
+        }
+        PendingLap lap = new PendingLap(lapCount, driver.lastLapMillis, driver.sectors.clone(),
+                driver.position, driver.pitIn, driver.pitOut, timestamp);
+        driver.lapCount = lapCount;
+        driver.lastLapMillis = -1;
+        driver.pitIn = false;
+        driver.pitOut = false;
+        Arrays.fill(driver.sectors, -1);
+        if (lap.lapTimeMillis > 0) {
+            completed.add(finish(driver, lap));
+        } else {
+            driver.pending = lap;
+        }
+    }
+
+    /// Finalizes a lap and updates the running statistics.
+    private CompletedLap finish(DriverLaps driver, PendingLap lap) {
+        driver.pending = null;
+        boolean personalBest = false;
+        if (lap.lapTimeMillis > 0) {
+            driver.timedLapCount++;
+            driver.lapTimeSumMillis += lap.lapTimeMillis;
+            if (driver.bestLapMillis < 0 || lap.lapTimeMillis < driver.bestLapMillis) {
+                driver.bestLapMillis = lap.lapTimeMillis;
+                personalBest = true;
+            }
+            if (sessionBestLapMillis < 0 || lap.lapTimeMillis < sessionBestLapMillis) {
+                sessionBestLapMillis = lap.lapTimeMillis;
+                sessionBestDriver = driver.number;
+            }
+            // Keep the sum of the rolling window in step with the window contents
+            int slot = (driver.timedLapCount - 1) % rollingWindow;
+            if (driver.timedLapCount > rollingWindow) {
+                driver.rollingSumMillis -= driver.rollingWindow[slot];
+            }
+            driver.rollingWindow[slot] = lap.lapTimeMillis;
+            driver.rollingSumMillis += lap.lapTimeMillis;
+        }
+        int rollingCount = Math.min(driver.timedLapCount, rollingWindow);
+
+        driver.history.append(lap.lapNumber, lap.lapTimeMillis, lap.sectors, lap.position, lap.pitIn, lap.pitOut);
+        return new CompletedLap(driver.number,
+                lap.lapNumber,
+                lap.lapTimeMillis,
+                lap.sectors[0],
+                lap.sectors[1],
+                lap.sectors[2],
+                lap.position,
+                lap.pitIn,
+                lap.pitOut,
+                personalBest,
+                driver.bestLapMillis,
+                driver.timedLapCount == 0 ? -1 : (int) (driver.lapTimeSumMillis / driver.timedLapCount),
+                rollingCount == 0 ? -1 : (int) (driver.rollingSumMillis / rollingCount),
+                driver.timedLapCount,
+                lap.timestamp);
+    }
+
+    /// Parses a timing value like `1:31.234`, `28.123` or `+0.5` into milliseconds. Returns `-1` if the
+    /// value is not a time.
+    static int parseMillis(String value) {
+        String time = value.strip();
+        if (time.startsWith("+")) {
+            time = time.substring(1);
+        }
+        try {
+            int colon = time.indexOf(':');
+            double seconds = Double.parseDouble(colon < 0 ? time : time.substring(colon + 1));
+            int minutes = colon < 0 ? 0 : Integer.parseInt(time.substring(0, colon));
+            return (int) Math.round((minutes * 60 + seconds) * 1000);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static int parseInt(String value) {
+        try {
+            return Integer.parseInt(value.strip());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /// A completed lap waiting for its lap time.
+    private static final class PendingLap {
+        final int lapNumber;
+        int lapTimeMillis;
+        final int[] sectors;
+        final int position;
+        final boolean pitIn;
+        final boolean pitOut;
+        final Instant timestamp;
+
+        PendingLap(int lapNumber, int lapTimeMillis, int[] sectors, int position, boolean pitIn, boolean pitOut,
+                   Instant timestamp) {
+            this.lapNumber = lapNumber;
+            this.lapTimeMillis = lapTimeMillis;
+            this.sectors = sectors;
+            this.position = position;
+            this.pitIn = pitIn;
+            this.pitOut = pitOut;
+            this.timestamp = timestamp;
+        }
+    }
+
+    /// The lap state of a single driver.
+    private static final class DriverLaps {
+        final String number;
+        final LapHistory history = new LapHistory();
+
+        // The lap in progress
+        int lapCount = -1;
+        int lastLapMillis = -1;
+        final int[] sectors = {-1, -1, -1};
+        int position = -1;
+        boolean pitIn = false;
+        boolean pitOut = false;
+        PendingLap pending = null;
+
+        // Running statistics
+        int timedLapCount = 0;
+        long lapTimeSumMillis = 0;
+        int bestLapMillis = -1;
+        final int[] rollingWindow = new int[LapTracker.rollingWindow];
+        long rollingSumMillis = 0;
+
+        DriverLaps(String number) {
+            this.number = number;
+        }
+    }
+
+    /// The completed laps of a driver, stored as parallel primitive arrays that grow by doubling.
+    static final class LapHistory {
+        private static final int pitInFlag = 1;
+        private static final int pitOutFlag = 2;
+
+        private int size = 0;
+        private int[] lapNumbers = new int[64];
+        private int[] lapTimes = new int[64];
+        private int[] sector1 = new int[64];
+        private int[] sector2 = new int[64];
+        private int[] sector3 = new int[64];
+        private int[] positions = new int[64];
+        private byte[] flags = new byte[64];
+
+        void append(int lapNumber, int lapTimeMillis, int[] sectors, int position, boolean pitIn, boolean pitOut) {
+            if (size == lapNumbers.length) {
+                int capacity = size * 2;
+                lapNumbers = Arrays.copyOf(lapNumbers, capacity);
+                lapTimes = Arrays.copyOf(lapTimes, capacity);
+                sector1 = Arrays.copyOf(sector1, capacity);
+                sector2 = Arrays.copyOf(sector2, capacity);
+                sector3 = Arrays.copyOf(sector3, capacity);
+                positions = Arrays.copyOf(positions, capacity);
+                flags = Arrays.copyOf(flags, capacity);
+            }
+            lapNumbers[size] = lapNumber;
+            lapTimes[size] = lapTimeMillis;
+            sector1[size] = sectors[0];
+            sector2[size] = sectors[1];
+            sector3[size] = sectors[2];
+            positions[size] = position;
+            flags[size] = (byte) ((pitIn ? pitInFlag : 0) | (pitOut ? pitOutFlag : 0));
+            size++;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int lapNumber(int index) {
+            return lapNumbers[index];
+        }
+
+        int lapTimeMillis(int index) {
+            return lapTimes[index];
+        }
+
+        int sectorMillis(int index, int sector) {
+            return switch (sector) {
+                case 0 -> sector1[index];
+                case 1 -> sector2[index];
+                default -> sector3[index];
+            };
+        }
+
+        int position(int index) {
+            return positions[index];
+        }
+
+        boolean isPitIn(int index) {
+            return (flags[index] & pitInFlag) != 0;
+        }
+
+        boolean isPitOut(int index) {
+            return (flags[index] & pitOutFlag) != 0;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.kinnovatio.livetiming.processor;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kinnovatio.livetiming.repository.RepositoryUtilities;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/// Keeps the baseline of a keyed live timing category in memory and produces the pre-merged document
+/// (the live state merged on top of the baseline).
+///
+/// The merged document is persisted next to the live and baseline rows, so readers get a ready-to-serve
+/// value without a parse-merge-serialize cycle per request. If the processor restarts after the baseline
+/// was received, the baseline is loaded back from storage on first use. A missing baseline is remembered until
+/// the next baseline message, so the flushes before it do not query storage.
+class MergedStateTracker {
+    private static final Logger LOG = Logger.getLogger(MergedStateTracker.class);
+
+    private final ObjectMapper objectMapper;
+    private final RepositoryUtilities repositoryUtilities;
+    private final String tableName;
+    private final String baselineKey;
+
+    private final AtomicReference<JsonNode> baselineRoot = new AtomicReference<>();
+    private final AtomicBoolean baselineLoaded = new AtomicBoolean(false);
+
+    MergedStateTracker(ObjectMapper objectMapper, RepositoryUtilities repositoryUtilities,
+                       String tableName, String baselineKey) {
+        this.objectMapper = objectMapper;
+        this.repositoryUtilities = repositoryUtilities;
+        this.tableName = tableName;
+        this.baselineKey = baselineKey;
+    }
+
+    /// Registers a new baseline document.
+    ///
+    /// @param baselineJson The baseline Json document.
+    void setBaseline(String baselineJson) {
+        try {
+            baselineRoot.set(objectMapper.readTree(baselineJson));
+            baselineLoaded.set(true);
+        } catch (IOException e) {
+            LOG.warnf("Error parsing the %s baseline from the %s table. Error: %s", baselineKey, tableName, e.getMessage());
+        }
+    }
+
+    /// Merges the live state on top of the baseline and serializes the result.
+    ///
+    /// The baseline itself is left untouched; the merge is applied to a copy.
+    ///
+    /// @param liveRoot The current live state.
+    /// @return The merged Json document.
+    /// @throws IOException If the merge or serialization fails.
+    String mergeWithBaseline(JsonNode liveRoot) throws IOException {
+        JsonNode baseline = getBaseline();
+        if (baseline == null) {
+            return objectMapper.writeValueAsString(liveRoot);
+        }
+        // readerForUpdating modifies the copy in-place and returns the updated version
+        JsonNode merged = objectMapper.readerForUpdating(baseline.deepCopy()).readValue(liveRoot);
+        return objectMapper.writeValueAsString(merged);
+    }
+
+    private JsonNode getBaseline() {
+        if (!baselineLoaded.get()) {
+            try {
+                repositoryUtilities.getMessageFromKeyedTable(tableName, baselineKey).ifPresent(this::setBaseline);
+                baselineLoaded.set(true);
+            } catch (Exception e) {
+                LOG.warnf("Error loading the %s baseline from the %s table. Error: %s", baselineKey, tableName, e.getMessage());
+            }
+        }
+        return baselineRoot.get();
+    }
+}
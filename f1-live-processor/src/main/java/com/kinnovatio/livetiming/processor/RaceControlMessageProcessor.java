@@ -5,8 +5,6 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kinnovatio.livetiming.GlobalStateManager;
-import com.kinnovatio.livetiming.model.SessionStateUpdate;
-import com.kinnovatio.livetiming.repository.RepositoryUtilities;
 import com.kinnovatio.signalr.messages.LiveTimingMessage;
 import io.agroal.api.AgroalDataSource;
 import io.smallrye.common.annotation.RunOnVirtualThread;
@@ -25,9 +23,9 @@ import java.util.List;
 
 /// Processor for F1 Race Control messages.
 ///
-/// This class consumes race control notifications (like flags, penalties, or safety car periods),
-/// persists them to a relational database, and manages the lifecycle of the message table 
-/// by clearing stale data when session states transition.
+/// This class consumes race control notifications (like flags, penalties, or safety car periods)
+/// and persists them to a relational database. The rows are moved to the session archive when
+/// session states transition, see [SessionArchiveProcessor].
 @ApplicationScoped
 public class RaceControlMessageProcessor {
     private static final Logger LOG = Logger.getLogger(RaceControlMessageProcessor.class);
@@ -38,9 +36,6 @@ public class RaceControlMessageProcessor {
     @Inject
     AgroalDataSource storageDataSource;
 
-    @Inject
-    RepositoryUtilities repositoryUtilities;
-
     @ConfigProperty(name = "app.race-control-message.table")
     String raceControlMessageTable;
 
@@ -95,31 +90,4 @@ public class RaceControlMessageProcessor {
             throw e;
         }
     }
-
-    /// Responds to session state transitions by managing the race control message table.
-    ///
-    /// When a session ends (`NO_SESSION`), becomes `INACTIVE`, or a new `LIVE_SESSION` starts 
-    /// (excluding transitions from an inactive warmup), this method clears the existing 
-    /// race control messages to ensure the dashboard or downstream consumers only see data 
-    /// relevant to the current active session.
-    ///
-    /// @param sessionStateUpdate The transition details between the old and new session states.
-    /// @throws Exception If the database cleanup operation fails.
-    @Incoming("session-status-update")
-    @Retry(delay = 500, maxRetries = 5)
-    @RunOnVirtualThread
-    public void processSessionStatusChange(SessionStateUpdate sessionStateUpdate) throws Exception {
-        if (sessionStateUpdate.newState() == GlobalStateManager.SessionState.NO_SESSION
-                || sessionStateUpdate.newState() == GlobalStateManager.SessionState.INACTIVE
-                || (sessionStateUpdate.newState() == GlobalStateManager.SessionState.LIVE_SESSION
-                && sessionStateUpdate.oldState() != GlobalStateManager.SessionState.INACTIVE)) {
-            LOG.infof("Session state changed from %s to %s. Will clear the %s table.",
-                    sessionStateUpdate.oldState().getStatus(), sessionStateUpdate.newState().getStatus(), raceControlMessageTable);
-            int rowsAffected = repositoryUtilities.clearAllRowsFromTable(raceControlMessageTable);
-            LOG.infof("%d rows deleted from the %s table.", rowsAffected, raceControlMessageTable);
-        } else {
-            LOG.infof("Session state changed from %s to %s. Will not clear the %s table.",
-                    sessionStateUpdate.oldState().getStatus(), sessionStateUpdate.newState().getStatus(), raceControlMessageTable);
-        }
-    }
 }
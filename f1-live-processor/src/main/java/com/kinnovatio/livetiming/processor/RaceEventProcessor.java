@@ -0,0 +1,198 @@
+package com.kinnovatio.livetiming.processor;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.kinnovatio.livetiming.GlobalStateManager;
+import com.kinnovatio.livetiming.model.RaceEvent;
+import com.kinnovatio.livetiming.model.SessionStateUpdate;
+import com.kinnovatio.signalr.messages.LiveTimingMessage;
+import io.agroal.api.AgroalDataSource;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import io.smallrye.reactive.messaging.kafka.Record;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.faulttolerance.Retry;
+import org.eclipse.microprofile.reactive.messaging.Channel;
+import org.eclipse.microprofile.reactive.messaging.Emitter;
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.OnOverflow;
+import org.jboss.logging.Logger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/// Processor for the derived race event stream.
+///
+/// This component feeds the timing data, timing app data and track status streams into a [RaceEventTracker],
+/// stores the derived events (position changes, pit entries and exits, tyre changes, personal and overall best
+/// laps and sectors, track status changes and retirements) in the race events table, and publishes each stored
+/// event to the `race-events-out` channel. Clients can follow what changed without diffing successive states.
+///
+/// The published event carries its row `id`, so a client can switch between the stream and the api
+/// (`since=<id>`) without gaps.
+@ApplicationScoped
+public class RaceEventProcessor {
+    private static final Logger LOG = Logger.getLogger(RaceEventProcessor.class);
+    private static final String raceEventKey = "RaceEvent";
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    AgroalDataSource storageDataSource;
+
+    @ConfigProperty(name = "app.race-events.table")
+    String raceEventsTable;
+
+    @Inject
+    GlobalStateManager stateManager;
+
+    @Inject
+    @OnOverflow(value = OnOverflow.Strategy.DROP)
+    @Channel("race-events-out")
+    Emitter<Record<String, String>> raceEventsEmitter;
+
+    private final RaceEventTracker raceEventTracker = new RaceEventTracker();
+
+    /// Events derived but not yet stored. Kept across a failed store, so a retried message does not lose them.
+    private final List<RaceEvent> pendingEvents = new ArrayList<>();
+
+    /// Processes a timing data message.
+    ///
+    /// @param recordValue The raw JSON string received from the "timing-data" channel.
+    /// @throws Exception If database connectivity fails or JSON parsing errors occur.
+    @Incoming("timing-data")
+    @Retry(delay = 500, maxRetries = 5)
+    @RunOnVirtualThread
+    public void processTimingData(String recordValue) throws Exception {
+        LiveTimingMessage message = objectMapper.readValue(recordValue, LiveTimingMessage.class);
+        JsonNode root = objectMapper.readTree(message.message());
+        synchronized (raceEventTracker) {
+            pendingEvents.addAll(raceEventTracker.applyTimingData(root, message.isStreaming(), message.timestamp()));
+            storePendingEvents();
+        }
+    }
+
+    /// Processes a timing app data message.
+    ///
+    /// @param recordValue The raw JSON string received from the "timing-app-data" channel.
+    /// @throws Exception If database connectivity fails or JSON parsing errors occur.
+    @Incoming("timing-app-data")
+    @Retry(delay = 500, maxRetries = 5)
+    @RunOnVirtualThread
+    public void processTimingAppData(String recordValue) throws Exception {
+        LiveTimingMessage message = objectMapper.readValue(recordValue, LiveTimingMessage.class);
+        JsonNode root = objectMapper.readTree(message.message());
+        synchronized (raceEventTracker) {
+            pendingEvents.addAll(raceEventTracker.applyTimingAppData(root, message.isStreaming(), message.timestamp()));
+            storePendingEvents();
+        }
+    }
+
+    /// Processes a track status message.
+    ///
+    /// @param recordValue The raw JSON string received from the "track-status" channel.
+    /// @throws Exception If database connectivity fails or JSON parsing errors occur.
+    @Incoming("track-status")
+    @Retry(delay = 500, maxRetries = 5)
+    @RunOnVirtualThread
+    public void processTrackStatus(String recordValue) throws Exception {
+        LiveTimingMessage message = objectMapper.readValue(recordValue, LiveTimingMessage.class);
+        JsonNode root = objectMapper.readTree(message.message());
+        synchronized (raceEventTracker) {
+            pendingEvents.addAll(raceEventTracker.applyTrackStatus(root, message.isStreaming(), message.timestamp()));
+            storePendingEvents();
+        }
+    }
+
+    /// Stores the pending events and publishes them with their row ids. Must hold the tracker lock.
+    private void storePendingEvents() throws Exception {
+        if (pendingEvents.isEmpty()) {
+            return;
+        }
+        String sql = """
+                INSERT INTO %s (session_id, event_type, driver, lap, sector, value, previous_value, message_timestamp)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?::timestamptz)
+                RETURNING id;
+                """.formatted(raceEventsTable);
+
+        List<String> published = new ArrayList<>(pendingEvents.size());
+        try (Connection connection = storageDataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            connection.setAutoCommit(false);
+            int sessionKey = stateManager.getSessionKey();
+            for (RaceEvent event : pendingEvents) {
+                statement.setInt(1, sessionKey);
+                statement.setString(2, event.type().name());
+                statement.setString(3, event.driver());
+                statement.setObject(4, event.lap() < 0 ? null : event.lap(), Types.INTEGER);
+                statement.setObject(5, event.sector() < 0 ? null : event.sector(), Types.INTEGER);
+                statement.setString(6, event.value());
+                statement.setString(7, event.previousValue());
+                statement.setString(8, event.timestamp().toString());
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    published.add(toJson(resultSet.getLong(1), sessionKey, event));
+                }
+            }
+            connection.commit();
+        } catch (Exception e) {
+            LOG.warnf("Error when trying to store %d race events. Will retry shortly. Error: %s",
+                    pendingEvents.size(), e.getMessage());
+            throw e;
+        }
+        LOG.debugf("Stored %d race events.", pendingEvents.size());
+        pendingEvents.clear();
+        published.forEach(event -> raceEventsEmitter.send(Record.of(raceEventKey, event)));
+    }
+
+    private String toJson(long id, int sessionKey, RaceEvent event) throws Exception {
+        ObjectNode root = objectMapper.createObjectNode()
+                .put("id", id)
+                .put("sessionId", sessionKey)
+                .put("type", event.type().name())
+                .put("driver", event.driver());
+        if (event.lap() >= 0) {
+            root.put("lap", event.lap());
+        }
+        if (event.sector() >= 0) {
+            root.put("sector", event.sector());
+        }
+        root.put("value", event.value())
+                .put("previousValue", event.previousValue())
+                .put("timestamp", event.timestamp().toString());
+        return objectMapper.writeValueAsString(root);
+    }
+
+    /// Responds to session state transitions by resetting the race event state.
+    ///
+    /// When a session ends (`NO_SESSION`), becomes `INACTIVE`, or a new `LIVE_SESSION` starts
+    /// (excluding transitions from an inactive warmup), this method resets the race event state. The stored
+    /// rows are moved to the session archive by the [SessionArchiveProcessor].
+    ///
+    /// @param sessionStateUpdate The transition details between the old and new session states.
+    @Incoming("session-status-update")
+    @RunOnVirtualThread
+    public void processSessionStatusChange(SessionStateUpdate sessionStateUpdate) {
+        if (sessionStateUpdate.newState() == GlobalStateManager.SessionState.NO_SESSION
+                || sessionStateUpdate.newState() == GlobalStateManager.SessionState.INACTIVE
+                || (sessionStateUpdate.newState() == GlobalStateManager.SessionState.LIVE_SESSION
+                && sessionStateUpdate.oldState() != GlobalStateManager.SessionState.INACTIVE)) {
+            LOG.infof("Session state changed from %s to %s. Will reset the race event state.",
+                    sessionStateUpdate.oldState().getStatus(), sessionStateUpdate.newState().getStatus());
+            synchronized (raceEventTracker) {
+                raceEventTracker.reset();
+                pendingEvents.clear();
+            }
+        } else {
+            LOG.infof("Session state changed from %s to %s. Will not reset the race event state.",
+                    sessionStateUpdate.oldState().getStatus(), sessionStateUpdate.newState().getStatus());
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.kinnovatio.livetiming.processor;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.kinnovatio.livetiming.model.RaceEvent;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/// Derives race events from the timing data, timing app data and track status updates.
+///
+/// The tracker keeps the few fields per driver that events are derived from (position, pit state, lap and
+/// sector times with their fastest flags, current stint and retirement) and compares each update against them,
+/// so an update is processed in time proportional to its own size. Baseline (non-streaming) documents only
+/// seed the state and do not produce events.
+///
+/// The feed may publish a lap or sector time and its fastest flags in separate updates. The flags are
+/// therefore evaluated against the merged time, and a best is only reported when it improves on the best
+/// already reported. Re-sent or stale flags do not produce duplicate events.
+///
+/// The tracker is not thread-safe. It is owned by a single consumer.
+class RaceEventTracker {
+    private final Map<String, DriverState> drivers = new HashMap<>();
+    private final int[] overallBestSectorMillis = {Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE};
+    private int overallBestLapMillis = Integer.MAX_VALUE;
+    private String trackStatus = null;
+    private String trackStatusMessage = null;
+
+    /// Applies a timing data document.
+    ///
+    /// @param root The timing data document, with property names in camel case.
+    /// @param isStreaming `false` for a baseline document, which only seeds the state.
+    /// @param timestamp The timestamp of the message.
+    /// @return The events derived from the update, in driver order of the document.
+    List<RaceEvent> applyTimingData(JsonNode root, boolean isStreaming, Instant timestamp) {
+        List<RaceEvent> events = new ArrayList<>();
+        for (Map.Entry<String, JsonNode> line : root.path("lines").properties()) {
+            JsonNode lineNode = line.getValue();
+            if (!lineNode.isObject()) {
+                continue;
+            }
+            DriverState driver = drivers.computeIfAbsent(line.getKey(), DriverState::new);
+            if (lineNode.path("numberOfLaps").isNumber()) {
+                driver.completedLaps = lineNode.path("numberOfLaps").asInt();
+            }
+
+            String position = lineNode.path("position").asText("");
+            if (!position.isBlank() && !position.equals(driver.position)) {
+                if (isStreaming && driver.position != null) {
+                    events.add(event(RaceEvent.Type.POSITION_CHANGE, driver, -1, position, driver.position, timestamp));
+                }
+                driver.position = position;
+            }
+
+            JsonNode inPit = lineNode.path("inPit");
+            if (inPit.isBoolean() && inPit.asBoolean() != driver.inPit) {
+                driver.inPit = inPit.asBoolean();
+                if (isStreaming) {
+                    events.add(event(driver.inPit ? RaceEvent.Type.PIT_ENTRY : RaceEvent.Type.PIT_EXIT,
+                            driver, -1, null, null, timestamp));
+                }
+            }
+
+            if (lineNode.path("retired").asBoolean(false) && !driver.retired) {
+                driver.retired = true;
+                if (isStreaming) {
+                    events.add(event(RaceEvent.Type.RETIREMENT, driver, -1, null, null, timestamp));
+                }
+            }
+
+            JsonNode lastLapTime = lineNode.path("lastLapTime");
+            if (lastLapTime.isObject()) {
+                driver.lastLap.merge(lastLapTime);
+                applyLapTime(driver, isStreaming, timestamp, events);
+            }
+
+            JsonNode sectors = lineNode.path("sectors");
+            for (int i = 0; i < 3; i++) {
+                JsonNode sector = sectors.isArray() ? sectors.path(i) : sectors.path(String.valueOf(i));
+                if (sector.isObject()) {
+                    driver.sectors[i].merge(sector);
+                    applySectorTime(driver, i, isStreaming, timestamp, events);
+                }
+            }
+        }
+        return events;
+    }
+
+    /// Applies a timing app data document. A new stint produces a tyre change event once its compound is known.
+    ///
+    /// @param root The timing app data document, with property names in camel case.
+    /// @param isStreaming `false` for a baseline document, which only seeds the state.
+    /// @param timestamp The timestamp of the message.
+    /// @return The events derived from the update.
+    List<RaceEvent> applyTimingAppData(JsonNode root, boolean isStreaming, Instant timestamp) {
+        List<RaceEvent> events = new ArrayList<>();
+        for (Map.Entry<String, JsonNode> line : root.path("lines").properties()) {
+            JsonNode stints = line.getValue().path("stints");
+            if (!stints.isContainerNode()) {
+                continue;
+            }
+            DriverState driver = drivers.computeIfAbsent(line.getKey(), DriverState::new);
+            if (stints.isArray()) {
+                for (int i = 0; i < stints.size(); i++) {
+                    applyStint(driver, i, stints.get(i), isStreaming, timestamp, events);
+                }
+            } else {
+                for (Map.Entry<String, JsonNode> stint : stints.properties()) {
+                    int index = parseIndex(stint.getKey());
+                    if (index >= 0) {
+                        applyStint(driver, index, stint.getValue(), isStreaming, timestamp, events);
+                    }
+                }
+            }
+        }
+        return events;
+    }
+
+    /// Applies a track status document: `{"status": "4", "message": "SCDeployed"}`.
+    ///
+    /// @param root The track status document, with property names in camel case.
+    /// @param isStreaming `false` for a baseline document, which only seeds the state.
+    /// @param timestamp The timestamp of the message.
+    /// @return A track status event if the status changed.
+    List<RaceEvent> applyTrackStatus(JsonNode root, boolean isStreaming, Instant timestamp) {
+        String status = root.path("status").asText("");
+        if (status.isBlank() || status.equals(trackStatus)) {
+            return List.of();
+        }
+        String message = root.path("message").asText(status);
+        RaceEvent event = new RaceEvent(RaceEvent.Type.TRACK_STATUS, null, -1, -1, message, trackStatusMessage,
+                timestamp);
+        trackStatus = status;
+        trackStatusMessage = message;
+        return isStreaming ? List.of(event) : List.of();
+    }
+
+    /// Forgets all state, for a new session.
+    void reset() {
+        drivers.clear();
+        Arrays.fill(overallBestSectorMillis, Integer.MAX_VALUE);
+        overallBestLapMillis = Integer.MAX_VALUE;
+        trackStatus = null;
+        trackStatusMessage = null;
+    }
+
+    private void applyLapTime(DriverState driver, boolean isStreaming, Instant timestamp, List<RaceEvent> events) {
+        TimedValue lap = driver.lastLap;
+        int millis = LapTracker.parseMillis(lap.value);
+        if (millis <= 0 || !(lap.personalFastest || lap.overallFastest) || millis >= driver.bestLapMillis) {
+            return;
+        }
+        String previous = driver.bestLapValue;
+        driver.bestLapMillis = millis;
+        driver.bestLapValue = lap.value;
+        boolean overall = lap.overallFastest && millis < overallBestLapMillis;
+        if (overall) {
+            overallBestLapMillis = millis;
+        }
+        if (isStreaming) {
+            events.add(event(overall ? RaceEvent.Type.OVERALL_BEST_LAP : RaceEvent.Type.PERSONAL_BEST_LAP,
+                    driver, -1, lap.value, previous, timestamp));
+        }
+    }
+
+    private void applySectorTime(DriverState driver, int index, boolean isStreaming, Instant timestamp,
+                                 List<RaceEvent> events) {
+        TimedValue sector = driver.sectors[index];
+        int millis = LapTracker.parseMillis(sector.value);
+        if (millis <= 0 || !(sector.personalFastest || sector.overallFastest)
+                || millis >= driver.bestSectorMillis[index]) {
+            return;
+        }
+        String previous = driver.bestSectorValues[index];
+        driver.bestSectorMillis[index] = millis;
+        driver.bestSectorValues[index] = sector.value;
+        boolean overall = sector.overallFastest && millis < overallBestSectorMillis[index];
+        if (overall) {
+            overallBestSectorMillis[index] = millis;
+        }
+        if (isStreaming) {
+            events.add(event(overall ? RaceEvent.Type.OVERALL_BEST_SECTOR : RaceEvent.Type.PERSONAL_BEST_SECTOR,
+                    driver, index + 1, sector.value, previous, timestamp));
+        }
+    }
+
+    private void applyStint(DriverState driver, int index, JsonNode stint, boolean isStreaming, Instant timestamp,
+                            List<RaceEvent> events) {
+        if (index > driver.stint) {
+            driver.stint = index;
+            driver.previousCompound = driver.compound;
+            driver.compound = null;
+            driver.tyreChangePending = isStreaming && index > 0;
+        }
+        String compound = stint.path("compound").asText("");
+        if (index != driver.stint || compound.isBlank() || compound.equals(driver.compound)) {
+            return;
+        }
+        driver.compound = compound;
+        if (driver.tyreChangePending && !compound.equals("UNKNOWN")) {
+            driver.tyreChangePending = false;
+            events.add(event(RaceEvent.Type.TYRE_CHANGE, driver, -1, compound, driver.previousCompound, timestamp));
+        }
+    }
+
+    private static RaceEvent event(RaceEvent.Type type, DriverState driver, int sector, String value,
+                                   String previousValue, Instant timestamp) {
+        return new RaceEvent(type, driver.number, driver.completedLaps, sector, value, previousValue, timestamp);
+    }
+
+    private static int parseIndex(String key) {
+        try {
+            return Integer.parseInt(key);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /// A lap or sector time with the feed's fastest flags, merged across updates.
+    private static final class TimedValue {
+        String value = "";
+        boolean personalFastest = false;
+        boolean overallFastest = false;
+
+        void merge(JsonNode node) {
+            if (node.path("value").isValueNode()) {
+                value = node.path("value").asText("");
+            }
+            if (node.path("personalFastest").isBoolean()) {
+                personalFastest = node.path("personalFastest").asBoolean();
+            }
+            if (node.path("overallFastest").isBoolean()) {
+                overallFastest = node.path("overallFastest").asBoolean();
+            }
+        }
+    }
+
+    private static final class DriverState {
+        final String number;
+        int completedLaps = -1;
+        String position = null;
+        boolean inPit = false;
+        boolean retired = false;
+        final TimedValue lastLap = new TimedValue();
+        int bestLapMillis = Integer.MAX_VALUE;
+        String bestLapValue = null;
+        final TimedValue[] sectors = {new TimedValue(), new TimedValue(), new TimedValue()};
+        final int[] bestSectorMillis = {Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE};
+        final String[] bestSectorValues = new String[3];
+        int stint = -1;
+        String compound = null;
+        String previousCompound = null;
+        boolean tyreChangePending = false;
+
+        DriverState(String number) {
+            this.number = number;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.kinnovatio.livetiming.processor;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kinnovatio.livetiming.GlobalStateManager;
+import com.kinnovatio.livetiming.model.SessionStateUpdate;
+import com.kinnovatio.livetiming.repository.RepositoryUtilities;
+import com.kinnovatio.signalr.messages.LiveTimingMessage;
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import io.smallrye.reactive.messaging.kafka.Record;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.faulttolerance.Retry;
+import org.eclipse.microprofile.reactive.messaging.Channel;
+import org.eclipse.microprofile.reactive.messaging.Emitter;
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.OnOverflow;
+import org.jboss.logging.Logger;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/// Processor for the mini-sector (segment) status.
+///
+/// This component keeps the segment status of all drivers in a [SegmentStatusTracker] and publishes compact
+/// segment frames to the `segments-out` channel. A frame carries a line per driver whose status changed:
+/// ```
+/// {"timestamp": <epochMillis>,
+///  "lines": {"<racing number>": ["PGGY|YY..|......", <bestSector1Millis>, <bestSector2Millis>, <bestSector3Millis>,
+///                                [[<status>, ...], [<status>, ...], [<status>, ...]]]},
+///  "overallBestSectors": [[<millis>, "<racing number>"], ...]}
+/// ```
+/// The text gives the display status of each segment, and the last element the full status bit field of each
+/// segment per sector (pit exit, out lap, overtaken, etc.), see [SegmentStatusTracker]. A line replaces the driver's previous line, so frames can be applied in any order after a snapshot.
+/// `overallBestSectors` is only included when an overall best changed. Times are `-1` when unknown.
+///
+/// The full status of all drivers is stored periodically, in the same layout, in the timing data table.
+/// The segments are removed from the stored timing data documents, see [TimingDataProcessor].
+@ApplicationScoped
+public class SegmentStatusProcessor {
+    private static final Logger LOG = Logger.getLogger(SegmentStatusProcessor.class);
+    private static final String segmentsKey = "SegmentStatus";
+    private static final String timingDataSegmentsKey = "timingDataSegments";
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    RepositoryUtilities repositoryUtilities;
+
+    @ConfigProperty(name = "app.timing-data.table")
+    String timingDataTable;
+
+    @Inject
+    GlobalStateManager stateManager;
+
+    @Inject
+    @OnOverflow(value = OnOverflow.Strategy.DROP)
+    @Channel("segments-out")
+    Emitter<Record<String, String>> segmentsEmitter;
+
+    private final SegmentStatusTracker segmentTracker = new SegmentStatusTracker();
+
+    private final AtomicReference<Instant> segmentsMessageTimestamp = new AtomicReference<>(Instant.now());
+    private final AtomicReference<Instant> segmentsUpdateTimestamp = new AtomicReference<>(Instant.now());
+    private final AtomicReference<Instant> segmentsStorageTimestamp = new AtomicReference<>(Instant.now());
+
+    /// Processes a timing data message and publishes a segment frame for the drivers whose status changed.
+    ///
+    /// @param recordValue The raw JSON string received from the "timing-data" channel.
+    /// @throws Exception If JSON parsing fails.
+    @Incoming("timing-data")
+    @Retry(delay = 500, maxRetries = 5)
+    @RunOnVirtualThread
+    public void processTimingData(String recordValue) throws Exception {
+        LiveTimingMessage message = objectMapper.readValue(recordValue, LiveTimingMessage.class);
+        JsonNode root = objectMapper.readTree(message.message());
+
+        String frame;
+        synchronized (segmentTracker) {
+            Set<String> changed = segmentTracker.apply(root);
+            boolean bestSectorsChanged = segmentTracker.pollBestSectorsChanged();
+            if (changed.isEmpty() && !bestSectorsChanged) {
+                return;
+            }
+            frame = toJson(segmentTracker, changed, bestSectorsChanged, message.timestamp().toEpochMilli());
+        }
+        segmentsMessageTimestamp.set(message.timestamp());
+        segmentsUpdateTimestamp.set(Instant.now());
+        if (message.isStreaming()) {
+            segmentsEmitter.send(Record.of(segmentsKey, frame));
+        }
+    }
+
+    /// Periodically stores the full segment status when it has changed since the last write.
+    @RunOnVirtualThread
+    @Scheduled(every = "5s", delayed = "5s")
+    public void storeSegments() {
+        Instant updateTimestamp = segmentsUpdateTimestamp.get();
+        if (!updateTimestamp.isAfter(segmentsStorageTimestamp.get())) {
+            return;
+        }
+        try {
+            String document;
+            synchronized (segmentTracker) {
+                document = toJson(segmentTracker, segmentTracker.getDrivers(), true,
+                        segmentsMessageTimestamp.get().toEpochMilli());
+            }
+            repositoryUtilities.storeIntoKeyedMessageTable(
+                    timingDataTable,
+                    timingDataSegmentsKey,
+                    stateManager.getSessionKey(),
+                    document,
+                    segmentsMessageTimestamp.get());
+            segmentsStorageTimestamp.set(updateTimestamp);
+        } catch (Exception e) {
+            LOG.warnf("Error when trying to store the segment status. Error: %s", e.getMessage());
+        }
+    }
+
+    /// Writes a segment frame for the given drivers.
+    static String toJson(SegmentStatusTracker tracker, Collection<String> drivers, boolean withOverallBest,
+                         long timestampMillis) {
+        StringBuilder json = new StringBuilder(64 + drivers.size() * 160);
+        json.append("{\"timestamp\":").append(timestampMillis).append(",\"lines\":{");
+        boolean first = true;
+        for (String driver : drivers) {
+            if (!first) {
+                json.append(',');
+            }
+            first = false;
+            json.append('"').append(driver).append("\":[\"").append(tracker.encodeSegments(driver)).append('"');
+            for (int best : tracker.getPersonalBestSectors(driver)) {
+                json.append(',').append(best);
+            }
+            json.append(",[");
+            for (int sector = 0; sector < 3; sector++) {
+                if (sector > 0) {
+                    json.append(',');
+                }
+                json.append('[');
+                int[] status = tracker.getSegmentStatus(driver, sector);
+                for (int segment = 0; segment < status.length; segment++) {
+                    if (segment > 0) {
+                        json.append(',');
+                    }
+                    json.append(status[segment]);
+                }
+                json.append(']');
+            }
+            json.append("]]");
+        }
+        json.append('}');
+        if (withOverallBest) {
+            json.append(",\"overallBestSectors\":[");
+            for (int sector = 0; sector < 3; sector++) {
+                if (sector > 0) {
+                    json.append(',');
+                }
+                String holder = tracker.getOverallBestSectorDriver(sector);
+                json.append('[').append(tracker.getOverallBestSectorMillis(sector)).append(',')
+                        .append(holder == null ? "null" : "\"" + holder + "\"").append(']');
+            }
+            json.append(']');
+        }
+        return json.append('}').toString();
+    }
+
+    /// Responds to session state transitions by resetting the segment status.
+    ///
+    /// When a session ends (`NO_SESSION`), becomes `INACTIVE`, or a new `LIVE_SESSION` starts
+    /// (excluding transitions from an inactive warmup), this method resets the segment status. The stored
+    /// rows are moved to the session archive by the [SessionArchiveProcessor].
+    ///
+    /// @param sessionStateUpdate The transition details between the old and new session states.
+    @Incoming("session-status-update")
+    @RunOnVirtualThread
+    public void processSessionStatusChange(SessionStateUpdate sessionStateUpdate) {
+        if (sessionStateUpdate.newState() == GlobalStateManager.SessionState.NO_SESSION
+                || sessionStateUpdate.newState() == GlobalStateManager.SessionState.INACTIVE
+                || (sessionStateUpdate.newState() == GlobalStateManager.SessionState.LIVE_SESSION
+                && sessionStateUpdate.oldState() != GlobalStateManager.SessionState.INACTIVE)) {
+            LOG.infof("Session state changed from %s to %s. Will reset the segment status.",
+                    sessionStateUpdate.oldState().getStatus(), sessionStateUpdate.newState().getStatus());
+            synchronized (segmentTracker) {
+                segmentTracker.reset();
+            }
+        } else {
+            LOG.infof("Session state changed from %s to %s. Will not reset the segment status.",
+                    sessionStateUpdate.oldState().getStatus(), sessionStateUpdate.newState().getStatus());
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.kinnovatio.livetiming.processor;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+
+/// Keeps the mini-sector (segment) status of every driver, with the personal and overall best time per sector.
+///
+/// The feed publishes a status bit field per segment (e.g. `2048` completed, `1` personal best, `2` overall
+/// best, `4` stopped, `16` pit lane, `32` pit exit, `64` racing, `512` out lap, `1024` checkered flag,
+/// `4096`/`8192` overtook/overtaken). The full bit field of every segment is kept, as a `short` per segment:
+/// a driver's 3 sectors of up to [#maxSegments] segments take 3 arrays plus the segment counts, instead of a
+/// Json object per segment.
+///
+/// Each driver's status encodes to a short text with one character per segment and `|` between the
+/// sectors, e.g. `PGGY|YY..|......`:
+/// `.` not completed, `Y` completed, `G` personal best, `P` overall best, `L` pit lane, `S` stopped or off track.
+/// A stopped segment shows as `S` whatever its other bits. The text is for display; the full bit fields are
+/// available from [#getSegmentStatus(String, int)].
+///
+/// The tracker is not thread-safe. It is owned by a single consumer.
+class SegmentStatusTracker {
+    static final int maxSegments = 32;
+    static final int completedStatus = 2048;
+    static final int personalBestStatus = 1;
+    static final int overallBestStatus = 2;
+    static final int stoppedStatus = 4;
+    static final int pitLaneStatus = 16;
+    /// The status bits the feed is known to use, up to `8192`. Keeps a status within a `short`.
+    static final int maxStatus = 0x3FFF;
+
+    private final Map<String, DriverSegments> drivers =
+            new TreeMap<>(Comparator.comparingInt(String::length).thenComparing(Comparator.naturalOrder()));
+    private final int[] overallBestSectorMillis = {Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE};
+    private final String[] overallBestSectorDrivers = new String[3];
+    private boolean bestSectorsChanged = false;
+
+    /// Applies a timing data document, in array (baseline) or object (update) notation.
+    ///
+    /// @param root The timing data document, with property names in camel case.
+    /// @return The drivers whose segment status or best sectors changed, in document order.
+    Set<String> apply(JsonNode root) {
+        Set<String> changed = new LinkedHashSet<>();
+        for (Map.Entry<String, JsonNode> line : root.path("lines").properties()) {
+            JsonNode sectors = line.getValue().path("sectors");
+            if (!sectors.isContainerNode()) {
+                continue;
+            }
+            DriverSegments driver = drivers.computeIfAbsent(line.getKey(), key -> new DriverSegments());
+            forEachIndexed(sectors, (sectorIndex, sector) -> {
+                if (sectorIndex < 3 && driver.applySector(line.getKey(), sectorIndex, sector)) {
+                    changed.add(line.getKey());
+                }
+            });
+        }
+        return changed;
+    }
+
+    /// Returns `true` once after an overall best sector changed.
+    boolean pollBestSectorsChanged() {
+        boolean result = bestSectorsChanged;
+        bestSectorsChanged = false;
+        return result;
+    }
+
+    /// Returns the drivers with segment status, in driver order.
+    Set<String> getDrivers() {
+        return drivers.keySet();
+    }
+
+    /// Encodes the segment status of a driver, e.g. `PGGY|YY..|......`.
+    String encodeSegments(String driver) {
+        DriverSegments segments = drivers.get(driver);
+        if (segments == null) {
+            return "";
+        }
+        StringBuilder encoded = new StringBuilder(3 * 12);
+        for (int sector = 0; sector < 3; sector++) {
+            if (sector > 0) {
+                encoded.append('|');
+            }
+            for (int segment = 0; segment < segments.segmentCount[sector]; segment++) {
+                encoded.append(segments.statusChar(sector, segment));
+            }
+        }
+        return encoded.toString();
+    }
+
+    /// Returns the full status bit fields of a driver's segments in a sector.
+    ///
+    /// @param driver The racing number of the driver.
+    /// @param sector The sector index, `0` to `2`.
+    /// @return One status per segment, empty if the driver has no segments in the sector.
+    int[] getSegmentStatus(String driver, int sector) {
+        DriverSegments segments = drivers.get(driver);
+        if (segments == null) {
+            return new int[0];
+        }
+        int[] status = new int[segments.segmentCount[sector]];
+        for (int segment = 0; segment < status.length; segment++) {
+            status[segment] = segments.status[sector][segment];
+        }
+        return status;
+    }
+
+    /// Returns a driver's personal best sector times in milliseconds, `-1` for none.
+    int[] getPersonalBestSectors(String driver) {
+        DriverSegments segments = drivers.get(driver);
+        int[] best = {-1, -1, -1};
+        if (segments != null) {
+            for (int i = 0; i < 3; i++) {
+                best[i] = segments.bestSectorMillis[i] == Integer.MAX_VALUE ? -1 : segments.bestSectorMillis[i];
+            }
+        }
+        return best;
+    }
+
+    /// Returns the overall best time of a sector in milliseconds, or `-1` if none.
+    int getOverallBestSectorMillis(int sector) {
+        return overallBestSectorMillis[sector] == Integer.MAX_VALUE ? -1 : overallBestSectorMillis[sector];
+    }
+
+    /// Returns the driver holding the overall best time of a sector, or `null` if none.
+    String getOverallBestSectorDriver(int sector) {
+        return overallBestSectorDrivers[sector];
+    }
+
+    /// Forgets all drivers, for a new session.
+    void reset() {
+        drivers.clear();
+        Arrays.fill(overallBestSectorMillis, Integer.MAX_VALUE);
+        Arrays.fill(overallBestSectorDrivers, null);
+        bestSectorsChanged = false;
+    }
+
+    /// Removes the segments from a timing data document, in place.
+    ///
+    /// The segments are carried by the [SegmentStatusTracker] instead. Sectors and lines in object notation
+    /// that only carried segments are removed, so a segment-only update leaves no empty lines behind.
+    ///
+    /// @param root The timing data document, with property names in camel case.
+    /// @return `true` if the document still has lines or other properties after the removal.
+    static boolean removeSegments(JsonNode root) {
+        if (!(root.path("lines") instanceof ObjectNode lines)) {
+            return !root.isEmpty();
+        }
+        Iterator<Map.Entry<String, JsonNode>> lineIterator = lines.properties().iterator();
+        while (lineIterator.hasNext()) {
+            if (!(lineIterator.next().getValue() instanceof ObjectNode line)) {
+                continue;
+            }
+            JsonNode sectors = line.path("sectors");
+            if (sectors instanceof ObjectNode sectorsObject) {
+                sectorsObject.properties().removeIf(sector -> sector.getValue() instanceof ObjectNode sectorNode
+                        && sectorNode.remove("segments") != null && sectorNode.isEmpty());
+                if (sectorsObject.isEmpty()) {
+                    line.remove("sectors");
+                }
+            } else if (sectors.isArray()) {
+                sectors.forEach(sector -> {
+                    if (sector instanceof ObjectNode sectorNode) {
+                        sectorNode.remove("segments");
+                    }
+                });
+            }
+            if (line.isEmpty()) {
+                lineIterator.remove();
+            }
+        }
+        return !lines.isEmpty() || root.size() > 1;
+    }
+
+    private static void forEachIndexed(JsonNode container, BiConsumer<Integer, JsonNode> consumer) {
+        if (container.isArray()) {
+            for (int i = 0; i < container.size(); i++) {
+                consumer.accept(i, container.get(i));
+            }
+        } else {
+            for (Map.Entry<String, JsonNode> entry : container.properties()) {
+                int index = parseIndex(entry.getKey());
+                if (index >= 0) {
+                    consumer.accept(index, entry.getValue());
+                }
+            }
+        }
+    }
+
+    private static int parseIndex(String key) {
+        try {
+            return Integer.parseInt(key);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private final class DriverSegments {
+        final int[] segmentCount = new int[3];
+        final short[][] status = new short[3][maxSegments];
+        final int[] lastSectorMillis = {-1, -1, -1};
+        final int[] bestSectorMillis = {Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE};
+
+        boolean applySector(String driver, int sector, JsonNode sectorNode) {
+            boolean[] changed = {false};
+            JsonNode segments = sectorNode.path("segments");
+            if (segments.isContainerNode()) {
+                forEachIndexed(segments, (segment, segmentNode) -> {
+                    JsonNode status = segmentNode.path("status");
+                    if (segment < maxSegments && status.isNumber()) {
+                        changed[0] |= setStatus(sector, segment, status.asInt() & maxStatus);
+                    }
+                });
+            }
+
+            if (sectorNode.path("value").isValueNode()) {
+                lastSectorMillis[sector] = LapTracker.parseMillis(sectorNode.path("value").asText(""));
+            }
+            boolean personalFastest = sectorNode.path("personalFastest").asBoolean(false);
+            boolean overallFastest = sectorNode.path("overallFastest").asBoolean(false);
+            int millis = lastSectorMillis[sector];
+            if ((personalFastest || overallFastest) && millis > 0 && millis < bestSectorMillis[sector]) {
+                bestSectorMillis[sector] = millis;
+                changed[0] = true;
+            }
+            if (overallFastest && millis > 0 && millis < overallBestSectorMillis[sector]) {
+                overallBestSectorMillis[sector] = millis;
+                overallBestSectorDrivers[sector] = driver;
+                bestSectorsChanged = true;
+            }
+            return changed[0];
+        }
+
+        boolean setStatus(int sector, int segment, int value) {
+            boolean changed = segment >= segmentCount[sector] || status[sector][segment] != value;
+            status[sector][segment] = (short) value;
+            segmentCount[sector] = Math.max(segmentCount[sector], segment + 1);
+            return changed;
+        }
+
+        char statusChar(int sector, int segment) {
+            int value = status[sector][segment];
+            if ((value & stoppedStatus) != 0) {
+                return 'S';
+            }
+            if ((value & overallBestStatus) != 0) {
+                return 'P';
+            }
+            if ((value & personalBestStatus) != 0) {
+                return 'G';
+            }
+            if ((value & pitLaneStatus) != 0) {
+                return 'L';
+            }
+            return (value & completedStatus) != 0 ? 'Y' : '.';
+        }
+    }
+}
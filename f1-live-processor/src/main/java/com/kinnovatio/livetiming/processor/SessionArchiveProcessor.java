@@ -0,0 +1,282 @@
+package com.kinnovatio.livetiming.processor;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.kinnovatio.livetiming.GlobalStateManager;
+import com.kinnovatio.livetiming.model.SessionStateUpdate;
+import io.agroal.api.AgroalDataSource;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.faulttolerance.Retry;
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.jboss.logging.Logger;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/// Moves the final live state and history of a session into the session archive when the session ends.
+///
+/// The live tables only hold the current session. On a session transition, the rows the processors used to
+/// delete are moved, in a single transaction, into the session archive table: one gzip-compressed Json document
+/// per session and category.
+/// - Keyed tables (e.g. `TimingData`) are archived as an object keyed by row key: `{"timingDataMerged": {...}}`.
+/// - History tables (e.g. `RaceControlMessages`, `Laps`) are archived as an array of rows in id order, with the
+///   column names as property names.
+///
+/// The rows are grouped by the session id they were written with. If a session is archived more than once
+/// (e.g. late writes after the transition), the documents are merged: arrays are appended and objects updated.
+///
+/// The baseline rows of the keyed tables stay in place, the next baseline replaces them. The raw message log
+/// and the checkpoints are not part of the archive, they back the replay of recorded sessions.
+@ApplicationScoped
+public class SessionArchiveProcessor {
+    private static final Logger LOG = Logger.getLogger(SessionArchiveProcessor.class);
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    AgroalDataSource storageDataSource;
+
+    @ConfigProperty(name = "app.session-archive.table")
+    String sessionArchiveTable;
+
+    @ConfigProperty(name = "app.track-status.table")
+    String trackStatusTable;
+
+    @ConfigProperty(name = "app.race-control-message.table")
+    String raceControlMessageTable;
+
+    @ConfigProperty(name = "app.weather-data.table")
+    String weatherDataTable;
+
+    @ConfigProperty(name = "app.driver-list.table")
+    String driverListTable;
+
+    @ConfigProperty(name = "app.timing-data.table")
+    String timingDataTable;
+
+    @ConfigProperty(name = "app.timing-app-data.table")
+    String timingAppDataTable;
+
+    @ConfigProperty(name = "app.timing-stats.table")
+    String timingStatsTable;
+
+    @ConfigProperty(name = "app.laps.table")
+    String lapsTable;
+
+    @ConfigProperty(name = "app.race-events.table")
+    String raceEventsTable;
+
+    @ConfigProperty(name = "app.stints.table")
+    String stintsTable;
+
+    /// The live tables to archive, in archive order.
+    private List<ArchiveSource> sources;
+
+    @PostConstruct
+    void init() {
+        sources = List.of(
+                ArchiveSource.history("TrackStatus", trackStatusTable),
+                ArchiveSource.history("RaceControlMessages", raceControlMessageTable),
+                ArchiveSource.keyed("WeatherData", weatherDataTable, List.of()),
+                ArchiveSource.keyed("DriverList", driverListTable, List.of("driverListLive", "driverListMerged")),
+                ArchiveSource.keyed("TimingData", timingDataTable,
+                        List.of("timingDataLive", "timingDataMerged", "timingDataSegments")),
+                ArchiveSource.keyed("TimingAppData", timingAppDataTable,
+                        List.of("timingAppDataLive", "timingAppDataMerged")),
+                ArchiveSource.keyed("TimingStats", timingStatsTable, List.of("timingStatsLive", "timingStatsMerged")),
+                ArchiveSource.history("Laps", lapsTable),
+                ArchiveSource.history("RaceEvents", raceEventsTable),
+                ArchiveSource.keyed("Stints", stintsTable, List.of("stints")));
+    }
+
+    /// Responds to session state transitions by archiving the live tables.
+    ///
+    /// When a session ends (`NO_SESSION`), becomes `INACTIVE`, or a new `LIVE_SESSION` starts
+    /// (excluding transitions from an inactive warmup), this method moves the session's rows from the live
+    /// tables into the session archive. Either all tables are archived, or none.
+    ///
+    /// @param sessionStateUpdate The transition details between the old and new session states.
+    /// @throws Exception If the archive transaction fails.
+    @Incoming("session-status-update")
+    @Retry(delay = 500, maxRetries = 5)
+    @RunOnVirtualThread
+    public void processSessionStatusChange(SessionStateUpdate sessionStateUpdate) throws Exception {
+        if (sessionStateUpdate.newState() == GlobalStateManager.SessionState.NO_SESSION
+                || sessionStateUpdate.newState() == GlobalStateManager.SessionState.INACTIVE
+                || (sessionStateUpdate.newState() == GlobalStateManager.SessionState.LIVE_SESSION
+                && sessionStateUpdate.oldState() != GlobalStateManager.SessionState.INACTIVE)) {
+            LOG.infof("Session state changed from %s to %s. Will move the live tables into the %s table.",
+                    sessionStateUpdate.oldState().getStatus(), sessionStateUpdate.newState().getStatus(),
+                    sessionArchiveTable);
+            archiveLiveTables();
+        } else {
+            LOG.infof("Session state changed from %s to %s. Will not archive the live tables.",
+                    sessionStateUpdate.oldState().getStatus(), sessionStateUpdate.newState().getStatus());
+        }
+    }
+
+    private void archiveLiveTables() throws SQLException, IOException {
+        int rowsMoved = 0;
+        try (Connection connection = storageDataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            for (ArchiveSource source : sources) {
+                rowsMoved += archiveSource(connection, source);
+            }
+            connection.commit();
+        } catch (Exception e) {
+            LOG.warnf("Error when trying to archive the live tables. Will retry shortly. Error: %s", e.getMessage());
+            throw e;
+        }
+        LOG.infof("%d rows moved from the live tables to the %s table.", rowsMoved, sessionArchiveTable);
+    }
+
+    /// Deletes the source rows and archives them per session. Returns the number of rows moved.
+    private int archiveSource(Connection connection, ArchiveSource source) throws SQLException, IOException {
+        int rowsMoved = 0;
+        try (PreparedStatement statement = connection.prepareStatement(source.moveSql())) {
+            if (!source.keys().isEmpty()) {
+                statement.setArray(1, connection.createArrayOf("varchar", source.keys().toArray()));
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    int rowCount = resultSet.getInt("row_count");
+                    storeArchive(connection,
+                            resultSet.getInt("session_id"),
+                            source.category(),
+                            rowCount,
+                            resultSet.getObject("message_timestamp", OffsetDateTime.class),
+                            objectMapper.readTree(resultSet.getString("document")));
+                    rowsMoved += rowCount;
+                }
+            }
+        }
+        return rowsMoved;
+    }
+
+    private void storeArchive(Connection connection, int sessionId, String category, int rowCount,
+                              OffsetDateTime messageTimestamp, JsonNode document) throws SQLException, IOException {
+        String selectSql = """
+                SELECT document
+                FROM %s
+                WHERE session_id = ? AND category = ?
+                FOR UPDATE;
+                """.formatted(sessionArchiveTable);
+
+        String upsertSql = """
+                INSERT INTO %1$s (session_id, category, row_count, document, message_timestamp, archived_timestamp)
+                VALUES (?, ?, ?, ?, ?, NOW())
+                ON CONFLICT (session_id, category)
+                DO UPDATE SET
+                    row_count = %1$s.row_count + EXCLUDED.row_count,
+                    document = EXCLUDED.document,
+                    message_timestamp = GREATEST(%1$s.message_timestamp, EXCLUDED.message_timestamp),
+                    archived_timestamp = EXCLUDED.archived_timestamp;
+                """.formatted(sessionArchiveTable);
+
+        try (PreparedStatement statement = connection.prepareStatement(selectSql)) {
+            statement.setInt(1, sessionId);
+            statement.setString(2, category);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(resultSet.getBytes("document")))) {
+                        document = mergeArchive(objectMapper.readTree(in), document);
+                    }
+                }
+            }
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 * 1024);
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(out, document);
+        }
+        try (PreparedStatement statement = connection.prepareStatement(upsertSql)) {
+            statement.setInt(1, sessionId);
+            statement.setString(2, category);
+            statement.setInt(3, rowCount);
+            statement.setBytes(4, bytes.toByteArray());
+            statement.setObject(5, messageTimestamp);
+            statement.executeUpdate();
+        }
+        LOG.debugf("Archived %d %s rows of session %d.", rowCount, category, sessionId);
+    }
+
+    /// Merges newly archived rows into an existing archive document: history rows are appended and keyed rows
+    /// replace the archived rows with the same key.
+    static JsonNode mergeArchive(JsonNode archived, JsonNode moved) {
+        if (archived instanceof ArrayNode archivedRows && moved.isArray()) {
+            return archivedRows.addAll((ArrayNode) moved);
+        }
+        if (archived instanceof ObjectNode archivedRows && moved.isObject()) {
+            return archivedRows.setAll((ObjectNode) moved);
+        }
+        return moved;
+    }
+
+    /// A live table to archive.
+    ///
+    /// @param category The archive category.
+    /// @param table The live table.
+    /// @param keyed `true` for a keyed table, `false` for a history table.
+    /// @param keys The row keys to move from a keyed table. Empty moves all rows.
+    record ArchiveSource(String category, String table, boolean keyed, List<String> keys) {
+        ArchiveSource {
+            if (!table.matches("[A-Za-z0-9_]+")) {
+                throw new IllegalArgumentException("Invalid table name: " + table);
+            }
+            keys = List.copyOf(keys);
+        }
+
+        static ArchiveSource keyed(String category, String table, List<String> keys) {
+            return new ArchiveSource(category, table, true, keys);
+        }
+
+        static ArchiveSource history(String category, String table) {
+            return new ArchiveSource(category, table, false, List.of());
+        }
+
+        /// Deletes the rows and returns them aggregated into one Json document per session.
+        String moveSql() {
+            String where = keys.isEmpty() ? "" : " WHERE key = ANY (?)";
+            if (keyed) {
+                return """
+                        WITH moved AS (
+                            DELETE FROM %s%s
+                            RETURNING session_id, key, message, message_timestamp
+                        )
+                        SELECT session_id, COUNT(*) AS row_count, MAX(message_timestamp) AS message_timestamp,
+                               jsonb_object_agg(key, message)::text AS document
+                        FROM moved
+                        GROUP BY session_id;
+                        """.formatted(table, where);
+            }
+            return """
+                    WITH moved AS (
+                        DELETE FROM %s
+                        RETURNING *
+                    )
+                    SELECT session_id, COUNT(*) AS row_count, MAX(message_timestamp) AS message_timestamp,
+                           jsonb_agg(to_jsonb(moved) - 'session_id' ORDER BY id)::text AS document
+                    FROM moved
+                    GROUP BY session_id;
+                    """.formatted(table);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.kinnovatio.livetiming.processor;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.kinnovatio.livetiming.GlobalStateManager;
+import com.kinnovatio.livetiming.model.CompletedLap;
+import com.kinnovatio.livetiming.model.SessionStateUpdate;
+import com.kinnovatio.livetiming.repository.RepositoryUtilities;
+import com.kinnovatio.signalr.messages.LiveTimingMessage;
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.faulttolerance.Retry;
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.jboss.logging.Logger;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+
+/// Processor for the stint and tyre degradation model.
+///
+/// This component keeps a [StintTracker] up to date from the timing app data stream and the laps completed by
+/// the [LapProcessor], and periodically stores the typed stints of all drivers, with their degradation
+/// estimates, as a single document in the stints table. The api serves the stored document as-is.
+///
+/// The document layout is `{"drivers": {"<racing number>": [<stint>, ...]}}`, see [com.kinnovatio.livetiming.model.Stint].
+@ApplicationScoped
+public class StintProcessor {
+    private static final Logger LOG = Logger.getLogger(StintProcessor.class);
+    private static final String stintsKey = "stints";
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    RepositoryUtilities repositoryUtilities;
+
+    @ConfigProperty(name = "app.stints.table")
+    String stintsTable;
+
+    @Inject
+    GlobalStateManager stateManager;
+
+    private final StintTracker stintTracker = new StintTracker();
+
+    /// The timestamp of the most recent message that changed the stints.
+    private final AtomicReference<Instant> stintsMessageTimestamp = new AtomicReference<>(Instant.now());
+
+    /// The time of the most recent change to the stints.
+    private final AtomicReference<Instant> stintsUpdateTimestamp = new AtomicReference<>(Instant.now());
+
+    /// The time of the last successful write of the stints.
+    private final AtomicReference<Instant> stintsStorageTimestamp = new AtomicReference<>(Instant.now());
+
+    /// Processes a timing app data message.
+    ///
+    /// @param recordValue The raw JSON string received from the "timing-app-data" channel.
+    /// @throws Exception If JSON parsing fails.
+    @Incoming("timing-app-data")
+    @Retry(delay = 500, maxRetries = 5)
+    @RunOnVirtualThread
+    public void processTimingAppData(String recordValue) throws Exception {
+        LiveTimingMessage message = objectMapper.readValue(recordValue, LiveTimingMessage.class);
+        JsonNode root = objectMapper.readTree(message.message());
+        boolean changed;
+        synchronized (stintTracker) {
+            changed = stintTracker.applyTimingAppData(root);
+        }
+        if (changed) {
+            stintsMessageTimestamp.set(message.timestamp());
+            stintsUpdateTimestamp.set(Instant.now());
+        }
+    }
+
+    /// Adds a lap completed by the lap processor to the driver's current stint.
+    ///
+    /// @param lap The completed lap, from the "completed-laps" channel.
+    @Incoming("completed-laps")
+    @RunOnVirtualThread
+    public void processCompletedLap(CompletedLap lap) {
+        synchronized (stintTracker) {
+            stintTracker.applyLap(lap);
+        }
+        stintsMessageTimestamp.set(lap.timestamp());
+        stintsUpdateTimestamp.set(Instant.now());
+    }
+
+    /// Periodically stores the stints when they have changed since the last write.
+    @RunOnVirtualThread
+    @Scheduled(every = "5s", delayed = "5s")
+    public void storeStints() {
+        Instant updateTimestamp = stintsUpdateTimestamp.get();
+        if (!updateTimestamp.isAfter(stintsStorageTimestamp.get())) {
+            return;
+        }
+        try {
+            ObjectNode root = objectMapper.createObjectNode();
+            synchronized (stintTracker) {
+                root.set("drivers", objectMapper.valueToTree(stintTracker.getStints()));
+            }
+            repositoryUtilities.storeIntoKeyedMessageTable(
+                    stintsTable,
+                    stintsKey,
+                    stateManager.getSessionKey(),
+                    objectMapper.writeValueAsString(root),
+                    stintsMessageTimestamp.get());
+            stintsStorageTimestamp.set(updateTimestamp);
+        } catch (Exception e) {
+            LOG.warnf("Error when trying to store the stints. Error: %s", e.getMessage());
+        }
+    }
+
+    /// Responds to session state transitions by resetting the stints.
+    ///
+    /// When a session ends (`NO_SESSION`), becomes `INACTIVE`, or a new `LIVE_SESSION` starts
+    /// (excluding transitions from an inactive warmup), this method resets the stints. The stored
+    /// rows are moved to the session archive by the [SessionArchiveProcessor].
+    ///
+    /// @param sessionStateUpdate The transition details between the old and new session states.
+    @Incoming("session-status-update")
+    @RunOnVirtualThread
+    public void processSessionStatusChange(SessionStateUpdate sessionStateUpdate) {
+        if (sessionStateUpdate.newState() == GlobalStateManager.SessionState.NO_SESSION
+                || sessionStateUpdate.newState() == GlobalStateManager.SessionState.INACTIVE
+                || (sessionStateUpdate.newState() == GlobalStateManager.SessionState.LIVE_SESSION
+                && sessionStateUpdate.oldState() != GlobalStateManager.SessionState.INACTIVE)) {
+            LOG.infof("Session state changed from %s to %s. Will reset the stints.",
+                    sessionStateUpdate.oldState().getStatus(), sessionStateUpdate.newState().getStatus());
+            synchronized (stintTracker) {
+                stintTracker.reset();
+            }
+        } else {
+            LOG.infof("Session state changed from %s to %s. Will not reset the stints.",
+                    sessionStateUpdate.oldState().getStatus(), sessionStateUpdate.newState().getStatus());
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.kinnovatio.livetiming.processor;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.kinnovatio.livetiming.model.CompletedLap;
+import com.kinnovatio.livetiming.model.Stint;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/// Keeps a typed stint model per driver, from the timing app data stints and the completed laps.
+///
+/// The stints (compound, new or used tyres, tyre age) are taken from the timing app data, in array or
+/// object notation. Each completed lap is added to the driver's current stint. The tyre degradation is
+/// estimated as the least-squares slope of lap time over tyre age. The regression keeps running sums, so adding
+/// a lap is constant time and the slope is available at any time without a pass over the laps.
+///
+/// The tracker is not thread-safe. It is owned by a single consumer.
+class StintTracker {
+    /// Laps more than this factor slower than the stint's fastest lap are left out of the degradation estimate.
+    static final double slowLapFactor = 1.07;
+    static final int minSamples = 3;
+
+    private final Map<String, List<StintState>> drivers =
+            new TreeMap<>(Comparator.comparingInt(String::length).thenComparing(Comparator.naturalOrder()));
+
+    /// Applies a timing app data document.
+    ///
+    /// @param root The timing app data document, with property names in camel case.
+    /// @return `true` if any stint changed.
+    boolean applyTimingAppData(JsonNode root) {
+        boolean changed = false;
+        for (Map.Entry<String, JsonNode> line : root.path("lines").properties()) {
+            JsonNode stints = line.getValue().path("stints");
+            if (stints.isArray()) {
+                for (int i = 0; i < stints.size(); i++) {
+                    changed |= stint(line.getKey(), i).merge(stints.get(i));
+                }
+            } else if (stints.isObject()) {
+                for (Map.Entry<String, JsonNode> stint : stints.properties()) {
+                    int index = parseIndex(stint.getKey());
+                    if (index >= 0) {
+                        changed |= stint(line.getKey(), index).merge(stint.getValue());
+                    }
+                }
+            }
+        }
+        return changed;
+    }
+
+    /// Adds a completed lap to the driver's current stint.
+    void applyLap(CompletedLap lap) {
+        List<StintState> stints = drivers.computeIfAbsent(lap.driver(), driver -> new ArrayList<>());
+        if (stints.isEmpty()) {
+            stints.add(new StintState(0));
+        }
+        stints.getLast().addLap(lap);
+    }
+
+    /// Returns the stints of all drivers, in driver order.
+    Map<String, List<Stint>> getStints() {
+        Map<String, List<Stint>> result = new LinkedHashMap<>();
+        drivers.forEach((driver, stints) -> result.put(driver, stints.stream().map(StintState::toStint).toList()));
+        return result;
+    }
+
+    /// Forgets all stints, for a new session.
+    void reset() {
+        drivers.clear();
+    }
+
+    private StintState stint(String driver, int index) {
+        List<StintState> stints = drivers.computeIfAbsent(driver, key -> new ArrayList<>());
+        while (stints.size() <= index) {
+            stints.add(new StintState(stints.size()));
+        }
+        return stints.get(index);
+    }
+
+    private static int parseIndex(String key) {
+        try {
+            return Integer.parseInt(key);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static final class StintState {
+        final int index;
+        String compound = "UNKNOWN";
+        boolean isNew = false;
+        int startTyreAge = 0;
+        int tyreAge = -1;
+        int startLap = -1;
+        int[] lapTimes = new int[16];
+        int lapCount = 0;
+        int bestLapTime = Integer.MAX_VALUE;
+
+        // Running sums of the degradation regression. The lap times are offset by the first sample to keep
+        // the sums small.
+        int sampleCount = 0;
+        long offset = 0;
+        double sumX = 0;
+        double sumY = 0;
+        double sumXX = 0;
+        double sumXY = 0;
+
+        StintState(int index) {
+            this.index = index;
+        }
+
+        boolean merge(JsonNode stint) {
+            boolean changed = false;
+            String compoundValue = stint.path("compound").asText("");
+            if (!compoundValue.isBlank() && !compoundValue.equals(compound)) {
+                compound = compoundValue;
+                changed = true;
+            }
+            if (stint.path("new").isValueNode()) {
+                boolean newValue = stint.path("new").asBoolean(false);
+                changed |= newValue != isNew;
+                isNew = newValue;
+            }
+            if (stint.path("startLaps").isNumber()) {
+                changed |= stint.path("startLaps").asInt() != startTyreAge;
+                startTyreAge = stint.path("startLaps").asInt();
+            }
+            if (stint.path("totalLaps").isNumber()) {
+                changed |= stint.path("totalLaps").asInt() != tyreAge;
+                tyreAge = stint.path("totalLaps").asInt();
+            }
+            return changed;
+        }
+
+        void addLap(CompletedLap lap) {
+            if (lapCount == 0) {
+                startLap = lap.lapNumber();
+            }
+            if (lapCount == lapTimes.length) {
+                lapTimes = Arrays.copyOf(lapTimes, lapCount * 2);
+            }
+            lapTimes[lapCount++] = lap.lapTimeMillis();
+
+            int lapTime = lap.lapTimeMillis();
+            if (lapTime <= 0 || lap.pitIn() || lap.pitOut()) {
+                return;
+            }
+            boolean slowLap = bestLapTime != Integer.MAX_VALUE && lapTime > bestLapTime * slowLapFactor;
+            bestLapTime = Math.min(bestLapTime, lapTime);
+            if (slowLap) {
+                return;
+            }
+            if (sampleCount == 0) {
+                offset = lapTime;
+            }
+            double x = startTyreAge + lapCount;
+            double y = lapTime - offset;
+            sampleCount++;
+            sumX += x;
+            sumY += y;
+            sumXX += x * x;
+            sumXY += x * y;
+        }
+
+        Stint toStint() {
+            Double slope = null;
+            double denominator = sampleCount * sumXX - sumX * sumX;
+            if (sampleCount >= minSamples && denominator != 0) {
+                slope = (sampleCount * sumXY - sumX * sumY) / denominator;
+            }
+            return new Stint(index,
+                    compound,
+                    isNew,
+                    startTyreAge,
+                    tyreAge,
+                    startLap,
+                    lapCount,
+                    Arrays.copyOf(lapTimes, lapCount),
+                    bestLapTime == Integer.MAX_VALUE ? -1 : bestLapTime,
+                    sampleCount,
+                    sampleCount == 0 ? -1 : (int) Math.round(offset + sumY / sampleCount),
+                    slope);
+        }
+    }
+}
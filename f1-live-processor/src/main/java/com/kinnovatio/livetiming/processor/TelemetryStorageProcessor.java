@@ -0,0 +1,501 @@
+package com.kinnovatio.livetiming.processor;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kinnovatio.livetiming.GlobalStateManager;
+import com.kinnovatio.signalr.messages.LiveTimingMessage;
+import io.agroal.api.AgroalDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.jboss.logging.Logger;
+import org.postgresql.PGConnection;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/// Persists the car telemetry (`CarData.z`) and car positions (`Position.z`) as narrow numeric rows.
+///
+/// The samples are decoded with a streaming parser into primitive column batches, and written to the car data
+/// and car position tables with `COPY` when a batch is full or on the flush interval. The tables are range
+/// partitioned by day on the sample timestamp, with BRIN indexes on `(session_id, sample_timestamp)`: samples
+/// arrive in time order, so a block range index stays small and a session or time range query only reads
+/// the matching blocks of the matching partitions. Daily partitions are created on demand and dropped after
+/// the retention period.
+///
+/// Samples can be downsampled on write with `app.telemetry.sample-interval`: at most one sample per car is
+/// stored per interval. A batch that fails to write is logged and dropped, so a database outage cannot build
+/// up telemetry in memory.
+@ApplicationScoped
+public class TelemetryStorageProcessor {
+    private static final Logger LOG = Logger.getLogger(TelemetryStorageProcessor.class);
+    private static final int maxCarNumber = 99;
+    private static final DateTimeFormatter partitionSuffix = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    // The CarData channel ids, in table column order: speed, rpm, gear, throttle, brake, drs
+    private static final String[] carDataChannels = {"2", "0", "3", "4", "5", "45"};
+    private static final String carDataColumns = "session_id, car, sample_timestamp, speed, rpm, gear, throttle, brake, drs";
+    private static final String carPositionColumns = "session_id, car, sample_timestamp, status, x, y, z";
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    AgroalDataSource storageDataSource;
+
+    @Inject
+    GlobalStateManager stateManager;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "app.car-data.table")
+    String carDataTable;
+
+    @ConfigProperty(name = "app.car-position.table")
+    String carPositionTable;
+
+    @ConfigProperty(name = "app.telemetry.sample-interval", defaultValue = "0s")
+    Duration sampleInterval;
+
+    @ConfigProperty(name = "app.telemetry.batch-size", defaultValue = "5000")
+    int batchSize;
+
+    @ConfigProperty(name = "app.telemetry.retention", defaultValue = "P30D")
+    Duration retention;
+
+    // Guarded by this
+    private SampleBatch carDataBatch;
+    private SampleBatch carPositionBatch;
+    private final long[] lastCarDataMillis = new long[maxCarNumber + 1];
+    private final long[] lastCarPositionMillis = new long[maxCarNumber + 1];
+
+    /// Serializes the writers, so batches are written in order.
+    private final Object writeLock = new Object();
+    private final Set<String> knownPartitions = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void init() {
+        carDataBatch = new SampleBatch(6, batchSize);
+        carPositionBatch = new SampleBatch(4, batchSize);
+        Arrays.fill(lastCarDataMillis, Long.MIN_VALUE);
+        Arrays.fill(lastCarPositionMillis, Long.MIN_VALUE);
+    }
+
+    /// Decodes a `CarData.z` message into the car data batch:
+    /// `{"entries":[{"utc":"...","cars":{"44":{"channels":{"0":...}}}}]}`.
+    ///
+    /// @param recordValue The raw JSON string received from the "car-data" channel.
+    /// @throws Exception If the message cannot be parsed.
+    @Incoming("car-data")
+    @RunOnVirtualThread
+    public void processCarData(String recordValue) throws Exception {
+        LiveTimingMessage message = objectMapper.readValue(recordValue, LiveTimingMessage.class);
+        int sessionId = stateManager.getSessionKey();
+        int[] channels = new int[carDataChannels.length];
+
+        try (JsonParser parser = objectMapper.createParser(message.message())) {
+            if (!enterArray(parser, "entries")) {
+                return;
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                long timestampMillis = message.timestamp().toEpochMilli();
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    JsonToken token = parser.nextToken();
+                    if ("utc".equals(field) && token == JsonToken.VALUE_STRING) {
+                        timestampMillis = parseMillis(parser.getText(), timestampMillis);
+                    } else if ("cars".equals(field) && token == JsonToken.START_OBJECT) {
+                        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                            int car = parseCarNumber(parser.currentName());
+                            parser.nextToken();
+                            Arrays.fill(channels, 0);
+                            readCarChannels(parser, channels);
+                            if (car >= 0) {
+                                addCarData(sessionId, car, timestampMillis, channels);
+                            }
+                        }
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            }
+        }
+    }
+
+    /// Decodes a `Position.z` message into the car position batch:
+    /// `{"position":[{"timestamp":"...","entries":{"44":{"status":"OnTrack","X":..,"Y":..,"Z":..}}}]}`.
+    ///
+    /// @param recordValue The raw JSON string received from the "position-data" channel.
+    /// @throws Exception If the message cannot be parsed.
+    @Incoming("position-data")
+    @RunOnVirtualThread
+    public void processPosition(String recordValue) throws Exception {
+        LiveTimingMessage message = objectMapper.readValue(recordValue, LiveTimingMessage.class);
+        int sessionId = stateManager.getSessionKey();
+        int[] values = new int[4];
+
+        try (JsonParser parser = objectMapper.createParser(message.message())) {
+            if (!enterArray(parser, "position")) {
+                return;
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                long timestampMillis = message.timestamp().toEpochMilli();
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    JsonToken token = parser.nextToken();
+                    if ("timestamp".equals(field) && token == JsonToken.VALUE_STRING) {
+                        timestampMillis = parseMillis(parser.getText(), timestampMillis);
+                    } else if ("entries".equals(field) && token == JsonToken.START_OBJECT) {
+                        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                            int car = parseCarNumber(parser.currentName());
+                            parser.nextToken();
+                            Arrays.fill(values, 0);
+                            readPosition(parser, values);
+                            if (car >= 0) {
+                                addCarPosition(sessionId, car, timestampMillis, values);
+                            }
+                        }
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            }
+        }
+    }
+
+    /// Writes the pending samples. Full batches are written as they fill up; this writes the rest.
+    @Scheduled(every = "2s", delayed = "2s")
+    @RunOnVirtualThread
+    public void flushTelemetry() {
+        SampleBatch carData;
+        SampleBatch carPosition;
+        synchronized (this) {
+            carData = carDataBatch.isEmpty() ? null : swapCarDataBatch();
+            carPosition = carPositionBatch.isEmpty() ? null : swapCarPositionBatch();
+        }
+        if (carData != null) {
+            write(carDataTable, carDataColumns, carData);
+        }
+        if (carPosition != null) {
+            write(carPositionTable, carPositionColumns, carPosition);
+        }
+    }
+
+    /// Drops the daily partitions that are entirely older than the retention period.
+    @Scheduled(every = "1h", delayed = "1m")
+    @RunOnVirtualThread
+    public void dropExpiredPartitions() {
+        LocalDate cutoff = LocalDate.ofInstant(Instant.now().minus(retention), ZoneOffset.UTC);
+        for (String table : List.of(carDataTable, carPositionTable)) {
+            String sql = """
+                    SELECT c.relname
+                    FROM pg_inherits i
+                    JOIN pg_class c ON c.oid = i.inhrelid
+                    JOIN pg_class p ON p.oid = i.inhparent
+                    WHERE p.relname = ?;
+                    """;
+            List<String> expired = new ArrayList<>();
+            try (Connection connection = storageDataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setString(1, table);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        String partition = resultSet.getString(1);
+                        String suffix = partition.substring(partition.lastIndexOf("_p") + 2);
+                        try {
+                            if (LocalDate.parse(suffix, partitionSuffix).plusDays(1).isBefore(cutoff)) {
+                                expired.add(partition);
+                            }
+                        } catch (DateTimeParseException e) {
+                            LOG.debugf("Skipping partition %s with an unexpected name.", partition);
+                        }
+                    }
+                }
+                try (Statement drop = connection.createStatement()) {
+                    for (String partition : expired) {
+                        drop.execute("DROP TABLE IF EXISTS %s;".formatted(partition));
+                        knownPartitions.remove(partition);
+                        LOG.infof("Dropped expired telemetry partition %s.", partition);
+                    }
+                }
+            } catch (Exception e) {
+                LOG.warnf("Error when dropping expired partitions of %s. Error: %s", table, e.getMessage());
+            }
+        }
+    }
+
+    private void addCarData(int sessionId, int car, long timestampMillis, int[] channels) {
+        SampleBatch full = null;
+        synchronized (this) {
+            if (!isDue(lastCarDataMillis, car, timestampMillis)) {
+                return;
+            }
+            carDataBatch.add(sessionId, car, timestampMillis, channels);
+            if (carDataBatch.isFull()) {
+                full = swapCarDataBatch();
+            }
+        }
+        if (full != null) {
+            write(carDataTable, carDataColumns, full);
+        }
+    }
+
+    private void addCarPosition(int sessionId, int car, long timestampMillis, int[] values) {
+        SampleBatch full = null;
+        synchronized (this) {
+            if (!isDue(lastCarPositionMillis, car, timestampMillis)) {
+                return;
+            }
+            carPositionBatch.add(sessionId, car, timestampMillis, values);
+            if (carPositionBatch.isFull()) {
+                full = swapCarPositionBatch();
+            }
+        }
+        if (full != null) {
+            write(carPositionTable, carPositionColumns, full);
+        }
+    }
+
+    /// Downsampling on write: a sample is stored if the sample interval has passed since the last stored
+    /// sample of the car. A sample older than the last one (a new session or replay) restarts the interval.
+    private boolean isDue(long[] lastStoredMillis, int car, long timestampMillis) {
+        long last = lastStoredMillis[car];
+        if (last != Long.MIN_VALUE && timestampMillis >= last && timestampMillis - last < sampleInterval.toMillis()) {
+            return false;
+        }
+        lastStoredMillis[car] = timestampMillis;
+        return true;
+    }
+
+    private SampleBatch swapCarDataBatch() {
+        SampleBatch full = carDataBatch;
+        carDataBatch = new SampleBatch(6, batchSize);
+        return full;
+    }
+
+    private SampleBatch swapCarPositionBatch() {
+        SampleBatch full = carPositionBatch;
+        carPositionBatch = new SampleBatch(4, batchSize);
+        return full;
+    }
+
+    /// Writes a batch to a table with `COPY ... FROM STDIN`, creating the daily partitions it needs first.
+    private void write(String table, String columns, SampleBatch batch) {
+        synchronized (writeLock) {
+            try (Connection connection = storageDataSource.getConnection()) {
+                ensurePartitions(connection, table, batch.minTimestamp(), batch.maxTimestamp());
+                long rows = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(
+                        "COPY %s (%s) FROM STDIN WITH (FORMAT csv)".formatted(table, columns),
+                        new StringReader(batch.toCsv()));
+                Counter.builder("livetiming_processor_telemetry_rows_total")
+                        .description("Total number of telemetry rows written.")
+                        .tag("table", table)
+                        .register(registry)
+                        .increment(rows);
+            } catch (Exception e) {
+                LOG.warnf("Error when writing %d telemetry rows to %s. The batch is dropped. Error: %s",
+                        batch.size(), table, e.getMessage());
+                Counter.builder("livetiming_processor_telemetry_rows_dropped_total")
+                        .description("Total number of telemetry rows dropped after a failed write.")
+                        .tag("table", table)
+                        .register(registry)
+                        .increment(batch.size());
+            }
+        }
+    }
+
+    private void ensurePartitions(Connection connection, String table, long fromMillis, long toMillis)
+            throws Exception {
+        LocalDate day = LocalDate.ofInstant(Instant.ofEpochMilli(fromMillis), ZoneOffset.UTC);
+        LocalDate lastDay = LocalDate.ofInstant(Instant.ofEpochMilli(toMillis), ZoneOffset.UTC);
+        for (; !day.isAfter(lastDay); day = day.plusDays(1)) {
+            String partition = table + "_p" + day.format(partitionSuffix);
+            if (knownPartitions.contains(partition)) {
+                continue;
+            }
+            String sql = """
+                    CREATE TABLE IF NOT EXISTS %s PARTITION OF %s
+                    FOR VALUES FROM ('%s 00:00:00+00') TO ('%s 00:00:00+00');
+                    """.formatted(partition, table, day, day.plusDays(1));
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(sql);
+            }
+            knownPartitions.add(partition);
+            LOG.infof("Using telemetry partition %s.", partition);
+        }
+    }
+
+    /// Positions the parser inside the named top-level array. Returns `false` if there is no such array.
+    private static boolean enterArray(JsonParser parser, String name) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return false;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if (name.equals(field) && token == JsonToken.START_ARRAY) {
+                return true;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+
+    /// Reads `{"channels":{"0":..,"2":..}}` into the channel values, in table column order.
+    private static void readCarChannels(JsonParser parser, int[] channels) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if (!"channels".equals(field) || token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String channel = parser.currentName();
+                JsonToken value = parser.nextToken();
+                for (int i = 0; i < carDataChannels.length; i++) {
+                    if (carDataChannels[i].equals(channel) && value.isNumeric()) {
+                        channels[i] = parser.getValueAsInt();
+                    }
+                }
+                parser.skipChildren();
+            }
+        }
+    }
+
+    /// Reads `{"status":"OnTrack","X":..,"Y":..,"Z":..}` into status (0 unknown, 1 on track, 2 off track), x, y, z.
+    private static void readPosition(JsonParser parser, int[] values) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            switch (field) {
+                case "status" -> values[0] = switch (parser.getValueAsString("")) {
+                    case "OnTrack" -> 1;
+                    case "OffTrack" -> 2;
+                    default -> 0;
+                };
+                case "X" -> values[1] = token.isNumeric() ? parser.getValueAsInt() : 0;
+                case "Y" -> values[2] = token.isNumeric() ? parser.getValueAsInt() : 0;
+                case "Z" -> values[3] = token.isNumeric() ? parser.getValueAsInt() : 0;
+                default -> parser.skipChildren();
+            }
+        }
+    }
+
+    private static long parseMillis(String timestamp, long fallbackMillis) {
+        try {
+            return Instant.parse(timestamp).toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return fallbackMillis;
+        }
+    }
+
+    private static int parseCarNumber(String car) {
+        try {
+            int carNumber = Integer.parseInt(car.strip());
+            return carNumber >= 0 && carNumber <= maxCarNumber ? carNumber : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /// A batch of samples in column arrays: session, car, timestamp and a fixed number of integer values.
+    private static final class SampleBatch {
+        private final int valueCount;
+        private final int[] sessionIds;
+        private final int[] cars;
+        private final long[] timestamps;
+        private final int[] values;
+        private int size = 0;
+
+        SampleBatch(int valueCount, int capacity) {
+            this.valueCount = valueCount;
+            this.sessionIds = new int[capacity];
+            this.cars = new int[capacity];
+            this.timestamps = new long[capacity];
+            this.values = new int[capacity * valueCount];
+        }
+
+        void add(int sessionId, int car, long timestampMillis, int[] sampleValues) {
+            sessionIds[size] = sessionId;
+            cars[size] = car;
+            timestamps[size] = timestampMillis;
+            System.arraycopy(sampleValues, 0, values, size * valueCount, valueCount);
+            size++;
+        }
+
+        int size() {
+            return size;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        boolean isFull() {
+            return size == cars.length;
+        }
+
+        long minTimestamp() {
+            long min = Long.MAX_VALUE;
+            for (int i = 0; i < size; i++) {
+                min = Math.min(min, timestamps[i]);
+            }
+            return min;
+        }
+
+        long maxTimestamp() {
+            long max = Long.MIN_VALUE;
+            for (int i = 0; i < size; i++) {
+                max = Math.max(max, timestamps[i]);
+            }
+            return max;
+        }
+
+        /// Renders the batch as `COPY` csv rows.
+        String toCsv() {
+            StringBuilder csv = new StringBuilder(size * (40 + valueCount * 6));
+            for (int i = 0; i < size; i++) {
+                csv.append(sessionIds[i]).append(',')
+                        .append(cars[i]).append(',')
+                        .append(Instant.ofEpochMilli(timestamps[i]));
+                for (int v = 0; v < valueCount; v++) {
+                    csv.append(',').append(values[i * valueCount + v]);
+                }
+                csv.append('\n');
+            }
+            return csv.toString();
+        }
+    }
+}
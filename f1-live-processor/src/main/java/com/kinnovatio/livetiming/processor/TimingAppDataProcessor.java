@@ -30,13 +30,14 @@ import java.util.concurrent.atomic.AtomicReference;
 /// Processor for F1 timing app data messages.
 ///
 /// This component aggregates partial JSON updates into a complete timing data state
-/// and periodically persists that state to the database. It also handles cleanup
+/// and periodically persists that state to the database. It also resets the state
 /// when the session status changes.
 @ApplicationScoped
 public class TimingAppDataProcessor {
     private static final Logger LOG = Logger.getLogger(TimingAppDataProcessor.class);
     private static final String timingAppDataLiveKey = "timingAppDataLive";
     private static final String timingAppDataBaselineKey = "timingAppDataBaseline";
+    private static final String timingAppDataMergedKey = "timingAppDataMerged";
 
     @Inject
     ObjectMapper objectMapper;
@@ -55,6 +56,9 @@ public class TimingAppDataProcessor {
     /// Updated in-place by incoming message updates.
     private final AtomicReference<JsonNode> dataRoot = new AtomicReference<>();
 
+    /// Produces the pre-merged (baseline + live) timing app data document that is persisted for the api.
+    private MergedStateTracker mergedState;
+
     /// The timestamp from the most recent timing data message received.
     private final AtomicReference<Instant> timingAppDataMessageTimestamp = new AtomicReference<>(Instant.now());
 
@@ -69,6 +73,7 @@ public class TimingAppDataProcessor {
     @PostConstruct
     void init() {
         initializeDataRoot();
+        mergedState = new MergedStateTracker(objectMapper, repositoryUtilities, timingAppDataTable, timingAppDataBaselineKey);
     }
 
     /// Processes incoming timing data updates from the message broker.
@@ -176,6 +181,12 @@ public class TimingAppDataProcessor {
                         stateManager.getSessionKey(),
                         objectMapper.writeValueAsString(dataRoot.get()),
                         timingAppDataMessageTimestamp.get());
+                repositoryUtilities.storeIntoKeyedMessageTable(
+                        timingAppDataTable,
+                        timingAppDataMergedKey,
+                        stateManager.getSessionKey(),
+                        mergedState.mergeWithBaseline(dataRoot.get()),
+                        timingAppDataMessageTimestamp.get());
             } catch (Exception e) {
                 LOG.warnf("Error when trying to store timing app data. Error: %s", e.getMessage());
             }
@@ -200,6 +211,7 @@ public class TimingAppDataProcessor {
                     stateManager.getSessionKey(),
                     message.message(),
                     message.timestamp());
+            mergedState.setBaseline(message.message());
         } catch (Exception e) {
             LOG.warnf("Error when trying to store timing app data. Error: %s", e.getMessage());
         }
@@ -210,31 +222,26 @@ public class TimingAppDataProcessor {
         dataRoot.set(objectMapper.createObjectNode());
     }
 
-    /// Responds to session state transitions by managing the timing app data table.
+    /// Responds to session state transitions by resetting the in-memory timing app data.
     ///
     /// When a session ends (`NO_SESSION`), becomes `INACTIVE`, or a new `LIVE_SESSION` starts
-    /// (excluding transitions from an inactive warmup), this method clears the existing
-    /// timing data to ensure the dashboard or downstream consumers only see data
-    /// relevant to the current active session.
+    /// (excluding transitions from an inactive warmup), this method resets the in-memory timing app data. The stored
+    /// rows are moved to the session archive by the [SessionArchiveProcessor].
     ///
     /// @param sessionStateUpdate The transition details between the old and new session states.
-    /// @throws Exception If the database cleanup operation fails.
     @Incoming("session-status-update")
-    @Retry(delay = 500, maxRetries = 5)
     @RunOnVirtualThread
-    public void processSessionStatusChange(SessionStateUpdate sessionStateUpdate) throws Exception {
+    public void processSessionStatusChange(SessionStateUpdate sessionStateUpdate) {
         if (sessionStateUpdate.newState() == GlobalStateManager.SessionState.NO_SESSION
                 || sessionStateUpdate.newState() == GlobalStateManager.SessionState.INACTIVE
                 || (sessionStateUpdate.newState() == GlobalStateManager.SessionState.LIVE_SESSION
                         && sessionStateUpdate.oldState() != GlobalStateManager.SessionState.INACTIVE)) {
-            LOG.infof("Session state changed from %s to %s. Will clear the live timing app data from the %s table.",
-                    sessionStateUpdate.oldState().getStatus(), sessionStateUpdate.newState().getStatus(), timingAppDataTable);
+            LOG.infof("Session state changed from %s to %s. Will reset the live timing app data.",
+                    sessionStateUpdate.oldState().getStatus(), sessionStateUpdate.newState().getStatus());
             initializeDataRoot();
-            int rowsAffected = repositoryUtilities.clearRowFromKeyedTable(timingAppDataTable, timingAppDataLiveKey);
-            LOG.infof("%d rows deleted from the %s table.", rowsAffected, timingAppDataTable);
         } else {
-            LOG.infof("Session state changed from %s to %s. Will not clear the %s table.",
-                    sessionStateUpdate.oldState().getStatus(), sessionStateUpdate.newState().getStatus(), timingAppDataTable);
+            LOG.infof("Session state changed from %s to %s. Will not reset the live timing app data.",
+                    sessionStateUpdate.oldState().getStatus(), sessionStateUpdate.newState().getStatus());
         }
     }
 }
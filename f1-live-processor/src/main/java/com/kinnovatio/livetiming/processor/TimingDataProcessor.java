@@ -31,13 +31,17 @@ import java.util.concurrent.atomic.AtomicReference;
 /// Processor for F1 timing data messages.
 ///
 /// This component aggregates partial JSON updates into a complete timing data state
-/// and periodically persists that state to the database. It also handles cleanup
+/// and periodically persists that state to the database. It also resets the state
 /// when the session status changes.
+///
+/// The mini-sector segments are not part of the timing data state. They are tracked by the
+/// [SegmentStatusProcessor] and stored in a compact encoding.
 @ApplicationScoped
 public class TimingDataProcessor {
     private static final Logger LOG = Logger.getLogger(TimingDataProcessor.class);
     private static final String timingDataLiveKey = "timingDataLive";
     private static final String timingDataBaselineKey = "timingDataBaseline";
+    private static final String timingDataMergedKey = "timingDataMerged";
 
     @Inject
     ObjectMapper objectMapper;
@@ -59,6 +63,9 @@ public class TimingDataProcessor {
     /// Updated in-place by incoming message updates.
     private final AtomicReference<JsonNode> dataRoot = new AtomicReference<>();
 
+    /// Produces the pre-merged (baseline + live) timing data document that is persisted for the api.
+    private MergedStateTracker mergedState;
+
     /// The timestamp from the most recent timing data message received.
     private final AtomicReference<Instant> timingDataMessageTimestamp = new AtomicReference<>(Instant.now());
 
@@ -73,6 +80,7 @@ public class TimingDataProcessor {
     @PostConstruct
     void init() {
         initializeDataRoot();
+        mergedState = new MergedStateTracker(objectMapper, repositoryUtilities, timingDataTable, timingDataBaselineKey);
     }
 
     /// Processes incoming timing data updates from the message broker.
@@ -93,6 +101,10 @@ public class TimingDataProcessor {
             // The in-memory state will be written to storage by a separate scheduled task.
             JsonNode update = objectMapper.readTree(message.message());
             LOG.debugf("Received timing data message: %s", message.message());
+            if (!SegmentStatusTracker.removeSegments(update)) {
+                // A segment-only update. Nothing to merge.
+                return;
+            }
 
             dataRoot.updateAndGet(current -> {
                 try {
@@ -121,7 +133,8 @@ public class TimingDataProcessor {
         }
     }
 
-    /// Check the Json message for sectors and segments in array notation and convert them to object notation.
+    /// Check the Json message for sectors in array notation and convert them to object notation. The segments are
+    /// removed from the sectors.
     private LiveTimingMessage processBaselineMessage(LiveTimingMessage message) {
         try {
             JsonNode root = objectMapper.readTree(message.message());
@@ -160,17 +173,11 @@ public class TimingDataProcessor {
         }
     }
 
-    /// Check if the sector node contains a segment array, and convert it to object notation
-    private void processSectorNode(ObjectNode sectorNode) throws JsonProcessingException {
+    /// Check if the sector node contains a segment array, and remove it. The segments are kept by the
+    /// [SegmentStatusProcessor].
+    private void processSectorNode(ObjectNode sectorNode) {
         if (sectorNode.path("segments").isArray()) {
-            ArrayNode segmentsArray = (ArrayNode) sectorNode.path("segments");
-            ObjectNode segments = objectMapper.createObjectNode();
-            int counter = 0;
-            for (JsonNode segment : segmentsArray) {
-                segments.set(String.valueOf(counter), segment);
-                counter++;
-            }
-            sectorNode.set("segments", segments);
+            sectorNode.remove("segments");
         } else {
             LOG.warnf("processSectorNode() - The Sector property does not contain the expected Segments array: %s",
                     sectorNode.toString().substring(0, Math.min(200, sectorNode.toString().length() - 1)));
@@ -198,6 +205,12 @@ public class TimingDataProcessor {
                         stateManager.getSessionKey(),
                         objectMapper.writeValueAsString(dataRoot.get()),
                         timingDataMessageTimestamp.get());
+                repositoryUtilities.storeIntoKeyedMessageTable(
+                        timingDataTable,
+                        timingDataMergedKey,
+                        stateManager.getSessionKey(),
+                        mergedState.mergeWithBaseline(dataRoot.get()),
+                        timingDataMessageTimestamp.get());
             } catch (Exception e) {
                 LOG.warnf("Error when trying to store timing data. Error: %s", e.getMessage());
             }
@@ -222,6 +235,7 @@ public class TimingDataProcessor {
                     stateManager.getSessionKey(),
                     message.message(),
                     message.timestamp());
+            mergedState.setBaseline(message.message());
         } catch (Exception e) {
             LOG.warnf("Error when trying to store timing data. Error: %s", e.getMessage());
         }
@@ -232,31 +246,26 @@ public class TimingDataProcessor {
         dataRoot.set(objectMapper.createObjectNode());
     }
 
-    /// Responds to session state transitions by managing the timing data table.
+    /// Responds to session state transitions by resetting the in-memory timing data.
     ///
     /// When a session ends (`NO_SESSION`), becomes `INACTIVE`, or a new `LIVE_SESSION` starts
-    /// (excluding transitions from an inactive warmup), this method clears the existing
-    /// timing data to ensure the dashboard or downstream consumers only see data
-    /// relevant to the current active session.
+    /// (excluding transitions from an inactive warmup), this method resets the in-memory timing data. The stored
+    /// rows are moved to the session archive by the [SessionArchiveProcessor].
     ///
     /// @param sessionStateUpdate The transition details between the old and new session states.
-    /// @throws Exception If the database cleanup operation fails.
     @Incoming("session-status-update")
-    @Retry(delay = 500, maxRetries = 5)
     @RunOnVirtualThread
-    public void processSessionStatusChange(SessionStateUpdate sessionStateUpdate) throws Exception {
+    public void processSessionStatusChange(SessionStateUpdate sessionStateUpdate) {
         if (sessionStateUpdate.newState() == GlobalStateManager.SessionState.NO_SESSION
                 || sessionStateUpdate.newState() == GlobalStateManager.SessionState.INACTIVE
                 || (sessionStateUpdate.newState() == GlobalStateManager.SessionState.LIVE_SESSION
                         && sessionStateUpdate.oldState() != GlobalStateManager.SessionState.INACTIVE)) {
-            LOG.infof("Session state changed from %s to %s. Will clear the live timing data from the %s table.",
-                    sessionStateUpdate.oldState().getStatus(), sessionStateUpdate.newState().getStatus(), timingDataTable);
+            LOG.infof("Session state changed from %s to %s. Will reset the live timing data.",
+                    sessionStateUpdate.oldState().getStatus(), sessionStateUpdate.newState().getStatus());
             initializeDataRoot();
-            int rowsAffected = repositoryUtilities.clearRowFromKeyedTable(timingDataTable, timingDataLiveKey);
-            LOG.infof("%d rows deleted from the %s table.", rowsAffected, timingDataTable);
         } else {
-            LOG.infof("Session state changed from %s to %s. Will not clear the %s table.",
-                    sessionStateUpdate.oldState().getStatus(), sessionStateUpdate.newState().getStatus(), timingDataTable);
+            LOG.infof("Session state changed from %s to %s. Will not reset the live timing data.",
+                    sessionStateUpdate.oldState().getStatus(), sessionStateUpdate.newState().getStatus());
         }
     }
 }
@@ -29,13 +29,14 @@ import java.util.concurrent.atomic.AtomicReference;
 /// Processor for F1 timing app data messages.
 ///
 /// This component aggregates partial JSON updates into a complete timing data state
-/// and periodically persists that state to the database. It also handles cleanup
+/// and periodically persists that state to the database. It also resets the state
 /// when the session status changes.
 @ApplicationScoped
 public class TimingStatsDataProcessor {
     private static final Logger LOG = Logger.getLogger(TimingStatsDataProcessor.class);
     private static final String timingStatsLiveKey = "timingStatsLive";
     private static final String timingStatsBaselineKey = "timingStatsBaseline";
+    private static final String timingStatsMergedKey = "timingStatsMerged";
 
     @Inject
     ObjectMapper objectMapper;
@@ -54,6 +55,9 @@ public class TimingStatsDataProcessor {
     /// Updated in-place by incoming message updates.
     private final AtomicReference<JsonNode> dataRoot = new AtomicReference<>();
 
+    /// Produces the pre-merged (baseline + live) timing stats document that is persisted for the api.
+    private MergedStateTracker mergedState;
+
     /// The timestamp from the most recent timing data message received.
     private final AtomicReference<Instant> timingStatsMessageTimestamp = new AtomicReference<>(Instant.now());
 
@@ -68,6 +72,7 @@ public class TimingStatsDataProcessor {
     @PostConstruct
     void init() {
         initializeDataRoot();
+        mergedState = new MergedStateTracker(objectMapper, repositoryUtilities, timingStatsTable, timingStatsBaselineKey);
     }
 
     /// Processes incoming timing data updates from the message broker.
@@ -176,6 +181,12 @@ public class TimingStatsDataProcessor {
                         stateManager.getSessionKey(),
                         objectMapper.writeValueAsString(dataRoot.get()),
                         timingStatsMessageTimestamp.get());
+                repositoryUtilities.storeIntoKeyedMessageTable(
+                        timingStatsTable,
+                        timingStatsMergedKey,
+                        stateManager.getSessionKey(),
+                        mergedState.mergeWithBaseline(dataRoot.get()),
+                        timingStatsMessageTimestamp.get());
             } catch (Exception e) {
                 LOG.warnf("Error when trying to store timing app data. Error: %s", e.getMessage());
             }
@@ -200,6 +211,7 @@ public class TimingStatsDataProcessor {
                     stateManager.getSessionKey(),
                     message.message(),
                     message.timestamp());
+            mergedState.setBaseline(message.message());
         } catch (Exception e) {
             LOG.warnf("Error when trying to store timing app data. Error: %s", e.getMessage());
         }
@@ -210,31 +222,26 @@ public class TimingStatsDataProcessor {
         dataRoot.set(objectMapper.createObjectNode());
     }
 
-    /// Responds to session state transitions by managing the timing app data table.
+    /// Responds to session state transitions by resetting the in-memory timing stats.
     ///
     /// When a session ends (`NO_SESSION`), becomes `INACTIVE`, or a new `LIVE_SESSION` starts
-    /// (excluding transitions from an inactive warmup), this method clears the existing
-    /// timing data to ensure the dashboard or downstream consumers only see data
-    /// relevant to the current active session.
+    /// (excluding transitions from an inactive warmup), this method resets the in-memory timing stats. The stored
+    /// rows are moved to the session archive by the [SessionArchiveProcessor].
     ///
     /// @param sessionStateUpdate The transition details between the old and new session states.
-    /// @throws Exception If the database cleanup operation fails.
     @Incoming("session-status-update")
-    @Retry(delay = 500, maxRetries = 5)
     @RunOnVirtualThread
-    public void processSessionStatusChange(SessionStateUpdate sessionStateUpdate) throws Exception {
+    public void processSessionStatusChange(SessionStateUpdate sessionStateUpdate) {
         if (sessionStateUpdate.newState() == GlobalStateManager.SessionState.NO_SESSION
                 || sessionStateUpdate.newState() == GlobalStateManager.SessionState.INACTIVE
                 || (sessionStateUpdate.newState() == GlobalStateManager.SessionState.LIVE_SESSION
                         && sessionStateUpdate.oldState() != GlobalStateManager.SessionState.INACTIVE)) {
-            LOG.infof("Session state changed from %s to %s. Will clear the live timing app data from the %s table.",
-                    sessionStateUpdate.oldState().getStatus(), sessionStateUpdate.newState().getStatus(), timingStatsTable);
+            LOG.infof("Session state changed from %s to %s. Will reset the live timing stats.",
+                    sessionStateUpdate.oldState().getStatus(), sessionStateUpdate.newState().getStatus());
             initializeDataRoot();
-            int rowsAffected = repositoryUtilities.clearRowFromKeyedTable(timingStatsTable, timingStatsLiveKey);
-            LOG.infof("%d rows deleted from the %s table.", rowsAffected, timingStatsTable);
         } else {
-            LOG.infof("Session state changed from %s to %s. Will not clear the %s table.",
-                    sessionStateUpdate.oldState().getStatus(), sessionStateUpdate.newState().getStatus(), timingStatsTable);
+            LOG.infof("Session state changed from %s to %s. Will not reset the live timing stats.",
+                    sessionStateUpdate.oldState().getStatus(), sessionStateUpdate.newState().getStatus());
         }
     }
 }
@@ -2,8 +2,6 @@ package com.kinnovatio.livetiming.processor;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kinnovatio.livetiming.GlobalStateManager;
-import com.kinnovatio.livetiming.model.SessionStateUpdate;
-import com.kinnovatio.livetiming.repository.RepositoryUtilities;
 import com.kinnovatio.signalr.messages.LiveTimingMessage;
 import io.agroal.api.AgroalDataSource;
 import io.smallrye.common.annotation.RunOnVirtualThread;
@@ -21,8 +19,8 @@ import java.sql.PreparedStatement;
 /// Processor for F1 track status messages.
 ///
 /// This processor handles track status updates (e.g., Yellow Flag, Safety Car, Green Flag)
-/// by persisting them to a database. It also manages the lifecycle of the track status table
-/// by clearing data when a session starts or ends.
+/// by persisting them to a database. The rows are moved to the session archive when a session
+/// starts or ends, see [SessionArchiveProcessor].
 @ApplicationScoped
 public class TrackStatusProcessor {
     private static final Logger LOG = Logger.getLogger(TrackStatusProcessor.class);
@@ -33,9 +31,6 @@ public class TrackStatusProcessor {
     @Inject
     AgroalDataSource storageDataSource;
 
-    @Inject
-    RepositoryUtilities repositoryUtilities;
-
     @ConfigProperty(name = "app.track-status.table")
     String trackStatusTable;
 
@@ -71,31 +66,4 @@ public class TrackStatusProcessor {
             throw e;
         }
     }
-
-    /// Responds to session state transitions by managing the track status table.
-    ///
-    /// When a session ends (`NO_SESSION`), becomes `INACTIVE`, or a new `LIVE_SESSION` starts
-    /// (excluding transitions from an inactive warmup), this method clears the existing
-    /// track status messages to ensure the dashboard or downstream consumers only see data
-    /// relevant to the current active session.
-    ///
-    /// @param sessionStateUpdate The transition details between the old and new session states.
-    /// @throws Exception If the database cleanup operation fails.
-    @Incoming("session-status-update")
-    @Retry(delay = 500, maxRetries = 5)
-    @RunOnVirtualThread
-    public void processSessionStatusChange(SessionStateUpdate sessionStateUpdate) throws Exception {
-        if (sessionStateUpdate.newState() == GlobalStateManager.SessionState.NO_SESSION
-                || sessionStateUpdate.newState() == GlobalStateManager.SessionState.INACTIVE
-                || (sessionStateUpdate.newState() == GlobalStateManager.SessionState.LIVE_SESSION
-                && sessionStateUpdate.oldState() != GlobalStateManager.SessionState.INACTIVE)) {
-            LOG.infof("Session state changed from %s to %s. Will clear the %s table.",
-                    sessionStateUpdate.oldState().getStatus(), sessionStateUpdate.newState().getStatus(), trackStatusTable);
-            int rowsAffected = repositoryUtilities.clearAllRowsFromTable(trackStatusTable);
-            LOG.infof("%d rows deleted from the %s table.", rowsAffected, trackStatusTable);
-        } else {
-            LOG.infof("Session state changed from %s to %s. Will not clear the %s table.",
-                    sessionStateUpdate.oldState().getStatus(), sessionStateUpdate.newState().getStatus(), trackStatusTable);
-        }
-    }
 }
@@ -8,11 +8,13 @@ import org.jboss.logging.Logger;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.util.Optional;
 
 /**
  * Utility class for managing database tables used for storing live timing messages.
@@ -29,6 +31,9 @@ public class RepositoryUtilities {
     /**
      * Creates a database table for storing multiple messages using an auto-incrementing primary key.
      * The schema includes an ID, session ID, JSONB message content, and timestamps.
+     * <p>
+     * The table is indexed on {@code (session_id, id)} to back keyset-paginated history reads per session,
+     * and on {@code (session_id, message_timestamp)} for time-ranged reads.
      *
      * @param tableName the name of the table to be created.
      * @throws SQLException if a database access error occurs or the SQL execution fails.
@@ -50,8 +55,14 @@ public class RepositoryUtilities {
                 );
                 """.formatted(tableName);
 
+        String createIndexSql = """
+                CREATE INDEX IF NOT EXISTS idx_%s_session_id ON %s (session_id, id);
+                CREATE INDEX IF NOT EXISTS idx_%s_session_timestamp ON %s (session_id, message_timestamp);
+                """.formatted(tableName, tableName, tableName, tableName);
+
         try (Connection connection = storageDataSource.getConnection(); Statement statement = connection.createStatement()) {
             statement.execute(createTableSql);
+            statement.execute(createIndexSql);
             LOG.infof("Successfully created (if not already exists) the DB table: %s", tableName);
         } catch (Exception e) {
             LOG.errorf("An error happened when creating the DB table: %s. Error: %s", tableName, e.getMessage());
@@ -136,6 +147,46 @@ public class RepositoryUtilities {
         }
     }
 
+    /**
+     * Reads the message of a single row from a keyed table.
+     *
+     * @param tableName the name of the table to read from.
+     * @param rowKey the unique key identifying the message.
+     * @return the Json message of the row, or empty if the row does not exist.
+     * @throws SQLException if a database access error occurs or the SQL execution fails.
+     */
+    public Optional<String> getMessageFromKeyedTable(String tableName, String rowKey) throws SQLException {
+        // IMPORTANT: Validate the table name against a predefined list
+        // or a strict pattern to prevent SQL injection.
+        if (!isValidTableName(tableName)) {
+            throw new IllegalArgumentException("Invalid table name: " + tableName);
+        }
+
+        String sql = """
+                SELECT message
+                FROM %s
+                WHERE key = ?;
+                """.formatted(tableName);
+
+        try (Connection connection = storageDataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, rowKey);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    return Optional.ofNullable(resultSet.getString("message"));
+                }
+            }
+        } catch (Exception e) {
+            LOG.warnf("Error when trying to read row with key %s from the %s table. Error: %s",
+                    rowKey,
+                    tableName,
+                    e.getMessage());
+            throw e;
+        }
+
+        return Optional.empty();
+    }
+
     /**
      * Deletes all rows from the specified table.
      * This operation is executed within a transaction.
@@ -0,0 +1,50 @@
+package com.kinnovatio.livetiming.processor;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GapTrackerTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void gapsFromSegmentCrossings() throws Exception {
+        GapTracker tracker = new GapTracker();
+        tracker.applyBaseline(objectMapper.readTree("""
+                {"lines": {"1": {"numberOfLaps": 5}, "44": {"numberOfLaps": 5}, "16": {"numberOfLaps": 5}}}
+                """));
+
+        assertTrue(tracker.apply(segment("1", 0, 3), 10_000));
+        assertTrue(tracker.apply(segment("44", 0, 3), 11_200));
+        assertTrue(tracker.apply(segment("16", 0, 3), 11_500));
+        // A repeated status for a segment already crossed is not a crossing
+        assertFalse(tracker.apply(segment("1", 0, 3), 11_600));
+
+        List<GapTracker.GapEntry> table = tracker.getGapTable();
+        assertEquals(List.of("1", "44", "16"), table.stream().map(GapTracker.GapEntry::driver).toList());
+        assertEquals(0, table.get(0).gapToLeaderMillis());
+        assertEquals(1_200, table.get(1).gapToLeaderMillis());
+        assertEquals(1_200, table.get(1).intervalMillis());
+        assertEquals(1_500, table.get(2).gapToLeaderMillis());
+        assertEquals(300, table.get(2).intervalMillis());
+    }
+
+    @Test
+    void gapTableJson() {
+        String json = GapProcessor.toJson(List.of(
+                new GapTracker.GapEntry("1", 5, 483, 10_000, 0, 0, false),
+                new GapTracker.GapEntry("44", 5, 483, 11_200, 1_200, 1_200, false)), 11_200);
+
+        assertEquals("{\"timestamp\":11200,\"lines\":[[\"1\",5,0,0,483,0],[\"44\",5,1200,1200,483,0]]}", json);
+    }
+
+    private JsonNode segment(String driver, int sector, int segment) throws Exception {
+        return objectMapper.readTree("""
+                {"lines": {"%s": {"sectors": {"%d": {"segments": {"%d": {"status": 2049}}}}}}}
+                """.formatted(driver, sector, segment));
+    }
+}
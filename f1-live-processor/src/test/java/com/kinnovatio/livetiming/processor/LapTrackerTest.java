@@ -0,0 +1,93 @@
+package com.kinnovatio.livetiming.processor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kinnovatio.livetiming.model.CompletedLap;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LapTrackerTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void lapCompletedWithLapTimeInSameUpdate() throws Exception {
+        LapTracker tracker = new LapTracker();
+        tracker.applyBaseline(objectMapper.readTree("""
+                {"lines": {"1": {"numberOfLaps": 3}}}
+                """));
+
+        tracker.apply(objectMapper.readTree("""
+                {"lines": {"1": {"sectors": {"0": {"value": "30.100"}}}}}
+                """), Instant.now());
+        tracker.apply(objectMapper.readTree("""
+                {"lines": {"1": {"sectors": {"1": {"value": "31.200"}}}}}
+                """), Instant.now());
+        List<CompletedLap> laps = tracker.apply(objectMapper.readTree("""
+                {"lines": {"1": {"numberOfLaps": 4, "sectors": {"2": {"value": "30.000"}},
+                    "lastLapTime": {"value": "1:31.300"}}}}
+                """), Instant.now());
+
+        assertEquals(1, laps.size());
+        CompletedLap lap = laps.getFirst();
+        assertEquals("1", lap.driver());
+        assertEquals(4, lap.lapNumber());
+        assertEquals(91_300, lap.lapTimeMillis());
+        assertEquals(30_100, lap.sector1Millis());
+        assertEquals(31_200, lap.sector2Millis());
+        assertEquals(30_000, lap.sector3Millis());
+        assertTrue(lap.personalBest());
+        assertEquals(91_300, tracker.getSessionBestLapMillis());
+    }
+
+    @Test
+    void lapHeldBackUntilLapTimeArrives() throws Exception {
+        LapTracker tracker = new LapTracker();
+        tracker.apply(objectMapper.readTree("""
+                {"lines": {"44": {"numberOfLaps": 1}}}
+                """), Instant.now());
+
+        assertTrue(tracker.apply(objectMapper.readTree("""
+                {"lines": {"44": {"numberOfLaps": 2}}}
+                """), Instant.now()).isEmpty());
+        List<CompletedLap> laps = tracker.apply(objectMapper.readTree("""
+                {"lines": {"44": {"lastLapTime": {"value": "1:32.000"}}}}
+                """), Instant.now());
+
+        assertEquals(1, laps.size());
+        assertEquals(2, laps.getFirst().lapNumber());
+        assertEquals(92_000, laps.getFirst().lapTimeMillis());
+        assertEquals(1, tracker.getHistory("44").orElseThrow().size());
+    }
+
+    @Test
+    void rollingMeanCoversTheLastLaps() throws Exception {
+        LapTracker tracker = new LapTracker();
+        tracker.apply(objectMapper.readTree("""
+                {"lines": {"16": {"numberOfLaps": 0}}}
+                """), Instant.now());
+
+        CompletedLap last = null;
+        int[] lapTimes = {100, 90, 90, 90, 90, 90, 80};
+        for (int i = 0; i < lapTimes.length; i++) {
+            last = tracker.apply(objectMapper.readTree("""
+                    {"lines": {"16": {"numberOfLaps": %d, "lastLapTime": {"value": "%d.000"}}}}
+                    """.formatted(i + 1, lapTimes[i])), Instant.now()).getFirst();
+        }
+
+        assertEquals(80_000, last.bestLapTimeMillis());
+        assertEquals(88_000, last.rollingLapTimeMillis());
+        assertEquals(7, last.timedLapCount());
+    }
+
+    @Test
+    void parseMillis() {
+        assertEquals(91_234, LapTracker.parseMillis("1:31.234"));
+        assertEquals(28_123, LapTracker.parseMillis("28.123"));
+        assertEquals(500, LapTracker.parseMillis("+0.5"));
+        assertEquals(-1, LapTracker.parseMillis("1 LAP"));
+        assertEquals(-1, LapTracker.parseMillis(""));
+    }
+}
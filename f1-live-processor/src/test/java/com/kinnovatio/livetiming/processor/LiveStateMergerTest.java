@@ -0,0 +1,55 @@
+package com.kinnovatio.livetiming.processor;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LiveStateMergerTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void mergeDeltasIntoBaseline() throws Exception {
+        Map<String, JsonNode> state = new TreeMap<>();
+        LiveStateMerger.apply(state, "TimingData", false, objectMapper.readTree("""
+                {"Lines": {"1": {"Position": "1", "Sectors": [{"Value": "28.1"}, {"Value": ""}]}}}
+                """));
+        LiveStateMerger.apply(state, "TimingData", true, objectMapper.readTree("""
+                {"Lines": {"1": {"Sectors": {"1": {"Value": "31.2"}, "2": {"Value": ""}}}, "44": {"Position": "2"}}}
+                """));
+        LiveStateMerger.apply(state, "RaceControlMessages", false, objectMapper.readTree("""
+                {"Messages": [{"Message": "GREEN LIGHT"}]}
+                """));
+        LiveStateMerger.apply(state, "RaceControlMessages", true, objectMapper.readTree("""
+                {"Messages": {"1": {"Message": "DRS ENABLED"}}}
+                """));
+
+        assertEquals(objectMapper.readTree("""
+                {"Lines": {"1": {"Position": "1", "Sectors": [{"Value": "28.1"}, {"Value": "31.2"}, {"Value": ""}]},
+                           "44": {"Position": "2"}}}
+                """), state.get("TimingData"));
+        assertEquals(2, state.get("RaceControlMessages").path("Messages").size());
+
+        // A new baseline replaces the state of its category
+        LiveStateMerger.apply(state, "TimingData", false, objectMapper.readTree("""
+                {"Lines": {}}
+                """));
+        assertTrue(state.get("TimingData").path("Lines").isEmpty());
+    }
+
+    @Test
+    void deletedKeys() throws Exception {
+        JsonNode merged = LiveStateMerger.merge(objectMapper.readTree("""
+                {"Series": {"A": 1, "B": 2}, "List": [0, 1, 2]}
+                """), objectMapper.readTree("""
+                {"Series": {"_deleted": ["A"]}, "List": {"_deleted": [0, 2]}}
+                """));
+        assertEquals(objectMapper.readTree("""
+                {"Series": {"B": 2}, "List": [1]}
+                """), merged);
+    }
+}
@@ -0,0 +1,98 @@
+package com.kinnovatio.livetiming.processor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kinnovatio.livetiming.model.RaceEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RaceEventTrackerTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Instant timestamp = Instant.parse("2026-03-08T05:10:00Z");
+
+    @Test
+    void positionAndPitEvents() throws Exception {
+        RaceEventTracker tracker = new RaceEventTracker();
+        assertTrue(tracker.applyTimingData(objectMapper.readTree("""
+                {"lines": {"1": {"position": "1", "numberOfLaps": 10, "inPit": false},
+                           "44": {"position": "2", "numberOfLaps": 10, "inPit": false}}}
+                """), false, timestamp).isEmpty());
+
+        List<RaceEvent> events = tracker.applyTimingData(objectMapper.readTree("""
+                {"lines": {"44": {"position": "1"}, "1": {"position": "2", "inPit": true}}}
+                """), true, timestamp);
+        assertEquals(List.of(RaceEvent.Type.POSITION_CHANGE, RaceEvent.Type.POSITION_CHANGE, RaceEvent.Type.PIT_ENTRY),
+                events.stream().map(RaceEvent::type).toList());
+        assertEquals("1", events.get(0).value());
+        assertEquals("2", events.get(0).previousValue());
+        assertEquals(10, events.get(2).lap());
+
+        // Repeated values are not changes
+        assertTrue(tracker.applyTimingData(objectMapper.readTree("""
+                {"lines": {"1": {"position": "2", "inPit": true}}}
+                """), true, timestamp).isEmpty());
+        assertEquals(RaceEvent.Type.PIT_EXIT, tracker.applyTimingData(objectMapper.readTree("""
+                {"lines": {"1": {"inPit": false, "pitOut": true}}}
+                """), true, timestamp).getFirst().type());
+    }
+
+    @Test
+    void bestLapsWithFlagsInSeparateUpdates() throws Exception {
+        RaceEventTracker tracker = new RaceEventTracker();
+        List<RaceEvent> events = tracker.applyTimingData(objectMapper.readTree("""
+                {"lines": {"1": {"lastLapTime": {"value": "1:32.500", "personalFastest": true, "overallFastest": true}}}}
+                """), true, timestamp);
+        assertEquals(RaceEvent.Type.OVERALL_BEST_LAP, events.getFirst().type());
+
+        // The time arrives first, the flag in the next update
+        assertTrue(tracker.applyTimingData(objectMapper.readTree("""
+                {"lines": {"44": {"lastLapTime": {"value": "1:32.900"}}}}
+                """), true, timestamp).isEmpty());
+        events = tracker.applyTimingData(objectMapper.readTree("""
+                {"lines": {"44": {"lastLapTime": {"personalFastest": true}}}}
+                """), true, timestamp);
+        assertEquals(RaceEvent.Type.PERSONAL_BEST_LAP, events.getFirst().type());
+        assertEquals("1:32.900", events.getFirst().value());
+
+        // A re-sent flag is not a new best
+        assertTrue(tracker.applyTimingData(objectMapper.readTree("""
+                {"lines": {"44": {"lastLapTime": {"personalFastest": true}}}}
+                """), true, timestamp).isEmpty());
+
+        events = tracker.applyTimingData(objectMapper.readTree("""
+                {"lines": {"44": {"sectors": {"1": {"value": "28.100", "personalFastest": true, "overallFastest": true}}}}}
+                """), true, timestamp);
+        assertEquals(RaceEvent.Type.OVERALL_BEST_SECTOR, events.getFirst().type());
+        assertEquals(2, events.getFirst().sector());
+    }
+
+    @Test
+    void tyreAndTrackStatusEvents() throws Exception {
+        RaceEventTracker tracker = new RaceEventTracker();
+        tracker.applyTimingAppData(objectMapper.readTree("""
+                {"lines": {"1": {"stints": [{"compound": "MEDIUM"}]}}}
+                """), false, timestamp);
+        // The new stint is announced before its compound
+        assertTrue(tracker.applyTimingAppData(objectMapper.readTree("""
+                {"lines": {"1": {"stints": {"1": {"totalLaps": 0}}}}}
+                """), true, timestamp).isEmpty());
+        List<RaceEvent> events = tracker.applyTimingAppData(objectMapper.readTree("""
+                {"lines": {"1": {"stints": {"1": {"compound": "HARD", "new": "true"}}}}}
+                """), true, timestamp);
+        assertEquals(RaceEvent.Type.TYRE_CHANGE, events.getFirst().type());
+        assertEquals("HARD", events.getFirst().value());
+        assertEquals("MEDIUM", events.getFirst().previousValue());
+
+        tracker.applyTrackStatus(objectMapper.readTree("""
+                {"status": "1", "message": "AllClear"}
+                """), false, timestamp);
+        events = tracker.applyTrackStatus(objectMapper.readTree("""
+                {"status": "4", "message": "SCDeployed"}
+                """), true, timestamp);
+        assertEquals("SCDeployed", events.getFirst().value());
+        assertEquals("AllClear", events.getFirst().previousValue());
+    }
+}
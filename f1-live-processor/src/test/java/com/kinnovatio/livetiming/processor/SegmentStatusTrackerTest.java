@@ -0,0 +1,117 @@
+package com.kinnovatio.livetiming.processor;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentStatusTrackerTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void segmentStatusFromBaselineAndUpdates() throws Exception {
+        SegmentStatusTracker tracker = new SegmentStatusTracker();
+        assertEquals(Set.of("1"), tracker.apply(objectMapper.readTree("""
+                {"lines": {"1": {"sectors": [
+                    {"value": "", "segments": [{"status": 0}, {"status": 0}, {"status": 0}]},
+                    {"value": "", "segments": [{"status": 0}, {"status": 0}]},
+                    {"value": "", "segments": [{"status": 0}]}]}}}
+                """)));
+        assertEquals("...|..|.", tracker.encodeSegments("1"));
+
+        assertEquals(Set.of("1"), tracker.apply(objectMapper.readTree("""
+                {"lines": {"1": {"sectors": {"0": {"segments": {"0": {"status": 2051}, "1": {"status": 2049},
+                                                                "2": {"status": 2048}}}}}}}
+                """)));
+        assertEquals("PGY|..|.", tracker.encodeSegments("1"));
+
+        // A repeated status is not a change
+        assertTrue(tracker.apply(objectMapper.readTree("""
+                {"lines": {"1": {"sectors": {"0": {"segments": {"0": {"status": 2051}}}}}}}
+                """)).isEmpty());
+
+        tracker.apply(objectMapper.readTree("""
+                {"lines": {"1": {"sectors": {"1": {"segments": {"0": {"status": 2064}}}}}}}
+                """));
+        assertEquals("PGY|L.|.", tracker.encodeSegments("1"));
+
+        // Stopped or off track
+        assertEquals(Set.of("1"), tracker.apply(objectMapper.readTree("""
+                {"lines": {"1": {"sectors": {"1": {"segments": {"1": {"status": 2052}}}}}}}
+                """)));
+        assertEquals("PGY|LS|.", tracker.encodeSegments("1"));
+
+        // Bits without a display character are kept, and changing them is a change
+        assertEquals(Set.of("1"), tracker.apply(objectMapper.readTree("""
+                {"lines": {"1": {"sectors": {"2": {"segments": {"0": {"status": 10240}}}}}}}
+                """)));
+        assertEquals("PGY|LS|Y", tracker.encodeSegments("1"));
+        assertEquals(Set.of("1"), tracker.apply(objectMapper.readTree("""
+                {"lines": {"1": {"sectors": {"2": {"segments": {"0": {"status": 3072}}}}}}}
+                """)));
+        assertEquals("PGY|LS|Y", tracker.encodeSegments("1"));
+        assertArrayEquals(new int[] {2051, 2049, 2048}, tracker.getSegmentStatus("1", 0));
+        assertArrayEquals(new int[] {2064, 2052}, tracker.getSegmentStatus("1", 1));
+        assertArrayEquals(new int[] {3072}, tracker.getSegmentStatus("1", 2));
+    }
+
+    @Test
+    void bestSectors() throws Exception {
+        SegmentStatusTracker tracker = new SegmentStatusTracker();
+        tracker.apply(objectMapper.readTree("""
+                {"lines": {"1": {"sectors": {"0": {"value": "28.100", "personalFastest": true, "overallFastest": true}}},
+                           "44": {"sectors": {"0": {"value": "28.400", "personalFastest": true}}}}}
+                """));
+        assertTrue(tracker.pollBestSectorsChanged());
+        assertFalse(tracker.pollBestSectorsChanged());
+        assertEquals(28_100, tracker.getOverallBestSectorMillis(0));
+        assertEquals("1", tracker.getOverallBestSectorDriver(0));
+        assertArrayEquals(new int[] {28_400, -1, -1}, tracker.getPersonalBestSectors("44"));
+
+        tracker.apply(objectMapper.readTree("""
+                {"lines": {"44": {"sectors": {"0": {"value": "27.900", "personalFastest": true, "overallFastest": true}}}}}
+                """));
+        assertTrue(tracker.pollBestSectorsChanged());
+        assertEquals("44", tracker.getOverallBestSectorDriver(0));
+        assertEquals(List.of("1", "44"), List.copyOf(tracker.getDrivers()));
+
+        tracker.reset();
+        assertTrue(tracker.getDrivers().isEmpty());
+        assertEquals(-1, tracker.getOverallBestSectorMillis(0));
+    }
+
+    @Test
+    void removeSegments() throws Exception {
+        JsonNode segmentOnly = objectMapper.readTree("""
+                {"lines": {"1": {"sectors": {"0": {"segments": {"2": {"status": 2048}}}}}}}
+                """);
+        assertFalse(SegmentStatusTracker.removeSegments(segmentOnly));
+
+        JsonNode mixed = objectMapper.readTree("""
+                {"lines": {"1": {"sectors": {"0": {"value": "28.100", "segments": {"2": {"status": 2048}}}}},
+                           "44": {"sectors": {"1": {"segments": {"0": {"status": 2048}}}}, "gapToLeader": "+1.2"}}}
+                """);
+        assertTrue(SegmentStatusTracker.removeSegments(mixed));
+        assertEquals(objectMapper.readTree("""
+                {"lines": {"1": {"sectors": {"0": {"value": "28.100"}}}, "44": {"gapToLeader": "+1.2"}}}
+                """), mixed);
+    }
+
+    @Test
+    void segmentFrameJson() throws Exception {
+        SegmentStatusTracker tracker = new SegmentStatusTracker();
+        tracker.apply(objectMapper.readTree("""
+                {"lines": {"1": {"sectors": {"0": {"value": "28.100", "personalFastest": true, "overallFastest": true,
+                                                   "segments": {"0": {"status": 2051}, "1": {"status": 2080}}}}}}}
+                """));
+        JsonNode frame = objectMapper.readTree(SegmentStatusProcessor.toJson(tracker, tracker.getDrivers(), true, 1_000));
+        assertEquals(objectMapper.readTree("""
+                {"timestamp": 1000, "lines": {"1": ["PY||", 28100, -1, -1, [[2051, 2080], [], []]]},
+                 "overallBestSectors": [[28100, "1"], [-1, null], [-1, null]]}
+                """), frame);
+    }
+}
@@ -0,0 +1,47 @@
+package com.kinnovatio.livetiming.processor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionArchiveProcessorTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void mergeArchivedDocuments() throws Exception {
+        // History rows are appended
+        assertEquals(objectMapper.readTree("""
+                [{"id": 1}, {"id": 2}, {"id": 3}]
+                """), SessionArchiveProcessor.mergeArchive(
+                objectMapper.readTree("[{\"id\": 1}, {\"id\": 2}]"),
+                objectMapper.readTree("[{\"id\": 3}]")));
+
+        // Keyed rows replace the archived rows with the same key
+        assertEquals(objectMapper.readTree("""
+                {"timingDataLive": {"lines": {}}, "timingDataMerged": {"lines": {"1": {}}}}
+                """), SessionArchiveProcessor.mergeArchive(
+                objectMapper.readTree("{\"timingDataLive\": {\"lines\": {}}, \"timingDataMerged\": {\"lines\": {}}}"),
+                objectMapper.readTree("{\"timingDataMerged\": {\"lines\": {\"1\": {}}}}")));
+    }
+
+    @Test
+    void moveSql() {
+        String keyed = SessionArchiveProcessor.ArchiveSource
+                .keyed("TimingData", "live_timing_data", List.of("timingDataLive")).moveSql();
+        assertTrue(keyed.contains("DELETE FROM live_timing_data WHERE key = ANY (?)"));
+        assertTrue(keyed.contains("jsonb_object_agg(key, message)"));
+
+        String allKeys = SessionArchiveProcessor.ArchiveSource
+                .keyed("WeatherData", "live_weather_data", List.of()).moveSql();
+        assertFalse(allKeys.contains("WHERE"));
+
+        String history = SessionArchiveProcessor.ArchiveSource.history("Laps", "live_laps").moveSql();
+        assertTrue(history.contains("jsonb_agg(to_jsonb(moved) - 'session_id' ORDER BY id)"));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> SessionArchiveProcessor.ArchiveSource.history("Laps", "live_laps; DROP TABLE x"));
+    }
+}
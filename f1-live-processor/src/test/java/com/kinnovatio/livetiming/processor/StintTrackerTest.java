@@ -0,0 +1,55 @@
+package com.kinnovatio.livetiming.processor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kinnovatio.livetiming.model.CompletedLap;
+import com.kinnovatio.livetiming.model.Stint;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StintTrackerTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void stintsAndDegradation() throws Exception {
+        StintTracker tracker = new StintTracker();
+        tracker.applyTimingAppData(objectMapper.readTree("""
+                {"lines": {"1": {"stints": [{"compound": "MEDIUM", "new": "true", "startLaps": 0, "totalLaps": 0}]}}}
+                """));
+
+        // 90.0 s on fresh tyres, 100 ms slower per lap, with a safety car lap that is left out of the estimate
+        tracker.applyLap(lap(1, 95_000, false, true));
+        tracker.applyLap(lap(2, 90_100, false, false));
+        tracker.applyLap(lap(3, 90_200, false, false));
+        tracker.applyLap(lap(4, 120_000, false, false));
+        tracker.applyLap(lap(5, 90_400, false, false));
+
+        Stint stint = tracker.getStints().get("1").getFirst();
+        assertEquals("MEDIUM", stint.compound());
+        assertTrue(stint.isNew());
+        assertEquals(1, stint.startLap());
+        assertEquals(5, stint.lapCount());
+        assertArrayEquals(new int[]{95_000, 90_100, 90_200, 120_000, 90_400}, stint.lapTimesMillis());
+        assertEquals(3, stint.sampleCount());
+        assertEquals(90_100, stint.bestLapTimeMillis());
+        assertEquals(100.0, stint.degradationMillisPerLap(), 0.001);
+
+        // A second stint, announced in object notation, receives the following laps
+        tracker.applyTimingAppData(objectMapper.readTree("""
+                {"lines": {"1": {"stints": {"1": {"compound": "HARD", "new": "false", "startLaps": 3}}}}}
+                """));
+        tracker.applyLap(lap(6, 91_000, false, true));
+        List<Stint> stints = tracker.getStints().get("1");
+        assertEquals(2, stints.size());
+        assertEquals(6, stints.get(1).startLap());
+        assertNull(stints.get(1).degradationMillisPerLap());
+    }
+
+    private CompletedLap lap(int lapNumber, int lapTimeMillis, boolean pitIn, boolean pitOut) {
+        return new CompletedLap("1", lapNumber, lapTimeMillis, -1, -1, -1, 1, pitIn, pitOut, false,
+                -1, -1, -1, lapNumber, Instant.parse("2026-03-08T05:10:00Z"));
+    }
+}
@@ -0,0 +1,134 @@
+package com.kinnovatio.livetiming.bridge;
+
+import com.kinnovatio.livetiming.bridge.model.BridgeFilter;
+import com.kinnovatio.livetiming.bridge.model.BridgeTargetStatus;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/// A named destination of the bridge: a topic with its own filter, on/off state and time to live.
+///
+/// All state is thread-safe. The processor updates the forwarding statistics, while the API and the TTL
+/// timer toggle the target.
+public class BridgeTarget {
+    private final String name;
+    private final String topic;
+    private final AtomicBoolean enabled = new AtomicBoolean(false);
+    private final AtomicReference<Instant> ttl = new AtomicReference<>(Instant.EPOCH);
+    private final AtomicReference<BridgeFilter> filter;
+
+    // The number of records seen per category, used for sampling
+    private final Map<String, AtomicLong> categoryCounters = new ConcurrentHashMap<>();
+
+    // Forwarding statistics
+    private final LongAdder forwardedRecords = new LongAdder();
+    private final AtomicLong lagMillis = new AtomicLong(0);
+    private volatile long lastForwardedCount = 0;
+    private volatile double recordsPerSecond = 0;
+
+    public BridgeTarget(String name, String topic, BridgeFilter filter) {
+        this.name = name;
+        this.topic = topic;
+        this.filter = new AtomicReference<>(filter);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    public boolean isEnabled() {
+        return enabled.get();
+    }
+
+    void enable(Instant newTtl) {
+        ttl.set(newTtl);
+        enabled.set(true);
+    }
+
+    void disable() {
+        enabled.set(false);
+    }
+
+    public Instant getTtl() {
+        return ttl.get();
+    }
+
+    /// Checks if the target is enabled and its time to live has passed.
+    boolean isExpired(Instant now) {
+        return enabled.get() && now.isAfter(ttl.get());
+    }
+
+    public BridgeFilter getFilter() {
+        return filter.get();
+    }
+
+    void setFilter(BridgeFilter newFilter) {
+        filter.set(newFilter);
+    }
+
+    /// Decides if a record of the given category is forwarded to this target.
+    ///
+    /// The sampled records are evenly spaced, so a sampled telemetry stream keeps a steady (lower) rate.
+    ///
+    /// @param category The record category.
+    /// @return `true` if the record passes the filter and the sampling.
+    public boolean accepts(String category) {
+        BridgeFilter currentFilter = filter.get();
+        if (!currentFilter.isIncluded(category)) {
+            return false;
+        }
+        double ratio = currentFilter.samplingRatio(category);
+        if (ratio >= 1.0) {
+            return true;
+        }
+        if (ratio <= 0.0) {
+            return false;
+        }
+        long count = categoryCounters.computeIfAbsent(category, c -> new AtomicLong()).incrementAndGet();
+        return Math.floor(count * ratio) != Math.floor((count - 1) * ratio);
+    }
+
+    /// Registers a record forwarded to this target.
+    ///
+    /// @param recordTimestamp The timestamp of the source record, in milliseconds since the epoch.
+    public void registerForwarded(long recordTimestamp) {
+        forwardedRecords.increment();
+        lagMillis.set(Math.max(System.currentTimeMillis() - recordTimestamp, 0));
+    }
+
+    public long getForwardedRecords() {
+        return forwardedRecords.sum();
+    }
+
+    /// The delay between the source record being written and forwarded, for the last forwarded record.
+    public long getLagMillis() {
+        return lagMillis.get();
+    }
+
+    public double getRecordsPerSecond() {
+        return recordsPerSecond;
+    }
+
+    /// Updates the forwarding rate from the records forwarded since the previous update.
+    ///
+    /// @param intervalSeconds The time since the previous update.
+    void updateRate(double intervalSeconds) {
+        long forwarded = forwardedRecords.sum();
+        recordsPerSecond = (forwarded - lastForwardedCount) / intervalSeconds;
+        lastForwardedCount = forwarded;
+    }
+
+    public BridgeTargetStatus toStatus() {
+        return new BridgeTargetStatus(name, topic, isEnabled(), getTtl(), getFilter(),
+                getForwardedRecords(), getRecordsPerSecond(), getLagMillis());
+    }
+}
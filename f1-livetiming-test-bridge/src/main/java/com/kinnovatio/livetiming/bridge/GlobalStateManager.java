@@ -1,48 +1,113 @@
 package com.kinnovatio.livetiming.bridge;
 
+import com.kinnovatio.livetiming.bridge.model.BridgeFilter;
+import io.micrometer.core.instrument.FunctionCounter;
 import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
 import io.quarkus.runtime.StartupEvent;
 import io.quarkus.scheduler.Scheduled;
 import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.event.Observes;
 import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicReference;
 
-/// Manages the global state of the live timing application.
+/// Manages the global state of the live timing test bridge.
 ///
-/// This class maintains thread-safe references to the current session status,
-/// the unique session identifier (key), and the timestamp of the last received data packet.
+/// The bridge forwards records to one or more named [BridgeTarget]s. Each target has its own topic, filter
+/// and time to live, and is enabled and disabled independently. The `default` target forwards to the
+/// outgoing channel topic and is the one controlled by the original enable/disable API.
 @ApplicationScoped
 public class GlobalStateManager {
     private static final Logger LOG = Logger.getLogger(GlobalStateManager.class);
 
-    private final AtomicBoolean enableBridge = new AtomicBoolean(false);
-    private final AtomicBoolean enableTimer = new AtomicBoolean(false);
-    private final AtomicReference<Instant> ttl = new AtomicReference<>(Instant.EPOCH);
+    /// The name of the target controlled by the single-target API.
+    public static final String defaultTargetName = "default";
+
+    private final Map<String, BridgeTarget> targets = new ConcurrentHashMap<>();
+    private final Map<String, List<Meter>> targetMeters = new ConcurrentHashMap<>();
+    private volatile BridgeFilter defaultFilter = BridgeFilter.passAll();
+    private long lastRateUpdateNanos = System.nanoTime();
 
     private final Duration maxDuration = Duration.ofHours(5);
 
+    @ConfigProperty(name = "mp.messaging.outgoing.test-f1-raw-out.topic", defaultValue = "test-f1-live-raw")
+    String defaultTopic;
+
+    /// The topic the bridge consumes. A target forwarding to it would feed the bridge its own output.
+    @ConfigProperty(name = "mp.messaging.incoming.f1-live-raw-in.topic", defaultValue = "f1-live-raw")
+    String sourceTopic;
+
+    /// Additional targets as `name=topic` entries. They start disabled and use the default filter.
+    @ConfigProperty(name = "app.bridge.targets")
+    Optional<List<String>> configuredTargets;
+
+    @ConfigProperty(name = "app.bridge.filter.include")
+    Optional<List<String>> includeCategories;
+
+    @ConfigProperty(name = "app.bridge.filter.exclude")
+    Optional<List<String>> excludeCategories;
+
+    /// Sampling ratios as `category=ratio` entries, e.g. `CarData.z=0.1`.
+    @ConfigProperty(name = "app.bridge.filter.sampling")
+    Optional<List<String>> samplingRatios;
+
     @Inject
     MeterRegistry registry;
 
     // Lifecycle hook triggers automatically on application startup
     void onStart(@Observes StartupEvent ev) {
-        Gauge.builder("livetiming_test_bridge_enabled", enableBridge, bol -> bol.get() ? 1 : 0)
+        Map<String, Double> sampling = new HashMap<>();
+        for (String entry : samplingRatios.orElse(List.of())) {
+            String[] parts = entry.split("=", 2);
+            if (parts.length != 2) {
+                LOG.warnf("Invalid sampling ratio config entry: %s. Expected <category>=<ratio>.", entry);
+                continue;
+            }
+            sampling.put(parts[0].strip(), Double.parseDouble(parts[1].strip()));
+        }
+        defaultFilter = new BridgeFilter(
+                new HashSet<>(includeCategories.orElse(List.of())),
+                new HashSet<>(excludeCategories.orElse(List.of())),
+                sampling);
+
+        addTarget(defaultTargetName, defaultTopic, defaultFilter);
+        for (String entry : configuredTargets.orElse(List.of())) {
+            String[] parts = entry.split("=", 2);
+            if (parts.length != 2) {
+                LOG.warnf("Invalid target config entry: %s. Expected <name>=<topic>.", entry);
+                continue;
+            }
+            try {
+                addTarget(parts[0].strip(), parts[1].strip(), defaultFilter);
+            } catch (IllegalArgumentException e) {
+                LOG.warnf("Invalid target config entry: %s. %s", entry, e.getMessage());
+            }
+        }
+
+        Gauge.builder("livetiming_test_bridge_enabled", this, manager -> manager.isBridgeEnabled() ? 1 : 0)
                 .description("Tracks if the bridge enabled or disabled")
                 .register(registry);
     }
 
-
+    /// Checks if at least one target is enabled.
     public boolean isBridgeEnabled() {
-        return enableBridge.get();
+        return targets.values().stream().anyMatch(BridgeTarget::isEnabled);
     }
 
     public void enableBridge() {
@@ -50,20 +115,88 @@ public class GlobalStateManager {
     }
 
     public void enableBridge(Duration ttlDuration) {
-        setEnableBridge(true);
-        setTimer(ttlDuration);
+        enableTarget(defaultTargetName, ttlDuration);
     }
 
     public void disableBridge() {
-        setEnableBridge(false);
-        enableTimer.set(false);
+        disableTarget(defaultTargetName);
+    }
+
+    public Instant getTtl() {
+        return getTarget(defaultTargetName).map(BridgeTarget::getTtl).orElse(Instant.EPOCH);
+    }
+
+    public BridgeFilter getFilter() {
+        return getTarget(defaultTargetName).map(BridgeTarget::getFilter).orElse(defaultFilter);
+    }
+
+    public void setFilter(BridgeFilter newFilter) {
+        setTargetFilter(defaultTargetName, newFilter);
     }
 
-    private void setEnableBridge(boolean enable) {
-        enableBridge.set(enable);
+    /// Returns all targets.
+    public Collection<BridgeTarget> getTargets() {
+        return targets.values();
     }
 
-    public Instant setTimer(Duration duration) {
+    /// Returns the enabled targets.
+    public List<BridgeTarget> getActiveTargets() {
+        List<BridgeTarget> active = new ArrayList<>(targets.size());
+        for (BridgeTarget target : targets.values()) {
+            if (target.isEnabled()) {
+                active.add(target);
+            }
+        }
+        return active;
+    }
+
+    public Optional<BridgeTarget> getTarget(String name) {
+        return Optional.ofNullable(targets.get(name));
+    }
+
+    /// Adds a target, or replaces the target with the same name. The new target starts disabled.
+    ///
+    /// @param name The target name.
+    /// @param topic The topic to forward the records to.
+    /// @param filter The category filter. If `null`, the default filter is used.
+    /// @return The new target.
+    /// @throws IllegalArgumentException If the topic is the bridge's source topic.
+    public BridgeTarget addTarget(String name, String topic, BridgeFilter filter) {
+        if (topic.strip().equals(sourceTopic)) {
+            throw new IllegalArgumentException("A target cannot forward to the bridge's source topic: " + topic);
+        }
+        BridgeTarget target = new BridgeTarget(name, topic, filter == null ? defaultFilter : filter);
+        removeTarget(name);
+        targets.put(name, target);
+        registerTargetMeters(target);
+        LOG.infof("Added bridge target %s forwarding to topic %s.", name, topic);
+        return target;
+    }
+
+    /// Removes a target.
+    ///
+    /// @param name The target name.
+    /// @return `true` if the target existed.
+    public boolean removeTarget(String name) {
+        BridgeTarget removed = targets.remove(name);
+        List<Meter> meters = targetMeters.remove(name);
+        if (meters != null) {
+            meters.forEach(registry::remove);
+        }
+        if (removed != null) {
+            LOG.infof("Removed bridge target %s.", name);
+        }
+        return removed != null;
+    }
+
+    /// Enables a target for the given time to live (capped at 5 hours).
+    ///
+    /// @param name The target name.
+    /// @param duration The time to live.
+    /// @return The enabled target.
+    /// @throws IllegalArgumentException If the target does not exist.
+    public BridgeTarget enableTarget(String name, Duration duration) {
+        BridgeTarget target = requireTarget(name);
         Duration ttlDuration = duration;
         if (ttlDuration.compareTo(maxDuration) > 0) {
             ttlDuration = maxDuration;
@@ -72,25 +205,82 @@ public class GlobalStateManager {
                     ttlDuration);
         }
         Instant newTtl = Instant.now().plus(ttlDuration);
-        enableTimer.set(true);
-        ttl.set(newTtl);
+        target.enable(newTtl);
 
-        LOG.infof("Setting new timer with a time to live of %s", ttlDuration);
-        LOG.infof("The bridge will be disabled at %s", newTtl.toString());
-        return newTtl;
+        LOG.infof("Enabling bridge target %s with a time to live of %s", name, ttlDuration);
+        LOG.infof("The bridge target %s will be disabled at %s", name, newTtl.toString());
+        return target;
     }
 
-    public Instant getTtl() {
-        return ttl.get();
+    /// Disables a target.
+    ///
+    /// @param name The target name.
+    /// @return The disabled target.
+    /// @throws IllegalArgumentException If the target does not exist.
+    public BridgeTarget disableTarget(String name) {
+        BridgeTarget target = requireTarget(name);
+        target.disable();
+        LOG.infof("Disabling bridge target %s.", name);
+        return target;
+    }
+
+    /// Sets the filter of a target.
+    ///
+    /// @param name The target name.
+    /// @param newFilter The new filter.
+    /// @return The updated target.
+    /// @throws IllegalArgumentException If the target does not exist.
+    public BridgeTarget setTargetFilter(String name, BridgeFilter newFilter) {
+        BridgeTarget target = requireTarget(name);
+        target.setFilter(newFilter);
+        LOG.infof("Setting filter of bridge target %s. Include: %s, exclude: %s, sampling: %s",
+                name,
+                newFilter.include(),
+                newFilter.exclude(),
+                newFilter.sampling());
+        return target;
+    }
+
+    private BridgeTarget requireTarget(String name) {
+        return getTarget(name).orElseThrow(() -> new IllegalArgumentException("Unknown bridge target: " + name));
+    }
+
+    private void registerTargetMeters(BridgeTarget target) {
+        Tags tags = Tags.of("target", target.getName(), "topic", target.getTopic());
+        targetMeters.put(target.getName(), List.of(
+                Gauge.builder("livetiming_test_bridge_target_enabled", target, t -> t.isEnabled() ? 1 : 0)
+                        .description("Tracks if a bridge target is enabled or disabled")
+                        .tags(tags)
+                        .register(registry),
+                FunctionCounter.builder("livetiming_test_bridge_target_forwarded_total", target,
+                                BridgeTarget::getForwardedRecords)
+                        .description("Total number of records forwarded to a bridge target")
+                        .tags(tags)
+                        .register(registry),
+                Gauge.builder("livetiming_test_bridge_target_throughput", target, BridgeTarget::getRecordsPerSecond)
+                        .description("Records per second forwarded to a bridge target")
+                        .tags(tags)
+                        .register(registry),
+                Gauge.builder("livetiming_test_bridge_target_lag_seconds", target, t -> t.getLagMillis() / 1000d)
+                        .description("Delay between a record entering the source topic and being forwarded")
+                        .tags(tags)
+                        .register(registry)));
     }
 
     @Scheduled(every = "5s", delay = 5, delayUnit = TimeUnit.SECONDS)
     @RunOnVirtualThread
     void checkTtl() {
-        if (enableTimer.get() && Instant.now().isAfter(ttl.get())) {
-            disableBridge();
-            LOG.infof("Bridge timer expired. Disabling bridge.");
+        Instant now = Instant.now();
+        for (BridgeTarget target : targets.values()) {
+            if (target.isExpired(now)) {
+                target.disable();
+                LOG.infof("Bridge target %s timer expired. Disabling target.", target.getName());
+            }
         }
 
+        long nowNanos = System.nanoTime();
+        double intervalSeconds = (nowNanos - lastRateUpdateNanos) / 1e9;
+        lastRateUpdateNanos = nowNanos;
+        targets.values().forEach(target -> target.updateRate(intervalSeconds));
     }
 }
@@ -1,15 +1,37 @@
 package com.kinnovatio.livetiming.bridge.api;
 
+import com.kinnovatio.livetiming.bridge.BridgeTarget;
 import com.kinnovatio.livetiming.bridge.GlobalStateManager;
+import com.kinnovatio.livetiming.bridge.capture.CaptureBuffer;
+import com.kinnovatio.livetiming.bridge.capture.CaptureReplayer;
+import com.kinnovatio.livetiming.bridge.model.BridgeFilter;
 import com.kinnovatio.livetiming.bridge.model.BridgeStatus;
+import com.kinnovatio.livetiming.bridge.model.BridgeTargetRequest;
+import com.kinnovatio.livetiming.bridge.model.BridgeTargetStatus;
+import com.kinnovatio.livetiming.bridge.model.CaptureReplayRequest;
+import com.kinnovatio.livetiming.bridge.model.CaptureReplayStatus;
+import com.kinnovatio.livetiming.bridge.model.CaptureStatus;
 import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.MediaType;
 
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+
 import org.jboss.logging.Logger;
 
 @ApplicationScoped
@@ -22,6 +44,12 @@ public class BridgeResource {
     @Inject
     GlobalStateManager stateManager;
 
+    @Inject
+    CaptureBuffer captureBuffer;
+
+    @Inject
+    CaptureReplayer captureReplayer;
+
     @GET
     @Path("status")
     public BridgeStatus getRootStatus() {
@@ -44,4 +72,142 @@ public class BridgeResource {
         LOG.infof("Disabling bridge.");
         return new BridgeStatus(stateManager.isBridgeEnabled(), stateManager.getTtl());
     }
+
+    @GET
+    @Path("filter")
+    public BridgeFilter getFilter() {
+        return stateManager.getFilter();
+    }
+
+    /// Sets the category filter and sampling ratios, e.g.
+    /// `{"exclude": ["Heartbeat"], "sampling": {"CarData.z": 0.1, "Position.z": 0.2}}`.
+    @PUT
+    @Path("filter")
+    @Consumes(MediaType.APPLICATION_JSON)
+    public BridgeFilter setFilter(BridgeFilter filter) {
+        if (filter == null) {
+            throw new BadRequestException("A filter is required.");
+        }
+        stateManager.setFilter(filter);
+        return stateManager.getFilter();
+    }
+
+    @GET
+    @Path("targets")
+    public List<BridgeTargetStatus> getTargets() {
+        return stateManager.getTargets().stream()
+                .sorted(Comparator.comparing(BridgeTarget::getName))
+                .map(BridgeTarget::toStatus)
+                .toList();
+    }
+
+    @GET
+    @Path("targets/{name}")
+    public BridgeTargetStatus getTarget(@PathParam("name") String name) {
+        return stateManager.getTarget(name)
+                .map(BridgeTarget::toStatus)
+                .orElseThrow(() -> new NotFoundException("Unknown bridge target: " + name));
+    }
+
+    /// Adds (or replaces) a target, e.g. `{"topic": "dev-f1-live-raw", "filter": {"exclude": ["CarData.z"]}}`.
+    /// The target starts disabled.
+    @PUT
+    @Path("targets/{name}")
+    @Consumes(MediaType.APPLICATION_JSON)
+    public BridgeTargetStatus putTarget(@PathParam("name") String name, BridgeTargetRequest request) {
+        if (request == null || request.topic() == null || request.topic().isBlank()) {
+            throw new BadRequestException("A target topic is required.");
+        }
+        try {
+            return stateManager.addTarget(name, request.topic(), request.filter()).toStatus();
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+    }
+
+    @DELETE
+    @Path("targets/{name}")
+    public List<BridgeTargetStatus> deleteTarget(@PathParam("name") String name) {
+        if (GlobalStateManager.defaultTargetName.equals(name)) {
+            throw new BadRequestException("The default target cannot be removed.");
+        }
+        if (!stateManager.removeTarget(name)) {
+            throw new NotFoundException("Unknown bridge target: " + name);
+        }
+        return getTargets();
+    }
+
+    @GET
+    @Path("targets/{name}/enable")
+    public BridgeTargetStatus enableTarget(@PathParam("name") String name,
+                                           @QueryParam("ttlMinutes") @DefaultValue("300") long ttlMinutes) {
+        try {
+            return stateManager.enableTarget(name, Duration.ofMinutes(ttlMinutes)).toStatus();
+        } catch (IllegalArgumentException e) {
+            throw new NotFoundException(e.getMessage());
+        }
+    }
+
+    @GET
+    @Path("targets/{name}/disable")
+    public BridgeTargetStatus disableTarget(@PathParam("name") String name) {
+        try {
+            return stateManager.disableTarget(name).toStatus();
+        } catch (IllegalArgumentException e) {
+            throw new NotFoundException(e.getMessage());
+        }
+    }
+
+    @PUT
+    @Path("targets/{name}/filter")
+    @Consumes(MediaType.APPLICATION_JSON)
+    public BridgeTargetStatus setTargetFilter(@PathParam("name") String name, BridgeFilter filter) {
+        if (filter == null) {
+            throw new BadRequestException("A filter is required.");
+        }
+        try {
+            return stateManager.setTargetFilter(name, filter).toStatus();
+        } catch (IllegalArgumentException e) {
+            throw new NotFoundException(e.getMessage());
+        }
+    }
+
+    @GET
+    @Path("capture")
+    public CaptureStatus getCaptureStatus() {
+        return captureBuffer.getStatus();
+    }
+
+    /// Replays a time window of the capture buffer, e.g.
+    /// `{"from": "2026-07-05T14:02:00Z", "to": "2026-07-05T14:10:00Z", "topic": "dev-f1-live-raw", "speed": 5}`.
+    @POST
+    @Path("capture/replays")
+    @Consumes(MediaType.APPLICATION_JSON)
+    public CaptureReplayStatus startReplay(CaptureReplayRequest request) {
+        try {
+            return captureReplayer.startReplay(request);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+    }
+
+    @GET
+    @Path("capture/replays")
+    public List<CaptureReplayStatus> getReplays() {
+        return captureReplayer.getReplays();
+    }
+
+    @GET
+    @Path("capture/replays/{id}")
+    public CaptureReplayStatus getReplay(@PathParam("id") String id) {
+        return captureReplayer.getReplay(id)
+                .orElseThrow(() -> new NotFoundException("Unknown replay: " + id));
+    }
+
+    @DELETE
+    @Path("capture/replays/{id}")
+    public CaptureReplayStatus cancelReplay(@PathParam("id") String id) {
+        return captureReplayer.cancelReplay(id)
+                .orElseThrow(() -> new NotFoundException("Unknown replay: " + id));
+    }
 }
@@ -0,0 +1,316 @@
+package com.kinnovatio.livetiming.bridge.capture;
+
+import com.kinnovatio.livetiming.bridge.model.CaptureSegment;
+import com.kinnovatio.livetiming.bridge.model.CaptureStatus;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/// Continuously records the raw live timing records to local, rotating segment files.
+///
+/// The buffer keeps the last `app.bridge.capture.retention` of the source topic, independent of the bridge
+/// targets being enabled, so a time window can be replayed after the fact (see [CaptureReplayer]).
+///
+/// A segment file is named after the timestamp of its first record, `capture-<epochMillis>.seg`, and covers
+/// `app.bridge.capture.segment-duration` of records. Each record is written as:
+/// ```
+/// long timestamp | bool hasKey | [UTF key] | short headerCount | (UTF key | int length | bytes)* | int length | bytes
+/// ```
+/// A record cut short at the end of the active segment is ignored when reading.
+@ApplicationScoped
+public class CaptureBuffer {
+    private static final Logger LOG = Logger.getLogger(CaptureBuffer.class);
+
+    private static final String segmentPrefix = "capture-";
+    private static final String segmentSuffix = ".seg";
+
+    @ConfigProperty(name = "app.bridge.capture.enabled", defaultValue = "true")
+    boolean captureEnabled;
+
+    @ConfigProperty(name = "app.bridge.capture.directory", defaultValue = "/tmp/bridge-capture")
+    String captureDirectory;
+
+    @ConfigProperty(name = "app.bridge.capture.retention", defaultValue = "PT6H")
+    Duration retention;
+
+    @ConfigProperty(name = "app.bridge.capture.segment-duration", defaultValue = "PT10M")
+    Duration segmentDuration;
+
+    @Inject
+    MeterRegistry registry;
+
+    private final LongAdder capturedRecords = new LongAdder();
+    private Path directory;
+
+    // The active segment. Guarded by this.
+    private DataOutputStream out = null;
+    private long segmentStartMillis = -1;
+
+    /// Visits the records of a replay window.
+    @FunctionalInterface
+    public interface RecordVisitor {
+        /// @param record The captured record.
+        /// @return `true` to continue, `false` to stop the scan.
+        boolean visit(CapturedRecord record) throws InterruptedException;
+    }
+
+    /// A record read back from the capture buffer.
+    ///
+    /// @param timestamp The Kafka timestamp of the source record, in milliseconds since the epoch.
+    /// @param key The record key (the live timing category).
+    /// @param headers The record headers.
+    /// @param value The record value.
+    public record CapturedRecord(long timestamp, String key, RecordHeaders headers, byte[] value) {}
+
+    void onStart(@Observes StartupEvent ev) throws IOException {
+        directory = Path.of(captureDirectory);
+        if (!captureEnabled) {
+            LOG.infof("The capture buffer is disabled.");
+            return;
+        }
+        Files.createDirectories(directory);
+        LOG.infof("Capturing the source topic to %s with a retention of %s.", directory, retention);
+
+        FunctionCounter.builder("livetiming_test_bridge_capture_records_total", capturedRecords, LongAdder::sum)
+                .description("Total number of records written to the capture buffer")
+                .register(registry);
+        Gauge.builder("livetiming_test_bridge_capture_bytes", this, buffer -> buffer.listSegments().stream()
+                        .mapToLong(CaptureSegment::sizeBytes)
+                        .sum())
+                .description("Size of the capture buffer on disk")
+                .register(registry);
+    }
+
+    void onStop(@Observes ShutdownEvent ev) {
+        closeSegment();
+    }
+
+    public boolean isEnabled() {
+        return captureEnabled;
+    }
+
+    /// Appends a batch of source records to the active segment.
+    ///
+    /// Capture errors are logged and do not fail the batch, so the bridge keeps forwarding.
+    ///
+    /// @param records The source records.
+    public synchronized void append(ConsumerRecords<String, byte[]> records) {
+        if (!captureEnabled || records.isEmpty()) {
+            return;
+        }
+        try {
+            for (ConsumerRecord<String, byte[]> record : records) {
+                if (out == null || record.timestamp() >= segmentStartMillis + segmentDuration.toMillis()) {
+                    rollSegment(record.timestamp());
+                }
+                writeRecord(record);
+                capturedRecords.increment();
+            }
+            out.flush();
+        } catch (IOException e) {
+            LOG.warnf("Error when writing to the capture buffer. Will start a new segment. Error: %s", e.getMessage());
+            closeSegment();
+        }
+    }
+
+    /// Reads the captured records of a time window, in capture order.
+    ///
+    /// @param from The start of the window (inclusive).
+    /// @param to The end of the window (inclusive).
+    /// @param visitor The record visitor.
+    /// @throws IOException If a segment cannot be read.
+    /// @throws InterruptedException If the visitor is interrupted.
+    public void scan(Instant from, Instant to, RecordVisitor visitor) throws IOException, InterruptedException {
+        synchronized (this) {
+            if (out != null) {
+                out.flush();
+            }
+        }
+        long fromMillis = from.toEpochMilli();
+        long toMillis = to.toEpochMilli();
+        List<CaptureSegment> segments = listSegments();
+        for (int i = 0; i < segments.size(); i++) {
+            long segmentStart = segments.get(i).start().toEpochMilli();
+            long segmentEnd = i + 1 < segments.size() ? segments.get(i + 1).start().toEpochMilli() : Long.MAX_VALUE;
+            if (segmentEnd <= fromMillis || segmentStart > toMillis) {
+                continue;
+            }
+            if (!scanSegment(directory.resolve(segments.get(i).name()), fromMillis, toMillis, visitor)) {
+                return;
+            }
+        }
+    }
+
+    /// Lists the segments of the buffer, oldest first.
+    public List<CaptureSegment> listSegments() {
+        if (!captureEnabled || directory == null || !Files.isDirectory(directory)) {
+            return List.of();
+        }
+        List<CaptureSegment> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                String name = file.getFileName().toString();
+                if (!name.startsWith(segmentPrefix) || !name.endsWith(segmentSuffix)) {
+                    continue;
+                }
+                long start = Long.parseLong(name, segmentPrefix.length(),
+                        name.length() - segmentSuffix.length(), 10);
+                segments.add(new CaptureSegment(name, Instant.ofEpochMilli(start), Files.size(file)));
+            }
+        } catch (IOException | NumberFormatException e) {
+            LOG.warnf("Error when listing the capture segments: %s", e.getMessage());
+        }
+        segments.sort(Comparator.comparing(CaptureSegment::start));
+        return segments;
+    }
+
+    public CaptureStatus getStatus() {
+        List<CaptureSegment> segments = listSegments();
+        return new CaptureStatus(captureEnabled,
+                retention,
+                segments.isEmpty() ? null : segments.getFirst().start(),
+                capturedRecords.sum(),
+                segments.stream().mapToLong(CaptureSegment::sizeBytes).sum(),
+                segments);
+    }
+
+    /// Deletes the segments that are entirely older than the retention period.
+    @Scheduled(every = "60s", delay = 60, delayUnit = TimeUnit.SECONDS)
+    @RunOnVirtualThread
+    void enforceRetention() {
+        List<CaptureSegment> segments = listSegments();
+        Instant cutoff = Instant.now().minus(retention);
+        // A segment ends where the next one starts. The newest segment is the active one and is never deleted.
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            if (segments.get(i + 1).start().isBefore(cutoff)) {
+                try {
+                    Files.deleteIfExists(directory.resolve(segments.get(i).name()));
+                    LOG.debugf("Deleted expired capture segment %s", segments.get(i).name());
+                } catch (IOException e) {
+                    LOG.warnf("Error when deleting capture segment %s: %s", segments.get(i).name(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void rollSegment(long startMillis) throws IOException {
+        closeSegment();
+        Path segmentPath = directory.resolve(segmentPrefix + startMillis + segmentSuffix);
+        out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(segmentPath), 64 * 1024));
+        segmentStartMillis = startMillis;
+        LOG.debugf("Started capture segment %s", segmentPath);
+    }
+
+    private synchronized void closeSegment() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            LOG.warnf("Error when closing the capture segment: %s", e.getMessage());
+        }
+        out = null;
+        segmentStartMillis = -1;
+    }
+
+    private void writeRecord(ConsumerRecord<String, byte[]> record) throws IOException {
+        out.writeLong(record.timestamp());
+        out.writeBoolean(record.key() != null);
+        if (record.key() != null) {
+            out.writeUTF(record.key());
+        }
+        Header[] headers = record.headers().toArray();
+        out.writeShort(headers.length);
+        for (Header header : headers) {
+            out.writeUTF(header.key());
+            writeBytes(header.value());
+        }
+        writeBytes(record.value());
+    }
+
+    private void writeBytes(byte[] bytes) throws IOException {
+        if (bytes == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static boolean scanSegment(Path segment, long fromMillis, long toMillis, RecordVisitor visitor)
+            throws IOException, InterruptedException {
+        if (!Files.exists(segment)) {
+            // Deleted by the retention job since it was listed
+            return true;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(segment),
+                64 * 1024))) {
+            while (true) {
+                CapturedRecord record;
+                try {
+                    record = readRecord(in);
+                } catch (EOFException e) {
+                    return true;
+                }
+                if (record.timestamp() < fromMillis || record.timestamp() > toMillis) {
+                    continue;
+                }
+                if (!visitor.visit(record)) {
+                    return false;
+                }
+            }
+        }
+    }
+
+    private static CapturedRecord readRecord(DataInputStream in) throws IOException {
+        long timestamp = in.readLong();
+        String key = in.readBoolean() ? in.readUTF() : null;
+        int headerCount = in.readShort();
+        RecordHeaders headers = new RecordHeaders();
+        for (int i = 0; i < headerCount; i++) {
+            headers.add(in.readUTF(), readBytes(in));
+        }
+        return new CapturedRecord(timestamp, key, headers, readBytes(in));
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,229 @@
+package com.kinnovatio.livetiming.bridge.capture;
+
+import com.kinnovatio.livetiming.bridge.BridgeTarget;
+import com.kinnovatio.livetiming.bridge.GlobalStateManager;
+import com.kinnovatio.livetiming.bridge.model.CaptureReplayRequest;
+import com.kinnovatio.livetiming.bridge.model.CaptureReplayStatus;
+import io.smallrye.reactive.messaging.kafka.api.OutgoingKafkaRecordMetadata;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.reactive.messaging.Channel;
+import org.eclipse.microprofile.reactive.messaging.Emitter;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.OnOverflow;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/// Replays time windows of the [CaptureBuffer] into a topic.
+///
+/// Each replay runs as a job on its own virtual thread. The records are sent with their original key and
+/// headers, paced by their capture timestamps and the requested speed. The job waits for the broker
+/// acknowledgements every [#ackWindow] records, so a fast replay cannot overrun the emitter buffer.
+///
+/// Replays only go to the topics of the bridge targets, which never include the bridge's source topic.
+@ApplicationScoped
+public class CaptureReplayer {
+    private static final Logger LOG = Logger.getLogger(CaptureReplayer.class);
+
+    private static final int ackWindow = 500;
+    private static final Duration ackTimeout = Duration.ofSeconds(30);
+
+    @Inject
+    CaptureBuffer captureBuffer;
+
+    @Inject
+    GlobalStateManager stateManager;
+
+    @Inject
+    @OnOverflow(value = OnOverflow.Strategy.BUFFER, bufferSize = 2 * ackWindow)
+    @Channel("test-f1-replay-out")
+    Emitter<byte[]> replayEmitter;
+
+    private final Map<String, ReplayJob> jobs = new ConcurrentHashMap<>();
+    private final AtomicInteger jobCounter = new AtomicInteger(0);
+
+    /// Starts replaying a time window.
+    ///
+    /// @param request The replay request.
+    /// @return The status of the new replay job.
+    /// @throws IllegalArgumentException If the request is invalid or the topic is not the topic of a bridge target.
+    public CaptureReplayStatus startReplay(CaptureReplayRequest request) {
+        if (!captureBuffer.isEnabled()) {
+            throw new IllegalArgumentException("The capture buffer is disabled.");
+        }
+        if (request == null || request.from() == null) {
+            throw new IllegalArgumentException("The start of the replay window (from) is required.");
+        }
+        Instant to = request.to() == null ? Instant.now() : request.to();
+        if (to.isBefore(request.from())) {
+            throw new IllegalArgumentException("The end of the replay window is before its start.");
+        }
+        double speed = request.speed() == null ? 1.0 : request.speed();
+        if (speed < 0) {
+            throw new IllegalArgumentException("The replay speed cannot be negative: " + speed);
+        }
+        String topic = request.topic() != null && !request.topic().isBlank()
+                ? request.topic()
+                : stateManager.getTarget(GlobalStateManager.defaultTargetName)
+                        .map(BridgeTarget::getTopic)
+                        .orElseThrow(() -> new IllegalArgumentException("A replay topic is required."));
+        if (stateManager.getTargets().stream().noneMatch(target -> target.getTopic().equals(topic))) {
+            throw new IllegalArgumentException("The replay topic must be the topic of a bridge target: " + topic);
+        }
+
+        ReplayJob job = new ReplayJob("replay-" + jobCounter.incrementAndGet(), request.from(), to, topic, speed);
+        jobs.put(job.id, job);
+        job.thread = Thread.startVirtualThread(() -> run(job));
+        LOG.infof("Started %s of %s to %s into topic %s at speed %s.", job.id, job.from, job.to, topic, speed);
+        return job.toStatus();
+    }
+
+    public List<CaptureReplayStatus> getReplays() {
+        List<CaptureReplayStatus> statuses = new ArrayList<>();
+        jobs.values().forEach(job -> statuses.add(job.toStatus()));
+        statuses.sort(Comparator.comparing(CaptureReplayStatus::id));
+        return statuses;
+    }
+
+    public Optional<CaptureReplayStatus> getReplay(String id) {
+        return Optional.ofNullable(jobs.get(id)).map(ReplayJob::toStatus);
+    }
+
+    /// Cancels a running replay.
+    ///
+    /// @param id The replay job id.
+    /// @return The status of the job, if it exists.
+    public Optional<CaptureReplayStatus> cancelReplay(String id) {
+        ReplayJob job = jobs.get(id);
+        if (job == null) {
+            return Optional.empty();
+        }
+        if (job.state.equals("RUNNING")) {
+            job.state = "CANCELLED";
+            job.thread.interrupt();
+            LOG.infof("Cancelled %s.", id);
+        }
+        return Optional.of(job.toStatus());
+    }
+
+    private void run(ReplayJob job) {
+        try {
+            captureBuffer.scan(job.from, job.to, record -> {
+                job.awaitDue(record.timestamp());
+                CompletableFuture<Void> ack = new CompletableFuture<>();
+                replayEmitter.send(Message.of(record.value())
+                        .withAck(() -> {
+                            ack.complete(null);
+                            return CompletableFuture.completedFuture(null);
+                        })
+                        .withNack(throwable -> {
+                            ack.completeExceptionally(throwable);
+                            return CompletableFuture.completedFuture(null);
+                        })
+                        .addMetadata(OutgoingKafkaRecordMetadata.<String>builder()
+                                .withTopic(job.topic)
+                                .withKey(record.key())
+                                .withHeaders(record.headers())
+                                .build()));
+                job.pendingAcks.add(ack);
+                job.sentRecords++;
+                job.lastRecordTimestamp = Instant.ofEpochMilli(record.timestamp());
+                if (job.pendingAcks.size() >= ackWindow) {
+                    job.awaitAcks();
+                }
+                return job.state.equals("RUNNING");
+            });
+            job.awaitAcks();
+            if (job.state.equals("RUNNING")) {
+                job.state = "DONE";
+            }
+            LOG.infof("%s finished with state %s after %d records.", job.id, job.state, job.sentRecords);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.infof("%s stopped after %d records.", job.id, job.sentRecords);
+        } catch (Exception e) {
+            job.state = "FAILED";
+            job.error = e.getMessage();
+            LOG.warnf("%s failed after %d records. Error: %s", job.id, job.sentRecords, e.getMessage());
+        }
+    }
+
+    /// The state of a replay job. The counters are only written by the job thread.
+    private static final class ReplayJob {
+        final String id;
+        final Instant from;
+        final Instant to;
+        final String topic;
+        final double speed;
+        final List<CompletableFuture<Void>> pendingAcks = new ArrayList<>(ackWindow);
+        volatile String state = "RUNNING";
+        volatile long sentRecords = 0;
+        volatile Instant lastRecordTimestamp = null;
+        volatile String error = null;
+        Thread thread;
+
+        // Pacing anchor: the first record timestamp and the wall clock time it was sent
+        private long firstRecordMillis = -1;
+        private long firstSendNanos = 0;
+
+        ReplayJob(String id, Instant from, Instant to, String topic, double speed) {
+            this.id = id;
+            this.from = from;
+            this.to = to;
+            this.topic = topic;
+            this.speed = speed;
+        }
+
+        /// Waits until a record is due, relative to the first record of the replay.
+        void awaitDue(long recordMillis) throws InterruptedException {
+            if (speed == 0) {
+                return;
+            }
+            if (firstRecordMillis < 0) {
+                firstRecordMillis = recordMillis;
+                firstSendNanos = System.nanoTime();
+                return;
+            }
+            long dueNanos = firstSendNanos + (long) ((recordMillis - firstRecordMillis) * 1_000_000L / speed);
+            long waitNanos = dueNanos - System.nanoTime();
+            if (waitNanos > 0) {
+                Thread.sleep(Duration.ofNanos(waitNanos));
+            }
+        }
+
+        /// Waits for the acknowledgements of the records sent so far, up to `ackTimeout`. Interruptible, so
+        /// cancelling a replay also stops the wait.
+        void awaitAcks() throws InterruptedException {
+            long deadlineNanos = System.nanoTime() + ackTimeout.toNanos();
+            try {
+                for (CompletableFuture<Void> ack : pendingAcks) {
+                    ack.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+                }
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("A replayed record was not delivered: " + e.getCause().getMessage(),
+                        e.getCause());
+            } catch (TimeoutException e) {
+                throw new IllegalStateException("The replayed records were not acknowledged within " + ackTimeout);
+            }
+            pendingAcks.clear();
+        }
+
+        CaptureReplayStatus toStatus() {
+            return new CaptureReplayStatus(id, from, to, topic, speed, state, sentRecords, lastRecordTimestamp, error);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.kinnovatio.livetiming.bridge.model;
+
+import java.util.Map;
+import java.util.Set;
+
+/// Selects the live timing categories forwarded by the bridge.
+///
+/// A category is forwarded when it is in `include` (or `include` is empty) and not in `exclude`. The forwarded
+/// records of a category are thinned to the ratio given in `sampling` (`0.1` forwards every tenth record).
+/// Categories without a sampling ratio are forwarded in full.
+///
+/// Sampling is meant for categories where every record is a complete state, like `CarData.z` and `Position.z`.
+/// Sampling a delta category (e.g. `TimingData`) leaves the downstream state incomplete.
+///
+/// @param include The categories to forward. Empty forwards all categories.
+/// @param exclude The categories to drop.
+/// @param sampling The sampling ratio per category, between 0 and 1.
+public record BridgeFilter(Set<String> include, Set<String> exclude, Map<String, Double> sampling) {
+    public BridgeFilter {
+        include = include == null ? Set.of() : Set.copyOf(include);
+        exclude = exclude == null ? Set.of() : Set.copyOf(exclude);
+        sampling = sampling == null ? Map.of() : Map.copyOf(sampling);
+        sampling.forEach((category, ratio) -> {
+            if (ratio < 0 || ratio > 1) {
+                throw new IllegalArgumentException("The sampling ratio of %s must be between 0 and 1: %s"
+                        .formatted(category, ratio));
+            }
+        });
+    }
+
+    /// Returns a filter that forwards all records.
+    public static BridgeFilter passAll() {
+        return new BridgeFilter(Set.of(), Set.of(), Map.of());
+    }
+
+    /// Checks if a category is forwarded (before sampling).
+    ///
+    /// @param category The record category.
+    /// @return `true` if the category passes the include and exclude lists.
+    public boolean isIncluded(String category) {
+        return (include.isEmpty() || include.contains(category)) && !exclude.contains(category);
+    }
+
+    /// Returns the sampling ratio of a category.
+    ///
+    /// @param category The record category.
+    /// @return The ratio of records to forward, `1.0` if the category is not sampled.
+    public double samplingRatio(String category) {
+        return sampling.getOrDefault(category, 1.0);
+    }
+}
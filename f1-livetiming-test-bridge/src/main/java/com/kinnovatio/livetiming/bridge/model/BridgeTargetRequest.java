@@ -0,0 +1,8 @@
+package com.kinnovatio.livetiming.bridge.model;
+
+/// The definition of a bridge target, as submitted to the bridge API.
+///
+/// @param topic The topic to forward the records to.
+/// @param filter The category filter of the target. If `null`, the default filter is used.
+public record BridgeTargetRequest(String topic, BridgeFilter filter) {
+}
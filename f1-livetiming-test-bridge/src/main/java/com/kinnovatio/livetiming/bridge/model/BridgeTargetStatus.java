@@ -0,0 +1,13 @@
+package com.kinnovatio.livetiming.bridge.model;
+
+import java.time.Instant;
+
+public record BridgeTargetStatus(String name,
+                                 String topic,
+                                 boolean status,
+                                 Instant ttl,
+                                 BridgeFilter filter,
+                                 long forwardedRecords,
+                                 double recordsPerSecond,
+                                 long lagMillis) {
+}
@@ -0,0 +1,13 @@
+package com.kinnovatio.livetiming.bridge.model;
+
+import java.time.Instant;
+
+/// A request to replay a time window of the capture buffer.
+///
+/// @param from The start of the window.
+/// @param to The end of the window. If `null`, the replay runs to the end of the buffer.
+/// @param topic The topic to replay the records to, one of the bridge targets' topics. If `null`, the default
+///              target's topic is used.
+/// @param speed The replay speed. `1.0` replays in real time, `10.0` ten times faster and `0` as fast as possible.
+public record CaptureReplayRequest(Instant from, Instant to, String topic, Double speed) {
+}
@@ -0,0 +1,14 @@
+package com.kinnovatio.livetiming.bridge.model;
+
+import java.time.Instant;
+
+public record CaptureReplayStatus(String id,
+                                  Instant from,
+                                  Instant to,
+                                  String topic,
+                                  double speed,
+                                  String state,
+                                  long sentRecords,
+                                  Instant lastRecordTimestamp,
+                                  String error) {
+}
@@ -0,0 +1,6 @@
+package com.kinnovatio.livetiming.bridge.model;
+
+import java.time.Instant;
+
+public record CaptureSegment(String name, Instant start, long sizeBytes) {
+}
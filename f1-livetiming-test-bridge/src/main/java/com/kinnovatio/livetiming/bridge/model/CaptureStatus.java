@@ -0,0 +1,13 @@
+package com.kinnovatio.livetiming.bridge.model;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+public record CaptureStatus(boolean enabled,
+                            Duration retention,
+                            Instant oldestSegment,
+                            long capturedRecords,
+                            long sizeBytes,
+                            List<CaptureSegment> segments) {
+}
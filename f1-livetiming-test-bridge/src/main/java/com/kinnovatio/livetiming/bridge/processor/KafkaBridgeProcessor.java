@@ -1,17 +1,31 @@
 package com.kinnovatio.livetiming.bridge.processor;
 
+import com.kinnovatio.livetiming.bridge.BridgeTarget;
 import com.kinnovatio.livetiming.bridge.GlobalStateManager;
+import com.kinnovatio.livetiming.bridge.capture.CaptureBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.smallrye.common.annotation.RunOnVirtualThread;
-import io.smallrye.reactive.messaging.kafka.Record;
+import io.smallrye.reactive.messaging.kafka.api.OutgoingKafkaRecordMetadata;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import org.eclipse.microprofile.faulttolerance.Retry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.eclipse.microprofile.reactive.messaging.Channel;
 import org.eclipse.microprofile.reactive.messaging.Emitter;
 import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.OnOverflow;
 import org.jboss.logging.Logger;
 
+import java.util.List;
+
 /// Processor for F1 live timing messages from Kafka.
+///
+/// Forwards the raw records to the enabled bridge targets in batches. Each record is consumed once and fanned
+/// out to every target whose [com.kinnovatio.livetiming.bridge.model.BridgeFilter] accepts its category (the
+/// record key). The record values are passed through as bytes, with the original key and headers, so the
+/// bridge never decodes the payload. All records are also written to the [CaptureBuffer], for later replay.
 @ApplicationScoped
 public class KafkaBridgeProcessor {
     private static final Logger LOG = Logger.getLogger(KafkaBridgeProcessor.class);
@@ -20,19 +34,66 @@ public class KafkaBridgeProcessor {
     GlobalStateManager stateManager;
 
     @Inject
+    MeterRegistry registry;
+
+    @Inject
+    CaptureBuffer captureBuffer;
+
+    // Sized to hold a full poll (max.poll.records) for a few targets
+    @Inject
+    @OnOverflow(value = OnOverflow.Strategy.BUFFER, bufferSize = 10_000)
     @Channel("test-f1-raw-out")
-    Emitter<Record<String, String>> testChannelEmitter;
+    Emitter<byte[]> testChannelEmitter;
 
     /// Processes a batch of Kafka records.
     ///
-    /// @param record The Kafka consumer record.
-    /// @throws Exception If an error occurs during database insertion or processing.
+    /// The batch is not retried as a whole: a retry would send the records forwarded before the failure a
+    /// second time. Transient send errors are retried per record by the Kafka producer.
+    ///
+    /// @param records The batch of Kafka consumer records.
+    /// @throws Exception If an error occurs while forwarding the records.
     @Incoming("f1-live-raw-in")
-    @Retry(delay = 100, maxRetries = 5)
     @RunOnVirtualThread
-    public void process(Record<String, String> record) throws Exception {
-        if (stateManager.isBridgeEnabled()) {
-            testChannelEmitter.send(record);
+    public void process(ConsumerRecords<String, byte[]> records) throws Exception {
+        forward(records);
+        captureBuffer.append(records);
+    }
+
+    private void forward(ConsumerRecords<String, byte[]> records) {
+        List<BridgeTarget> activeTargets = stateManager.getActiveTargets();
+        if (activeTargets.isEmpty()) {
+            return;
+        }
+        LOG.debugf("Bridging a batch of %d records to %d targets.", records.count(), activeTargets.size());
+
+        for (ConsumerRecord<String, byte[]> record : records) {
+            String category = record.key() == null ? "Unknown" : record.key();
+            for (BridgeTarget target : activeTargets) {
+                if (!target.accepts(category)) {
+                    Counter.builder("livetiming_test_bridge_record_filtered_total")
+                            .description("Total number of live timing records not forwarded by the bridge.")
+                            .tag("category", category)
+                            .tag("target", target.getName())
+                            .register(registry)
+                            .increment();
+                    continue;
+                }
+
+                testChannelEmitter.send(Message.of(record.value())
+                        .addMetadata(OutgoingKafkaRecordMetadata.<String>builder()
+                                .withTopic(target.getTopic())
+                                .withKey(record.key())
+                                .withHeaders(record.headers())
+                                .build()));
+                target.registerForwarded(record.timestamp());
+
+                Counter.builder("livetiming_test_bridge_record_forwarded_total")
+                        .description("Total number of live timing records forwarded by the bridge.")
+                        .tag("category", category)
+                        .tag("target", target.getName())
+                        .register(registry)
+                        .increment();
+            }
         }
     }
 }
@@ -0,0 +1,116 @@
+package com.kinnovatio.f1.livetiming;
+
+import com.kinnovatio.f1.livetiming.source.DataFeed;
+import com.kinnovatio.f1.livetiming.source.ThroughputMonitor;
+import com.kinnovatio.signalr.messages.LiveTimingRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/// Replays several sessions, or several time-shifted copies of the same session, concurrently.
+///
+/// Each replay runs its own [DataFeed] on its own virtual thread and is started `startOffset` after the
+/// previous one. The session key of replay `i` is rewritten to `key + i * keyOffset` (see [SessionKeyRewriter]),
+/// so the replays are distinct sessions downstream. All replays publish through the same consumer.
+public class ConcurrentReplay implements DataFeed {
+    private static final Logger LOG = LoggerFactory.getLogger(ConcurrentReplay.class);
+
+    private final int replayCount;
+    private final Duration startOffset;
+    private final int keyOffset;
+    private final BiFunction<Integer, Consumer<LiveTimingRecord>, DataFeed> feedFactory;
+    private final Consumer<LiveTimingRecord> consumer;
+
+    private final AtomicBoolean run = new AtomicBoolean(false);
+    private final ThroughputMonitor throughputMonitor = new ThroughputMonitor("All replays");
+    private final List<DataFeed> feeds = new ArrayList<>();
+    private final List<Thread> replayThreads = new ArrayList<>();
+    private CountDownLatch finished = new CountDownLatch(0);
+
+    /// Creates a concurrent replay.
+    ///
+    /// @param replayCount The number of concurrent replays.
+    /// @param startOffset The delay between starting two consecutive replays.
+    /// @param keyOffset The session key offset between two consecutive replays.
+    /// @param feedFactory Creates the feed of replay `i`, emitting to the given consumer.
+    /// @param consumer The shared consumer of all replays.
+    public ConcurrentReplay(int replayCount,
+                            Duration startOffset,
+                            int keyOffset,
+                            BiFunction<Integer, Consumer<LiveTimingRecord>, DataFeed> feedFactory,
+                            Consumer<LiveTimingRecord> consumer) {
+        this.replayCount = replayCount;
+        this.startOffset = startOffset;
+        this.keyOffset = keyOffset;
+        this.feedFactory = feedFactory;
+        this.consumer = consumer;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (run.get()) {
+            LOG.warn("The concurrent replay is already running. Call close() before starting again.");
+            return;
+        }
+        run.set(true);
+        finished = new CountDownLatch(replayCount);
+        feeds.clear();
+        replayThreads.clear();
+        throughputMonitor.start();
+
+        LOG.info("Starting {} concurrent replays, {} apart...", replayCount, startOffset);
+        for (int i = 0; i < replayCount; i++) {
+            final int replayIndex = i;
+            Consumer<LiveTimingRecord> replayConsumer = new SessionKeyRewriter(replayIndex * keyOffset, record -> {
+                consumer.accept(record);
+                throughputMonitor.record(1);
+            });
+            DataFeed feed = feedFactory.apply(replayIndex, replayConsumer);
+            feeds.add(feed);
+            replayThreads.add(Thread.startVirtualThread(() -> runReplay(replayIndex, feed)));
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!run.getAndSet(false)) {
+            return;
+        }
+        LOG.info("Closing down the concurrent replays...");
+        replayThreads.forEach(Thread::interrupt);
+        feeds.forEach(DataFeed::close);
+        throughputMonitor.stop();
+    }
+
+    @Override
+    public boolean awaitCompletion(Duration timeout) throws InterruptedException {
+        return finished.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void runReplay(int replayIndex, DataFeed feed) {
+        try {
+            Thread.sleep(startOffset.multipliedBy(replayIndex));
+            if (!run.get()) {
+                return;
+            }
+            LOG.info("Starting replay {} with session key offset {}.", replayIndex, replayIndex * keyOffset);
+            feed.start();
+            while (run.get() && !feed.awaitCompletion(Duration.ofSeconds(1))) {
+                // Keep waiting for the feed to finish as long as we are running.
+            }
+            LOG.info("Replay {} finished.", replayIndex);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            finished.countDown();
+        }
+    }
+}
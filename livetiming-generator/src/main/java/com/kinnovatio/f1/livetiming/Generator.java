@@ -1,8 +1,12 @@
 package com.kinnovatio.f1.livetiming;
 
+import com.kinnovatio.f1.livetiming.source.BinaryFileDataFeed;
+import com.kinnovatio.f1.livetiming.source.DataFeed;
 import com.kinnovatio.f1.livetiming.source.DbDataFeed;
 import tools.jackson.databind.ObjectMapper;
 import com.kinnovatio.f1.livetiming.source.FileDataFeed;
+import com.kinnovatio.f1.livetiming.source.ReplayClock;
+import com.kinnovatio.f1.livetiming.source.SyntheticDataFeed;
 import com.kinnovatio.signalr.messages.LiveTimingHubResponseMessage;
 import com.kinnovatio.signalr.messages.LiveTimingMessage;
 import com.kinnovatio.signalr.messages.LiveTimingRecord;
@@ -14,7 +18,9 @@ import org.slf4j.LoggerFactory;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 public class Generator {
     private static final Logger LOG = LoggerFactory.getLogger(Generator.class);
@@ -33,10 +39,38 @@ public class Generator {
     private static final int jobDurationSeconds =
             ConfigProvider.getConfig().getOptionalValue("jobDurationSeconds", Integer.class).orElse(7200);
 
+    /// The replay speed relative to the original message stream. `0` replays unthrottled.
+    /// Loaded from the "replay.speedFactor" configuration property.
+    private static final double speedFactor =
+            ConfigProvider.getConfig().getOptionalValue("replay.speedFactor", Double.class).orElse(1.0);
+
+    /// The number of sessions to replay concurrently.
+    /// Loaded from the "replay.concurrent.replays" configuration property.
+    private static final int concurrentReplays =
+            ConfigProvider.getConfig().getOptionalValue("replay.concurrent.replays", Integer.class).orElse(1);
+
+    private static final Duration concurrentStartOffset = Duration.ofSeconds(ConfigProvider.getConfig()
+            .getOptionalValue("replay.concurrent.startOffsetSeconds", Integer.class).orElse(0));
+
+    private static final int concurrentKeyOffset =
+            ConfigProvider.getConfig().getOptionalValue("replay.concurrent.keyOffset", Integer.class).orElse(100000);
+
+    /// The session keys to replay from the DB, one per concurrent replay (repeated if there are more replays
+    /// than keys). If not set, each replay picks its session as a single DB replay would.
+    private static final List<Integer> concurrentSessionKeys = ConfigProvider.getConfig()
+            .getOptionalValues("replay.concurrent.sessionKeys", Integer.class).orElse(List.of());
+
+    /// Flag to control whether the end-to-end latency harness runs alongside the replay.
+    /// Loaded from the "latency.enable" configuration property. Requires Kafka to be enabled.
+    private static final boolean enableLatency =
+            ConfigProvider.getConfig().getOptionalValue("latency.enable", Boolean.class).orElse(false);
+
+    private static volatile LatencyHarness latencyHarness = null;
+
     /// The main entry point for the application.
     /// It initializes and runs the client, catching any unrecoverable exceptions.
     ///
-    /// @param args Command line arguments (not used).
+    /// @param args Command line arguments: `[durationSeconds] [db|file|binary|synthetic] [speedFactor]`. All are optional.
     public static void main(String[] args) {
         try {
             // Execute the main logic
@@ -44,10 +78,12 @@ public class Generator {
             if (args.length > 0) {
                 runDuration = Duration.ofSeconds(Integer.parseInt(args[0]));
             }
-            if (args.length > 1 && args[1].equals("file")) {
-                runFile(runDuration);
+            double replaySpeed = args.length > 2 ? parseSpeedFactor(args[2]) : speedFactor;
+            String source = args.length > 1 ? args[1] : "db";
+            if (concurrentReplays > 1) {
+                runConcurrent(runDuration, source, replaySpeed);
             } else {
-                runDb(runDuration);
+                run(runDuration, source, ReplayClock.fromConfig(replaySpeed));
             }
 
 
@@ -58,51 +94,120 @@ public class Generator {
     }
 
     /// Initializes and starts all application components.
-    /// This includes the SignalR connection, the status HTTP server, the metrics server,
-    /// and the background task for connection management.
-    /// @throws Exception if initialization of the SignalR client fails.
-    private static void runFile(Duration runDuration) throws Exception {
+    /// This includes the data feed and (if enabled) the Kafka producer.
+    /// @throws Exception if the data feed fails.
+    private static void run(Duration runDuration, String source, ReplayClock replayClock) throws Exception {
         LOG.info("Starting container...");
         LOG.info("Will generate data for {} before shutting down.", runDuration);
         LOG.info("Print messages to system out: {}", printMessages);
         LOG.info("Enable Kafka: {}", enableKafka);
+        LOG.info("Replay speed: {}", replayClock.describe());
         if (enableKafka) {
             LOG.info("The data will be published to Kafka");
         }
 
-        LOG.info("Setting up data feed from file...");
-        FileDataFeed fileDataFeed = new FileDataFeed(Generator::processMessage);
+        LOG.info("Setting up data feed from {}...", source);
+        DataFeed dataFeed = createFeed(source, Generator::processMessage, replayClock,
+                ConfigProvider.getConfig().getOptionalValue("source.session.key", Integer.class));
+        startLatencyHarness();
         LOG.info("Start data feed...");
-        fileDataFeed.start();
-        Thread.sleep(runDuration);
-        fileDataFeed.close();
+        dataFeed.start();
+        if (dataFeed.awaitCompletion(runDuration)) {
+            LOG.info("The data feed reached the end of the data set.");
+        }
+        dataFeed.close();
+        stopLatencyHarness();
         LOG.info("Finished job...");
     }
 
-    /// Initializes and starts all application components.
-    /// This includes the SignalR connection, the status HTTP server, the metrics server,
-    /// and the background task for connection management.
-    /// @throws Exception if initialization of the SignalR client fails.
-    private static void runDb(Duration runDuration) throws Exception {
+    /// Replays several sessions concurrently, each with its own feed and replay clock.
+    /// @throws Exception if the replay fails.
+    private static void runConcurrent(Duration runDuration, String source, double replaySpeed) throws Exception {
         LOG.info("Starting container...");
         LOG.info("Will generate data for {} before shutting down.", runDuration);
         LOG.info("Print messages to system out: {}", printMessages);
         LOG.info("Enable Kafka: {}", enableKafka);
-        if (enableKafka) {
-            LOG.info("The data will be published to Kafka");
+        LOG.info("Replay speed: {}", ReplayClock.fromConfig(replaySpeed).describe());
+        LOG.info("Concurrent replays: {}", concurrentReplays);
+
+        LOG.info("Setting up {} concurrent data feeds from {}...", concurrentReplays, source);
+        ConcurrentReplay concurrentReplay = new ConcurrentReplay(concurrentReplays, concurrentStartOffset,
+                concurrentKeyOffset,
+                (replayIndex, consumer) -> createFeed(source, consumer, ReplayClock.fromConfig(replaySpeed),
+                        sessionKeyFor(replayIndex)),
+                Generator::processMessage);
+        startLatencyHarness();
+        LOG.info("Start data feeds...");
+        concurrentReplay.start();
+        if (concurrentReplay.awaitCompletion(runDuration)) {
+            LOG.info("All data feeds reached the end of their data sets.");
         }
-
-        LOG.info("Setting up data feed from DB...");
-        DbDataFeed dbDataFeed = new DbDataFeed(Generator::processMessage);
-        LOG.info("Start data feed...");
-        dbDataFeed.start();
-        Thread.sleep(runDuration);
-        dbDataFeed.close();
+        concurrentReplay.close();
+        stopLatencyHarness();
         LOG.info("Finished job...");
     }
 
+    /// Starts the latency harness, if enabled.
+    private static void startLatencyHarness() throws InterruptedException {
+        if (!enableLatency) {
+            return;
+        }
+        if (!enableKafka) {
+            LOG.warn("The latency harness requires Kafka to be enabled. Will skip latency measurements.");
+            return;
+        }
+        LOG.info("Starting the end-to-end latency harness...");
+        LatencyHarness harness = new LatencyHarness();
+        harness.start();
+        latencyHarness = harness;
+    }
+
+    /// Drains and stops the latency harness and logs its report, if it is running.
+    private static void stopLatencyHarness() throws InterruptedException {
+        LatencyHarness harness = latencyHarness;
+        if (harness == null) {
+            return;
+        }
+        latencyHarness = null;
+        harness.stopAndReport();
+    }
+
+    /// Creates the data feed for a source.
+    ///
+    /// @param source The source: `file`, `binary`, `synthetic` or `db`.
+    /// @param consumer The consumer of the feed's records.
+    /// @param replayClock The clock controlling the replay speed.
+    /// @param sessionKey The session to replay (DB source only).
+    /// @return The data feed.
+    private static DataFeed createFeed(String source,
+                                       Consumer<LiveTimingRecord> consumer,
+                                       ReplayClock replayClock,
+                                       Optional<Integer> sessionKey) {
+        return switch (source) {
+            case "file" -> new FileDataFeed(consumer, replayClock);
+            case "binary" -> new BinaryFileDataFeed(consumer, replayClock);
+            case "synthetic" -> new SyntheticDataFeed(consumer, replayClock);
+            default -> new DbDataFeed(consumer, replayClock, sessionKey);
+        };
+    }
 
-    /// The primary callback method for processing all data received from the [FileDataFeed].
+    /// Returns the configured session key of a concurrent DB replay, if any.
+    private static Optional<Integer> sessionKeyFor(int replayIndex) {
+        if (concurrentSessionKeys.isEmpty()) {
+            return ConfigProvider.getConfig().getOptionalValue("source.session.key", Integer.class);
+        }
+        return Optional.of(concurrentSessionKeys.get(replayIndex % concurrentSessionKeys.size()));
+    }
+
+    /// Parses a speed factor argument. `max` is accepted as an alias for unthrottled replay.
+    private static double parseSpeedFactor(String argument) {
+        if (argument.equalsIgnoreCase("max")) {
+            return 0;
+        }
+        return Double.parseDouble(argument.endsWith("x") ? argument.substring(0, argument.length() - 1) : argument);
+    }
+
+    /// The primary callback method for processing all data received from the [DataFeed].
     ///
     /// @param message The [LiveTimingRecord] received from the hub, which can be a single message
     ///                or a container for multiple messages.
@@ -130,6 +235,11 @@ public class Generator {
         }
         if (enableKafka) {
             KafkaProducer.getInstance().publish(message);
+            // Only count the records the router forwards to the processed topic
+            LatencyHarness harness = latencyHarness;
+            if (harness != null && LatencyHarness.isForwarded(message)) {
+                harness.registerSent(message.category());
+            }
         }
     }
 }
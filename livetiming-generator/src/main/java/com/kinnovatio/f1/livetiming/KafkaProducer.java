@@ -42,6 +42,11 @@ public class KafkaProducer {
     private static final String kafkaClientId =
             ConfigProvider.getConfig().getValue("target.kafka.clientId", String.class);
 
+    /// Flag to control whether records are stamped with their send time for the latency harness.
+    /// Loaded from the "latency.enable" configuration property.
+    private static final boolean stampSendTime =
+            ConfigProvider.getConfig().getOptionalValue("latency.enable", Boolean.class).orElse(false);
+
     private static KafkaProducer instance = null;
 
     private org.apache.kafka.clients.producer.KafkaProducer<String, String> producer = null;
@@ -71,9 +76,10 @@ public class KafkaProducer {
     }
 
     /// Gets the singleton instance of the KafkaProducer.
+    /// The instance is shared by all feeds, also when several replays run concurrently.
     ///
     /// @return The singleton [KafkaProducer] instance.
-    public static KafkaProducer getInstance() {
+    public static synchronized KafkaProducer getInstance() {
         if (instance == null) {
             instance = new KafkaProducer();
         }
@@ -82,13 +88,18 @@ public class KafkaProducer {
 
     /// Serializes and publishes a [LiveTimingMessage] to the configured Kafka topic.
     /// The message's category is used as the Kafka record key.
-    /// The message's timestamp and type are added as Kafka headers.
+    /// The message's timestamp and type are added as Kafka headers. If the latency harness is enabled,
+    /// the send time is added as well (see [LatencyHarness#sendTimeHeader]).
     ///
     /// @param message The [LiveTimingMessage] to publish.
     public void publish(LiveTimingMessage message) {
         List<Header> headers = new ArrayList<>();
         headers.add(new RecordHeader("timestamp", message.timestamp().toString().getBytes()));
         headers.add(new RecordHeader("messageType", "LiveTimingMessage".getBytes()));
+        if (stampSendTime) {
+            headers.add(new RecordHeader(LatencyHarness.sendTimeHeader,
+                    Long.toString(LatencyHarness.nowMicros()).getBytes()));
+        }
 
         try {
                 publish(message.category(), objectMapper.writeValueAsString(message), headers);
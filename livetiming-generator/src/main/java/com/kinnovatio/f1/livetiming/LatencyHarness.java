@@ -0,0 +1,302 @@
+package com.kinnovatio.f1.livetiming;
+
+import com.kinnovatio.signalr.messages.LiveTimingMessage;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/// Measures the end-to-end latency from the generator, through the live timing router, to the processed topic.
+///
+/// When enabled (`latency.enable`), the [KafkaProducer] stamps every record with its send time in the
+/// `generator-send-time` header and the router copies that header to the processed record. The harness
+/// consumes the processed topic in parallel with the replay, computes the latency of every record carrying the
+/// header, and logs latency percentiles and throughput per category when the run ends.
+///
+/// Only the records the router forwards to the processed topic are counted as sent, see [#isForwarded].
+///
+/// Both timestamps are taken by this JVM, so the measurement does not depend on clock sync between hosts.
+public class LatencyHarness {
+    private static final Logger LOG = LoggerFactory.getLogger(LatencyHarness.class);
+
+    /// The header carrying the send time, in microseconds since the epoch.
+    static final String sendTimeHeader = "generator-send-time";
+
+    private static final double[] percentiles = {50, 90, 99, 99.9};
+
+    /// The categories the live timing router discards. Keep in sync with the router.
+    private static final Set<String> excludeCategories = Set.of("Heartbeat");
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final String bootstrapHost =
+            ConfigProvider.getConfig().getValue("target.kafka.bootstrapHost", String.class);
+    private final String processedTopic = ConfigProvider.getConfig()
+            .getOptionalValue("latency.processedTopic", String.class).orElse("test-f1-live-processed");
+    private final Duration drainTimeout = Duration.ofSeconds(ConfigProvider.getConfig()
+            .getOptionalValue("latency.drainSeconds", Integer.class).orElse(10));
+
+    private final Map<String, LongAdder> sentCounts = new ConcurrentHashMap<>();
+    private final LongAdder totalSent = new LongAdder();
+    private final AtomicLong totalReceived = new AtomicLong(0);
+
+    // Only touched by the consumer thread until it has stopped
+    private final Map<String, LatencySamples> receivedSamples = new TreeMap<>();
+    private long firstReceivedNanos = -1;
+    private long lastReceivedNanos = -1;
+
+    private final AtomicBoolean run = new AtomicBoolean(false);
+    private final CountDownLatch assigned = new CountDownLatch(1);
+    private Thread consumerThread = null;
+
+    /// Returns the current wall clock time in microseconds since the epoch.
+    static long nowMicros() {
+        Instant now = Instant.now();
+        return now.getEpochSecond() * 1_000_000L + now.getNano() / 1_000;
+    }
+
+    /// Starts consuming the processed topic. Blocks until the consumer has its partitions assigned and is
+    /// positioned at the end of the topic, so no record of the run is missed.
+    ///
+    /// @throws InterruptedException If the thread is interrupted while waiting.
+    /// @throws IllegalStateException If the consumer does not get an assignment within 30 seconds.
+    public void start() throws InterruptedException {
+        run.set(true);
+        consumerThread = Thread.startVirtualThread(this::consume);
+        if (!assigned.await(30, TimeUnit.SECONDS)) {
+            run.set(false);
+            throw new IllegalStateException("The latency harness did not get a partition assignment for "
+                    + processedTopic);
+        }
+        LOG.info("Latency harness is consuming {}.", processedTopic);
+    }
+
+    /// Returns `true` if the router forwards the message to the processed topic: a streaming, non-empty message
+    /// of a category the router does not discard.
+    ///
+    /// The router publishes the `TimingData` segments on a separate topic and removes them from the processed
+    /// record, dropping the updates that only carried segments. Keep in sync with the router and
+    /// `SegmentStatusTracker.removeSegments` in the processor.
+    public static boolean isForwarded(LiveTimingMessage message) {
+        if (!message.isStreaming()
+                || message.message().isEmpty()
+                || excludeCategories.contains(message.category())) {
+            return false;
+        }
+        if (!"TimingData".equals(message.category())) {
+            return true;
+        }
+        try {
+            return hasContentBesideSegments(objectMapper.readTree(message.message()));
+        } catch (JacksonException e) {
+            // The router discards what it cannot parse, but counting it shows up as loss in the report
+            return true;
+        }
+    }
+
+    /// Returns `true` if a timing data document has content left once the segments are removed.
+    static boolean hasContentBesideSegments(JsonNode root) {
+        JsonNode lines = property(root, "Lines");
+        if (!lines.isObject()) {
+            return !root.isEmpty();
+        }
+        if (root.size() > 1) {
+            return true;
+        }
+        for (Map.Entry<String, JsonNode> line : lines.properties()) {
+            if (!line.getValue().isObject()) {
+                return true;
+            }
+            for (Map.Entry<String, JsonNode> lineProperty : line.getValue().properties()) {
+                if (!"sectors".equalsIgnoreCase(lineProperty.getKey()) || !lineProperty.getValue().isObject()) {
+                    return true;
+                }
+                for (Map.Entry<String, JsonNode> sector : lineProperty.getValue().properties()) {
+                    if (!sector.getValue().isObject()) {
+                        return true;
+                    }
+                    for (Map.Entry<String, JsonNode> sectorProperty : sector.getValue().properties()) {
+                        if (!"segments".equalsIgnoreCase(sectorProperty.getKey())) {
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /// Returns a property by name, in Pascal case (as published by the feed) or camel case.
+    private static JsonNode property(JsonNode node, String pascalCaseName) {
+        JsonNode value = node.path(pascalCaseName);
+        return value.isMissingNode()
+                ? node.path(Character.toLowerCase(pascalCaseName.charAt(0)) + pascalCaseName.substring(1))
+                : value;
+    }
+
+    /// Registers a record published by the generator that is expected on the processed topic.
+    ///
+    /// @param category The category of the record.
+    public void registerSent(String category) {
+        sentCounts.computeIfAbsent(category, c -> new LongAdder()).increment();
+        totalSent.increment();
+    }
+
+    /// Waits for the in-flight records to arrive (up to `latency.drainSeconds`), stops the consumer and logs
+    /// the latency report.
+    ///
+    /// @throws InterruptedException If the thread is interrupted while waiting.
+    public void stopAndReport() throws InterruptedException {
+        long deadline = System.nanoTime() + drainTimeout.toNanos();
+        while (totalReceived.get() < totalSent.sum() && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+        run.set(false);
+        if (consumerThread != null) {
+            consumerThread.join(Duration.ofSeconds(5));
+        }
+        logReport();
+    }
+
+    private void consume() {
+        Properties props = new Properties();
+        props.put("bootstrap.servers", bootstrapHost);
+        props.put("group.id", "livetiming-generator-latency-" + UUID.randomUUID());
+        props.put("key.deserializer", "org.apache.kafka.common.serialization.StringDeserializer");
+        props.put("value.deserializer", "org.apache.kafka.common.serialization.StringDeserializer");
+        props.put("enable.auto.commit", "false");
+        props.put("auto.offset.reset", "latest");
+
+        try (KafkaConsumer<String, String> consumer = new KafkaConsumer<>(props)) {
+            consumer.subscribe(List.of(processedTopic), new ConsumerRebalanceListener() {
+                @Override
+                public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+                }
+
+                @Override
+                public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+                    consumer.seekToEnd(partitions);
+                    partitions.forEach(consumer::position);
+                    assigned.countDown();
+                }
+            });
+
+            while (run.get()) {
+                ConsumerRecords<String, String> records = consumer.poll(Duration.ofMillis(100));
+                long receivedMicros = nowMicros();
+                long receivedNanos = System.nanoTime();
+                for (ConsumerRecord<String, String> record : records) {
+                    Header header = record.headers().lastHeader(sendTimeHeader);
+                    if (header == null) {
+                        continue;
+                    }
+                    long sendMicros = Long.parseLong(new String(header.value(), StandardCharsets.UTF_8));
+                    receivedSamples.computeIfAbsent(record.key() == null ? "Unknown" : record.key(),
+                            c -> new LatencySamples()).add(receivedMicros - sendMicros);
+                    if (firstReceivedNanos < 0) {
+                        firstReceivedNanos = receivedNanos;
+                    }
+                    lastReceivedNanos = receivedNanos;
+                    totalReceived.incrementAndGet();
+                }
+            }
+        } catch (Exception e) {
+            LOG.error("Latency harness consumer failed: {}", e.toString());
+        }
+    }
+
+    private void logReport() {
+        double windowSeconds = firstReceivedNanos < 0
+                ? 0 : Math.max(lastReceivedNanos - firstReceivedNanos, 1_000_000L) / 1e9;
+        LOG.info("End-to-end latency report (generator -> router -> {}). Latencies in ms.", processedTopic);
+        LOG.info(String.format("%-24s %9s %9s %8s %8s %8s %8s %8s %10s",
+                "category", "sent", "received", "p50", "p90", "p99", "p99.9", "max", "records/s"));
+
+        LatencySamples all = new LatencySamples();
+        TreeMap<String, LongAdder> sentByCategory = new TreeMap<>(sentCounts);
+        receivedSamples.keySet().forEach(category -> sentByCategory.putIfAbsent(category, new LongAdder()));
+        for (Map.Entry<String, LongAdder> entry : sentByCategory.entrySet()) {
+            LatencySamples samples = receivedSamples.getOrDefault(entry.getKey(), new LatencySamples());
+            all.addAll(samples);
+            logLine(entry.getKey(), entry.getValue().sum(), samples, windowSeconds);
+        }
+        logLine("All", totalSent.sum(), all, windowSeconds);
+    }
+
+    private void logLine(String category, long sent, LatencySamples samples, double windowSeconds) {
+        samples.sort();
+        LOG.info(String.format("%-24s %9d %9d %8.2f %8.2f %8.2f %8.2f %8.2f %10.1f",
+                category, sent, samples.size(),
+                samples.percentile(percentiles[0]) / 1000d,
+                samples.percentile(percentiles[1]) / 1000d,
+                samples.percentile(percentiles[2]) / 1000d,
+                samples.percentile(percentiles[3]) / 1000d,
+                samples.max() / 1000d,
+                windowSeconds == 0 ? 0 : samples.size() / windowSeconds));
+    }
+
+    /// A growable array of latency samples, in microseconds.
+    private static final class LatencySamples {
+        private long[] values = new long[1024];
+        private int size = 0;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void addAll(LatencySamples other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.values[i]);
+            }
+        }
+
+        int size() {
+            return size;
+        }
+
+        void sort() {
+            Arrays.sort(values, 0, size);
+        }
+
+        /// Nearest-rank percentile. The samples must be sorted.
+        long percentile(double percentile) {
+            if (size == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(percentile / 100d * size);
+            return values[Math.clamp(rank - 1, 0, size - 1)];
+        }
+
+        long max() {
+            return size == 0 ? 0 : values[size - 1];
+        }
+    }
+}
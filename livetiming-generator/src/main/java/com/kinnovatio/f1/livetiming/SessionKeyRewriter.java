@@ -0,0 +1,70 @@
+package com.kinnovatio.f1.livetiming;
+
+import com.kinnovatio.signalr.messages.LiveTimingHubResponseMessage;
+import com.kinnovatio.signalr.messages.LiveTimingMessage;
+import com.kinnovatio.signalr.messages.LiveTimingRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.node.ObjectNode;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/// Rewrites the session key of `SessionInfo` messages before passing the records on to a consumer.
+///
+/// Used when several copies of a recording are replayed concurrently, so each copy shows up downstream
+/// as a distinct session. All other categories are passed through untouched.
+public class SessionKeyRewriter implements Consumer<LiveTimingRecord> {
+    private static final Logger LOG = LoggerFactory.getLogger(SessionKeyRewriter.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final String sessionInfoCategory = "SessionInfo";
+
+    private final int keyOffset;
+    private final Consumer<LiveTimingRecord> consumer;
+
+    /// Creates a rewriter.
+    ///
+    /// @param keyOffset The value added to the original session key. `0` passes the key through.
+    /// @param consumer The consumer of the rewritten records.
+    public SessionKeyRewriter(int keyOffset, Consumer<LiveTimingRecord> consumer) {
+        this.keyOffset = keyOffset;
+        this.consumer = consumer;
+    }
+
+    @Override
+    public void accept(LiveTimingRecord record) {
+        if (keyOffset == 0) {
+            consumer.accept(record);
+            return;
+        }
+
+        switch (record) {
+            case LiveTimingHubResponseMessage hubResponse -> consumer.accept(new LiveTimingHubResponseMessage(
+                    hubResponse.messages().stream().map(this::rewrite).toList(),
+                    hubResponse.timestamp()));
+            case LiveTimingMessage timingMessage -> consumer.accept(rewrite(timingMessage));
+        }
+    }
+
+    private LiveTimingMessage rewrite(LiveTimingMessage message) {
+        if (!message.category().equals(sessionInfoCategory)) {
+            return message;
+        }
+        try {
+            JsonNode root = objectMapper.readTree(message.message());
+            // Streaming updates may only carry the changed fields
+            if (!(root instanceof ObjectNode sessionInfo) || !sessionInfo.path("Key").isNumber()) {
+                return message;
+            }
+            sessionInfo.put("Key", sessionInfo.path("Key").asInt() + keyOffset);
+            return new LiveTimingMessage(message.category(), objectMapper.writeValueAsString(sessionInfo),
+                    message.timestamp(), message.isStreaming());
+        } catch (JacksonException e) {
+            LOG.warn("Unable to rewrite the session key of a SessionInfo message: {}", e.getMessage());
+            return message;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.kinnovatio.f1.livetiming.replay;
+
+import com.kinnovatio.f1.livetiming.source.KeysetMessageReader;
+import com.kinnovatio.f1.livetiming.source.Parser;
+import com.kinnovatio.f1.livetiming.source.SessionWindow;
+import com.kinnovatio.signalr.messages.LiveTimingHubResponseMessage;
+import com.kinnovatio.signalr.messages.LiveTimingMessage;
+import com.kinnovatio.signalr.messages.LiveTimingRecord;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/// Converts a recorded session into the binary replay format (see [ReplayFileFormat]).
+///
+/// Usage:
+/// ```
+/// ReplayFileConverter <output> file <received-messages.log>
+/// ReplayFileConverter <output> db <sessionKey>
+/// ReplayFileConverter <output> db <from> [to]
+/// ```
+/// The DB source uses the `source.jdbc.*` settings. Block compression and size are set by
+/// `replay.binary.compress` and `replay.binary.blockSizeBytes`.
+public class ReplayFileConverter {
+    private static final Logger LOG = LoggerFactory.getLogger(ReplayFileConverter.class);
+
+    private static final boolean compress =
+            ConfigProvider.getConfig().getOptionalValue("replay.binary.compress", Boolean.class).orElse(true);
+    private static final int blockSize = ConfigProvider.getConfig()
+            .getOptionalValue("replay.binary.blockSizeBytes", Integer.class).orElse(256 * 1024);
+
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            LOG.error("Usage: ReplayFileConverter <output> file <input.log> | <output> db <sessionKey | from [to]>");
+            System.exit(1);
+        }
+        Path output = Path.of(args[0]);
+        long start = System.nanoTime();
+        try (ReplayFileWriter writer = new ReplayFileWriter(output, compress, blockSize)) {
+            switch (args[1]) {
+                case "file" -> convertLogFile(Path.of(args[2]), writer);
+                case "db" -> convertDb(args, writer);
+                default -> throw new IllegalArgumentException("Unknown source: " + args[1]);
+            }
+            LOG.info("Converted {} records to {} in {} ms.", writer.getRecordCount(), output,
+                    Duration.ofNanos(System.nanoTime() - start).toMillis());
+        } catch (Exception e) {
+            LOG.error("Unrecoverable error. Will exit. {}", e.toString());
+            System.exit(1);
+        }
+    }
+
+    /// Converts a received-messages log (one raw SignalR message per line).
+    private static void convertLogFile(Path input, ReplayFileWriter writer) throws IOException {
+        LOG.info("Converting the message log {}...", input);
+        try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                for (LiveTimingRecord record : Parser.parseSignalRMessage(line)) {
+                    switch (record) {
+                        case LiveTimingHubResponseMessage hubResponse -> {
+                            for (LiveTimingMessage message : hubResponse.messages()) {
+                                writer.append(message);
+                            }
+                        }
+                        case LiveTimingMessage message -> writer.append(message);
+                    }
+                }
+            }
+        }
+    }
+
+    /// Converts a session window of the raw message table.
+    private static void convertDb(String[] args, ReplayFileWriter writer) throws Exception {
+        String jdbcUrl = ConfigProvider.getConfig().getValue("source.jdbc.url", String.class);
+        String username = ConfigProvider.getConfig().getValue("source.jdbc.username", String.class);
+        String password = ConfigProvider.getConfig().getValue("source.jdbc.password", String.class);
+        String dbTable = ConfigProvider.getConfig().getValue("source.jdbc.table", String.class);
+
+        SessionWindow sessionWindow;
+        if (args[2].chars().allMatch(Character::isDigit)) {
+            try (Connection conn = DriverManager.getConnection(jdbcUrl, username, password)) {
+                sessionWindow = SessionWindow.forSessionKey(conn, dbTable, Integer.parseInt(args[2]));
+            }
+        } else {
+            sessionWindow = new SessionWindow("time window", Instant.parse(args[2]),
+                    args.length > 3 ? Instant.parse(args[3]) : null);
+        }
+        LOG.info("Converting {} ({} to {})...", sessionWindow.description(), sessionWindow.from(),
+                sessionWindow.to() == null ? "end of table" : sessionWindow.to());
+
+        KeysetMessageReader reader = new KeysetMessageReader(jdbcUrl, username, password, dbTable,
+                sessionWindow, 5000, 4);
+        reader.start();
+        try {
+            List<LiveTimingMessage> page;
+            while ((page = reader.nextPage(1000)) == null || !page.isEmpty()) {
+                if (page == null) {
+                    continue;
+                }
+                for (LiveTimingMessage message : page) {
+                    writer.append(message);
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+}
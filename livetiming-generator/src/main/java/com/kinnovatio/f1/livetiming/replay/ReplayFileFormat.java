@@ -0,0 +1,40 @@
+package com.kinnovatio.f1.livetiming.replay;
+
+/// Layout constants of the binary replay file format.
+///
+/// All numbers are big-endian. A file is laid out as:
+/// ```
+/// header     : int magic, short version, short flags
+/// block*     : int recordCount, int rawLength, int storedLength, byte[storedLength] data
+/// dictionary : int categoryCount, (short length, byte[length] utf8 category)*
+/// index      : int blockCount, (long watermarkMillis, long blockOffset, long firstRecordNumber)*
+/// footer     : long dictionaryOffset, long indexOffset, long recordCount, int magic
+/// ```
+/// The (optionally deflated) block data is a sequence of length-prefixed records:
+/// ```
+/// record     : int length, long timestampMillis, short categoryId, byte recordFlags, byte[] utf8 message
+/// ```
+/// where `length` covers everything after the length field itself.
+///
+/// The index watermark of a block is the highest record timestamp seen up to and including the first record
+/// of the block. Watermarks never decrease, so the index can be binary searched by time even though the
+/// snapshot records at the start of a recording are not strictly ordered.
+final class ReplayFileFormat {
+    static final int MAGIC = 0x4C545242; // "LTRB"
+    static final short VERSION = 1;
+
+    /// File flag: the block data is deflated.
+    static final short FLAG_DEFLATE = 0x1;
+
+    /// Record flag: the record is from the streaming feed (as opposed to the initial state snapshot).
+    static final byte RECORD_FLAG_STREAMING = 0x1;
+
+    static final int HEADER_SIZE = 4 + 2 + 2;
+    static final int BLOCK_HEADER_SIZE = 4 + 4 + 4;
+    static final int RECORD_HEADER_SIZE = 8 + 2 + 1;
+    static final int INDEX_ENTRY_SIZE = 8 + 8 + 8;
+    static final int FOOTER_SIZE = 8 + 8 + 8 + 4;
+
+    private ReplayFileFormat() {
+    }
+}
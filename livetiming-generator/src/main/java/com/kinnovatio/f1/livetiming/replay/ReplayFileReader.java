@@ -0,0 +1,239 @@
+package com.kinnovatio.f1.livetiming.replay;
+
+import com.kinnovatio.signalr.messages.LiveTimingMessage;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/// Reads a binary replay file through a memory mapping. See [ReplayFileFormat] for the layout.
+///
+/// Opening a file only reads the footer, the category dictionary and the block index; the blocks themselves
+/// are paged in by the OS as they are read. [#cursorFrom(Instant)] binary searches the index, so seeking to
+/// any point of a session only touches the block containing that point.
+///
+/// The reader is thread-safe: every cursor keeps its own position, so several cursors can replay the same
+/// file concurrently.
+public class ReplayFileReader implements AutoCloseable {
+    private final Arena arena;
+    private final MemorySegment segment;
+    private final boolean compressed;
+    private final String[] categories;
+    private final long[] indexWatermarks;
+    private final long[] indexOffsets;
+    private final long recordCount;
+
+    private ReplayFileReader(Arena arena, MemorySegment segment) throws IOException {
+        this.arena = arena;
+        this.segment = segment;
+        if (segment.byteSize() < ReplayFileFormat.HEADER_SIZE + ReplayFileFormat.FOOTER_SIZE) {
+            throw new IOException("The file is too small to be a replay file");
+        }
+
+        ByteBuffer header = slice(0, ReplayFileFormat.HEADER_SIZE);
+        if (header.getInt() != ReplayFileFormat.MAGIC) {
+            throw new IOException("The file is not a replay file");
+        }
+        short version = header.getShort();
+        if (version != ReplayFileFormat.VERSION) {
+            throw new IOException("Unsupported replay file version: " + version);
+        }
+        this.compressed = (header.getShort() & ReplayFileFormat.FLAG_DEFLATE) != 0;
+
+        ByteBuffer footer = slice(segment.byteSize() - ReplayFileFormat.FOOTER_SIZE, ReplayFileFormat.FOOTER_SIZE);
+        long dictionaryOffset = footer.getLong();
+        long indexOffset = footer.getLong();
+        this.recordCount = footer.getLong();
+        if (footer.getInt() != ReplayFileFormat.MAGIC) {
+            throw new IOException("The replay file is truncated (missing footer)");
+        }
+
+        ByteBuffer dictionary = slice(dictionaryOffset, indexOffset - dictionaryOffset);
+        this.categories = new String[dictionary.getInt()];
+        for (int i = 0; i < categories.length; i++) {
+            byte[] name = new byte[dictionary.getShort()];
+            dictionary.get(name);
+            categories[i] = new String(name, StandardCharsets.UTF_8);
+        }
+
+        ByteBuffer index = slice(indexOffset, segment.byteSize() - ReplayFileFormat.FOOTER_SIZE - indexOffset);
+        int blockCount = index.getInt();
+        this.indexWatermarks = new long[blockCount];
+        this.indexOffsets = new long[blockCount];
+        for (int i = 0; i < blockCount; i++) {
+            indexWatermarks[i] = index.getLong();
+            indexOffsets[i] = index.getLong();
+            index.getLong(); // first record number, not needed for reading
+        }
+    }
+
+    /// Opens and maps a replay file.
+    ///
+    /// @param path The replay file.
+    /// @return The reader. Close it to unmap the file.
+    /// @throws IOException If the file cannot be read or is not a valid replay file.
+    public static ReplayFileReader open(Path path) throws IOException {
+        Arena arena = Arena.ofShared();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MemorySegment segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+            return new ReplayFileReader(arena, segment);
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    /// Returns the total number of records in the file.
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    /// Returns the number of blocks in the file.
+    public int getBlockCount() {
+        return indexOffsets.length;
+    }
+
+    /// Returns the timestamp of the first record in the file, or `null` if the file is empty.
+    public Instant getFirstTimestamp() {
+        return indexWatermarks.length == 0 ? null : Instant.ofEpochMilli(indexWatermarks[0]);
+    }
+
+    /// Returns a cursor positioned at the first record of the file.
+    public Cursor cursor() {
+        return new Cursor(0, Long.MIN_VALUE);
+    }
+
+    /// Returns a cursor positioned at the first record with a timestamp at or after `from`.
+    ///
+    /// @param from The point in the session to seek to.
+    /// @return The cursor.
+    public Cursor cursorFrom(Instant from) {
+        long fromMillis = from.toEpochMilli();
+        // Find the last block whose watermark is before the seek point. A watermark covers every earlier record,
+        // so no earlier block holds a record at or after the seek point. A block whose watermark equals the seek
+        // point may follow records with that timestamp at the end of the previous block.
+        int low = 0;
+        int high = indexWatermarks.length - 1;
+        int block = 0;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (indexWatermarks[mid] < fromMillis) {
+                block = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return new Cursor(block, fromMillis);
+    }
+
+    @Override
+    public void close() {
+        arena.close();
+    }
+
+    private ByteBuffer slice(long offset, long length) {
+        return segment.asSlice(offset, length).asByteBuffer().order(ByteOrder.BIG_ENDIAN);
+    }
+
+    /// A forward-only position in a replay file. Not thread-safe; use one cursor per thread.
+    ///
+    /// Close the cursor to release its inflater when it is not read to the end.
+    public class Cursor implements AutoCloseable {
+        private final Inflater inflater = compressed ? new Inflater() : null;
+        private long skipBeforeMillis;
+        private int nextBlock;
+        private ByteBuffer block = null;
+        private int blockRecordsLeft = 0;
+
+        private Cursor(int firstBlock, long skipBeforeMillis) {
+            this.nextBlock = firstBlock;
+            this.skipBeforeMillis = skipBeforeMillis;
+        }
+
+        /// Reads the next record.
+        ///
+        /// @return The next record, or `null` at the end of the file.
+        /// @throws IOException If a block cannot be decompressed.
+        public LiveTimingMessage next() throws IOException {
+            while (true) {
+                if (blockRecordsLeft == 0 && !loadNextBlock()) {
+                    return null;
+                }
+                blockRecordsLeft--;
+                int length = block.getInt();
+                long timestampMillis = block.getLong();
+                short categoryId = block.getShort();
+                byte flags = block.get();
+                int payloadLength = length - ReplayFileFormat.RECORD_HEADER_SIZE;
+                if (timestampMillis < skipBeforeMillis) {
+                    // Still before the seek point
+                    block.position(block.position() + payloadLength);
+                    continue;
+                }
+                // The seek point is reached. Later records are returned as recorded, even if out of order.
+                skipBeforeMillis = Long.MIN_VALUE;
+
+                byte[] payload = new byte[payloadLength];
+                block.get(payload);
+                return new LiveTimingMessage(
+                        categories[categoryId],
+                        new String(payload, StandardCharsets.UTF_8),
+                        Instant.ofEpochMilli(timestampMillis),
+                        (flags & ReplayFileFormat.RECORD_FLAG_STREAMING) != 0);
+            }
+        }
+
+        private boolean loadNextBlock() throws IOException {
+            if (nextBlock >= indexOffsets.length) {
+                close();
+                return false;
+            }
+            long offset = indexOffsets[nextBlock++];
+            ByteBuffer blockHeader = slice(offset, ReplayFileFormat.BLOCK_HEADER_SIZE);
+            blockRecordsLeft = blockHeader.getInt();
+            int rawLength = blockHeader.getInt();
+            int storedLength = blockHeader.getInt();
+            ByteBuffer stored = slice(offset + ReplayFileFormat.BLOCK_HEADER_SIZE, storedLength);
+            if (!compressed) {
+                block = stored;
+                return true;
+            }
+
+            // Inflate straight from the mapped memory into a heap buffer
+            ByteBuffer raw = ByteBuffer.allocate(rawLength);
+            inflater.reset();
+            inflater.setInput(stored);
+            try {
+                while (raw.hasRemaining() && !inflater.finished()) {
+                    if (inflater.inflate(raw) == 0 && inflater.needsInput()) {
+                        break;
+                    }
+                }
+            } catch (DataFormatException e) {
+                throw new IOException("Corrupt block at offset " + offset, e);
+            }
+            if (raw.hasRemaining()) {
+                throw new IOException("Truncated block at offset " + offset);
+            }
+            block = raw.flip();
+            return true;
+        }
+
+        @Override
+        public void close() {
+            if (inflater != null) {
+                inflater.end();
+            }
+        }
+    }
+}
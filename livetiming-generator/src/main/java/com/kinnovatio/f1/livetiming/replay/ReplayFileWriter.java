@@ -0,0 +1,167 @@
+package com.kinnovatio.f1.livetiming.replay;
+
+import com.kinnovatio.signalr.messages.LiveTimingMessage;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/// Writes live timing messages to a binary replay file. See [ReplayFileFormat] for the layout.
+///
+/// Messages are buffered into blocks of roughly `blockSize` bytes. Each block is (optionally) deflated
+/// and gets an entry in the timestamp index, which is written together with the category dictionary
+/// when the writer is closed.
+public class ReplayFileWriter implements AutoCloseable {
+    private final DataOutputStream output;
+    private final boolean compress;
+    private final int blockSize;
+
+    private final Map<String, Short> categoryIds = new HashMap<>();
+    private final List<String> categories = new ArrayList<>();
+    private final List<long[]> index = new ArrayList<>();
+
+    private final ByteArrayOutputStream blockBuffer;
+    private final DataOutputStream block;
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+
+    private long position = 0;
+    private long recordCount = 0;
+    private long watermarkMillis = Long.MIN_VALUE;
+    private int blockRecordCount = 0;
+
+    /// Creates a writer, truncating any existing file.
+    ///
+    /// @param path The file to write.
+    /// @param compress `true` to deflate the blocks.
+    /// @param blockSize The target uncompressed block size in bytes.
+    /// @throws IOException If the file cannot be created.
+    public ReplayFileWriter(Path path, boolean compress, int blockSize) throws IOException {
+        this.output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16));
+        this.compress = compress;
+        this.blockSize = blockSize;
+        this.blockBuffer = new ByteArrayOutputStream(blockSize + (blockSize >> 2));
+        this.block = new DataOutputStream(blockBuffer);
+
+        output.writeInt(ReplayFileFormat.MAGIC);
+        output.writeShort(ReplayFileFormat.VERSION);
+        output.writeShort(compress ? ReplayFileFormat.FLAG_DEFLATE : 0);
+        position += ReplayFileFormat.HEADER_SIZE;
+    }
+
+    /// Appends a message to the file.
+    ///
+    /// @param message The message to append.
+    /// @throws IOException If writing fails.
+    public void append(LiveTimingMessage message) throws IOException {
+        long timestampMillis = message.timestamp().toEpochMilli();
+        watermarkMillis = Math.max(watermarkMillis, timestampMillis);
+        if (blockRecordCount == 0) {
+            index.add(new long[] {watermarkMillis, position, recordCount});
+        }
+
+        byte[] payload = message.message().getBytes(StandardCharsets.UTF_8);
+        block.writeInt(ReplayFileFormat.RECORD_HEADER_SIZE + payload.length);
+        block.writeLong(timestampMillis);
+        block.writeShort(categoryId(message.category()));
+        block.writeByte(message.isStreaming() ? ReplayFileFormat.RECORD_FLAG_STREAMING : 0);
+        block.write(payload);
+        blockRecordCount++;
+        recordCount++;
+
+        if (blockBuffer.size() >= blockSize) {
+            flushBlock();
+        }
+    }
+
+    /// Returns the number of records appended so far.
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flushBlock();
+
+            long dictionaryOffset = position;
+            output.writeInt(categories.size());
+            position += 4;
+            for (String category : categories) {
+                byte[] name = category.getBytes(StandardCharsets.UTF_8);
+                output.writeShort(name.length);
+                output.write(name);
+                position += 2 + name.length;
+            }
+
+            long indexOffset = position;
+            output.writeInt(index.size());
+            for (long[] entry : index) {
+                output.writeLong(entry[0]);
+                output.writeLong(entry[1]);
+                output.writeLong(entry[2]);
+            }
+
+            output.writeLong(dictionaryOffset);
+            output.writeLong(indexOffset);
+            output.writeLong(recordCount);
+            output.writeInt(ReplayFileFormat.MAGIC);
+        } finally {
+            deflater.end();
+            output.close();
+        }
+    }
+
+    private short categoryId(String category) {
+        Short id = categoryIds.get(category);
+        if (id == null) {
+            if (categories.size() >= Short.MAX_VALUE) {
+                throw new IllegalStateException("Too many distinct categories for the replay file format");
+            }
+            id = (short) categories.size();
+            categoryIds.put(category, id);
+            categories.add(category);
+        }
+        return id;
+    }
+
+    private void flushBlock() throws IOException {
+        if (blockRecordCount == 0) {
+            return;
+        }
+        byte[] raw = blockBuffer.toByteArray();
+        byte[] stored = raw;
+        int storedLength = raw.length;
+        if (compress) {
+            deflater.reset();
+            deflater.setInput(raw);
+            deflater.finish();
+            stored = new byte[Math.max(64, raw.length + (raw.length >> 3) + 64)];
+            storedLength = 0;
+            while (!deflater.finished()) {
+                if (storedLength == stored.length) {
+                    stored = Arrays.copyOf(stored, stored.length * 2);
+                }
+                storedLength += deflater.deflate(stored, storedLength, stored.length - storedLength);
+            }
+        }
+
+        output.writeInt(blockRecordCount);
+        output.writeInt(raw.length);
+        output.writeInt(storedLength);
+        output.write(stored, 0, storedLength);
+        position += ReplayFileFormat.BLOCK_HEADER_SIZE + storedLength;
+
+        blockBuffer.reset();
+        blockRecordCount = 0;
+    }
+}
@@ -0,0 +1,136 @@
+package com.kinnovatio.f1.livetiming.source;
+
+import com.kinnovatio.f1.livetiming.replay.ReplayFileReader;
+import com.kinnovatio.signalr.messages.LiveTimingMessage;
+import com.kinnovatio.signalr.messages.LiveTimingRecord;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/// Replays a session from a binary replay file (see [com.kinnovatio.f1.livetiming.replay.ReplayFileConverter]).
+///
+/// The file is memory-mapped, so the feed starts without parsing the recording up front. With
+/// `source.binary.seekOffsetSeconds` the replay can start at any point of the session: the initial state
+/// snapshot at the start of the recording is emitted first, so downstream processors have a baseline,
+/// and the streaming records continue from the seek point.
+public class BinaryFileDataFeed implements DataFeed, Runnable {
+    private static final Logger LOG = LoggerFactory.getLogger(BinaryFileDataFeed.class);
+
+    // Config parameters
+    private final Path filePath =
+            Path.of(ConfigProvider.getConfig().getValue("source.binary.path", String.class));
+    private final long seekOffsetSeconds =
+            ConfigProvider.getConfig().getOptionalValue("source.binary.seekOffsetSeconds", Long.class).orElse(0L);
+
+    private final AtomicBoolean run = new AtomicBoolean(false);
+    private final ThroughputMonitor throughputMonitor = new ThroughputMonitor("BinaryFileDataFeed");
+    private final Consumer<LiveTimingRecord> consumer;
+    private final ReplayClock replayClock;
+    private CountDownLatch finished = new CountDownLatch(0);
+
+    /// Creates a feed that replays the records at the pace of the given clock.
+    ///
+    /// @param consumer The consumer of the replayed records.
+    /// @param replayClock The clock controlling the replay speed.
+    public BinaryFileDataFeed(Consumer<LiveTimingRecord> consumer, ReplayClock replayClock) {
+        this.consumer = consumer;
+        this.replayClock = replayClock;
+    }
+
+    @Override
+    public void start() {
+        run.set(true);
+        finished = new CountDownLatch(1);
+        LOG.info("Starting BinaryFileDataFeed. Replay speed: {}", replayClock.describe());
+        throughputMonitor.start();
+        Thread.startVirtualThread(this);
+    }
+
+    @Override
+    public void close() {
+        run.set(false);
+        throughputMonitor.stop();
+    }
+
+    @Override
+    public boolean awaitCompletion(Duration timeout) throws InterruptedException {
+        return finished.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void run() {
+        long openStart = System.nanoTime();
+        try (ReplayFileReader reader = ReplayFileReader.open(filePath)) {
+            LOG.info("Opened {} with {} records in {} blocks in {} ms.", filePath, reader.getRecordCount(),
+                    reader.getBlockCount(), Duration.ofNanos(System.nanoTime() - openStart).toMillis());
+            if (reader.getFirstTimestamp() == null) {
+                LOG.warn("The replay file {} is empty.", filePath);
+                return;
+            }
+
+            if (seekOffsetSeconds > 0) {
+                try (ReplayFileReader.Cursor snapshotCursor = reader.cursor()) {
+                    emitSnapshot(snapshotCursor);
+                }
+            }
+
+            try (ReplayFileReader.Cursor cursor = openCursor(reader)) {
+                LiveTimingMessage message;
+                while (run.get() && (message = cursor.next()) != null) {
+                    if (seekOffsetSeconds > 0 && !message.isStreaming()) {
+                        // Already emitted as part of the snapshot
+                        continue;
+                    }
+                    if (message.isStreaming()) {
+                        replayClock.awaitRecord(message.timestamp());
+                    }
+                    consumer.accept(message);
+                    throughputMonitor.record(1);
+                }
+            }
+            LOG.info("Reached the end of the replay file.");
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            LOG.warn("Error while reading replay file: {}", e.toString());
+        } finally {
+            if (run.get()) {
+                this.close();
+            }
+            finished.countDown();
+        }
+    }
+
+    /// Opens the replay cursor at the seek point, or at the start of the file when there is no seek offset.
+    private ReplayFileReader.Cursor openCursor(ReplayFileReader reader) {
+        if (seekOffsetSeconds <= 0) {
+            return reader.cursor();
+        }
+        Instant seekTo = reader.getFirstTimestamp().plusSeconds(seekOffsetSeconds);
+        long seekStart = System.nanoTime();
+        ReplayFileReader.Cursor cursor = reader.cursorFrom(seekTo);
+        LOG.info("Seeked to {} in {} µs.", seekTo, (System.nanoTime() - seekStart) / 1000);
+        return cursor;
+    }
+
+    /// Emits the initial state snapshot (the non-streaming records at the start of the recording).
+    private void emitSnapshot(ReplayFileReader.Cursor cursor) throws Exception {
+        LiveTimingMessage message;
+        int snapshotRecords = 0;
+        while (run.get() && (message = cursor.next()) != null && !message.isStreaming()) {
+            consumer.accept(message);
+            throughputMonitor.record(1);
+            snapshotRecords++;
+        }
+        LOG.info("Emitted the initial state snapshot of {} records.", snapshotRecords);
+    }
+}
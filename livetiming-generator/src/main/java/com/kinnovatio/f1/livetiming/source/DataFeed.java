@@ -0,0 +1,22 @@
+package com.kinnovatio.f1.livetiming.source;
+
+import java.time.Duration;
+
+/// A source of live timing records for the generator.
+///
+/// A feed emits its records to a consumer on its own thread(s) between [#start()] and [#close()].
+public interface DataFeed {
+
+    /// Starts emitting records.
+    void start();
+
+    /// Stops emitting records. Calling it more than once has no effect.
+    void close();
+
+    /// Waits for the feed to reach the end of its data set.
+    ///
+    /// @param timeout The maximum time to wait.
+    /// @return `true` if the feed finished, `false` if the timeout expired first.
+    /// @throws InterruptedException If the thread is interrupted while waiting.
+    boolean awaitCompletion(Duration timeout) throws InterruptedException;
+}
@@ -10,60 +10,31 @@ import org.slf4j.LoggerFactory;
 import java.sql.*;
 import java.time.Duration;
 import java.time.Instant;
-import java.time.OffsetDateTime;
 import java.util.List;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 /// Reads live timing records from DB.
 ///
-public class DbDataFeed implements Runnable {
+/// The session to replay is selected by config, either by session key (`source.session.key`) or by a time
+/// window (`source.session.from` / `source.session.to`). If neither is set, one of the bundled recorded
+/// sessions is picked at random.
+///
+/// The rows are read by a [KeysetMessageReader] on its own virtual thread into a bounded prefetch queue,
+/// so database latency does not stall the pacing. Streaming records are replayed at the pace of a
+/// [ReplayClock], so a session can be replayed in real time, time-compressed or unthrottled.
+public class DbDataFeed implements DataFeed, Runnable {
     private static final Logger LOG = LoggerFactory.getLogger(DbDataFeed.class);
 
-    private static final String austrianGPPractice1 = """
-            SELECT id, category, is_streaming, message, message_timestamp
-            FROM public.live_timing_messages
-            where
-            created_timestamp > '2026-06-26 11:00:00'
-            and
-            created_timestamp < '2026-06-26 13:10:00'
-            order by 1 asc
-            """;
-
-    private static final String austrianGPQalifying = """
-            SELECT id, category, is_streaming, message, message_timestamp
-            FROM public.live_timing_messages
-            where
-            created_timestamp > '2026-06-27 13:40:00'
-            and
-            created_timestamp < '2026-06-27 15:40:00'
-            order by 1 asc
-            """;
-
-    private static final String austrianGP = """
-            SELECT id, category, is_streaming, message, message_timestamp
-            FROM public.live_timing_messages
-            where
-            created_timestamp > '2026-06-28 12:00:00'
-            and
-            created_timestamp < '2026-06-28 14:40:00'
-            order by 1 asc
-            """;
-
-    private static final String britishGP = """
-            SELECT id, category, is_streaming, message, message_timestamp
-            FROM public.live_timing_messages
-            where
-            created_timestamp > '2026-07-05 13:10:00'
-            and
-            created_timestamp < '2026-07-05 16:20:00'
-            order by 1 asc
-            """;
+    private static final List<SessionWindow> recordedSessions = List.of(
+            SessionWindow.AUSTRIAN_GP_PRACTICE_1,
+            SessionWindow.AUSTRIAN_GP_QUALIFYING,
+            SessionWindow.AUSTRIAN_GP_RACE,
+            SessionWindow.BRITISH_GP_RACE);
 
     // Config parameters
     private final String jdbcUrl =
@@ -74,108 +45,145 @@ public class DbDataFeed implements Runnable {
             ConfigProvider.getConfig().getValue("source.jdbc.password", String.class);
     private final String dbTable =
             ConfigProvider.getConfig().getValue("source.jdbc.table", String.class);
+    private final int pageSize =
+            ConfigProvider.getConfig().getOptionalValue("source.jdbc.pageSize", Integer.class).orElse(2000);
+    private final int prefetchPages =
+            ConfigProvider.getConfig().getOptionalValue("source.jdbc.prefetchPages", Integer.class).orElse(8);
+    private final Optional<String> sessionFrom =
+            ConfigProvider.getConfig().getOptionalValue("source.session.from", String.class);
+    private final Optional<String> sessionTo =
+            ConfigProvider.getConfig().getOptionalValue("source.session.to", String.class);
 
     private final AtomicBoolean run = new AtomicBoolean(false);
-    private final AtomicInteger messageCounterPerSecond = new AtomicInteger(0);
+    private final ThroughputMonitor throughputMonitor = new ThroughputMonitor("DbDataFeed");
     private final Consumer<LiveTimingRecord> consumer;
-    private ScheduledExecutorService executorService = null;
+    private final ReplayClock replayClock;
+    private final Optional<Integer> sessionKey;
+    private CountDownLatch finished = new CountDownLatch(0);
+    private KeysetMessageReader reader = null;
 
     public DbDataFeed(Consumer<LiveTimingRecord> consumer) {
+        this(consumer, ReplayClock.fromConfig());
+    }
+
+    /// Creates a feed that replays the records at the pace of the given clock.
+    ///
+    /// @param consumer The consumer of the replayed records.
+    /// @param replayClock The clock controlling the replay speed.
+    public DbDataFeed(Consumer<LiveTimingRecord> consumer, ReplayClock replayClock) {
+        this(consumer, replayClock,
+                ConfigProvider.getConfig().getOptionalValue("source.session.key", Integer.class));
+    }
+
+    /// Creates a feed that replays a specific session at the pace of the given clock.
+    ///
+    /// @param consumer The consumer of the replayed records.
+    /// @param replayClock The clock controlling the replay speed.
+    /// @param sessionKey The key of the session to replay. If empty, the configured time window or a
+    ///                   recorded session is replayed.
+    public DbDataFeed(Consumer<LiveTimingRecord> consumer, ReplayClock replayClock, Optional<Integer> sessionKey) {
         this.consumer = consumer;
+        this.replayClock = replayClock;
+        this.sessionKey = sessionKey;
     }
 
+    @Override
     public void start() {
         if (run.get()) {
             LOG.warn("DbDataFeed is already running. Call close() before starting again.");
             return;
         }
-        if (executorService != null) {
-            executorService.shutdown();
-        }
 
         run.set(true);
-        executorService = Executors.newSingleThreadScheduledExecutor();
-        LOG.info("Starting DbDataFeed...");
+        finished = new CountDownLatch(1);
+        LOG.info("Starting DbDataFeed. Replay speed: {}", replayClock.describe());
+        throughputMonitor.start();
         Thread.startVirtualThread(this);
-
-        // Start a task to track the message rate per second
-        executorService.scheduleAtFixedRate(() -> {
-            // Get the current count and reset the counter
-            int currentCountSeconds = messageCounterPerSecond.getAndSet(0);
-            LOG.info("Message rate per second: {}", currentCountSeconds);
-        }, 1, 1, TimeUnit.SECONDS);
     }
 
+    @Override
     public void close() {
         LOG.info("Closing down data feed...");
         run.set(false);
-        if (executorService != null) {
-            executorService.shutdown();
+        if (reader != null) {
+            reader.close();
+            LOG.info("The replay waited for the database reader {} times.", reader.getStallCount());
         }
+        throughputMonitor.stop();
+    }
+
+    @Override
+    public boolean awaitCompletion(Duration timeout) throws InterruptedException {
+        return finished.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
     }
 
 
     @Override
     public void run() {
-        List<String> queryList = List.of(austrianGPPractice1, austrianGPQalifying, austrianGP, britishGP);
-        String query = queryList.get(ThreadLocalRandom.current().nextInt(0, queryList.size()));
-        LOG.info("Connecting to database...");
-
-        try (Connection conn = DriverManager.getConnection(jdbcUrl, username, password)) {
-            LOG.info("Connected.");
-            conn.setAutoCommit(false);
-            try (PreparedStatement stmt = conn.prepareStatement(query)) {
-                LOG.info("Querying database...");
-                stmt.setFetchSize(1000);
-                ResultSet rs = stmt.executeQuery();
-
-                Instant queryStart = Instant.now();
-                Instant firstRecord = null;
-                LOG.info("Start processing records...");
-                while (run.get() && rs.next()) {
-                    String category = rs.getString("category");
-                    boolean isStreaming = rs.getBoolean("is_streaming");
-                    String message = rs.getString("message");
-                    Instant messageTimestamp =
-                            rs.getObject("message_timestamp", OffsetDateTime.class).toInstant();
-                    LiveTimingMessage liveTimingMessage = new LiveTimingMessage(category, message, messageTimestamp, isStreaming);
-
-                    if (isStreaming) {
-                        if (firstRecord == null) {
-                            firstRecord = liveTimingMessage.timestamp();
-                            LOG.info("First live record, setting timestamp to {}...", firstRecord.toString());
-                        }
-
-                        // Check the timing, so we keep pace with the original message stream.
-                        Duration queryDuration = Duration.between(queryStart, Instant.now());
-                        Duration recordDuration = Duration.between(firstRecord, liveTimingMessage.timestamp());
-                        if (queryDuration.compareTo(recordDuration) < 0) {
-                            // we need to wait for the record to "catch up"
-                            long sleepMillies = Math.min(2000, recordDuration.toMillis() - queryDuration.toMillis());
-                            Thread.sleep(sleepMillies);
-                        }
-
-                        consumer.accept(liveTimingMessage);
-                        messageCounterPerSecond.incrementAndGet();
-
-                    } else {
-                        consumer.accept(liveTimingMessage);
-                        messageCounterPerSecond.incrementAndGet();
+        try {
+            SessionWindow sessionWindow = resolveSessionWindow();
+            LOG.info("Replaying {}: {} to {}", sessionWindow.description(), sessionWindow.from(),
+                    sessionWindow.to() == null ? "end of table" : sessionWindow.to());
+
+            reader = new KeysetMessageReader(jdbcUrl, username, password, dbTable,
+                    sessionWindow, pageSize, prefetchPages);
+            reader.start();
+
+            LOG.info("Start processing records...");
+            while (run.get()) {
+                List<LiveTimingMessage> page = reader.nextPage(200);
+                if (page == null) {
+                    // The reader is still fetching. Poll again, so a stop request is noticed while waiting.
+                    continue;
+                }
+                if (page.isEmpty()) {
+                    LOG.info("Reached the end of data set.");
+                    break;
+                }
+                for (LiveTimingMessage liveTimingMessage : page) {
+                    if (!run.get()) {
+                        break;
+                    }
+                    if (liveTimingMessage.isStreaming()) {
+                        // Keep pace with the original message stream (scaled by the replay speed).
+                        replayClock.awaitRecord(liveTimingMessage.timestamp());
                     }
+                    consumer.accept(liveTimingMessage);
+                    throughputMonitor.record(1);
                 }
-                LOG.info("Reached the end of data set.");
-
-            } catch (Exception e) {
-                throw new RuntimeException(e);
             }
-            conn.commit();
-        } catch (SQLException e) {
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
             throw new RuntimeException(e);
+        } finally {
+            // Check if we are still in "open" mode.
+            if (run.get()) {
+                this.close();
+            }
+            finished.countDown();
         }
+    }
 
-        // Check if we are still in "open" mode.
-        if (run.get()) {
-            this.close();
+    /// Resolves the session to replay from the config.
+    ///
+    /// A configured session key takes precedence over a configured time window.
+    private SessionWindow resolveSessionWindow() throws SQLException {
+        if (sessionKey.isPresent()) {
+            try (Connection conn = DriverManager.getConnection(jdbcUrl, username, password)) {
+                return SessionWindow.forSessionKey(conn, dbTable, sessionKey.get());
+            }
         }
+        if (sessionFrom.isPresent()) {
+            return new SessionWindow("configured time window",
+                    Instant.parse(sessionFrom.get()),
+                    sessionTo.map(Instant::parse).orElse(null));
+        }
+
+        SessionWindow recordedSession =
+                recordedSessions.get(ThreadLocalRandom.current().nextInt(0, recordedSessions.size()));
+        LOG.info("No session configured. Picked the recorded session: {}", recordedSession.description());
+        return recordedSession;
     }
 }
@@ -1,6 +1,8 @@
 package com.kinnovatio.f1.livetiming.source;
 
+import com.kinnovatio.signalr.messages.LiveTimingMessage;
 import com.kinnovatio.signalr.messages.LiveTimingRecord;
+import org.eclipse.microprofile.config.ConfigProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -10,12 +12,20 @@ import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 
-public class FileDataFeed implements Runnable {
+/// Replays a recorded SignalR message log (one raw message per line).
+///
+/// Streaming records are replayed at the pace of a [ReplayClock], based on the timestamps carried by the
+/// recorded messages. The log is parsed ahead of the replay by a [ParallelLineParser], so an unthrottled
+/// replay is not limited by a single parser thread.
+public class FileDataFeed implements DataFeed, Runnable {
     private static final Logger LOG = LoggerFactory.getLogger(FileDataFeed.class);
     private static final Path practicePath = Path.of("/data/received-messages-practice3.log");
     private static final Path qualifyingPath = Path.of("/data/received-messages-qualifying.log");
@@ -24,37 +34,85 @@ public class FileDataFeed implements Runnable {
 
     private static final String resourceLogFile = "/received-messages-race-short.log";
 
+    // Config parameters
+    private final int chunkLines =
+            ConfigProvider.getConfig().getOptionalValue("source.parse.chunkLines", Integer.class).orElse(256);
+    private final int parserThreads = ConfigProvider.getConfig().getOptionalValue("source.parse.threads", Integer.class)
+            .orElse(Math.max(Runtime.getRuntime().availableProcessors() - 1, 1));
+    private final int maxPendingChunks =
+            ConfigProvider.getConfig().getOptionalValue("source.parse.maxPendingChunks", Integer.class).orElse(64);
+
     private final AtomicBoolean run = new AtomicBoolean(false);
+    private final ThroughputMonitor throughputMonitor = new ThroughputMonitor("FileDataFeed");
     private final Consumer<LiveTimingRecord> consumer;
+    private final ReplayClock replayClock;
+    private CountDownLatch finished = new CountDownLatch(0);
 
     public FileDataFeed(Consumer<LiveTimingRecord> consumer) {
+        this(consumer, ReplayClock.fromConfig());
+    }
+
+    /// Creates a feed that replays the records at the pace of the given clock.
+    ///
+    /// @param consumer The consumer of the replayed records.
+    /// @param replayClock The clock controlling the replay speed.
+    public FileDataFeed(Consumer<LiveTimingRecord> consumer, ReplayClock replayClock) {
         this.consumer = consumer;
+        this.replayClock = replayClock;
     }
 
+    @Override
     public void start() {
         run.set(true);
+        finished = new CountDownLatch(1);
+        LOG.info("Starting FileDataFeed. Replay speed: {}", replayClock.describe());
+        throughputMonitor.start();
         Thread.startVirtualThread(this);
     }
 
+    @Override
     public void close() {
         run.set(false);
+        throughputMonitor.stop();
     }
 
     @Override
-    public void run() {
-        List<? extends LiveTimingRecord> messages;
-        try (BufferedReader reader = Files.newBufferedReader(getFilePath(), StandardCharsets.UTF_8)) {
-            String line;
-            while (run.get() && (line = reader.readLine()) != null) {
-                messages = Parser.parseSignalRMessage(line);
-                messages.forEach(consumer::accept);
+    public boolean awaitCompletion(Duration timeout) throws InterruptedException {
+        return finished.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
 
-                Thread.sleep(300);
+    @Override
+    public void run() {
+        List<LiveTimingRecord> messages;
+        try (BufferedReader reader = Files.newBufferedReader(getFilePath(), StandardCharsets.UTF_8);
+             ParallelLineParser parser = new ParallelLineParser(reader, chunkLines, parserThreads, maxPendingChunks)) {
+            parser.start();
+            while (run.get() && (messages = parser.nextChunk()) != null) {
+                for (LiveTimingRecord message : messages) {
+                    // Streaming messages are paced by their original timestamps. Hub responses (the initial
+                    // state snapshot) are released immediately.
+                    if (message instanceof LiveTimingMessage timingMessage && timingMessage.isStreaming()) {
+                        replayClock.awaitRecord(timingMessage.timestamp());
+                    }
+                    consumer.accept(message);
+                    throughputMonitor.record(1);
+                    if (!run.get()) {
+                        break;
+                    }
+                }
             }
+            LOG.info("Reached the end of the message file.");
 
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         } catch (Exception e) {
             LOG.warn("Error while reading message file: {}", e.toString());
-        }        
+        } finally {
+            if (run.get()) {
+                this.close();
+            }
+            finished.countDown();
+        }
     }
 
     private Path getFilePath() throws URISyntaxException {
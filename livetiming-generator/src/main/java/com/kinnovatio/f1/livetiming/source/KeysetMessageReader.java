@@ -0,0 +1,186 @@
+package com.kinnovatio.f1.livetiming.source;
+
+import com.kinnovatio.signalr.messages.LiveTimingMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/// Streams the raw messages of a [SessionWindow] from the database into a bounded prefetch queue.
+///
+/// The reader runs on its own virtual thread. It first resolves the id range of the window and then reads
+/// pages of rows with keyset pagination on the primary key (`id > ? ORDER BY id LIMIT ?`), so every page is
+/// a short, index-driven query and no cursor or transaction is held open for the length of the replay.
+///
+/// The queue is bounded by a number of pages. When the consumer falls behind the reader blocks, and when the
+/// reader falls behind the consumer can detect it via [#getStallCount()].
+public class KeysetMessageReader implements Runnable {
+    private static final Logger LOG = LoggerFactory.getLogger(KeysetMessageReader.class);
+
+    /// Marks the end of the data set in the queue.
+    private static final List<LiveTimingMessage> END_OF_DATA = List.of();
+
+    private final String jdbcUrl;
+    private final String username;
+    private final String password;
+    private final String dbTable;
+    private final SessionWindow sessionWindow;
+    private final int pageSize;
+
+    private final BlockingQueue<List<LiveTimingMessage>> queue;
+    private final AtomicBoolean run = new AtomicBoolean(false);
+    private final AtomicLong stallCount = new AtomicLong(0);
+    private volatile Exception failure = null;
+
+    public KeysetMessageReader(String jdbcUrl, String username, String password, String dbTable,
+                               SessionWindow sessionWindow, int pageSize, int prefetchPages) {
+        this.jdbcUrl = jdbcUrl;
+        this.username = username;
+        this.password = password;
+        this.dbTable = dbTable;
+        this.sessionWindow = sessionWindow;
+        this.pageSize = pageSize;
+        this.queue = new ArrayBlockingQueue<>(prefetchPages);
+    }
+
+    /// Starts reading on a new virtual thread.
+    public void start() {
+        run.set(true);
+        Thread.startVirtualThread(this);
+    }
+
+    /// Stops the reader. Pages already in the queue are discarded.
+    public void close() {
+        run.set(false);
+        queue.clear();
+    }
+
+    /// Takes the next page of messages, waiting for the reader if the queue is empty.
+    ///
+    /// @param timeout The maximum time to wait, in milliseconds.
+    /// @return The next page. An empty list means the end of the data set has been reached. `null` if the
+    ///         timeout expired before a page was available.
+    /// @throws InterruptedException If the thread is interrupted while waiting.
+    /// @throws RuntimeException If the reader failed.
+    public List<LiveTimingMessage> nextPage(long timeout) throws InterruptedException {
+        List<LiveTimingMessage> page = queue.poll();
+        if (page == null) {
+            // The consumer is waiting for the database
+            stallCount.incrementAndGet();
+            page = queue.poll(timeout, TimeUnit.MILLISECONDS);
+        }
+        if (page == END_OF_DATA && failure != null) {
+            throw new RuntimeException("Error reading messages from the database", failure);
+        }
+        return page;
+    }
+
+    /// Returns the number of times the consumer found the prefetch queue empty and had to wait for the reader.
+    public long getStallCount() {
+        return stallCount.get();
+    }
+
+    @Override
+    public void run() {
+        LOG.info("Connecting to database...");
+        try (Connection conn = DriverManager.getConnection(jdbcUrl, username, password)) {
+            LOG.info("Connected. Resolving the id range of {}...", sessionWindow.description());
+            long[] idRange = resolveIdRange(conn);
+            if (idRange == null) {
+                LOG.warn("No messages found for {}.", sessionWindow.description());
+                return;
+            }
+            LOG.info("Reading messages with id {} to {}...", idRange[0], idRange[1]);
+
+            String pageQuery = """
+                    SELECT id, category, is_streaming, message, message_timestamp
+                    FROM %s
+                    WHERE id > ? AND id <= ?
+                    ORDER BY id
+                    LIMIT ?
+                    """.formatted(dbTable);
+            try (PreparedStatement stmt = conn.prepareStatement(pageQuery)) {
+                long lastId = idRange[0] - 1;
+                while (run.get()) {
+                    stmt.setLong(1, lastId);
+                    stmt.setLong(2, idRange[1]);
+                    stmt.setInt(3, pageSize);
+                    List<LiveTimingMessage> page = new ArrayList<>(pageSize);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            lastId = rs.getLong("id");
+                            page.add(new LiveTimingMessage(
+                                    rs.getString("category"),
+                                    rs.getString("message"),
+                                    rs.getObject("message_timestamp", OffsetDateTime.class).toInstant(),
+                                    rs.getBoolean("is_streaming")));
+                        }
+                    }
+                    if (page.isEmpty()) {
+                        break;
+                    }
+                    enqueue(page);
+                }
+            }
+            LOG.info("Finished reading {}.", sessionWindow.description());
+
+        } catch (Exception e) {
+            LOG.error("Error reading messages from the database: {}", e.toString());
+            failure = e;
+        } finally {
+            try {
+                enqueue(END_OF_DATA);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /// Resolves the first and last message id of the session window.
+    ///
+    /// @return The id range, or `null` if the window is empty.
+    private long[] resolveIdRange(Connection conn) throws SQLException {
+        String query = """
+                SELECT min(id) AS first_id, max(id) AS last_id
+                FROM %s
+                WHERE created_timestamp >= ?
+                    AND (?::timestamptz IS NULL OR created_timestamp < ?)
+                """.formatted(dbTable);
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            Timestamp to = sessionWindow.to() == null ? null : Timestamp.from(sessionWindow.to());
+            stmt.setTimestamp(1, Timestamp.from(sessionWindow.from()));
+            stmt.setTimestamp(2, to);
+            stmt.setTimestamp(3, to);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                long firstId = rs.getLong("first_id");
+                if (rs.wasNull()) {
+                    return null;
+                }
+                return new long[] {firstId, rs.getLong("last_id")};
+            }
+        }
+    }
+
+    /// Puts a page on the queue, blocking while it is full but giving up if the reader is closed.
+    private void enqueue(List<LiveTimingMessage> page) throws InterruptedException {
+        while (run.get() && !queue.offer(page, 200, TimeUnit.MILLISECONDS)) {
+            // The consumer is behind. Keep waiting as long as we are running.
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.kinnovatio.f1.livetiming.source;
+
+import com.kinnovatio.signalr.messages.LiveTimingRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/// Parses a SignalR message log on a pool of parser threads while preserving the record order.
+///
+/// A reader thread splits the log into chunks of lines and submits each chunk to the pool. The pending chunks
+/// are queued in file order, tagged with a sequence number, so [#nextChunk()] hands the parsed records to the
+/// consumer in the original order regardless of which chunk finishes parsing first. The queue is bounded, which
+/// limits the read-ahead when the consumer (the pacing stage) is slower than the parsers.
+class ParallelLineParser implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(ParallelLineParser.class);
+
+    /// Marks the end of the log.
+    private static final CompletableFuture<ParsedChunk> END_OF_DATA =
+            CompletableFuture.completedFuture(new ParsedChunk(-1, List.of()));
+
+    private final BufferedReader reader;
+    private final int chunkLines;
+    private final ExecutorService parserPool;
+    private final BlockingQueue<CompletableFuture<ParsedChunk>> pending;
+    private final AtomicBoolean run = new AtomicBoolean(false);
+    private long nextSequence = 0;
+
+    /// Creates a parser for the given log.
+    ///
+    /// @param reader The log to parse. Read by a single reader thread.
+    /// @param chunkLines The number of lines per chunk.
+    /// @param parserThreads The number of parser threads.
+    /// @param maxPendingChunks The maximum number of chunks read ahead of the consumer.
+    ParallelLineParser(BufferedReader reader, int chunkLines, int parserThreads, int maxPendingChunks) {
+        this.reader = reader;
+        this.chunkLines = chunkLines;
+        this.parserPool = Executors.newFixedThreadPool(parserThreads, Thread.ofPlatform()
+                .name("line-parser-", 0)
+                .daemon(true)
+                .factory());
+        this.pending = new ArrayBlockingQueue<>(maxPendingChunks);
+    }
+
+    /// Starts the reader thread.
+    void start() {
+        run.set(true);
+        Thread.startVirtualThread(this::read);
+    }
+
+    /// Returns the records of the next chunk, in file order. Blocks until the chunk is parsed.
+    ///
+    /// @return The parsed records, or `null` at the end of the log or when the parser is closed.
+    /// @throws InterruptedException If the thread is interrupted while waiting.
+    /// @throws ExecutionException If a chunk could not be parsed.
+    List<LiveTimingRecord> nextChunk() throws InterruptedException, ExecutionException {
+        CompletableFuture<ParsedChunk> next;
+        while ((next = pending.poll(100, TimeUnit.MILLISECONDS)) == null) {
+            if (!run.get()) {
+                return null;
+            }
+        }
+        if (next == END_OF_DATA) {
+            return null;
+        }
+        ParsedChunk chunk = next.get();
+        if (chunk.sequence() != nextSequence) {
+            throw new IllegalStateException("Chunk %d was handed off out of order, expected %d."
+                    .formatted(chunk.sequence(), nextSequence));
+        }
+        nextSequence++;
+        return chunk.records();
+    }
+
+    @Override
+    public void close() {
+        run.set(false);
+        pending.clear();
+        parserPool.shutdownNow();
+    }
+
+    private void read() {
+        long sequence = 0;
+        try {
+            List<String> lines = new ArrayList<>(chunkLines);
+            String line;
+            while (run.get() && (line = reader.readLine()) != null) {
+                lines.add(line);
+                if (lines.size() == chunkLines) {
+                    submit(sequence++, lines);
+                    lines = new ArrayList<>(chunkLines);
+                }
+            }
+            if (run.get() && !lines.isEmpty()) {
+                submit(sequence++, lines);
+            }
+            LOG.debug("Read {} chunks of up to {} lines.", sequence, chunkLines);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // The log is closed under the reader when the parser is closed early
+            if (run.get()) {
+                LOG.warn("Error while reading message file: {}", e.toString());
+            }
+        } finally {
+            try {
+                if (run.get()) {
+                    pending.put(END_OF_DATA);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void submit(long sequence, List<String> lines) throws InterruptedException {
+        pending.put(CompletableFuture.supplyAsync(() -> parse(sequence, lines), parserPool));
+    }
+
+    private static ParsedChunk parse(long sequence, List<String> lines) {
+        List<LiveTimingRecord> records = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            records.addAll(Parser.parseSignalRMessage(line));
+        }
+        return new ParsedChunk(sequence, records);
+    }
+
+    /// The parsed records of a chunk.
+    ///
+    /// @param sequence The position of the chunk in the log.
+    /// @param records The records, in file order.
+    private record ParsedChunk(long sequence, List<LiveTimingRecord> records) {}
+}
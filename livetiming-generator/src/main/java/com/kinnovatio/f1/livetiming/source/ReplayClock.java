@@ -0,0 +1,100 @@
+package com.kinnovatio.f1.livetiming.source;
+
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/// Paces a replay of recorded live timing messages against the wall clock.
+///
+/// The clock is anchored on the first paced record. Every following record is released when the scaled
+/// wall clock time since the anchor has caught up with the record's offset from the first record, so the
+/// relative timing of the original stream is preserved at any speed factor:
+/// - `1.0` replays in real time.
+/// - `10.0`, `100.0` etc. replay that many times faster.
+/// - `0` (or any non-positive value) disables pacing and replays as fast as the consumer accepts records.
+///
+/// Long idle gaps in a recording (e.g. a red flag or the time between sessions) are compressed to at most
+/// `maxGap` of wall clock time. The anchor is shifted by the skipped time, so the pacing of the records after
+/// the gap is unaffected.
+public class ReplayClock {
+    private static final Logger LOG = LoggerFactory.getLogger(ReplayClock.class);
+
+    private final double speedFactor;
+    private final Duration maxGap;
+
+    private Instant firstRecordTimestamp = null;
+    private long wallClockAnchorNanos;
+
+    /// Creates a replay clock.
+    ///
+    /// @param speedFactor The replay speed relative to the original stream. Non-positive values disable pacing.
+    /// @param maxGap The longest wall clock time to wait between two consecutive records.
+    public ReplayClock(double speedFactor, Duration maxGap) {
+        this.speedFactor = speedFactor;
+        this.maxGap = maxGap;
+    }
+
+    /// Creates a replay clock from the `replay.speedFactor` and `replay.maxGapMillis` configuration properties.
+    ///
+    /// @return The configured replay clock.
+    public static ReplayClock fromConfig() {
+        double speedFactor = ConfigProvider.getConfig()
+                .getOptionalValue("replay.speedFactor", Double.class).orElse(1.0);
+        return fromConfig(speedFactor);
+    }
+
+    /// Creates a replay clock with the given speed factor and the configured `replay.maxGapMillis`.
+    ///
+    /// @param speedFactor The replay speed relative to the original stream. Non-positive values disable pacing.
+    /// @return The replay clock.
+    public static ReplayClock fromConfig(double speedFactor) {
+        long maxGapMillis = ConfigProvider.getConfig()
+                .getOptionalValue("replay.maxGapMillis", Long.class).orElse(2000L);
+        return new ReplayClock(speedFactor, Duration.ofMillis(maxGapMillis));
+    }
+
+    /// Returns `true` if the clock paces records, `false` if the replay runs unthrottled.
+    public boolean isThrottled() {
+        return speedFactor > 0;
+    }
+
+    /// Returns a human-readable description of the replay speed, for logging.
+    public String describe() {
+        return isThrottled() ? "%sx".formatted(speedFactor) : "unthrottled";
+    }
+
+    /// Blocks until the record with the given timestamp is due to be released.
+    ///
+    /// @param recordTimestamp The original timestamp of the record.
+    /// @throws InterruptedException If the thread is interrupted while waiting.
+    public void awaitRecord(Instant recordTimestamp) throws InterruptedException {
+        if (!isThrottled() || recordTimestamp == null) {
+            return;
+        }
+        if (firstRecordTimestamp == null) {
+            firstRecordTimestamp = recordTimestamp;
+            wallClockAnchorNanos = System.nanoTime();
+            LOG.info("First paced record at {}. Replay speed: {}", firstRecordTimestamp, describe());
+            return;
+        }
+
+        long recordOffsetNanos = Duration.between(firstRecordTimestamp, recordTimestamp).toNanos();
+        long dueNanos = wallClockAnchorNanos + (long) (recordOffsetNanos / speedFactor);
+        long waitNanos = dueNanos - System.nanoTime();
+        if (waitNanos <= 0) {
+            return;
+        }
+
+        if (waitNanos > maxGap.toNanos()) {
+            // Compress the gap and move the anchor, so the following records keep their relative pacing
+            LOG.debug("Compressing a gap of {} ms in the recording to {} ms.",
+                    waitNanos / 1_000_000, maxGap.toMillis());
+            wallClockAnchorNanos -= waitNanos - maxGap.toNanos();
+            waitNanos = maxGap.toNanos();
+        }
+        Thread.sleep(Duration.ofNanos(waitNanos));
+    }
+}
@@ -0,0 +1,66 @@
+package com.kinnovatio.f1.livetiming.source;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+
+/// A time window in the raw message table, selecting the messages of a recorded session.
+///
+/// @param description A human-readable name of the window, for logging.
+/// @param from The (inclusive) start of the window, based on the row's `created_timestamp`.
+/// @param to The (exclusive) end of the window. `null` means open-ended.
+public record SessionWindow(String description, Instant from, Instant to) {
+
+    /// The recorded sessions used when no session is configured.
+    static final SessionWindow AUSTRIAN_GP_PRACTICE_1 = new SessionWindow("Austrian GP practice 1",
+            Instant.parse("2026-06-26T11:00:00Z"), Instant.parse("2026-06-26T13:10:00Z"));
+    static final SessionWindow AUSTRIAN_GP_QUALIFYING = new SessionWindow("Austrian GP qualifying",
+            Instant.parse("2026-06-27T13:40:00Z"), Instant.parse("2026-06-27T15:40:00Z"));
+    static final SessionWindow AUSTRIAN_GP_RACE = new SessionWindow("Austrian GP race",
+            Instant.parse("2026-06-28T12:00:00Z"), Instant.parse("2026-06-28T14:40:00Z"));
+    static final SessionWindow BRITISH_GP_RACE = new SessionWindow("British GP race",
+            Instant.parse("2026-07-05T13:10:00Z"), Instant.parse("2026-07-05T16:20:00Z"));
+
+    /// Resolves the time window of a session from the `SessionInfo` messages in the raw message table.
+    ///
+    /// The window starts at the first `SessionInfo` message carrying the session key and ends at the first
+    /// `SessionInfo` message carrying a different key (or is open-ended if there is none).
+    ///
+    /// @param conn The database connection.
+    /// @param dbTable The raw message table.
+    /// @param key The session key.
+    /// @return The session window.
+    /// @throws SQLException If the query fails.
+    /// @throws IllegalArgumentException If the table holds no `SessionInfo` messages for the key.
+    public static SessionWindow forSessionKey(Connection conn, String dbTable, int key) throws SQLException {
+        String query = """
+                SELECT
+                    min(created_timestamp) AS window_start,
+                    (SELECT min(next_session.created_timestamp)
+                        FROM %1$s next_session
+                        WHERE next_session.category = 'SessionInfo'
+                            AND next_session.message->>'Key' <> ?
+                            AND next_session.created_timestamp > max(this_session.created_timestamp)) AS window_end
+                FROM %1$s this_session
+                WHERE this_session.category = 'SessionInfo'
+                    AND this_session.message->>'Key' = ?
+                """.formatted(dbTable);
+
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setString(1, String.valueOf(key));
+            stmt.setString(2, String.valueOf(key));
+            try (ResultSet rs = stmt.executeQuery()) {
+                OffsetDateTime windowStart = rs.next() ? rs.getObject("window_start", OffsetDateTime.class) : null;
+                if (windowStart == null) {
+                    throw new IllegalArgumentException("No SessionInfo messages found for session key " + key);
+                }
+                OffsetDateTime windowEnd = rs.getObject("window_end", OffsetDateTime.class);
+                return new SessionWindow("session " + key, windowStart.toInstant(),
+                        windowEnd == null ? null : windowEnd.toInstant());
+            }
+        }
+    }
+}
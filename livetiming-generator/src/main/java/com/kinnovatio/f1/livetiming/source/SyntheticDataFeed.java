@@ -0,0 +1,443 @@
+package com.kinnovatio.f1.livetiming.source;
+
+import com.kinnovatio.signalr.messages.LiveTimingMessage;
+import com.kinnovatio.signalr.messages.LiveTimingRecord;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.node.ArrayNode;
+import tools.jackson.databind.node.ObjectNode;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/// Generates a synthetic race, for load tests beyond the volume of a recorded session.
+///
+/// A configurable number of cars lap a virtual track. The feed emits the same categories and payload shapes as
+/// the F1 live timing stream (Pascal case properties, lines keyed by racing number):
+/// - An initial state snapshot with `SessionInfo`, `DriverList`, and `TimingData` / `TimingAppData` baselines
+///   in array notation.
+/// - `TimingData` deltas in object notation: segment status, sector times, lap times, positions and gaps.
+/// - `TimingAppData` deltas: lines and stints (lap times, tyre age, pit stops to a new compound).
+/// - `CarData.z` telemetry and `Position.z` track positions for all cars.
+///
+/// The simulation advances in fixed ticks of simulated time and is paced by a [ReplayClock], so
+/// `replay.speedFactor` scales the rate and `0` generates as fast as the consumer accepts records.
+/// Increase `source.synthetic.cars` and `source.synthetic.updateHz` for loads of 10-100x a real race.
+public class SyntheticDataFeed implements DataFeed, Runnable {
+    private static final Logger LOG = LoggerFactory.getLogger(SyntheticDataFeed.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final int[] segmentsPerSector = {6, 7, 8};
+    private static final int segmentsPerLap = 6 + 7 + 8;
+    private static final String[] compounds = {"MEDIUM", "HARD", "SOFT"};
+    /// The age, in laps, of the used tyre sets fitted at every second pit stop.
+    private static final int usedTyreLaps = 3;
+    private static final int[] racingNumbers = {1, 11, 16, 55, 44, 63, 4, 81, 14, 18, 10, 31, 23, 2, 22, 3, 27, 20, 24, 77};
+
+    // Config parameters
+    private final int carCount =
+            ConfigProvider.getConfig().getOptionalValue("source.synthetic.cars", Integer.class).orElse(20);
+    private final int updateHz =
+            ConfigProvider.getConfig().getOptionalValue("source.synthetic.updateHz", Integer.class).orElse(4);
+    private final int carDataHz =
+            ConfigProvider.getConfig().getOptionalValue("source.synthetic.carDataHz", Integer.class).orElse(4);
+    private final int laps =
+            ConfigProvider.getConfig().getOptionalValue("source.synthetic.laps", Integer.class).orElse(57);
+    private final double lapTimeSeconds =
+            ConfigProvider.getConfig().getOptionalValue("source.synthetic.lapTimeSeconds", Double.class).orElse(90.0);
+    private final int pitEveryLaps =
+            ConfigProvider.getConfig().getOptionalValue("source.synthetic.pitEveryLaps", Integer.class).orElse(20);
+    private final int sessionKey =
+            ConfigProvider.getConfig().getOptionalValue("source.synthetic.sessionKey", Integer.class).orElse(900000);
+
+    private final AtomicBoolean run = new AtomicBoolean(false);
+    private final ThroughputMonitor throughputMonitor = new ThroughputMonitor("SyntheticDataFeed");
+    private final Consumer<LiveTimingRecord> consumer;
+    private final ReplayClock replayClock;
+    private final SplittableRandom random = new SplittableRandom();
+    private CountDownLatch finished = new CountDownLatch(0);
+
+    /// Creates a synthetic feed paced by the given clock.
+    ///
+    /// @param consumer The consumer of the generated records.
+    /// @param replayClock The clock controlling the generation speed.
+    public SyntheticDataFeed(Consumer<LiveTimingRecord> consumer, ReplayClock replayClock) {
+        this.consumer = consumer;
+        this.replayClock = replayClock;
+    }
+
+    @Override
+    public void start() {
+        run.set(true);
+        finished = new CountDownLatch(1);
+        LOG.info("Starting SyntheticDataFeed with {} cars at {} Hz. Replay speed: {}",
+                carCount, updateHz, replayClock.describe());
+        throughputMonitor.start();
+        Thread.startVirtualThread(this);
+    }
+
+    @Override
+    public void close() {
+        run.set(false);
+        throughputMonitor.stop();
+    }
+
+    @Override
+    public boolean awaitCompletion(Duration timeout) throws InterruptedException {
+        return finished.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void run() {
+        try {
+            List<Car> cars = createCars();
+            Instant simulatedTime = Instant.now();
+            emitSnapshot(cars, simulatedTime);
+
+            long tickNanos = 1_000_000_000L / updateHz;
+            long carDataIntervalNanos = 1_000_000_000L / carDataHz;
+            long elapsedNanos = 0;
+            long nextCarDataNanos = 0;
+            int tick = 0;
+            while (run.get() && cars.getFirst().lap < laps) {
+                elapsedNanos += tickNanos;
+                Instant tickTime = simulatedTime.plusNanos(elapsedNanos);
+                replayClock.awaitRecord(tickTime);
+
+                simulateTick(cars, tickNanos / 1e9, elapsedNanos / 1e9, tick++, tickTime);
+                while (nextCarDataNanos <= elapsedNanos) {
+                    emitTelemetry(cars, simulatedTime.plusNanos(nextCarDataNanos), elapsedNanos / 1e9);
+                    nextCarDataNanos += carDataIntervalNanos;
+                }
+            }
+            LOG.info("The synthetic race is finished after {} laps.", laps);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            LOG.warn("Error while generating synthetic data: {}", e.toString());
+        } finally {
+            if (run.get()) {
+                this.close();
+            }
+            finished.countDown();
+        }
+    }
+
+    private List<Car> createCars() {
+        List<Car> cars = new ArrayList<>(carCount);
+        for (int i = 0; i < carCount; i++) {
+            String number = String.valueOf(i < racingNumbers.length ? racingNumbers[i] : 100 + i);
+            // Spread the pace over about two seconds a lap and stagger the grid
+            double pace = lapTimeSeconds * (1 + 0.02 * i / Math.max(carCount, 1));
+            Car car = new Car(number, pace, i + 1);
+            car.progress = -0.002 * i;
+            car.compound = compounds[i % 2];
+            cars.add(car);
+        }
+        return cars;
+    }
+
+    /// Emits the initial (non-streaming) state snapshot, like the hub response at the start of a session.
+    private void emitSnapshot(List<Car> cars, Instant timestamp) {
+        ObjectNode sessionInfo = objectMapper.createObjectNode();
+        ObjectNode meeting = sessionInfo.putObject("Meeting");
+        meeting.put("Key", sessionKey);
+        meeting.put("Name", "Synthetic Grand Prix");
+        meeting.put("Location", "Synthetic");
+        sessionInfo.putObject("ArchiveStatus").put("Status", "Generating");
+        sessionInfo.put("Key", sessionKey);
+        sessionInfo.put("Type", "Race");
+        sessionInfo.put("Name", "Race");
+        sessionInfo.put("SessionStatus", "Started");
+        emit("SessionInfo", sessionInfo, timestamp, false);
+
+        ObjectNode driverList = objectMapper.createObjectNode();
+        ObjectNode timingData = objectMapper.createObjectNode();
+        ObjectNode timingLines = timingData.putObject("Lines");
+        ObjectNode timingAppData = objectMapper.createObjectNode();
+        ObjectNode appLines = timingAppData.putObject("Lines");
+        for (Car car : cars) {
+            ObjectNode driver = driverList.putObject(car.number);
+            driver.put("RacingNumber", car.number);
+            driver.put("BroadcastName", "CAR " + car.number);
+            driver.put("FullName", "Synthetic Car " + car.number);
+            driver.put("Tla", "C" + car.number);
+            driver.put("Line", car.position);
+            driver.put("TeamName", "Synthetic");
+            driver.put("TeamColour", "808080");
+
+            ObjectNode line = timingLines.putObject(car.number);
+            line.put("Line", car.position);
+            line.put("Position", String.valueOf(car.position));
+            line.put("RacingNumber", car.number);
+            line.put("NumberOfLaps", 0);
+            line.put("NumberOfPitStops", 0);
+            line.put("InPit", false);
+            ArrayNode sectors = line.putArray("Sectors");
+            for (int segments : segmentsPerSector) {
+                ObjectNode sector = sectors.addObject();
+                sector.put("Value", "");
+                sector.put("PreviousValue", "");
+                ArrayNode segmentArray = sector.putArray("Segments");
+                for (int s = 0; s < segments; s++) {
+                    segmentArray.addObject().put("Status", 0);
+                }
+            }
+            line.putObject("LastLapTime").put("Value", "");
+            line.putObject("BestLapTime").put("Value", "");
+
+            ObjectNode appLine = appLines.putObject(car.number);
+            appLine.put("RacingNumber", car.number);
+            appLine.put("Line", car.position);
+            appLine.put("GridPos", String.valueOf(car.position));
+            ObjectNode stint = appLine.putArray("Stints").addObject();
+            stint.put("Compound", car.compound);
+            stint.put("New", "true");
+            stint.put("TotalLaps", 0);
+            stint.put("StartLaps", 0);
+        }
+        emit("DriverList", driverList, timestamp, false);
+        emit("TimingData", timingData, timestamp, false);
+        emit("TimingAppData", timingAppData, timestamp, false);
+    }
+
+    /// Advances all cars by one tick and emits the resulting timing deltas.
+    private void simulateTick(List<Car> cars, double dtSeconds, double elapsedSeconds, int tick, Instant timestamp) {
+        ObjectNode timingData = objectMapper.createObjectNode();
+        ObjectNode timingLines = timingData.putObject("Lines");
+        ObjectNode timingAppData = objectMapper.createObjectNode();
+        ObjectNode appLines = timingAppData.putObject("Lines");
+
+        for (Car car : cars) {
+            // Tyre wear slows the car a little every lap of the stint
+            double lapTime = car.paceSeconds * (1 + 0.002 * car.tyreAge())
+                    * (1 + 0.01 * (random.nextDouble() - 0.5));
+            int previousSegment = car.currentSegment();
+            car.progress += dtSeconds / lapTime;
+            int currentSegment = car.currentSegment();
+
+            for (int segment = previousSegment + 1; segment <= currentSegment; segment++) {
+                passSegment(car, segment, elapsedSeconds, timingLines, appLines);
+            }
+        }
+
+        // Re-rank the field and publish position changes
+        List<Car> ranked = new ArrayList<>(cars);
+        ranked.sort(Comparator.comparingDouble(Car::distance).reversed());
+        Car leader = ranked.getFirst();
+        for (int i = 0; i < ranked.size(); i++) {
+            Car car = ranked.get(i);
+            int position = i + 1;
+            if (car.position != position) {
+                car.position = position;
+                ObjectNode line = timingLines.has(car.number)
+                        ? (ObjectNode) timingLines.get(car.number) : timingLines.putObject(car.number);
+                line.put("Position", String.valueOf(position));
+                line.put("Line", position);
+                appLine(appLines, car).put("Line", position);
+            }
+
+            // Each car gets a gap update once per second
+            if ((tick + i) % updateHz == 0) {
+                ObjectNode line = timingLines.has(car.number)
+                        ? (ObjectNode) timingLines.get(car.number) : timingLines.putObject(car.number);
+                if (car == leader) {
+                    line.put("GapToLeader", "LAP " + (car.lap + 1));
+                    line.putObject("IntervalToPositionAhead").put("Value", "LAP " + (car.lap + 1));
+                } else {
+                    Car ahead = ranked.get(i - 1);
+                    line.put("GapToLeader", formatGap((leader.distance() - car.distance()) * car.paceSeconds));
+                    line.putObject("IntervalToPositionAhead")
+                            .put("Value", formatGap((ahead.distance() - car.distance()) * car.paceSeconds));
+                }
+            }
+        }
+        // Keep the list ordered by position, so the race ends when the leader finishes
+        cars.sort(Comparator.comparingInt(car -> car.position));
+
+        if (!timingLines.isEmpty()) {
+            emit("TimingData", timingData, timestamp, true);
+        }
+        if (!appLines.isEmpty()) {
+            emit("TimingAppData", timingAppData, timestamp, true);
+        }
+    }
+
+    /// Applies the timing updates for a car entering a new segment (indexed from the start of the session).
+    private void passSegment(Car car, int segment, double elapsedSeconds, ObjectNode timingLines, ObjectNode appLines) {
+        if (segment <= 0) {
+            return;
+        }
+        ObjectNode line = timingLines.has(car.number)
+                ? (ObjectNode) timingLines.get(car.number) : timingLines.putObject(car.number);
+        ObjectNode sectors = line.has("Sectors") ? (ObjectNode) line.get("Sectors") : line.putObject("Sectors");
+
+        // The segment that was just completed
+        int completed = (segment - 1) % segmentsPerLap;
+        int sectorIndex = completed < 6 ? 0 : completed < 13 ? 1 : 2;
+        int segmentInSector = completed - (sectorIndex == 0 ? 0 : sectorIndex == 1 ? 6 : 13);
+        ObjectNode sector = sectors.has(String.valueOf(sectorIndex))
+                ? (ObjectNode) sectors.get(String.valueOf(sectorIndex)) : sectors.putObject(String.valueOf(sectorIndex));
+        ObjectNode segments = sector.has("Segments")
+                ? (ObjectNode) sector.get("Segments") : sector.putObject("Segments");
+        int roll = random.nextInt(100);
+        segments.putObject(String.valueOf(segmentInSector)).put("Status", roll < 3 ? 2051 : roll < 20 ? 2049 : 2048);
+
+        if (segmentInSector == segmentsPerSector[sectorIndex] - 1) {
+            // Sector completed
+            double sectorTime = elapsedSeconds - car.sectorStartSeconds;
+            car.sectorStartSeconds = elapsedSeconds;
+            sector.put("Value", "%.3f".formatted(sectorTime));
+        }
+
+        if (completed == segmentsPerLap - 1) {
+            completeLap(car, elapsedSeconds, line, sectors, appLines);
+        }
+    }
+
+    private void completeLap(Car car, double elapsedSeconds, ObjectNode line, ObjectNode sectors, ObjectNode appLines) {
+        car.lap++;
+        double lapTime = elapsedSeconds - car.lapStartSeconds;
+        car.lapStartSeconds = elapsedSeconds;
+        String formattedLapTime = formatLapTime(lapTime);
+        line.put("NumberOfLaps", car.lap);
+        line.putObject("LastLapTime").put("Value", formattedLapTime);
+        if (car.bestLapSeconds == 0 || lapTime < car.bestLapSeconds) {
+            car.bestLapSeconds = lapTime;
+            line.putObject("BestLapTime").put("Value", formattedLapTime);
+        }
+        // A new lap clears the segments of all sectors
+        for (int s = 0; s < segmentsPerSector.length; s++) {
+            ObjectNode sector = sectors.has(String.valueOf(s))
+                    ? (ObjectNode) sectors.get(String.valueOf(s)) : sectors.putObject(String.valueOf(s));
+            sector.put("PreviousValue", sector.path("Value").asString(""));
+            ObjectNode segments = sector.putObject("Segments");
+            for (int segment = 0; segment < segmentsPerSector[s]; segment++) {
+                segments.putObject(String.valueOf(segment)).put("Status", 0);
+            }
+        }
+
+        ObjectNode stints = appLine(appLines, car).putObject("Stints");
+        ObjectNode stint = stints.putObject(String.valueOf(car.stint));
+        stint.put("LapTime", formattedLapTime);
+        stint.put("LapNumber", car.lap);
+        stint.put("TotalLaps", car.tyreAge());
+
+        if (car.lap < laps && (car.lap - car.stintStartLap) >= pitEveryLaps + (car.position % 3)) {
+            // Pit stop: start a new stint on the next compound, on a used set at every second stop
+            car.stint++;
+            car.stintStartLap = car.lap;
+            car.stintStartTyreAge = car.stint % 2 == 0 ? usedTyreLaps : 0;
+            car.compound = compounds[car.stint % compounds.length];
+            car.pitStops++;
+            line.put("NumberOfPitStops", car.pitStops);
+            ObjectNode newStint = stints.putObject(String.valueOf(car.stint));
+            newStint.put("Compound", car.compound);
+            newStint.put("New", String.valueOf(car.stintStartTyreAge == 0));
+            newStint.put("TotalLaps", car.tyreAge());
+            newStint.put("StartLaps", car.stintStartTyreAge);
+        }
+    }
+
+    /// Emits a `CarData.z` and a `Position.z` entry for all cars.
+    private void emitTelemetry(List<Car> cars, Instant timestamp, double elapsedSeconds) {
+        ObjectNode carData = objectMapper.createObjectNode();
+        ObjectNode carEntry = carData.putArray("Entries").addObject();
+        carEntry.put("Utc", timestamp.toString());
+        ObjectNode carsNode = carEntry.putObject("Cars");
+
+        ObjectNode position = objectMapper.createObjectNode();
+        ObjectNode positionEntry = position.putArray("Position").addObject();
+        positionEntry.put("Timestamp", timestamp.toString());
+        ObjectNode entries = positionEntry.putObject("Entries");
+
+        for (Car car : cars) {
+            double lapFraction = car.progress - Math.floor(car.progress);
+            double angle = 2 * Math.PI * lapFraction;
+            // Speed varies over the lap between slow corners and long straights
+            double speedFactor = 0.5 + 0.5 * Math.abs(Math.sin(3 * angle));
+            int speed = (int) (90 + 240 * speedFactor);
+            ObjectNode channels = carsNode.putObject(car.number).putObject("Channels");
+            channels.put("0", (int) (8000 + 4000 * speedFactor));
+            channels.put("2", speed);
+            channels.put("3", Math.clamp(speed / 40, 1, 8));
+            channels.put("4", speedFactor > 0.6 ? 100 : (int) (speedFactor * 100));
+            channels.put("5", speedFactor < 0.3 ? 100 : 0);
+            channels.put("45", speedFactor > 0.9 ? 12 : 8);
+
+            ObjectNode entry = entries.putObject(car.number);
+            entry.put("Status", "OnTrack");
+            entry.put("X", (int) (6000 * Math.cos(angle)));
+            entry.put("Y", (int) (3000 * Math.sin(angle)));
+            entry.put("Z", (int) (6100 + 50 * Math.sin(2 * angle + elapsedSeconds / 1000)));
+        }
+        emit("CarData.z", carData, timestamp, true);
+        emit("Position.z", position, timestamp, true);
+    }
+
+    private void emit(String category, ObjectNode message, Instant timestamp, boolean isStreaming) {
+        consumer.accept(new LiveTimingMessage(category, message.toString(), timestamp, isStreaming));
+        throughputMonitor.record(1);
+    }
+
+    private static ObjectNode appLine(ObjectNode appLines, Car car) {
+        return appLines.has(car.number) ? (ObjectNode) appLines.get(car.number) : appLines.putObject(car.number);
+    }
+
+    private static String formatGap(double seconds) {
+        return "+%.3f".formatted(Math.max(seconds, 0));
+    }
+
+    private static String formatLapTime(double seconds) {
+        int minutes = (int) (seconds / 60);
+        return "%d:%06.3f".formatted(minutes, seconds - minutes * 60);
+    }
+
+    /// The simulation state of a single car.
+    private static final class Car {
+        final String number;
+        final double paceSeconds;
+        int position;
+        int lap = 0;
+        double progress = 0;
+        double lapStartSeconds = 0;
+        double sectorStartSeconds = 0;
+        double bestLapSeconds = 0;
+        int stint = 0;
+        int stintStartLap = 0;
+        int stintStartTyreAge = 0;
+        int pitStops = 0;
+        String compound;
+
+        Car(String number, double paceSeconds, int position) {
+            this.number = number;
+            this.paceSeconds = paceSeconds;
+            this.position = position;
+        }
+
+        /// The tyre age in laps: the age at the start of the stint plus the laps driven in the stint.
+        int tyreAge() {
+            return stintStartTyreAge + lap - stintStartLap;
+        }
+
+        double distance() {
+            return progress;
+        }
+
+        /// The number of segments passed since the start of the session.
+        int currentSegment() {
+            return (int) Math.floor(progress * segmentsPerLap);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.kinnovatio.f1.livetiming.source;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/// Tracks the number of records a data feed emits per second.
+///
+/// The rate is logged every second while the monitor runs. When it is stopped, a summary of the whole run
+/// (total records, elapsed time, average, peak and lowest per-second rate) is logged, so replays at different
+/// speed factors can be compared directly.
+public class ThroughputMonitor {
+    private static final Logger LOG = LoggerFactory.getLogger(ThroughputMonitor.class);
+
+    private final String feedName;
+    private final AtomicLong currentSecondCount = new AtomicLong(0);
+    private final AtomicLong totalCount = new AtomicLong(0);
+    private final List<Long> perSecondCounts = new ArrayList<>();
+
+    private ScheduledExecutorService executorService = null;
+    private long startNanos;
+
+    /// Creates a throughput monitor.
+    ///
+    /// @param feedName The name of the feed, used in the log output.
+    public ThroughputMonitor(String feedName) {
+        this.feedName = feedName;
+    }
+
+    /// Starts the per-second rate reporting.
+    public synchronized void start() {
+        if (executorService != null) {
+            return;
+        }
+        startNanos = System.nanoTime();
+        executorService = Executors.newSingleThreadScheduledExecutor();
+        executorService.scheduleAtFixedRate(this::rollSecond, 1, 1, TimeUnit.SECONDS);
+    }
+
+    /// Records that a number of records have been emitted.
+    ///
+    /// @param count The number of records.
+    public void record(int count) {
+        currentSecondCount.addAndGet(count);
+        totalCount.addAndGet(count);
+    }
+
+    /// Stops the rate reporting and logs the throughput summary for the run. Calling it more than once has
+    /// no effect.
+    public synchronized void stop() {
+        if (executorService == null) {
+            return;
+        }
+        executorService.shutdownNow();
+        executorService = null;
+
+        // Include the partial last second, so short runs still report their records
+        long remainder = currentSecondCount.getAndSet(0);
+        if (remainder > 0) {
+            perSecondCounts.add(remainder);
+        }
+        logSummary(Duration.ofNanos(System.nanoTime() - startNanos));
+    }
+
+    private synchronized void rollSecond() {
+        long count = currentSecondCount.getAndSet(0);
+        perSecondCounts.add(count);
+        LOG.info("{} message rate per second: {}", feedName, count);
+    }
+
+    private void logSummary(Duration elapsed) {
+        LongSummaryStatistics stats = perSecondCounts.stream().mapToLong(Long::longValue).summaryStatistics();
+        double elapsedSeconds = Math.max(elapsed.toMillis(), 1) / 1000d;
+        LOG.info("{} throughput summary: {} records in {} s. Average: {} records/s. Peak: {} records/s. "
+                        + "Lowest: {} records/s over {} sampled seconds.",
+                feedName,
+                totalCount.get(),
+                "%.1f".formatted(elapsedSeconds),
+                "%.1f".formatted(totalCount.get() / elapsedSeconds),
+                stats.getCount() == 0 ? 0 : stats.getMax(),
+                stats.getCount() == 0 ? 0 : stats.getMin(),
+                stats.getCount());
+    }
+}